@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Common utilities of the JMH microbenchmarks, i.e., the generation of 
+ * reproducible random inputs.
+ */
+public class BenchUtils 
+{
+	//fixed seed for reproducible inputs across runs and releases
+	public static final long SEED = 7;
+	
+	/**
+	 * Creates a random matrix with uniform values in [0,1) and the given sparsity,
+	 * in the block format (dense or sparse) that corresponds to its sparsity.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock randMatrix(int rows, int cols, double sparsity, long seed) 
+		throws DMLRuntimeException 
+	{
+		MatrixBlock ret = MatrixBlock.randOperations(rows, cols, sparsity, 0, 1, "uniform", seed);
+		ret.examSparsity();
+		return ret;
+	}
+	
+	/**
+	 * Creates a random matrix with integer values in [1,max], which is used as 
+	 * input for value-dependent kernels such as rexpand or ctable.
+	 * 
+	 * @param rows
+	 * @param cols
+	 * @param max
+	 * @param seed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock randIntMatrix(int rows, int cols, int max, long seed) 
+		throws DMLRuntimeException 
+	{
+		MatrixBlock ret = MatrixBlock.randOperations(rows, cols, 1.0, 1, max+1, "uniform", seed);
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				ret.quickSetValue(i, j, Math.floor(ret.quickGetValue(i, j)));
+		return ret;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.transform.encode.Encoder;
+import org.apache.sysml.runtime.transform.encode.EncoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of frame transformations, i.e., transformencode (build 
+ * and apply of recode maps) and transformapply with existing meta data, 
+ * over string frames of the given number of distinct values per column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class FrameTransformBenchmark 
+{
+	@Param({"100000"})
+	public int rows;
+	
+	@Param({"10"})
+	public int cols;
+	
+	@Param({"10", "10000"})
+	public int distinct;
+	
+	private FrameBlock _data;
+	private FrameBlock _meta;
+	private String _spec;
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		//create string frame of random categories
+		_data = new FrameBlock(Collections.nCopies(cols, ValueType.STRING));
+		Random rand = new Random(BenchUtils.SEED);
+		String[] row = new String[cols];
+		for( int i=0; i<rows; i++ ) {
+			for( int j=0; j<cols; j++ )
+				row[j] = "c" + j + "_" + rand.nextInt(distinct);
+			_data.appendRow(row);
+		}
+		
+		//create recode spec of all columns
+		StringBuilder sb = new StringBuilder("{\"ids\": true, \"recode\": [");
+		for( int j=1; j<=cols; j++ )
+			sb.append((j>1) ? ", " : "").append(j);
+		_spec = sb.append("]}").toString();
+		
+		//create meta data for transformapply
+		Encoder encoder = EncoderFactory.createEncoder(_spec, cols, null);
+		encoder.build(_data);
+		_meta = encoder.getMetaData(new FrameBlock(cols, ValueType.STRING));
+	}
+	
+	@Benchmark
+	public MatrixBlock encode() throws DMLRuntimeException {
+		Encoder encoder = EncoderFactory.createEncoder(_spec, cols, null);
+		return encoder.encode(_data, new MatrixBlock(rows, cols, false));
+	}
+	
+	@Benchmark
+	public MatrixBlock apply() throws DMLRuntimeException {
+		Encoder encoder = EncoderFactory.createEncoder(_spec, cols, _meta);
+		return encoder.apply(_data, new MatrixBlock(rows, cols, false));
+	}
+}
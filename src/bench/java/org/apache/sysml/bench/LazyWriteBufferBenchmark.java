@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the buffer pool's write buffer, i.e., the write, read, 
+ * and delete of evicted blocks for working sets that are smaller or larger 
+ * than the buffer size (given as fraction of the buffer size), where the 
+ * latter causes evictions and reads from local disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class LazyWriteBufferBenchmark 
+{
+	@Param({"1000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1"})
+	public double sparsity;
+	
+	@Param({"0.5", "2.0"})
+	public double workingSet;
+	
+	private MatrixBlock _block;
+	private String[] _fnames;
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException, IOException {
+		CacheableData.initCaching();
+		_block = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+		int numBlocks = (int) Math.ceil(workingSet * LazyWriteBuffer.getWriteBufferSize() 
+			/ _block.getExactSerializedSize());
+		_fnames = new String[Math.max(numBlocks, 1)];
+		for( int i=0; i<_fnames.length; i++ )
+			_fnames[i] = CacheableData.cacheEvictionLocalFilePath 
+				+ CacheableData.cacheEvictionLocalFilePrefix + "bench" + i 
+				+ CacheableData.CACHING_EVICTION_FILEEXTENSION;
+	}
+	
+	@TearDown(Level.Trial)
+	public void teardown() {
+		LazyWriteBuffer.cleanup();
+		CacheableData.cleanupCacheDir(true);
+		LocalFileUtils.cleanupWorkingDirectory();
+	}
+	
+	@Benchmark
+	public long writeReadDelete() throws IOException {
+		for( String fname : _fnames )
+			LazyWriteBuffer.writeBlock(fname, _block);
+		long nnz = 0;
+		for( String fname : _fnames ) {
+			CacheBlock cb = LazyWriteBuffer.readBlock(fname, true);
+			nnz += ((MatrixBlock)cb).getNonZeros();
+		}
+		for( String fname : _fnames )
+			LazyWriteBuffer.deleteBlock(fname);
+		return nnz;
+	}
+}
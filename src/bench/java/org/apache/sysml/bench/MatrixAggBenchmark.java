@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the unary aggregate kernels in LibMatrixAgg, i.e., 
+ * full, row, and column aggregates of sum (with Kahan correction) and max.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MatrixAggBenchmark 
+{
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X;
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		_X = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+	}
+	
+	@Benchmark
+	public MatrixBlock sum() throws DMLRuntimeException {
+		return aggregate("uak+");
+	}
+	
+	@Benchmark
+	public MatrixBlock rowSums() throws DMLRuntimeException {
+		return aggregate("uark+");
+	}
+	
+	@Benchmark
+	public MatrixBlock colSums() throws DMLRuntimeException {
+		return aggregate("uack+");
+	}
+	
+	@Benchmark
+	public MatrixBlock max() throws DMLRuntimeException {
+		return aggregate("uamax");
+	}
+	
+	@Benchmark
+	public MatrixBlock rowMaxs() throws DMLRuntimeException {
+		return aggregate("uarmax");
+	}
+	
+	private MatrixBlock aggregate(String opcode) throws DMLRuntimeException {
+		AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+		op = new AggregateUnaryOperator(op.aggOp, op.indexFn, threads);
+		return (MatrixBlock) _X.aggregateUnaryOperations(op, 
+			new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the binary cell-wise kernels in LibMatrixBincell, i.e., 
+ * matrix-matrix, matrix-vector, and matrix-scalar operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MatrixBincellBenchmark 
+{
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X; //rows x cols
+	private MatrixBlock _Y; //rows x cols
+	private MatrixBlock _v; //rows x 1 (dense)
+	private MatrixBlock _u; //1 x cols (dense)
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		_X = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+		_Y = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED+1);
+		_v = BenchUtils.randMatrix(rows, 1, 1.0, BenchUtils.SEED+2);
+		_u = BenchUtils.randMatrix(1, cols, 1.0, BenchUtils.SEED+3);
+	}
+	
+	@Benchmark
+	public MatrixBlock plusMatrix() throws DMLRuntimeException {
+		return binary("+", _X, _Y);
+	}
+	
+	@Benchmark
+	public MatrixBlock multMatrix() throws DMLRuntimeException {
+		return binary("*", _X, _Y);
+	}
+	
+	@Benchmark
+	public MatrixBlock multColVector() throws DMLRuntimeException {
+		return binary("*", _X, _v);
+	}
+	
+	@Benchmark
+	public MatrixBlock minusRowVector() throws DMLRuntimeException {
+		return binary("-", _X, _u);
+	}
+	
+	@Benchmark
+	public MatrixBlock multScalar() throws DMLRuntimeException {
+		ScalarOperator op = new RightScalarOperator(
+			InstructionUtils.parseBinaryOperator("*").fn, 7, threads);
+		return (MatrixBlock) _X.scalarOperations(op, new MatrixBlock());
+	}
+	
+	private MatrixBlock binary(String opcode, MatrixBlock m1, MatrixBlock m2) 
+		throws DMLRuntimeException 
+	{
+		BinaryOperator op = InstructionUtils.parseBinaryOperator(opcode, threads);
+		return (MatrixBlock) m1.binaryOperations(op, m2, new MatrixBlock());
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixDNN;
+import org.apache.sysml.runtime.matrix.data.LibMatrixDNN.ConvolutionParameters;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the convolution and pooling kernels in LibMatrixDNN 
+ * for a 3x3 filter (stride 1, padding 1) and 2x2 max pooling (stride 2).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MatrixDNNBenchmark 
+{
+	//number of images
+	@Param({"64"})
+	public int N;
+	
+	//number of channels
+	@Param({"3", "32"})
+	public int C;
+	
+	//image height and width
+	@Param({"28", "64"})
+	public int imgSize;
+	
+	//number of filters
+	@Param({"32"})
+	public int K;
+	
+	@Param({"1.0", "0.1"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private ConvolutionParameters _convParams;
+	private ConvolutionParameters _poolParams;
+	private MatrixBlock _input;  //N x CHW
+	private MatrixBlock _filter; //K x CRS
+	private MatrixBlock _dout;   //N x KPQ
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		_convParams = new ConvolutionParameters(N, C, imgSize, imgSize, K, 3, 3, 1, 1, 1, 1, threads);
+		_poolParams = new ConvolutionParameters(N, C, imgSize, imgSize, -1, 2, 2, 2, 2, 0, 0, threads);
+		_input = BenchUtils.randMatrix(N, C*imgSize*imgSize, sparsity, BenchUtils.SEED);
+		_filter = BenchUtils.randMatrix(K, C*3*3, 1.0, BenchUtils.SEED+1);
+		_dout = BenchUtils.randMatrix(N, K*_convParams.P*_convParams.Q, 1.0, BenchUtils.SEED+2);
+	}
+	
+	@Benchmark
+	public MatrixBlock conv2d() throws DMLRuntimeException {
+		MatrixBlock ret = createDenseOutput(N, K*_convParams.P*_convParams.Q);
+		LibMatrixDNN.conv2d(_input, _filter, ret, _convParams);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock conv2dBackwardFilter() throws DMLRuntimeException {
+		MatrixBlock ret = createDenseOutput(K, C*3*3);
+		LibMatrixDNN.conv2d_backward_filter(_input, _dout, ret, _convParams);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock conv2dBackwardData() throws DMLRuntimeException {
+		MatrixBlock ret = createDenseOutput(N, C*imgSize*imgSize);
+		LibMatrixDNN.conv2d_backward_data(_filter, _dout, ret, _convParams);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock maxpooling() throws DMLRuntimeException {
+		MatrixBlock ret = createDenseOutput(N, C*_poolParams.P*_poolParams.Q);
+		LibMatrixDNN.maxpooling(_input, ret, _poolParams);
+		return ret;
+	}
+	
+	private static MatrixBlock createDenseOutput(int rows, int cols) {
+		MatrixBlock ret = new MatrixBlock(rows, cols, false, (long)rows*cols);
+		ret.allocateDenseBlock();
+		return ret;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.MatrixReaderFactory;
+import org.apache.sysml.runtime.io.MatrixWriterFactory;
+import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the local matrix readers and writers for binary block, 
+ * text cell, matrix market, and csv formats, either sequential or parallel
+ * (with the number of threads given by the local parallelism).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MatrixIOBenchmark 
+{
+	private static final int BLOCKSIZE = 1000;
+	
+	@Param({"binaryblock", "textcell", "matrixmarket", "csv"})
+	public String format;
+	
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.01"})
+	public double sparsity;
+	
+	@Param({"false", "true"})
+	public boolean parallel;
+	
+	private File _dir;
+	private MatrixBlock _X;
+	private String _fnameIn;
+	private String _fnameOut;
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException, IOException {
+		//configure sequential or parallel readers and writers
+		CompilerConfig cconf = new CompilerConfig();
+		cconf.set(ConfigType.PARALLEL_CP_READ_TEXTFORMATS, parallel);
+		cconf.set(ConfigType.PARALLEL_CP_WRITE_TEXTFORMATS, parallel);
+		cconf.set(ConfigType.PARALLEL_CP_READ_BINARYFORMATS, parallel);
+		cconf.set(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS, parallel);
+		ConfigurationManager.setGlobalConfig(cconf);
+		
+		_dir = new File(System.getProperty("java.io.tmpdir"), "sysml-bench-"+UUID.randomUUID());
+		_dir.mkdirs();
+		_fnameIn = new File(_dir, "X").getPath();
+		_fnameOut = new File(_dir, "Y").getPath();
+		_X = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+		write(_fnameIn);
+	}
+	
+	@TearDown(Level.Trial)
+	public void teardown() throws IOException {
+		FileUtils.deleteDirectory(_dir);
+	}
+	
+	@Benchmark
+	public MatrixBlock read() throws DMLRuntimeException, IOException {
+		return MatrixReaderFactory.createMatrixReader(InputInfo.stringToInputInfo(format))
+			.readMatrixFromHDFS(_fnameIn, rows, cols, BLOCKSIZE, BLOCKSIZE, _X.getNonZeros());
+	}
+	
+	@Benchmark
+	public void write() throws DMLRuntimeException, IOException {
+		MapReduceTool.deleteFileIfExistOnHDFS(_fnameOut);
+		write(_fnameOut);
+	}
+	
+	private void write(String fname) throws DMLRuntimeException, IOException {
+		OutputInfo oinfo = OutputInfo.stringToOutputInfo(format);
+		MatrixWriterFactory.createMatrixWriter(oinfo, 1, 
+				(oinfo == OutputInfo.CSVOutputInfo) ? new CSVFileFormatProperties() : null)
+			.writeMatrixToHDFS(_X, fname, rows, cols, BLOCKSIZE, BLOCKSIZE, _X.getNonZeros());
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the matrix multiplication kernels in LibMatrixMult, 
+ * i.e., matrix-matrix, matrix-vector, transpose-self, and mmchain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MatrixMultBenchmark 
+{
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X; //rows x cols
+	private MatrixBlock _W; //cols x 100 (dense)
+	private MatrixBlock _v; //cols x 1 (dense)
+	private MatrixBlock _u; //1 x rows (dense)
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		_X = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+		_W = BenchUtils.randMatrix(cols, 100, 1.0, BenchUtils.SEED+1);
+		_v = BenchUtils.randMatrix(cols, 1, 1.0, BenchUtils.SEED+2);
+		_u = BenchUtils.randMatrix(1, rows, 1.0, BenchUtils.SEED+3);
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixMatrix() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(rows, 100, false);
+		LibMatrixMult.matrixMult(_X, _W, ret, threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixVector() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(rows, 1, false);
+		LibMatrixMult.matrixMult(_X, _v, ret, threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock vectorMatrix() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(1, cols, false);
+		LibMatrixMult.matrixMult(_u, _X, ret, threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock transposeSelf() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(cols, cols, false);
+		LibMatrixMult.matrixMultTransposeSelf(_X, ret, MMTSJType.LEFT.isLeft(), threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock mmchain() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(cols, 1, false);
+		LibMatrixMult.matrixMultChain(_X, _v, null, ret, ChainType.XtXv, threads);
+		return ret;
+	}
+}
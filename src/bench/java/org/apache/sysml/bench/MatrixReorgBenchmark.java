@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the reorganization kernels in LibMatrixReorg, i.e., 
+ * transpose, reshape, sort, removeEmpty, and rexpand (table with seq).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MatrixReorgBenchmark 
+{
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X; //rows x cols
+	private MatrixBlock _c; //rows x 1 (integers in [1,cols])
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		_X = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+		_c = BenchUtils.randIntMatrix(rows, 1, cols, BenchUtils.SEED+1);
+	}
+	
+	@Benchmark
+	public MatrixBlock transpose() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(cols, rows, _X.isInSparseFormat());
+		return LibMatrixReorg.transpose(_X, ret, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock reshape() throws DMLRuntimeException {
+		return LibMatrixReorg.reshape(_X, new MatrixBlock(), rows/2, cols*2, true);
+	}
+	
+	@Benchmark
+	public MatrixBlock sort() throws DMLRuntimeException {
+		return LibMatrixReorg.sort(_X, new MatrixBlock(rows, cols, _X.isInSparseFormat()), 1, false, false);
+	}
+	
+	@Benchmark
+	public MatrixBlock removeEmptyRows() throws DMLRuntimeException {
+		return LibMatrixReorg.rmempty(_X, new MatrixBlock(), true);
+	}
+	
+	@Benchmark
+	public MatrixBlock rexpandRows() throws DMLRuntimeException {
+		return LibMatrixReorg.rexpand(_c, new MatrixBlock(), cols, false, false, true);
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks of the sparse block formats MCSR, CSR, and COO for
+ * row scans, random cell access, and construction. Since these accessors
+ * are single-threaded, concurrent read access is benchmarked via the 
+ * JMH threads option (e.g., -t 8).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SparseBlockBenchmark 
+{
+	private static final int NUM_LOOKUPS = 100000;
+	
+	@Param({"MCSR", "CSR", "COO"})
+	public SparseBlock.Type type;
+	
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"0.1", "0.01", "0.001"})
+	public double sparsity;
+	
+	private SparseBlock _mcsr; //input for construction
+	private SparseBlock _sblock;
+	private int[] _rix;
+	private int[] _cix;
+	
+	@Setup(Level.Trial)
+	public void setup() throws DMLRuntimeException {
+		MatrixBlock mb = BenchUtils.randMatrix(rows, cols, sparsity, BenchUtils.SEED);
+		if( !mb.isInSparseFormat() )
+			throw new DMLRuntimeException("Sparsity too large for sparse blocks: "+sparsity);
+		_mcsr = mb.getSparseBlock();
+		_sblock = SparseBlockFactory.copySparseBlock(type, _mcsr, true);
+		
+		//random cell positions for lookups
+		Random rand = new Random(BenchUtils.SEED);
+		_rix = new int[NUM_LOOKUPS];
+		_cix = new int[NUM_LOOKUPS];
+		for( int i=0; i<NUM_LOOKUPS; i++ ) {
+			_rix[i] = rand.nextInt(rows);
+			_cix[i] = rand.nextInt(cols);
+		}
+	}
+	
+	@Benchmark
+	public double scanRows() {
+		double sum = 0;
+		for( int i=0; i<rows; i++ ) {
+			if( _sblock.isEmpty(i) )
+				continue;
+			int apos = _sblock.pos(i);
+			int alen = _sblock.size(i);
+			int[] aix = _sblock.indexes(i);
+			double[] avals = _sblock.values(i);
+			for( int j=apos; j<apos+alen; j++ )
+				sum += aix[j] * avals[j];
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public double getRandom() {
+		double sum = 0;
+		for( int i=0; i<NUM_LOOKUPS; i++ )
+			sum += _sblock.get(_rix[i], _cix[i]);
+		return sum;
+	}
+	
+	@Benchmark
+	public double getRowSearch() {
+		//binary search of the first entry >= column (e.g., for range indexing)
+		double sum = 0;
+		for( int i=0; i<NUM_LOOKUPS; i++ )
+			if( !_sblock.isEmpty(_rix[i]) )
+				sum += _sblock.posFIndexGTE(_rix[i], _cix[i]);
+		return sum;
+	}
+	
+	@Benchmark
+	public SparseBlock construct() {
+		return SparseBlockFactory.copySparseBlock(type, _mcsr, true);
+	}
+	
+	@Benchmark
+	public SparseBlock appendRowMajor() {
+		//row-major append as used by most sparse-output kernels
+		SparseBlock ret = SparseBlockFactory.createSparseBlock(type, rows);
+		for( int i=0; i<rows; i++ ) {
+			if( _mcsr.isEmpty(i) )
+				continue;
+			int apos = _mcsr.pos(i);
+			int alen = _mcsr.size(i);
+			int[] aix = _mcsr.indexes(i);
+			double[] avals = _mcsr.values(i);
+			for( int j=apos; j<apos+alen; j++ )
+				ret.append(i, aix[j], avals[j]);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.VisitStatus;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.rewrite.HopRewriteRule;
+import org.apache.sysml.hops.rewrite.ProgramRewriteStatus;
+import org.apache.sysml.hops.rewrite.ProgramRewriter;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.parser.DMLProgram;
+import org.apache.sysml.parser.ImportStatement;
+import org.apache.sysml.parser.Statement;
+import org.apache.sysml.parser.StatementBlock;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.Program;
+import org.apache.sysml.runtime.util.MapReduceTool;
+
+/**
+ * In-memory cache of compiled programs across script invocations in the same
+ * JVM process (DMLScript, MLContext, JMLC), which allows repeated invocations
+ * of the same script with the same arguments to skip parsing, validation, IPA,
+ * rewrites, and lop/instruction generation. The cache is enabled via the
+ * configuration property 'compile.cache'.
+ *
+ * The cache key includes the script, all arguments, registered inputs/outputs,
+ * the dml and compiler configurations, as well as the runtime platform and
+ * memory budget. Since the compiled program also depends on sourced scripts
+ * and the meta data of persistent reads, each cached program keeps the file 
+ * status (modification time and size) of sourced scripts, read inputs and 
+ * meta data files, which are validated on every cache probe.
+ *
+ * Cached programs are handed out exclusively (i.e., removed on acquire and
+ * returned on release), because program blocks are modified during execution
+ * (e.g., dynamic recompilation, parfor optimization). Concurrent invocations
+ * of the same script therefore compile their own programs. DMLScript and
+ * MLContext release programs after execution, whereas JMLC releases programs
+ * right after preparation because JMLC programs are immutable and shared 
+ * (see {@link org.apache.sysml.api.jmlc.PreparedScript}).
+ *
+ * The scope of this cache is a single JVM process. Compiled programs are not 
+ * persisted across process launches because the hop dags, which are required 
+ * for dynamic recompilation, are not serializable.
+ *
+ */
+public class CompiledProgramCache
+{
+	private static final Log LOG = LogFactory.getLog(CompiledProgramCache.class.getName());
+
+	//max number of cached programs (LRU eviction)
+	private static final int CACHE_SIZE = 32;
+
+	//number of cache hits and misses (for tests and debugging)
+	private static final AtomicLong _hits = new AtomicLong(0);
+	private static final AtomicLong _misses = new AtomicLong(0);
+
+	private static final LinkedHashMap<String, CompiledProgram> _cache =
+		new LinkedHashMap<String, CompiledProgram>(CACHE_SIZE, 0.75f, true) {
+			private static final long serialVersionUID = 2951338725361924154L;
+			@Override
+			protected boolean removeEldestEntry(Entry<String, CompiledProgram> eldest) {
+				return size() > CACHE_SIZE;
+			}
+		};
+
+	/**
+	 * Indicates if the compiled program cache is enabled in the given configuration.
+	 *
+	 * @param conf
+	 * @return
+	 */
+	public static boolean isEnabled( DMLConfig conf ) {
+		return conf != null && conf.getBooleanValue(DMLConfig.COMPILE_CACHE);
+	}
+
+	/**
+	 * Constructs the key of a compiled program, which includes all parameters
+	 * that influence the compilation (except meta data of persistent reads).
+	 *
+	 * @param script
+	 * @param args
+	 * @param inputs
+	 * @param outputs
+	 * @param parsePyDML
+	 * @param dmlconf
+	 * @param cconf
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static String constructKey( String script, Map<String, String> args, String[] inputs, String[] outputs,
+			boolean parsePyDML, DMLConfig dmlconf, CompilerConfig cconf )
+		throws DMLRuntimeException
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(parsePyDML);
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(DMLScript.rtplatform);
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(OptimizerUtils.getLocalMemBudget());
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(Arrays.toString(inputs));
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(Arrays.toString(outputs));
+		sb.append(Lop.OPERAND_DELIMITOR);
+		if( args != null )
+			sb.append(new TreeMap<String, String>(args).toString());
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(cconf);
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(dmlconf.serializeDMLConfig());
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(script);
+		return sb.toString();
+	}
+
+	/**
+	 * Creates a cacheable compiled program, incl the file status of all
+	 * sourced scripts and persistent reads of the given dml program.
+	 *
+	 * @param prog
+	 * @param rtprog
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static CompiledProgram createCompiledProgram( DMLProgram prog, Program rtprog )
+		throws DMLRuntimeException
+	{
+		//collect file names of all sourced scripts (incl nested imports)
+		ArrayList<String> fnames = new ArrayList<String>();
+		for( DMLProgram nsprog : prog.getNamespaces().values() )
+			for( StatementBlock sb : nsprog.getStatementBlocks() )
+				for( Statement stmt : sb.getStatements() )
+					if( stmt instanceof ImportStatement )
+						fnames.add(((ImportStatement)stmt).getCompletePath());
+		
+		//collect file names of all persistent reads (incl functions, predicates)
+		PersistentReadCollector collector = new PersistentReadCollector();
+		try {
+			new ProgramRewriter(collector).rewriteProgramHopDAGs(prog);
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		fnames.addAll(collector.getFileNames());
+
+		return new CompiledProgram(prog, rtprog, getFileStatus(fnames));
+	}
+
+	/**
+	 * Acquires the cached program for the given key (if it exists and its
+	 * persistent reads are unchanged), which removes it from the cache until
+	 * it is released after execution.
+	 *
+	 * @param key
+	 * @return
+	 */
+	public static CompiledProgram acquire( String key )
+	{
+		CompiledProgram ret = null;
+		synchronized( _cache ) {
+			ret = _cache.remove(key);
+		}
+
+		//validate sourced scripts and meta data of persistent reads
+		if( ret != null && !ret._fstats.equals(getFileStatus(ret._fstats.keySet())) ) {
+			LOG.debug("Invalidated compiled program due to modified inputs.");
+			ret = null;
+		}
+
+		if( ret != null )
+			_hits.incrementAndGet();
+		else
+			_misses.incrementAndGet();
+		if( LOG.isDebugEnabled() )
+			LOG.debug("Compiled program cache "+((ret!=null)?"hit.":"miss."));
+
+		return ret;
+	}
+
+	/**
+	 * Releases (i.e., puts) the given compiled program into the cache.
+	 *
+	 * @param key
+	 * @param prog
+	 */
+	public static void release( String key, CompiledProgram prog )
+	{
+		if( key == null || prog == null )
+			return;
+
+		synchronized( _cache ) {
+			_cache.put(key, prog);
+		}
+	}
+
+	/**
+	 * Removes all cached programs.
+	 */
+	public static void clear() {
+		synchronized( _cache ) {
+			_cache.clear();
+		}
+		_hits.set(0);
+		_misses.set(0);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public static int size() {
+		synchronized( _cache ) {
+			return _cache.size();
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public static long getNumHits() {
+		return _hits.get();
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public static long getNumMisses() {
+		return _misses.get();
+	}
+
+	/**
+	 * Gets the file status (modification time and size, or -1 if not
+	 * existing) of the given files or directories.
+	 *
+	 * @param fnames
+	 * @return
+	 */
+	private static HashMap<String, String> getFileStatus( Iterable<String> fnames )
+	{
+		HashMap<String, String> ret = new HashMap<String, String>();
+		for( String fname : fnames ) {
+			long mtime = MapReduceTool.getModificationTimeOnHDFS(fname);
+			long size = -1;
+			try {
+				if( mtime >= 0 )
+					size = MapReduceTool.getFilesizeOnHDFS(new Path(fname));
+			}
+			catch(IOException ex) {
+				LOG.error("Failed to obtain size of "+fname, ex);
+			}
+			ret.put(fname, mtime + "/" + size);
+		}
+		return ret;
+	}
+
+	/**
+	 * Compiled dml program and runtime program, incl the file status of
+	 * sourced scripts, read inputs and meta data files at compile time.
+	 */
+	public static class CompiledProgram
+	{
+		private final DMLProgram _prog;
+		private final Program _rtprog;
+		private final HashMap<String, String> _fstats;
+
+		private CompiledProgram( DMLProgram prog, Program rtprog, HashMap<String, String> fstats ) {
+			_prog = prog;
+			_rtprog = rtprog;
+			_fstats = fstats;
+		}
+
+		public DMLProgram getDMLProgram() {
+			return _prog;
+		}
+
+		public Program getRuntimeProgram() {
+			return _rtprog;
+		}
+	}
+
+	/**
+	 * Hop dag traversal (via the program rewriter) that collects the file names
+	 * of all persistent reads and their meta data files without modifications.
+	 */
+	private static class PersistentReadCollector extends HopRewriteRule
+	{
+		private final ArrayList<String> _fnames = new ArrayList<String>();
+
+		public ArrayList<String> getFileNames() {
+			return _fnames;
+		}
+
+		@Override
+		public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state)
+			throws HopsException
+		{
+			if( roots != null )
+				for( Hop h : roots )
+					rCollectPersistentReads(h);
+			return roots;
+		}
+
+		@Override
+		public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state)
+			throws HopsException
+		{
+			if( root != null )
+				rCollectPersistentReads(root);
+			return root;
+		}
+
+		private void rCollectPersistentReads(Hop hop)
+		{
+			if( hop.getVisited() == VisitStatus.DONE )
+				return;
+
+			for( Hop c : hop.getInput() )
+				rCollectPersistentReads(c);
+
+			if( hop instanceof DataOp
+				&& ((DataOp)hop).getDataOpType() == DataOpTypes.PERSISTENTREAD
+				&& ((DataOp)hop).getFileName() != null )
+			{
+				String fname = ((DataOp)hop).getFileName();
+				_fnames.add(fname);
+				_fnames.add(fname + ".mtd");
+			}
+
+			hop.setVisited(VisitStatus.DONE);
+		}
+	}
+}
@@ -45,6 +45,7 @@ import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.util.GenericOptionsParser;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
+import org.apache.sysml.api.CompiledProgramCache.CompiledProgram;
 import org.apache.sysml.conf.CompilerConfig;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.conf.DMLConfig;
@@ -581,55 +582,74 @@ public class DMLScript
 			DMLAppMasterUtils.setupConfigRemoteMaxMemory(dmlconf); 
 		}
 		
-		//Step 3: parse dml script
+		//probe cache of compiled programs (if enabled)
 		Statistics.startCompileTimer();
-		AParserWrapper parser = AParserWrapper.createParser(parsePyDML);
-		DMLProgram prog = parser.parse(DML_FILE_PATH_ANTLR_PARSER, dmlScriptStr, argVals);
-		
-		//Step 4: construct HOP DAGs (incl LVA and validate)
-		DMLTranslator dmlt = new DMLTranslator(prog);
-		dmlt.liveVariableAnalysis(prog);			
-		dmlt.validateParseTree(prog);
-		dmlt.constructHops(prog);
-		
-		if (LOG.isDebugEnabled()) {
-			LOG.debug("\n********************** HOPS DAG (Before Rewrite) *******************");
-			dmlt.printHops(prog);
-			DMLTranslator.resetHopsDAGVisitStatus(prog);
+		String cacheKey = CompiledProgramCache.isEnabled(dmlconf) ? CompiledProgramCache.constructKey(
+			dmlScriptStr, argVals, new String[0], new String[0], parsePyDML, dmlconf, cconf) : null;
+		CompiledProgram cprog = (cacheKey != null) ? CompiledProgramCache.acquire(cacheKey) : null;
+		DMLProgram prog = null;
+		Program rtprog = null;
+		
+		if( cprog != null ) {
+			//reuse compiled program (skip steps 3-8)
+			prog = cprog.getDMLProgram();
+			rtprog = cprog.getRuntimeProgram();
 		}
-	
-		//Step 5: rewrite HOP DAGs (incl IPA and memory estimates)
-		dmlt.rewriteHopsDAG(prog);
-		
-		if (LOG.isDebugEnabled()) {
-			LOG.debug("\n********************** HOPS DAG (After Rewrite) *******************");
-			dmlt.printHops(prog);
-			DMLTranslator.resetHopsDAGVisitStatus(prog);
-		
-			LOG.debug("\n********************** OPTIMIZER *******************\n" + 
-			          "Level = " + OptimizerUtils.getOptLevel() + "\n"
-					 +"Available Memory = " + ((double)InfrastructureAnalyzer.getLocalMaxMemory()/1024/1024) + " MB" + "\n"
-					 +"Memory Budget = " + ((double)OptimizerUtils.getLocalMemBudget()/1024/1024) + " MB" + "\n");
-		}
-
-		//Step 6: construct lops (incl exec type and op selection)
-		dmlt.constructLops(prog);
-
-		if (LOG.isDebugEnabled()) {
-			LOG.debug("\n********************** LOPS DAG *******************");
-			dmlt.printLops(prog);
-			dmlt.resetLopsDAGVisitStatus(prog);
-		}
-		
-		//Step 7: generate runtime program
-		Program rtprog = prog.getRuntimeProgram(dmlconf);
-
-		//Step 8: [optional global data flow optimization]
-		if(OptimizerUtils.isOptLevel(OptimizationLevel.O4_GLOBAL_TIME_MEMORY) ) 
+		else 
 		{
-			LOG.warn("Optimization level '" + OptimizationLevel.O4_GLOBAL_TIME_MEMORY + "' " +
-					"is still in experimental state and not intended for production use.");
-			rtprog = GlobalOptimizerWrapper.optimizeProgram(prog, rtprog);
+			//Step 3: parse dml script
+			AParserWrapper parser = AParserWrapper.createParser(parsePyDML);
+			prog = parser.parse(DML_FILE_PATH_ANTLR_PARSER, dmlScriptStr, argVals);
+			
+			//Step 4: construct HOP DAGs (incl LVA and validate)
+			DMLTranslator dmlt = new DMLTranslator(prog);
+			dmlt.liveVariableAnalysis(prog);			
+			dmlt.validateParseTree(prog);
+			dmlt.constructHops(prog);
+			
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("\n********************** HOPS DAG (Before Rewrite) *******************");
+				dmlt.printHops(prog);
+				DMLTranslator.resetHopsDAGVisitStatus(prog);
+			}
+		
+			//Step 5: rewrite HOP DAGs (incl IPA and memory estimates)
+			dmlt.rewriteHopsDAG(prog);
+			
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("\n********************** HOPS DAG (After Rewrite) *******************");
+				dmlt.printHops(prog);
+				DMLTranslator.resetHopsDAGVisitStatus(prog);
+			
+				LOG.debug("\n********************** OPTIMIZER *******************\n" + 
+				          "Level = " + OptimizerUtils.getOptLevel() + "\n"
+						 +"Available Memory = " + ((double)InfrastructureAnalyzer.getLocalMaxMemory()/1024/1024) + " MB" + "\n"
+						 +"Memory Budget = " + ((double)OptimizerUtils.getLocalMemBudget()/1024/1024) + " MB" + "\n");
+			}
+	
+			//Step 6: construct lops (incl exec type and op selection)
+			dmlt.constructLops(prog);
+	
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("\n********************** LOPS DAG *******************");
+				dmlt.printLops(prog);
+				dmlt.resetLopsDAGVisitStatus(prog);
+			}
+			
+			//Step 7: generate runtime program
+			rtprog = prog.getRuntimeProgram(dmlconf);
+	
+			//Step 8: [optional global data flow optimization]
+			if(OptimizerUtils.isOptLevel(OptimizationLevel.O4_GLOBAL_TIME_MEMORY) ) 
+			{
+				LOG.warn("Optimization level '" + OptimizationLevel.O4_GLOBAL_TIME_MEMORY + "' " +
+						"is still in experimental state and not intended for production use.");
+				rtprog = GlobalOptimizerWrapper.optimizeProgram(prog, rtprog);
+			}
+			
+			//keep compiled program for reuse (released after successful execution)
+			if( cacheKey != null )
+				cprog = CompiledProgramCache.createCompiledProgram(prog, rtprog);
 		}
 		
 		//launch SystemML appmaster (if requested and not already in launched AM)
@@ -670,6 +690,8 @@ public class DMLScript
 			ec = ExecutionContextFactory.createContext(rtprog);
 			rtprog.execute( ec );  
 			
+			//return compiled program to cache (only after successful execution)
+			CompiledProgramCache.release(cacheKey, cprog);
 		}
 		finally //ensure cleanup/shutdown
 		{	
@@ -36,6 +36,7 @@ import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.rdd.RDD;
 import org.apache.spark.sql.DataFrame;
 import org.apache.spark.sql.SQLContext;
+import org.apache.sysml.api.CompiledProgramCache.CompiledProgram;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
 import org.apache.sysml.api.jmlc.JMLCUtils;
 import org.apache.sysml.api.monitoring.SparkMonitoringUtil;
@@ -1340,40 +1341,55 @@ public class MLContext {
 		//simplified compilation chain
 		_rtprog = null;
 		
-		//parsing
-		AParserWrapper parser = AParserWrapper.createParser(parsePyDML);
-		DMLProgram prog;
-		if (isFile) {
-			prog = parser.parse(dmlScriptFilePath, null, argVals);
-		} else {
-			prog = parser.parse(null, dmlScriptStr, argVals);
-		}
-		
-		//language validate
-		DMLTranslator dmlt = new DMLTranslator(prog);
-		dmlt.liveVariableAnalysis(prog);			
-		dmlt.validateParseTree(prog);
-		
-		//hop construct/rewrite
-		dmlt.constructHops(prog);
-		dmlt.rewriteHopsDAG(prog);
+		//probe cache of compiled programs (if enabled)
+		String cacheKey = CompiledProgramCache.isEnabled(config) ? CompiledProgramCache.constructKey(dmlScriptStr, 
+			argVals, (inputSymbolTable != null) ? inputs : null, outputs, parsePyDML, config, cconf) : null;
+		CompiledProgram cprog = (cacheKey != null) ? CompiledProgramCache.acquire(cacheKey) : null;
 		
-		Explain.explain(prog);
-		
-		//rewrite persistent reads/writes
-		if(inputSymbolTable != null) {
-			RewriteRemovePersistentReadWrite rewrite = new RewriteRemovePersistentReadWrite(inputs, outputs);
-			ProgramRewriter rewriter2 = new ProgramRewriter(rewrite);
-			rewriter2.rewriteProgramHopDAGs(prog);
+		if( cprog != null ) {
+			_rtprog = cprog.getRuntimeProgram();
 		}
-		
-		//lop construct and runtime prog generation
-		dmlt.constructLops(prog);
-		_rtprog = prog.getRuntimeProgram(config);
-		
-		//optional global data flow optimization
-		if(OptimizerUtils.isOptLevel(OptimizationLevel.O4_GLOBAL_TIME_MEMORY) ) {
-			_rtprog = GlobalOptimizerWrapper.optimizeProgram(prog, _rtprog);
+		else 
+		{
+			//parsing
+			AParserWrapper parser = AParserWrapper.createParser(parsePyDML);
+			DMLProgram prog;
+			if (isFile) {
+				prog = parser.parse(dmlScriptFilePath, null, argVals);
+			} else {
+				prog = parser.parse(null, dmlScriptStr, argVals);
+			}
+			
+			//language validate
+			DMLTranslator dmlt = new DMLTranslator(prog);
+			dmlt.liveVariableAnalysis(prog);			
+			dmlt.validateParseTree(prog);
+			
+			//hop construct/rewrite
+			dmlt.constructHops(prog);
+			dmlt.rewriteHopsDAG(prog);
+			
+			Explain.explain(prog);
+			
+			//rewrite persistent reads/writes
+			if(inputSymbolTable != null) {
+				RewriteRemovePersistentReadWrite rewrite = new RewriteRemovePersistentReadWrite(inputs, outputs);
+				ProgramRewriter rewriter2 = new ProgramRewriter(rewrite);
+				rewriter2.rewriteProgramHopDAGs(prog);
+			}
+			
+			//lop construct and runtime prog generation
+			dmlt.constructLops(prog);
+			_rtprog = prog.getRuntimeProgram(config);
+			
+			//optional global data flow optimization
+			if(OptimizerUtils.isOptLevel(OptimizationLevel.O4_GLOBAL_TIME_MEMORY) ) {
+				_rtprog = GlobalOptimizerWrapper.optimizeProgram(prog, _rtprog);
+			}
+			
+			//keep compiled program for reuse (released after successful execution)
+			if( cacheKey != null )
+				cprog = CompiledProgramCache.createCompiledProgram(prog, _rtprog);
 		}
 		
 		// launch SystemML appmaster not required as it is already launched
@@ -1400,6 +1416,9 @@ public class MLContext {
 		if(_monitorUtils != null)
 			_monitorUtils.setExplainOutput(Explain.explain(_rtprog));
 		
+		//return compiled program to cache (only after successful execution)
+		CompiledProgramCache.release(cacheKey, cprog);
+		
 		return ec;
 	}
 	
@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.api.jmlc;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.api.DMLException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Batching front-end of a prepared script for low-latency scoring of 
+ * single records. Concurrent single-row requests are queued and coalesced 
+ * into micro-batches of up to a maximum number of rows or until a latency 
+ * bound of the first request is reached. Each micro-batch is stacked into one
+ * input matrix, scored by a single script execution, and the rows of the 
+ * output matrix are returned to the individual callers. This amortizes the 
+ * per-instruction overhead across rows.
+ * 
+ * The script is required to be row-independent w.r.t. the batched input and
+ * output variables, i.e., the i-th output row must only depend on the i-th 
+ * input row (e.g., GLM or multi-class logistic regression scoring). All other 
+ * inputs such as models need to be bound with reuse before the batched script 
+ * is created. Each dispatcher thread executes its own copy of the prepared
+ * script (see {@link PreparedScript#clone()}).
+ * 
+ */
+public class BatchedScript implements Closeable
+{
+	private static final Log LOG = LogFactory.getLog(BatchedScript.class.getName());
+	
+	//batching configuration
+	private final String _inVarname;
+	private final String _outVarname;
+	private final int _maxBatchSize;
+	private final long _maxLatencyNanos;
+	
+	//request queue and dispatcher threads
+	private final LinkedBlockingQueue<ScoringRequest> _queue;
+	private final Thread[] _dispatchers;
+	private volatile boolean _closed = false;
+	
+	/**
+	 * Creates a batched script with a single dispatcher thread.
+	 * 
+	 * @param pscript prepared script with all other inputs bound with reuse
+	 * @param inVarname registered input variable of batched rows
+	 * @param outVarname registered output variable of batched rows
+	 * @param maxBatchSize maximum number of rows per micro-batch
+	 * @param maxLatency maximum time in milliseconds a request waits for further requests
+	 */
+	public BatchedScript( PreparedScript pscript, String inVarname, String outVarname, int maxBatchSize, long maxLatency ) {
+		this(pscript, inVarname, outVarname, maxBatchSize, maxLatency, 1);
+	}
+	
+	/**
+	 * Creates a batched script with the given number of dispatcher threads,
+	 * where micro-batches are scored concurrently by different dispatchers.
+	 * 
+	 * @param pscript prepared script with all other inputs bound with reuse
+	 * @param inVarname registered input variable of batched rows
+	 * @param outVarname registered output variable of batched rows
+	 * @param maxBatchSize maximum number of rows per micro-batch
+	 * @param maxLatency maximum time in milliseconds a request waits for further requests
+	 * @param numThreads number of dispatcher threads
+	 */
+	public BatchedScript( PreparedScript pscript, String inVarname, String outVarname, int maxBatchSize, long maxLatency, int numThreads ) 
+	{
+		_inVarname = inVarname;
+		_outVarname = outVarname;
+		_maxBatchSize = Math.max(maxBatchSize, 1);
+		_maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxLatency, 0));
+		_queue = new LinkedBlockingQueue<ScoringRequest>();
+		
+		//create and start dispatcher threads
+		_dispatchers = new Thread[Math.max(numThreads, 1)];
+		for( int i=0; i<_dispatchers.length; i++ ) {
+			_dispatchers[i] = new Thread(new Dispatcher(pscript.clone()), "JMLC-BatchDispatcher-"+i);
+			_dispatchers[i].setDaemon(true);
+			_dispatchers[i].start();
+		}
+	}
+	
+	/**
+	 * Scores a single row and waits for its result.
+	 * 
+	 * @param row input row
+	 * @return output row
+	 * @throws DMLException
+	 */
+	public double[] score(double[] row) 
+		throws DMLException 
+	{
+		try {
+			return scoreAsync(row).get();
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DMLException(ex);
+		}
+		catch(ExecutionException ex) {
+			if( ex.getCause() instanceof DMLException )
+				throw (DMLException) ex.getCause();
+			throw new DMLException(ex.getCause());
+		}
+	}
+	
+	/**
+	 * Submits a single row for scoring without waiting for its result.
+	 * 
+	 * @param row input row
+	 * @return future of output row
+	 * @throws DMLException
+	 */
+	public Future<double[]> scoreAsync(double[] row) 
+		throws DMLException
+	{
+		if( _closed )
+			throw new DMLException("Batched script already closed.");
+		if( row == null || row.length == 0 )
+			throw new DMLException("Invalid empty input row.");
+		
+		ScoringRequest req = new ScoringRequest(row);
+		_queue.add(req);
+		
+		//re-check after enqueue because a concurrent close might have
+		//already drained the queue (otherwise the request never completes)
+		if( _closed && _queue.remove(req) ) {
+			req.fail(new DMLException("Batched script closed."));
+			throw new DMLException("Batched script already closed.");
+		}
+		return req;
+	}
+	
+	/**
+	 * Stops all dispatcher threads and waits for their termination, 
+	 * where pending requests fail.
+	 */
+	@Override
+	public void close() 
+	{
+		_closed = true;
+		for( Thread t : _dispatchers )
+			t.interrupt();
+		
+		//wait for dispatchers (which fail their collected requests)
+		try {
+			for( Thread t : _dispatchers )
+				t.join();
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		
+		//fail remaining requests
+		ScoringRequest req = null;
+		while( (req = _queue.poll()) != null )
+			req.fail(new DMLException("Batched script closed."));
+	}
+	
+	/**
+	 * Dispatcher that collects micro-batches from the shared request 
+	 * queue and scores them with its own copy of the prepared script.
+	 */
+	private class Dispatcher implements Runnable
+	{
+		private final PreparedScript _pscript;
+		
+		public Dispatcher( PreparedScript pscript ) {
+			_pscript = pscript;
+		}
+		
+		@Override
+		public void run() 
+		{
+			ArrayList<ScoringRequest> batch = new ArrayList<ScoringRequest>(_maxBatchSize);
+			while( !_closed ) 
+			{
+				try {
+					collectBatch(batch);
+				}
+				catch(InterruptedException ex) {
+					for( ScoringRequest req : batch )
+						req.fail(new DMLException("Batched script closed."));
+					return;
+				}
+				
+				try {
+					executeBatch(batch);
+				}
+				catch(Throwable ex) {
+					LOG.error("Failed to score micro-batch of "+batch.size()+" rows.", ex);
+					for( ScoringRequest req : batch )
+						req.fail(ex);
+				}
+				batch.clear();
+			}
+		}
+		
+		/**
+		 * Collects a micro-batch, where the first request blocks until available
+		 * and subsequent requests are added until the batch size or the latency 
+		 * bound (relative to the first request) is reached.
+		 * 
+		 * @param batch
+		 * @throws InterruptedException
+		 */
+		private void collectBatch( ArrayList<ScoringRequest> batch ) 
+			throws InterruptedException
+		{
+			batch.add(_queue.take());
+			long deadline = System.nanoTime() + _maxLatencyNanos;
+			
+			while( batch.size() < _maxBatchSize ) {
+				//take all already queued requests without waiting
+				if( _queue.drainTo(batch, _maxBatchSize-batch.size()) > 0 )
+					continue;
+				long remaining = deadline - System.nanoTime();
+				if( remaining <= 0 )
+					break;
+				ScoringRequest req = _queue.poll(remaining, TimeUnit.NANOSECONDS);
+				if( req == null )
+					break;
+				batch.add(req);
+			}
+		}
+		
+		/**
+		 * Stacks the rows of the given requests into one input matrix, executes
+		 * the script, and splits the output matrix into rows per request.
+		 * 
+		 * @param batch
+		 * @throws DMLException
+		 */
+		private void executeBatch( ArrayList<ScoringRequest> batch ) 
+			throws DMLException
+		{
+			//reject requests with different number of columns than the first
+			int ncol = batch.get(0)._row.length;
+			ArrayList<ScoringRequest> valid = new ArrayList<ScoringRequest>(batch.size());
+			for( ScoringRequest req : batch ) {
+				if( req._row.length == ncol )
+					valid.add(req);
+				else
+					req.fail(new DMLException("Mismatching number of columns: "
+						+ req._row.length+" (expected "+ncol+")."));
+			}
+			
+			//stack input rows into one dense matrix
+			int nrow = valid.size();
+			MatrixBlock in = new MatrixBlock(nrow, ncol, false);
+			in.allocateDenseBlock();
+			double[] a = in.getDenseBlock();
+			for( int i=0, aix=0; i<nrow; i++, aix+=ncol )
+				System.arraycopy(valid.get(i)._row, 0, a, aix, ncol);
+			in.recomputeNonZeros();
+			in.examSparsity();
+			
+			//execute script once for the entire micro-batch
+			_pscript.setMatrix(_inVarname, in, false);
+			ResultVariables rs = _pscript.executeScript();
+			MatrixBlock out = rs.getMatrixBlock(_outVarname);
+			if( out.getNumRows() != nrow )
+				throw new DMLException("Output '"+_outVarname+"' of batched script has "
+					+ out.getNumRows()+" rows but expected "+nrow+" rows.");
+			
+			//split output matrix into rows
+			for( int i=0; i<nrow; i++ )
+				valid.get(i).complete(getRow(out, i));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param r
+	 * @return
+	 */
+	private static double[] getRow( MatrixBlock mb, int r )
+	{
+		int n = mb.getNumColumns();
+		double[] ret = new double[n];
+		if( mb.isEmptyBlock(false) )
+			return ret;
+		
+		if( mb.isInSparseFormat() ) {
+			SparseBlock sblock = mb.getSparseBlock();
+			if( !sblock.isEmpty(r) ) {
+				int apos = sblock.pos(r);
+				int alen = sblock.size(r);
+				int[] aix = sblock.indexes(r);
+				double[] avals = sblock.values(r);
+				for( int j=apos; j<apos+alen; j++ )
+					ret[aix[j]] = avals[j];
+			}
+		}
+		else {
+			System.arraycopy(mb.getDenseBlock(), r*n, ret, 0, n);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Single-row scoring request, which also acts as future of its result.
+	 */
+	private static class ScoringRequest implements Future<double[]>
+	{
+		private final double[] _row;
+		private final CountDownLatch _done = new CountDownLatch(1);
+		private volatile double[] _result = null;
+		private volatile Throwable _error = null;
+		
+		public ScoringRequest( double[] row ) {
+			_row = row;
+		}
+		
+		public void complete( double[] result ) {
+			_result = result;
+			_done.countDown();
+		}
+		
+		public void fail( Throwable error ) {
+			if( isDone() ) //already completed
+				return;
+			_error = error;
+			_done.countDown();
+		}
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return false;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		public boolean isDone() {
+			return _done.getCount() == 0;
+		}
+
+		@Override
+		public double[] get() throws InterruptedException, ExecutionException {
+			_done.await();
+			return getResult();
+		}
+
+		@Override
+		public double[] get(long timeout, TimeUnit unit) 
+			throws InterruptedException, ExecutionException, TimeoutException 
+		{
+			if( !_done.await(timeout, unit) )
+				throw new TimeoutException();
+			return getResult();
+		}
+		
+		private double[] getResult() throws ExecutionException {
+			if( _error != null )
+				throw new ExecutionException(_error);
+			return _result;
+		}
+	}
+}
@@ -25,11 +25,17 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.sysml.api.CompiledProgramCache;
+import org.apache.sysml.api.CompiledProgramCache.CompiledProgram;
 import org.apache.sysml.api.DMLException;
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
@@ -39,6 +45,7 @@ import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.hops.rewrite.ProgramRewriter;
 import org.apache.sysml.hops.rewrite.RewriteRemovePersistentReadWrite;
+import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.AParserWrapper;
 import org.apache.sysml.parser.DMLProgram;
 import org.apache.sysml.parser.DMLTranslator;
@@ -83,6 +90,13 @@ import org.apache.wink.json4j.JSONObject;
  * {@link ResultVariables#getMatrix(String) getMatrix} methods.
  * 
  * <p>
+ * Prepared scripts are cached per connection, i.e., preparing the same script 
+ * again returns a new {@link PreparedScript} that shares the compiled program.
+ * For concurrent scoring, request threads use individual copies obtained via 
+ * {@link PreparedScript#clone()}, which share the compiled program and all 
+ * inputs bound with reuse (e.g., model matrices) without copying them.
+ * 
+ * <p>
  * For examples, please see the following:
  * <ul>
  *   <li>JMLC JUnit test cases (org.apache.sysml.test.integration.functions.jmlc)</li>
@@ -93,6 +107,21 @@ import org.apache.wink.json4j.JSONObject;
 public class Connection implements Closeable
 {		
 	private DMLConfig _dmlconf = null;
+	private CompilerConfig _cconf = null;
+	
+	//max number of cached compiled scripts per connection
+	private static final int PREP_SCRIPTS_SIZE = 64;
+	
+	//cache of compiled scripts (by script, args, inputs, outputs), bounded
+	//in lru order because args are part of the key (synchronized on access)
+	private final LinkedHashMap<String, PreparedScript> _prepScripts = 
+		new LinkedHashMap<String, PreparedScript>(PREP_SCRIPTS_SIZE, 0.75f, true) {
+			private static final long serialVersionUID = 8571326364213416592L;
+			@Override
+			protected boolean removeEldestEntry(Entry<String, PreparedScript> eldest) {
+				return size() > PREP_SCRIPTS_SIZE;
+			}
+		};
 
 	/**
 	 * Connection constructor, the starting point for any other JMLC API calls.
@@ -118,6 +147,7 @@ public class Connection implements Closeable
 		cconf.set(ConfigType.ALLOW_INDIVIDUAL_SB_SPECIFIC_OPS, false);
 		cconf.set(ConfigType.ALLOW_CSE_PERSISTENT_READS, false);
 		ConfigurationManager.setLocalConfig(cconf);
+		_cconf = cconf;
 		
 		//disable caching globally 
 		CacheableData.disableCaching();
@@ -127,6 +157,21 @@ public class Connection implements Closeable
 		ConfigurationManager.setLocalConfig(_dmlconf);
 	}
 	
+	/**
+	 * Connection constructor with a custom dml configuration (e.g., to
+	 * enable the jvm-wide cache of compiled programs via 'compile.cache').
+	 * 
+	 * @param dmlconfig dml configuration used for compilation and execution
+	 */
+	public Connection(DMLConfig dmlconfig)
+	{
+		this();
+		
+		//replace thread-local default configuration
+		_dmlconf = dmlconfig;
+		ConfigurationManager.setLocalConfig(_dmlconf);
+	}
+	
 	/**
 	 * Prepares (precompiles) a script and registers input and output variables.
 	 * 
@@ -157,50 +202,107 @@ public class Connection implements Closeable
 	public PreparedScript prepareScript( String script, Map<String, String> args, String[] inputs, String[] outputs, boolean parsePyDML) 
 		throws DMLException 
 	{
-		//prepare arguments
+		//probe cache of compiled scripts, where the returned prepared script 
+		//shares the compiled program but binds its own inputs
+		String key = constructPrepScriptKey(script, args, inputs, outputs, parsePyDML);
+		PreparedScript ret = null;
+		synchronized( _prepScripts ) {
+			ret = _prepScripts.get(key);
+		}
+		if( ret != null )
+			return ret.clone();
+		
+		//probe jvm-wide cache of compiled programs (if enabled)
+		String gkey = CompiledProgramCache.isEnabled(_dmlconf) ? CompiledProgramCache.constructKey(
+			script, args, inputs, outputs, parsePyDML, _dmlconf, _cconf) : null;
+		CompiledProgram cprog = (gkey != null) ? CompiledProgramCache.acquire(gkey) : null;
 		
 		//simplified compilation chain
-		Program rtprog = null;
-		try
-		{
-			//parsing
-			AParserWrapper parser = AParserWrapper.createParser(parsePyDML);
-			DMLProgram prog = parser.parse(null, script, args);
+		Program rtprog = (cprog != null) ? cprog.getRuntimeProgram() : null;
+		if( rtprog == null ) {
+			try
+			{
+				//parsing
+				AParserWrapper parser = AParserWrapper.createParser(parsePyDML);
+				DMLProgram prog = parser.parse(null, script, args);
 			
-			//language validate
-			DMLTranslator dmlt = new DMLTranslator(prog);
-			dmlt.liveVariableAnalysis(prog);			
-			dmlt.validateParseTree(prog);
+				//language validate
+				DMLTranslator dmlt = new DMLTranslator(prog);
+				dmlt.liveVariableAnalysis(prog);			
+				dmlt.validateParseTree(prog);
 			
-			//hop construct/rewrite
-			dmlt.constructHops(prog);
-			dmlt.rewriteHopsDAG(prog);
+				//hop construct/rewrite
+				dmlt.constructHops(prog);
+				dmlt.rewriteHopsDAG(prog);
 			
-			//rewrite persistent reads/writes
-			RewriteRemovePersistentReadWrite rewrite = new RewriteRemovePersistentReadWrite(inputs, outputs);
-			ProgramRewriter rewriter2 = new ProgramRewriter(rewrite);
-			rewriter2.rewriteProgramHopDAGs(prog);
+				//rewrite persistent reads/writes
+				RewriteRemovePersistentReadWrite rewrite = new RewriteRemovePersistentReadWrite(inputs, outputs);
+				ProgramRewriter rewriter2 = new ProgramRewriter(rewrite);
+				rewriter2.rewriteProgramHopDAGs(prog);
 			
-			//lop construct and runtime prog generation
-			dmlt.constructLops(prog);
-			rtprog = prog.getRuntimeProgram(_dmlconf);
+				//lop construct and runtime prog generation
+				dmlt.constructLops(prog);
+				rtprog = prog.getRuntimeProgram(_dmlconf);
 			
-			//final cleanup runtime prog
-			JMLCUtils.cleanupRuntimeProgram(rtprog, outputs);
+				//final cleanup runtime prog
+				JMLCUtils.cleanupRuntimeProgram(rtprog, outputs);
+				JMLCUtils.replaceParForProgramBlocks(rtprog);
 			
-			//System.out.println(Explain.explain(rtprog));
-		}
-		catch(ParseException pe) {
-			// don't chain ParseException (for cleaner error output)
-			throw pe;
-		}
-		catch(Exception ex)
-		{
-			throw new DMLException(ex);
+				if( gkey != null )
+					cprog = CompiledProgramCache.createCompiledProgram(prog, rtprog);
+			
+				//System.out.println(Explain.explain(rtprog));
+			}
+			catch(ParseException pe) {
+				// don't chain ParseException (for cleaner error output)
+				throw pe;
+			}
+			catch(Exception ex)
+			{
+				throw new DMLException(ex);
+			}
 		}
 			
-		//return newly create precompiled script 
-		return new PreparedScript(rtprog, inputs, outputs);
+		//return compiled program to the jvm-wide cache right away, because 
+		//jmlc programs are immutable and hence shared (see PreparedScript)
+		if( gkey != null )
+			CompiledProgramCache.release(gkey, cprog);
+		
+		//return newly create precompiled script (and keep an unbound 
+		//copy for subsequent prepare calls of the same script)
+		ret = new PreparedScript(rtprog, inputs, outputs, _dmlconf, _cconf);
+		synchronized( _prepScripts ) {
+			if( !_prepScripts.containsKey(key) )
+				_prepScripts.put(key, ret.clone());
+		}
+		return ret;
+	}
+	
+	/**
+	 * Constructs the key of a prepared script, which includes all parameters
+	 * that influence compilation and runtime program cleanup.
+	 * 
+	 * @param script string representing the DML or PyDML script
+	 * @param args map of input parameters ($) and their values
+	 * @param inputs string array of input variables to register
+	 * @param outputs string array of output variables to register
+	 * @param parsePyDML {@code true} if PyDML, {@code false} if DML
+	 * @return key of prepared script
+	 */
+	private static String constructPrepScriptKey( String script, Map<String, String> args, String[] inputs, String[] outputs, boolean parsePyDML )
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(parsePyDML);
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(Arrays.toString(inputs));
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(Arrays.toString(outputs));
+		sb.append(Lop.OPERAND_DELIMITOR);
+		if( args != null )
+			sb.append(new TreeMap<String, String>(args).toString());
+		sb.append(Lop.OPERAND_DELIMITOR);
+		sb.append(script);
+		return sb.toString();
 	}
 	
 	/**
@@ -211,6 +313,11 @@ public class Connection implements Closeable
 	public void close() {
 		//clear thread-local dml / compiler configs
 		ConfigurationManager.clearLocalConfigs();
+		
+		//clear cache of compiled scripts
+		synchronized( _prepScripts ) {
+			_prepScripts.clear();
+		}
 	}
 	
 	/**
@@ -25,10 +25,13 @@ import java.util.Map.Entry;
 
 import org.apache.sysml.runtime.controlprogram.ForProgramBlock;
 import org.apache.sysml.runtime.controlprogram.FunctionProgramBlock;
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.IfProgramBlock;
+import org.apache.sysml.runtime.controlprogram.ParForProgramBlock;
 import org.apache.sysml.runtime.controlprogram.Program;
 import org.apache.sysml.runtime.controlprogram.ProgramBlock;
 import org.apache.sysml.runtime.controlprogram.WhileProgramBlock;
+import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
 import org.apache.sysml.runtime.instructions.Instruction;
 import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
 
@@ -97,6 +100,61 @@ public class JMLCUtils
 		}
 	}
 	
+	/**
+	 * Replaces all parfor program blocks by plain for program blocks, because 
+	 * parfor program blocks are modified during execution, while JMLC programs 
+	 * are shared across threads (see {@link PreparedScript}).
+	 * 
+	 * @param prog the DML/PyDML program
+	 * @throws DMLRuntimeException if DMLRuntimeException occurs
+	 */
+	public static void replaceParForProgramBlocks( Program prog ) 
+		throws DMLRuntimeException
+	{
+		Map<String, FunctionProgramBlock> funcMap = prog.getFunctionProgramBlocks();
+		if( funcMap != null && !funcMap.isEmpty() )
+			for( FunctionProgramBlock fpb : funcMap.values() )
+				rReplaceParForProgramBlocks(fpb.getChildBlocks(), prog);
+		
+		rReplaceParForProgramBlocks(prog.getProgramBlocks(), prog);
+	}
+	
+	/**
+	 * Replaces parfor program blocks in the given list (called recursively).
+	 * 
+	 * @param pbs list of program blocks
+	 * @param prog the DML/PyDML program
+	 * @throws DMLRuntimeException if DMLRuntimeException occurs
+	 */
+	private static void rReplaceParForProgramBlocks( ArrayList<ProgramBlock> pbs, Program prog ) 
+		throws DMLRuntimeException
+	{
+		for( int i=0; i<pbs.size(); i++ )
+		{
+			ProgramBlock pb = pbs.get(i);
+			if( pb instanceof WhileProgramBlock )
+			{
+				rReplaceParForProgramBlocks(((WhileProgramBlock)pb).getChildBlocks(), prog);
+			}
+			else if( pb instanceof IfProgramBlock )
+			{
+				IfProgramBlock ipb = (IfProgramBlock)pb;
+				rReplaceParForProgramBlocks(ipb.getChildBlocksIfBody(), prog);
+				rReplaceParForProgramBlocks(ipb.getChildBlocksElseBody(), prog);
+			}
+			else if( pb instanceof ForProgramBlock ) //incl parfor
+			{
+				ForProgramBlock fpb = (ForProgramBlock)pb;
+				rReplaceParForProgramBlocks(fpb.getChildBlocks(), prog);
+				if( pb instanceof ParForProgramBlock ) {
+					ForProgramBlock tmp = ProgramConverter.createShallowCopyForProgramBlock(fpb, prog);
+					tmp.setStatementBlock(fpb.getStatementBlock());
+					pbs.set(i, tmp);
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Cleanup runtime instructions, removing rmvar instructions for
 	 * any of the given output variable names.
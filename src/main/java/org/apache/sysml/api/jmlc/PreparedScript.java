@@ -26,9 +26,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.sysml.api.DMLException;
+import org.apache.sysml.conf.CompilerConfig;
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
 import org.apache.sysml.runtime.controlprogram.Program;
@@ -53,17 +56,32 @@ import org.apache.sysml.utils.Explain;
 
 /**
  * Representation of a prepared (precompiled) DML/PyDML script.
+ * 
+ * The compiled program, the input/output specification, and the 
+ * configurations are immutable and can be shared across threads and 
+ * connections. Program blocks are only modified during execution by dynamic 
+ * recompilation and parfor optimization; JMLC compiles with dynamic 
+ * recompilation disabled and replaces parfor by for loops, which would run 
+ * sequentially anyway because parallel parfor is disabled as well. A prepared 
+ * script instance itself holds the bound inputs and hence should be used by 
+ * a single thread at a time. For concurrent scoring, each thread obtains a 
+ * lightweight copy via {@link #clone()}, which shares the compiled program 
+ * and all inputs bound with reuse (read-only) but binds its own inputs.
  */
 public class PreparedScript 
 {
-	//input/output specification
-	private HashSet<String> _inVarnames = null;
-	private HashSet<String> _outVarnames = null;
-	private HashMap<String,Data> _inVarReuse = null;
+	//input/output specification (immutable, shared)
+	private final Set<String> _inVarnames;
+	private final Set<String> _outVarnames;
+	
+	//compiled program and configurations (immutable, shared)
+	private final Program _prog;
+	private final DMLConfig _dmlconf;
+	private final CompilerConfig _cconf;
 	
 	//internal state (reused)
-	private Program _prog = null;
-	private LocalVariableMap _vars = null; 
+	private final HashMap<String,Data> _inVarReuse;
+	private final LocalVariableMap _vars; 
 	
 	/**
 	 * Meant to be invoked only from Connection.
@@ -71,20 +89,57 @@ public class PreparedScript
 	 * @param prog the DML/PyDML program
 	 * @param inputs input variables to register
 	 * @param outputs output variables to register
+	 * @param dmlconf dml configuration used for compilation
+	 * @param cconf compiler configuration used for compilation
 	 */
-	protected PreparedScript( Program prog, String[] inputs, String[] outputs ) 
+	protected PreparedScript( Program prog, String[] inputs, String[] outputs, DMLConfig dmlconf, CompilerConfig cconf ) 
 	{
 		_prog = prog;
+		_dmlconf = dmlconf;
+		_cconf = cconf;
 		_vars = new LocalVariableMap();
 		
 		//populate input/output vars
-		_inVarnames = new HashSet<String>();
-		Collections.addAll(_inVarnames, inputs);
-		_outVarnames = new HashSet<String>();
-		Collections.addAll(_outVarnames, outputs);
+		HashSet<String> tmpIn = new HashSet<String>();
+		Collections.addAll(tmpIn, inputs);
+		_inVarnames = Collections.unmodifiableSet(tmpIn);
+		HashSet<String> tmpOut = new HashSet<String>();
+		Collections.addAll(tmpOut, outputs);
+		_outVarnames = Collections.unmodifiableSet(tmpOut);
 		_inVarReuse = new HashMap<String, Data>();
 	}
 	
+	/**
+	 * Copy constructor, sharing the compiled program, input/output 
+	 * specification, and reused inputs of the given prepared script.
+	 * 
+	 * @param that prepared script to copy
+	 */
+	private PreparedScript( PreparedScript that ) 
+	{
+		_prog = that._prog;
+		_dmlconf = that._dmlconf;
+		_cconf = that._cconf;
+		_vars = new LocalVariableMap();
+		_inVarnames = that._inVarnames;
+		_outVarnames = that._outVarnames;
+		_inVarReuse = new HashMap<String, Data>(that._inVarReuse);
+	}
+	
+	/**
+	 * Creates a lightweight copy of this prepared script for execution by
+	 * another thread. The copy shares the compiled program and all inputs
+	 * that have been bound with reuse so far (read-only), without any other
+	 * bound inputs or outputs. Hence, a model can be bound once with reuse 
+	 * and scored concurrently by an arbitrary number of request threads.
+	 * 
+	 * @return new prepared script sharing the compiled program
+	 */
+	@Override
+	public PreparedScript clone() {
+		return new PreparedScript(this);
+	}
+	
 	/**
 	 * Binds a scalar boolean to a registered input variable.
 	 * 
@@ -378,6 +433,11 @@ public class PreparedScript
 	public ResultVariables executeScript() 
 		throws DMLException
 	{
+		//set thread-local configurations of compilation (the calling thread
+		//might differ from the thread that created the connection)
+		ConfigurationManager.setLocalConfig(_dmlconf);
+		ConfigurationManager.setLocalConfig(_cconf);
+		
 		//add reused variables
 		for( Entry<String,Data> e : _inVarReuse.entrySet() )
 			_vars.put(e.getKey(), e.getValue());
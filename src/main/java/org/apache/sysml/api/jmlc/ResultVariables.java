@@ -96,6 +96,34 @@ public class ResultVariables
 		return ret;
 	}
 	
+	/**
+	 * Obtain the matrix represented by the given output variable
+	 * as a matrix block (without conversion).
+	 * 
+	 * @param varname output variable name
+	 * @return matrix as a matrix block
+	 * @throws DMLException
+	 */
+	public MatrixBlock getMatrixBlock(String varname) 
+		throws DMLException
+	{
+		if( !_out.containsKey(varname) )
+			throw new DMLException("Non-existent output variable: "+varname);
+		
+		Data dat = _out.get(varname);
+		
+		//basic checks for data type	
+		if( !(dat instanceof MatrixObject) )
+			throw new DMLException("Expected matrix result '"+varname+"' not a matrix.");
+		
+		//obtain output matrix block
+		MatrixObject mo = (MatrixObject)dat;
+		MatrixBlock ret = mo.acquireRead();
+		mo.release();
+		
+		return ret;
+	}
+	
 	/**
 	 * Obtain the frame represented by the given output variable.
 	 * 
@@ -20,6 +20,7 @@
 package org.apache.sysml.conf;
 
 import java.util.HashMap;
+import java.util.TreeMap;
 
 import org.apache.sysml.hops.OptimizerUtils;
 
@@ -155,4 +156,14 @@ public class CompilerConfig
 	public CompilerConfig clone() {
 		return new CompilerConfig(this);
 	}
+	
+	/**
+	 * Deterministic string representation of all config entries
+	 * (e.g., as part of the key of compiled programs).
+	 */
+	@Override
+	public String toString() {
+		return new TreeMap<ConfigType, Boolean>(_bmap).toString()
+			+ new TreeMap<ConfigType, Integer>(_imap).toString();
+	}
 }
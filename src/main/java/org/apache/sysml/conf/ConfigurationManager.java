@@ -174,6 +174,21 @@ public class ConfigurationManager
 		return getDMLConfig().getIntValue(DMLConfig.NUM_REDUCERS);
 	}
 	
+	public static boolean isAsyncPrefetch() {
+		DMLConfig conf = getDMLConfig();
+		return (conf != null) && conf.getBooleanValue(DMLConfig.CP_PREFETCH);
+	}
+	
+	public static boolean isSparseCSRRead() {
+		DMLConfig conf = getDMLConfig();
+		return (conf != null) && conf.getBooleanValue(DMLConfig.CP_SPARSE_CSR_READ);
+	}
+	
+	public static boolean isLineageReuse() {
+		DMLConfig conf = getDMLConfig();
+		return (conf != null) && conf.getBooleanValue(DMLConfig.LINEAGE_REUSE);
+	}
+	
 	public static boolean isDynamicRecompilation() {
 		return getCompilerConfigFlag(ConfigType.ALLOW_DYN_RECOMPILATION);
 	}
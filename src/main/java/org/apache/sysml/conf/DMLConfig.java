@@ -70,6 +70,14 @@ public class DMLConfig
 	public static final String YARN_APPQUEUE    	= "dml.yarn.app.queue"; 
 	public static final String CP_PARALLEL_MATRIXMULT = "cp.parallel.matrixmult";
 	public static final String CP_PARALLEL_TEXTIO   = "cp.parallel.textio";
+	public static final String CP_OFFHEAP_BUFFER    = "cp.offheap.buffersize"; //in MB
+	public static final String CP_BUFFER_POLICY     = "cp.buffer.policy"; //FIFO, LRU, or SIZE
+	public static final String CP_PREFETCH          = "cp.prefetch"; //boolean
+	public static final String CP_SPARSE_CSR_READ   = "cp.sparse.csr.read"; //boolean
+	public static final String COMPRESSED_LINALG    = "compressed.linalg";
+	public static final String CODEGEN              = "codegen.enabled"; //boolean
+	public static final String COMPILE_CACHE        = "compile.cache"; //boolean
+	public static final String LINEAGE_REUSE        = "lineage.reuse"; //boolean
 
 	// supported prefixes for custom map/reduce configurations
 	public static final String PREFIX_MAPRED = "mapred";
@@ -100,6 +108,14 @@ public class DMLConfig
 		_defaultVals.put(YARN_APPQUEUE,    	     "default" );
 		_defaultVals.put(CP_PARALLEL_MATRIXMULT, "true" );
 		_defaultVals.put(CP_PARALLEL_TEXTIO,     "true" );
+		_defaultVals.put(CP_OFFHEAP_BUFFER,      "0" );
+		_defaultVals.put(CP_BUFFER_POLICY,       "FIFO" );
+		_defaultVals.put(CP_PREFETCH,            "false" );
+		_defaultVals.put(CP_SPARSE_CSR_READ,     "false" );
+		_defaultVals.put(COMPRESSED_LINALG,      "false" );
+		_defaultVals.put(CODEGEN,                "false" );
+		_defaultVals.put(COMPILE_CACHE,          "false" );
+		_defaultVals.put(LINEAGE_REUSE,          "false" );
 	}
 	
 	public DMLConfig()
@@ -440,7 +456,9 @@ public class DMLConfig
 				LOCAL_TMP_DIR,SCRATCH_SPACE,OPTIMIZATION_LEVEL,
 				NUM_REDUCERS, DEFAULT_BLOCK_SIZE,
 				YARN_APPMASTER, YARN_APPMASTERMEM, YARN_MAPREDUCEMEM, 
-				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO
+				CP_PARALLEL_MATRIXMULT, CP_PARALLEL_TEXTIO, CP_OFFHEAP_BUFFER, CP_BUFFER_POLICY,
+				CP_PREFETCH, CP_SPARSE_CSR_READ, COMPRESSED_LINALG, CODEGEN, COMPILE_CACHE,
+				LINEAGE_REUSE
 		}; 
 		
 		StringBuilder sb = new StringBuilder();
@@ -36,6 +36,10 @@ import org.apache.sysml.runtime.matrix.data.LibMatrixDNN.ConvolutionParameters;
 
 public class ConvolutionOp extends Hop  implements MultiThreadedHop
 {	
+	//compile conv2d and its backward functions to direct (fused) operators 
+	//instead of im2col/col2im with intermediate matrix multiplications
+	public static boolean USE_DIRECT_CONV2D = true;
+	
 	private Hop.ConvOp op;
 
 	private int _maxNumThreads = -1; //-1 for unlimited
@@ -191,8 +195,30 @@ public class ConvolutionOp extends Hop  implements MultiThreadedHop
 	@Override
 	protected double computeIntermediateMemEstimate( long dim1, long dim2, long nnz )
 	{	
+		double ret = 0;
+		if( op == ConvOp.DIRECT_CONV2D
+			|| op == ConvOp.DIRECT_CONV2D_BACKWARD_FILTER
+			|| op == ConvOp.DIRECT_CONV2D_BACKWARD_DATA ) 
+		{
+			try {
+				//per-thread transposed im2col of a single image (and partial dfilter)
+				ConvolutionParameters params = parseInput();
+				long CRS = getExtractedVal(params.C, params.R, params.S);
+				long PQ = getExtractedVal(params.P, params.Q);
+				if( CRS > 0 && PQ > 0 ) {
+					int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
+					ret = k * OptimizerUtils.estimateSizeExactSparsity(PQ, CRS, 1.0);
+					if( op == ConvOp.DIRECT_CONV2D_BACKWARD_FILTER && params.K > 0 )
+						ret += k * OptimizerUtils.estimateSizeExactSparsity(params.K, CRS, 1.0);
+				}
+			} 
+			catch (DMLRuntimeException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		
 		//default: no intermediate memory requirements
-		return 0;
+		return ret;
 	}
 	
 	@Override
@@ -291,19 +317,21 @@ public class ConvolutionOp extends Hop  implements MultiThreadedHop
 	// stride1, stride2, padding1, padding2  
 	// input_shape1, input_shape2, input_shape3, input_shape4, 
 	// filter_shape1, filter_shape2, filter_shape3, filter_shape4
+	// (ops with two matrix inputs have all scalar parameters shifted by one)
 	ConvolutionParameters parseInput() throws DMLRuntimeException {
+		int off = (getInput().size() == 14) ? 1 : 0;
 		ConvolutionParameters params = new ConvolutionParameters(
-				extractValue(getInput().get(5)),
-				extractValue(getInput().get(6)), 
-				extractValue(getInput().get(7)), 
-				extractValue(getInput().get(8)), 
-				extractValue(getInput().get(9)), 
-				extractValue(getInput().get(11)), 
-				extractValue(getInput().get(12)), 
-				extractValue(getInput().get(1)), 
-				extractValue(getInput().get(2)), 
-				extractValue(getInput().get(3)), 
-				extractValue(getInput().get(4)), _maxNumThreads);
+				extractValue(getInput().get(off+5)),
+				extractValue(getInput().get(off+6)), 
+				extractValue(getInput().get(off+7)), 
+				extractValue(getInput().get(off+8)), 
+				extractValue(getInput().get(off+9)), 
+				extractValue(getInput().get(off+11)), 
+				extractValue(getInput().get(off+12)), 
+				extractValue(getInput().get(off+1)), 
+				extractValue(getInput().get(off+2)), 
+				extractValue(getInput().get(off+3)), 
+				extractValue(getInput().get(off+4)), _maxNumThreads);
 		return params;
 	}
 	
@@ -29,6 +29,7 @@ import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.lops.CSVReBlock;
 import org.apache.sysml.lops.Checkpoint;
+import org.apache.sysml.lops.Compression;
 import org.apache.sysml.lops.Data;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.lops.LopsException;
@@ -112,6 +113,10 @@ public abstract class Hop
 	// (the default storage level for caching is not yet exposed here)
 	protected boolean _requiresCheckpoint = false;
 	
+	// indicates if the output of this hop needs to be compressed
+	// (usually this happens on persistent reads dataops in CP)
+	protected boolean _requiresCompression = false;
+	
 	// indicates if the output of this hops needs to contain materialized empty blocks 
 	// if those exists; otherwise only blocks w/ non-zero values are materialized
 	protected boolean _outputEmptyBlocks = true;
@@ -274,6 +279,16 @@ public abstract class Hop
 		return _requiresCheckpoint;
 	}
 	
+	public void setRequiresCompression(boolean flag)
+	{
+		_requiresCompression = flag;
+	}
+	
+	public boolean requiresCompression()
+	{
+		return _requiresCompression;
+	}
+	
 	
 	/**
 	 * 
@@ -287,6 +302,9 @@ public abstract class Hop
 		
 		//Step 2: construct checkpoint lop if required (output of hop or reblock)
 		constructAndSetCheckpointLopIfRequired();
+		
+		//Step 3: construct compression lop if required (output of hop)
+		constructAndSetCompressionLopIfRequired();
 	}
 	
 	/**
@@ -401,6 +419,34 @@ public abstract class Hop
 		
 	}
 	
+	/**
+	 * 
+	 * @throws HopsException
+	 */
+	private void constructAndSetCompressionLopIfRequired() 
+		throws HopsException
+	{
+		//add compression lop to output if required (CP matrices only,
+		//because compressed blocks are not supported in distributed ops)
+		if( _requiresCompression && getDataType()==DataType.MATRIX
+			&& _etype == ExecType.CP )
+		{
+			try
+			{
+				Lop input = getLops();
+				Lop compress = new Compression(input, getDataType(), getValueType(), 
+						OptimizerUtils.getConstrainedNumThreads(-1));
+				
+				setOutputDimensions( compress );
+				setLineNumbers( compress );
+				setLops( compress );
+			}
+			catch( LopsException ex ) {
+				throw new HopsException(ex);
+			}
+		}
+	}
+	
 	
 	/**
 	 * 
@@ -1879,6 +1925,7 @@ public abstract class Hop
 		_requiresRecompile = that._requiresRecompile;
 		_requiresReblock = that._requiresReblock;
 		_requiresCheckpoint = that._requiresCheckpoint;
+		_requiresCompression = that._requiresCompression;
 		_outputEmptyBlocks = that._outputEmptyBlocks;
 		
 		_beginLine = that._beginLine;
@@ -176,6 +176,12 @@ public class OptimizerUtils
 	 */
 	public static boolean ALLOW_LOOP_UPDATE_IN_PLACE = true;
 	
+	/**
+	 * Enables the reuse of recompiled CP plans of statement blocks and predicates
+	 * with equivalent input sizes, sparsity classes, and literals (e.g., in loops).
+	 */
+	public static boolean ALLOW_RECOMPILE_PLAN_CACHE = true;
+	
 	
 	/**
 	 * Specifies a multiplier computing the degree of parallelism of parallel
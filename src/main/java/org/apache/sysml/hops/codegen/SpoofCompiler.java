@@ -0,0 +1,771 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.AggUnaryOp;
+import org.apache.sysml.hops.BinaryOp;
+import org.apache.sysml.hops.FunctionOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.AggOp;
+import org.apache.sysml.hops.Hop.Direction;
+import org.apache.sysml.hops.Hop.OpOp1;
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.Hop.VisitStatus;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.LiteralOp;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.UnaryOp;
+import org.apache.sysml.hops.rewrite.HopRewriteRule;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.hops.rewrite.ProgramRewriteStatus;
+import org.apache.sysml.hops.rewrite.ProgramRewriter;
+import org.apache.sysml.parser.DMLProgram;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.parser.ForStatement;
+import org.apache.sysml.parser.ForStatementBlock;
+import org.apache.sysml.parser.FunctionStatement;
+import org.apache.sysml.parser.FunctionStatementBlock;
+import org.apache.sysml.parser.IfStatement;
+import org.apache.sysml.parser.IfStatementBlock;
+import org.apache.sysml.parser.LanguageException;
+import org.apache.sysml.parser.ParForStatementBlock;
+import org.apache.sysml.parser.StatementBlock;
+import org.apache.sysml.parser.WhileStatement;
+import org.apache.sysml.parser.WhileStatementBlock;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Optimizer pass for operator fusion with runtime code generation. After all
+ * hop rewrites, this pass identifies fusible DAG fragments of cell-wise unary 
+ * and binary operations (with an optional sum, rowSums, or colSums on top), 
+ * generates a specialized java operator class per fragment, compiles it 
+ * in-process, and replaces the fragment with a single fused operator. 
+ * Generated classes are cached by their source code (i.e., plan signature),
+ * which avoids repeated compilation for equivalent fragments.
+ * 
+ * Fragments only include operations whose intermediates are consumed by
+ * a single parent, because shared intermediates need to be materialized 
+ * anyway. Fused operators are only compiled for in-memory (CP) execution,
+ * and not for program blocks that might be executed by remote parfor workers.
+ */
+public class SpoofCompiler extends HopRewriteRule
+{
+	private static final Log LOG = LogFactory.getLog(SpoofCompiler.class.getName());
+	
+	//plan cache: generated source code (w/o class name) -> class name
+	private static final ConcurrentHashMap<String, String> _planCache = new ConcurrentHashMap<String, String>();
+	private static final AtomicInteger _classID = new AtomicInteger(1);
+	private static final String CLASS_NAME = "%TMP%";
+	
+	private static final OpOp1[] SUPPORTED_UNARY = new OpOp1[]{ 
+		OpOp1.ABS, OpOp1.SIN, OpOp1.COS, OpOp1.TAN, OpOp1.ASIN, OpOp1.ACOS, OpOp1.ATAN, 
+		OpOp1.SIGN, OpOp1.SQRT, OpOp1.LOG, OpOp1.EXP, OpOp1.ROUND, OpOp1.CEIL, OpOp1.FLOOR, 
+		OpOp1.SPROP, OpOp1.SIGMOID, OpOp1.SELP, OpOp1.LOG_NZ };
+	
+	private static final OpOp2[] SUPPORTED_BINARY = new OpOp2[]{ 
+		OpOp2.PLUS, OpOp2.MINUS, OpOp2.MULT, OpOp2.DIV, OpOp2.POW, OpOp2.MIN, OpOp2.MAX, 
+		OpOp2.LESS, OpOp2.LESSEQUAL, OpOp2.GREATER, OpOp2.GREATEREQUAL, OpOp2.EQUAL, 
+		OpOp2.NOTEQUAL, OpOp2.LOG };
+	
+	//unary ops with f(0)=0 (for sparse-safe fused operators)
+	private static final OpOp1[] SPARSE_SAFE_UNARY = new OpOp1[]{ 
+		OpOp1.ABS, OpOp1.SIN, OpOp1.TAN, OpOp1.ASIN, OpOp1.ATAN, OpOp1.SIGN, OpOp1.SQRT, 
+		OpOp1.ROUND, OpOp1.CEIL, OpOp1.FLOOR, OpOp1.SPROP, OpOp1.SELP, OpOp1.LOG_NZ };
+	
+	/**
+	 * Indicates if operator fusion with code generation is enabled, which 
+	 * requires the codegen config, a JDK, and a non-distributed runtime platform. 
+	 * 
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		return ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.CODEGEN)
+			&& DMLScript.rtplatform != RUNTIME_PLATFORM.HADOOP
+			&& DMLScript.rtplatform != RUNTIME_PLATFORM.SPARK
+			&& CodegenUtils.isCompilerAvailable();
+	}
+	
+	/**
+	 * Applies operator fusion to the hop dags of all statement blocks of the
+	 * given program, except for hop dags that might be executed by remote 
+	 * parfor workers, i.e., parfor bodies and the functions they call in 
+	 * hybrid runtime platforms. Generated classes only exist in the registry
+	 * of the driver, and hence cannot be instantiated by remote workers.
+	 * 
+	 * @param dmlp dml program
+	 * @throws LanguageException
+	 * @throws HopsException
+	 */
+	public static void generateCode(DMLProgram dmlp) 
+		throws LanguageException, HopsException
+	{
+		//collect functions called from parfor bodies
+		HashSet<String> fkeys = new HashSet<String>();
+		if( isRemoteParForPossible() ) {
+			for( String namespaceKey : dmlp.getNamespaces().keySet() )
+				for( FunctionStatementBlock fsb : dmlp.getFunctionStatementBlocks(namespaceKey).values() )
+					rCollectParForFunctions(dmlp, fsb, false, fkeys);
+			for( StatementBlock sb : dmlp.getStatementBlocks() )
+				rCollectParForFunctions(dmlp, sb, false, fkeys);
+		}
+		
+		//fuse operators of all other functions and the main program
+		ProgramRewriter rewriter = new ProgramRewriter(new SpoofCompiler());
+		ProgramRewriteStatus state = new ProgramRewriteStatus();
+		for( String namespaceKey : dmlp.getNamespaces().keySet() )
+			for( String fname : dmlp.getFunctionStatementBlocks(namespaceKey).keySet() ) {
+				if( fkeys.contains(DMLProgram.constructFunctionKey(namespaceKey, fname)) ) {
+					LOG.debug("Skipped operator fusion for function "+fname+" called from parfor.");
+					continue;
+				}
+				rewriter.rewriteStatementBlockHopDAGs(dmlp.getFunctionStatementBlock(namespaceKey, fname), state);
+			}
+		for( StatementBlock sb : dmlp.getStatementBlocks() )
+			rewriter.rewriteStatementBlockHopDAGs(sb, state);
+	}
+	
+	@Override
+	public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state)
+		throws HopsException
+	{
+		if( roots == null || isRemoteParForContext(state) )
+			return roots;
+		
+		//top-level hops never modified
+		for( Hop h : roots ) 
+			rFuseOperators(h, true);
+		
+		return roots;
+	}
+
+	@Override
+	public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state) 
+		throws HopsException
+	{
+		if( root == null || isRemoteParForContext(state) )
+			return root;
+		
+		rFuseOperators(root, true);
+		
+		return root;
+	}
+	
+	/**
+	 * Indicates if parfor loops might be executed by remote workers (i.e.,
+	 * REMOTE_MR or REMOTE_SPARK), which depends on the runtime platform.
+	 * 
+	 * @return
+	 */
+	private static boolean isRemoteParForPossible() {
+		return DMLScript.rtplatform == RUNTIME_PLATFORM.HYBRID
+			|| DMLScript.rtplatform == RUNTIME_PLATFORM.HYBRID_SPARK;
+	}
+	
+	/**
+	 * 
+	 * @param state
+	 * @return
+	 */
+	private static boolean isRemoteParForContext(ProgramRewriteStatus state) {
+		return state != null && state.isInParforContext() && isRemoteParForPossible();
+	}
+	
+	/**
+	 * Collects the keys of all functions that are called (directly or 
+	 * transitively) from parfor bodies within the given statement block.
+	 * 
+	 * @param dmlp
+	 * @param sb
+	 * @param inParfor
+	 * @param fkeys
+	 * @throws HopsException
+	 */
+	private static void rCollectParForFunctions(DMLProgram dmlp, StatementBlock sb, boolean inParfor, HashSet<String> fkeys) 
+		throws HopsException
+	{
+		if( sb instanceof FunctionStatementBlock ) {
+			FunctionStatement fstmt = (FunctionStatement)sb.getStatement(0);
+			for( StatementBlock csb : fstmt.getBody() )
+				rCollectParForFunctions(dmlp, csb, inParfor, fkeys);
+		}
+		else if( sb instanceof WhileStatementBlock ) {
+			WhileStatement wstmt = (WhileStatement)sb.getStatement(0);
+			for( StatementBlock csb : wstmt.getBody() )
+				rCollectParForFunctions(dmlp, csb, inParfor, fkeys);
+		}
+		else if( sb instanceof IfStatementBlock ) {
+			IfStatement istmt = (IfStatement)sb.getStatement(0);
+			for( StatementBlock csb : istmt.getIfBody() )
+				rCollectParForFunctions(dmlp, csb, inParfor, fkeys);
+			for( StatementBlock csb : istmt.getElseBody() )
+				rCollectParForFunctions(dmlp, csb, inParfor, fkeys);
+		}
+		else if( sb instanceof ForStatementBlock ) { //incl parfor
+			ForStatement fstmt = (ForStatement)sb.getStatement(0);
+			for( StatementBlock csb : fstmt.getBody() )
+				rCollectParForFunctions(dmlp, csb, 
+					inParfor || sb instanceof ParForStatementBlock, fkeys);
+		}
+		else if( inParfor && sb.get_hops() != null ) {
+			//collect function calls and process newly called functions
+			ArrayList<FunctionOp> fops = new ArrayList<FunctionOp>();
+			Hop.resetVisitStatus(sb.get_hops());
+			for( Hop root : sb.get_hops() )
+				rCollectFunctionOps(root, fops);
+			Hop.resetVisitStatus(sb.get_hops());
+			for( FunctionOp fop : fops ) {
+				String fkey = DMLProgram.constructFunctionKey(fop.getFunctionNamespace(), fop.getFunctionName());
+				FunctionStatementBlock fsb = dmlp.getFunctionStatementBlock(fop.getFunctionNamespace(), fop.getFunctionName());
+				if( fsb != null && fkeys.add(fkey) )
+					rCollectParForFunctions(dmlp, fsb, true, fkeys);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param fops
+	 */
+	private static void rCollectFunctionOps(Hop hop, ArrayList<FunctionOp> fops) {
+		if( hop.getVisited() == VisitStatus.DONE )
+			return;
+		if( hop instanceof FunctionOp )
+			fops.add((FunctionOp)hop);
+		for( Hop c : hop.getInput() )
+			rCollectFunctionOps(c, fops);
+		hop.setVisited(VisitStatus.DONE);
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param isRoot
+	 * @throws HopsException
+	 */
+	private void rFuseOperators(Hop hop, boolean isRoot) 
+		throws HopsException
+	{
+		if( hop.getVisited() == VisitStatus.DONE )
+			return;
+		
+		//fuse maximal fragment with the given hop as root (top-down, 
+		//such that each fragment starts at its top-most operation)
+		if( !isRoot && isValidFusionRoot(hop) ) {
+			Hop fused = fuseCellwise(hop);
+			if( fused != null )
+				hop = fused;
+		}
+		
+		//process childs (prevent concurrent modification by index access)
+		for( int i=0; i<hop.getInput().size(); i++ )
+			rFuseOperators(hop.getInput().get(i), false);
+		
+		hop.setVisited(VisitStatus.DONE);
+	}
+	
+	/**
+	 * Fuses the fragment of cell-wise operations rooted at the given hop, 
+	 * and returns the new fused hop or null if fusion is not applicable.
+	 * 
+	 * @param root
+	 * @return
+	 * @throws HopsException
+	 */
+	private static Hop fuseCellwise(Hop root) 
+		throws HopsException
+	{
+		//collect fragment of fused operations and its inputs
+		HashSet<Hop> fragment = new HashSet<Hop>();
+		rCollectFragment(root, fragment);
+		if( fragment.size() < 2 )
+			return null; //no intermediates
+		ArrayList<Hop> inputs = new ArrayList<Hop>();
+		rCollectInputs(root, fragment, new HashSet<Hop>(), inputs);
+		if( inputs.isEmpty() || !isValidMemory(root, inputs) )
+			return null;
+		
+		//order inputs by main input, side inputs, and scalars
+		ArrayList<Hop> orderedInputs = new ArrayList<Hop>();
+		Hop main = getMainInput(inputs);
+		orderedInputs.add(main);
+		for( Hop in : inputs )
+			if( in != main && in.getDataType() == DataType.MATRIX )
+				orderedInputs.add(in);
+		for( Hop in : inputs )
+			if( in.getDataType() == DataType.SCALAR )
+				orderedInputs.add(in);
+		
+		//generate and compile operator class (or obtain from plan cache)
+		CellType type = getCellType(root);
+		String className = null;
+		try {
+			String src = generateSource(root, fragment, orderedInputs, type, rIsSparseSafe(root, main));
+			className = compileClass(src);
+		}
+		catch(Exception ex) {
+			LOG.warn("Failed to generate fused operator for hop "+root.getHopID()+" ("
+				+root.getOpString()+"), keep unfused plan.", ex);
+			return null;
+		}
+		
+		//create fused hop and replace fragment in the dag
+		SpoofFusedOp fused = new SpoofFusedOp(root.getName(), root.getDataType(), 
+			root.getValueType(), className, type, orderedInputs);
+		fused.setRowsInBlock(root.getRowsInBlock());
+		fused.setColsInBlock(root.getColsInBlock());
+		if( root.getDataType() == DataType.MATRIX ) {
+			fused.setDim1(root.getDim1());
+			fused.setDim2(root.getDim2());
+		}
+		HopRewriteUtils.copyLineNumbers(root, fused);
+		
+		ArrayList<Hop> parents = new ArrayList<Hop>(root.getParent());
+		for( Hop p : parents ) {
+			int pos = HopRewriteUtils.getChildReferencePos(p, root);
+			while( pos >= 0 ) {
+				HopRewriteUtils.removeChildReferenceByPos(p, root, pos);
+				HopRewriteUtils.addChildReference(p, fused, pos);
+				pos = HopRewriteUtils.getChildReferencePos(p, root);
+			}
+		}
+		for( Hop h : fragment )
+			HopRewriteUtils.removeAllChildReferences(h);
+		
+		if( LOG.isDebugEnabled() )
+			LOG.debug("Fused "+fragment.size()+" operators rooted at hop "+root.getHopID()+" into "+className+".");
+		
+		return fused;
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @return
+	 */
+	private static boolean isValidFusionRoot(Hop hop) {
+		if( hop instanceof AggUnaryOp ) {
+			AggUnaryOp agg = (AggUnaryOp) hop;
+			Hop input = hop.getInput().get(0);
+			return agg.getOp() == AggOp.SUM
+				&& (agg.getDirection() != Direction.RowCol || agg.getDataType() == DataType.SCALAR)
+				&& isCellwise(input) && hasSingleParent(input);
+		}
+		return isCellwise(hop);
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @return
+	 */
+	private static boolean isCellwise(Hop hop) {
+		if( hop.getDataType() != DataType.MATRIX )
+			return false;
+		if( hop instanceof UnaryOp ) {
+			return HopRewriteUtils.isValidOp(((UnaryOp)hop).getOp(), SUPPORTED_UNARY)
+				&& hop.getInput().get(0).getDataType() == DataType.MATRIX;
+		}
+		if( hop instanceof BinaryOp ) {
+			BinaryOp bop = (BinaryOp) hop;
+			boolean ret = HopRewriteUtils.isValidOp(bop.getOp(), SUPPORTED_BINARY)
+				&& !bop.isOuterVectorOperator();
+			for( Hop c : hop.getInput() )
+				ret &= (c.getDataType() == DataType.MATRIX || c.getDataType() == DataType.SCALAR)
+					&& c.getValueType() != ValueType.STRING;
+			return ret;
+		}
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @return
+	 */
+	private static boolean hasSingleParent(Hop hop) {
+		for( Hop p : hop.getParent() )
+			if( p != hop.getParent().get(0) )
+				return false;
+		return !hop.getParent().isEmpty();
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param fragment
+	 */
+	private static void rCollectFragment(Hop hop, HashSet<Hop> fragment) {
+		fragment.add(hop);
+		for( Hop c : hop.getInput() )
+			if( !fragment.contains(c) && isCellwise(c) && hasSingleParent(c) )
+				rCollectFragment(c, fragment);
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param fragment
+	 * @param memo
+	 * @param inputs
+	 */
+	private static void rCollectInputs(Hop hop, HashSet<Hop> fragment, HashSet<Hop> memo, ArrayList<Hop> inputs) {
+		if( memo.contains(hop) )
+			return;
+		memo.add(hop);
+		if( fragment.contains(hop) ) {
+			for( Hop c : hop.getInput() )
+				rCollectInputs(c, fragment, memo, inputs);
+		}
+		else if( !(hop instanceof LiteralOp) ) {
+			inputs.add(hop);
+		}
+	}
+	
+	/**
+	 * Gets the main input, i.e., the left-most matrix input unless another
+	 * input is known to be larger (e.g., for vector-matrix operations).
+	 * 
+	 * @param inputs
+	 * @return
+	 */
+	private static Hop getMainInput(ArrayList<Hop> inputs) {
+		Hop ret = null;
+		for( Hop in : inputs ) {
+			if( in.getDataType() != DataType.MATRIX )
+				continue;
+			if( ret == null )
+				ret = in;
+			else if( ret.dimsKnown() && in.dimsKnown() 
+				&& in.getDim1()*in.getDim2() > ret.getDim1()*ret.getDim2() )
+				ret = in;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Checks that all inputs and the output fit into the local memory budget,
+	 * which is required for hybrid runtime platforms since fused operators
+	 * are executed in CP only.
+	 * 
+	 * @param root
+	 * @param inputs
+	 * @return
+	 */
+	private static boolean isValidMemory(Hop root, ArrayList<Hop> inputs) {
+		boolean hasMatrix = false;
+		for( Hop in : inputs )
+			hasMatrix |= (in.getDataType() == DataType.MATRIX);
+		if( !hasMatrix )
+			return false;
+		if( DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE )
+			return true;
+		
+		double mem = 0;
+		for( Hop h : inputs ) {
+			if( h.getDataType() != DataType.MATRIX )
+				continue;
+			if( !h.dimsKnown() )
+				return false;
+			mem += OptimizerUtils.estimateSizeExactSparsity(h.getDim1(), h.getDim2(), 
+				OptimizerUtils.getSparsity(h.getDim1(), h.getDim2(), h.getNnz()));
+		}
+		if( root.getDataType() == DataType.MATRIX ) {
+			if( !root.dimsKnown() )
+				return false;
+			mem += OptimizerUtils.estimateSizeExactSparsity(root.getDim1(), root.getDim2(), 1.0);
+		}
+		return mem < OptimizerUtils.getLocalMemBudget();
+	}
+	
+	/**
+	 * 
+	 * @param root
+	 * @return
+	 */
+	private static CellType getCellType(Hop root) {
+		if( root instanceof AggUnaryOp ) {
+			switch( ((AggUnaryOp)root).getDirection() ) {
+				case Row: return CellType.ROW_AGG;
+				case Col: return CellType.COL_AGG;
+				default:  return CellType.FULL_AGG;
+			}
+		}
+		return CellType.NO_AGG;
+	}
+	
+	/**
+	 * Indicates if the fragment result is zero whenever the main input 
+	 * is zero, which allows to iterate over non-zeros of sparse inputs only.
+	 * 
+	 * @param hop
+	 * @param main
+	 * @return
+	 */
+	private static boolean rIsSparseSafe(Hop hop, Hop main) {
+		if( hop == main )
+			return true;
+		if( hop instanceof AggUnaryOp )
+			return rIsSparseSafe(hop.getInput().get(0), main);
+		if( hop instanceof UnaryOp && isCellwise(hop) )
+			return HopRewriteUtils.isValidOp(((UnaryOp)hop).getOp(), SPARSE_SAFE_UNARY)
+				&& rIsSparseSafe(hop.getInput().get(0), main);
+		if( hop instanceof BinaryOp && isCellwise(hop) ) {
+			OpOp2 op = ((BinaryOp)hop).getOp();
+			Hop left = hop.getInput().get(0);
+			Hop right = hop.getInput().get(1);
+			if( op == OpOp2.MULT )
+				return rIsSparseSafe(left, main) || rIsSparseSafe(right, main);
+			if( op == OpOp2.DIV && right instanceof LiteralOp )
+				return rIsSparseSafe(left, main) && HopRewriteUtils.getDoubleValueSafe((LiteralOp)right) != 0;
+			if( op == OpOp2.POW && right instanceof LiteralOp )
+				return rIsSparseSafe(left, main) && HopRewriteUtils.getDoubleValueSafe((LiteralOp)right) > 0;
+		}
+		return false;
+	}
+	
+	/**
+	 * Generates the java source code of the fused operator, where the 
+	 * class name is a placeholder in order to allow plan caching by source.
+	 * 
+	 * @param root
+	 * @param fragment
+	 * @param inputs
+	 * @param type
+	 * @param sparseSafe
+	 * @return
+	 * @throws HopsException
+	 */
+	private static String generateSource(Hop root, HashSet<Hop> fragment, ArrayList<Hop> inputs, CellType type, boolean sparseSafe) 
+		throws HopsException
+	{
+		//generate body of genexec (w/o the aggregation, which is done by the runtime)
+		StringBuilder body = new StringBuilder();
+		HashMap<Hop, String> vars = new HashMap<Hop, String>();
+		Hop expr = (root instanceof AggUnaryOp) ? root.getInput().get(0) : root;
+		String out = rGenerateCode(expr, fragment, inputs, vars, body);
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("package "+CodegenUtils.PACKAGE+";\n");
+		sb.append("\n");
+		sb.append("import org.apache.commons.math3.util.FastMath;\n");
+		sb.append("import org.apache.sysml.runtime.codegen.SpoofCellwise;\n");
+		sb.append("\n");
+		sb.append("public final class "+CLASS_NAME+" extends SpoofCellwise {\n");
+		sb.append("  private static final long serialVersionUID = 1L;\n");
+		sb.append("  public "+CLASS_NAME+"() {\n");
+		sb.append("    super(CellType."+type.name()+", "+sparseSafe+");\n");
+		sb.append("  }\n");
+		sb.append("  @Override\n");
+		sb.append("  protected double genexec(double a, SideInput[] b, double[] scalars, int rix, int cix) {\n");
+		sb.append(body);
+		sb.append("    return "+out+";\n");
+		sb.append("  }\n");
+		sb.append("}\n");
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @param fragment
+	 * @param inputs
+	 * @param vars
+	 * @param body
+	 * @return variable name or literal of the hop's value
+	 * @throws HopsException
+	 */
+	private static String rGenerateCode(Hop hop, HashSet<Hop> fragment, ArrayList<Hop> inputs, HashMap<Hop, String> vars, StringBuilder body) 
+		throws HopsException
+	{
+		if( vars.containsKey(hop) )
+			return vars.get(hop);
+		if( hop instanceof LiteralOp )
+			return getJavaLiteral(HopRewriteUtils.getDoubleValueSafe((LiteralOp)hop));
+		
+		String expr = null;
+		if( !fragment.contains(hop) ) {
+			//input access (main input, side input, or scalar)
+			int pos = inputs.indexOf(hop);
+			if( pos == 0 )
+				expr = "a";
+			else if( hop.getDataType() == DataType.MATRIX )
+				expr = "getValue(b["+(pos-1)+"], rix, cix)";
+			else
+				expr = "scalars["+(pos-getNumMatrixInputs(inputs))+"]";
+		}
+		else if( hop instanceof UnaryOp ) {
+			String in = rGenerateCode(hop.getInput().get(0), fragment, inputs, vars, body);
+			expr = getUnaryTemplate(((UnaryOp)hop).getOp()).replace("%1", in);
+		}
+		else if( hop instanceof BinaryOp ) {
+			String in1 = rGenerateCode(hop.getInput().get(0), fragment, inputs, vars, body);
+			String in2 = rGenerateCode(hop.getInput().get(1), fragment, inputs, vars, body);
+			expr = getBinaryTemplate(((BinaryOp)hop).getOp()).replace("%1", in1).replace("%2", in2);
+		}
+		else {
+			throw new HopsException("Unsupported fused operation: "+hop.getOpString());
+		}
+		
+		String var = "tmp"+vars.size();
+		body.append("    double "+var+" = "+expr+";\n");
+		vars.put(hop, var);
+		return var;
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @return
+	 * @throws HopsException
+	 */
+	private static String getUnaryTemplate(OpOp1 op) 
+		throws HopsException 
+	{
+		//note: consistent with runtime builtin functions (incl fastmath)
+		switch( op ) {
+			case ABS:     return "Math.abs(%1)";
+			case SIN:     return "FastMath.sin(%1)";
+			case COS:     return "FastMath.cos(%1)";
+			case TAN:     return "FastMath.tan(%1)";
+			case ASIN:    return "FastMath.asin(%1)";
+			case ACOS:    return "FastMath.acos(%1)";
+			case ATAN:    return "Math.atan(%1)";
+			case SIGN:    return "FastMath.signum(%1)";
+			case SQRT:    return "Math.sqrt(%1)";
+			case LOG:     return "FastMath.log(%1)";
+			case EXP:     return "FastMath.exp(%1)";
+			case ROUND:   return "Math.round(%1)";
+			case CEIL:    return "FastMath.ceil(%1)";
+			case FLOOR:   return "FastMath.floor(%1)";
+			case SPROP:   return "%1 * (1 - %1)";
+			case SIGMOID: return "1 / (1 + FastMath.exp(-%1))";
+			case SELP:    return "(%1 > 0) ? %1 : 0";
+			case LOG_NZ:  return "(%1 == 0) ? 0 : FastMath.log(%1)";
+			default: 
+				throw new HopsException("Unsupported fused unary operation: "+op);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param op
+	 * @return
+	 * @throws HopsException
+	 */
+	private static String getBinaryTemplate(OpOp2 op) 
+		throws HopsException 
+	{
+		//note: consistent with runtime value functions
+		switch( op ) {
+			case PLUS:         return "%1 + %2";
+			case MINUS:        return "%1 - %2";
+			case MULT:         return "%1 * %2";
+			case DIV:          return "%1 / %2";
+			case POW:          return "Math.pow(%1, %2)";
+			case MIN:          return "(%1 <= %2) ? %1 : %2";
+			case MAX:          return "(%1 >= %2) ? %1 : %2";
+			case LESS:         return "(%1 < %2) ? 1 : 0";
+			case LESSEQUAL:    return "(%1 <= %2) ? 1 : 0";
+			case GREATER:      return "(%1 > %2) ? 1 : 0";
+			case GREATEREQUAL: return "(%1 >= %2) ? 1 : 0";
+			case EQUAL:        return "(%1 == %2) ? 1 : 0";
+			case NOTEQUAL:     return "(%1 != %2) ? 1 : 0";
+			case LOG:          return "FastMath.log(%1) / FastMath.log(%2)";
+			default: 
+				throw new HopsException("Unsupported fused binary operation: "+op);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param inputs
+	 * @return
+	 */
+	private static int getNumMatrixInputs(ArrayList<Hop> inputs) {
+		int ret = 0;
+		for( Hop in : inputs )
+			ret += (in.getDataType() == DataType.MATRIX) ? 1 : 0;
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param val
+	 * @return
+	 */
+	private static String getJavaLiteral(double val) {
+		if( Double.isNaN(val) )
+			return "Double.NaN";
+		else if( Double.isInfinite(val) )
+			return (val > 0) ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+		return (val < 0) ? "("+Double.toString(val)+")" : Double.toString(val);
+	}
+	
+	/**
+	 * Compiles the given source code (w/ class name placeholder) or 
+	 * obtains the class name of an existing class of equivalent source.
+	 * 
+	 * @param src
+	 * @return class name
+	 * @throws DMLRuntimeException
+	 */
+	private static String compileClass(String src) 
+		throws DMLRuntimeException
+	{
+		String ret = _planCache.get(src);
+		if( ret != null )
+			return ret;
+		
+		synchronized( _planCache ) {
+			ret = _planCache.get(src);
+			if( ret == null ) {
+				long t0 = System.nanoTime();
+				String name = "TMP" + _classID.getAndIncrement();
+				CodegenUtils.compileClass(name, src.replace(CLASS_NAME, name));
+				_planCache.put(src, name);
+				ret = name;
+				if( DMLScript.STATISTICS ) {
+					Statistics.incrementCodegenClassCompile();
+					Statistics.incrementCodegenClassCompileTime(System.nanoTime()-t0);
+				}
+			}
+		}
+		
+		return ret;
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.MemoTable;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.LopsException;
+import org.apache.sysml.lops.SpoofFused;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+
+/**
+ * Hop of a fused operator, which replaces a fused DAG fragment of cell-wise 
+ * operations (with optional aggregation) and refers to the generated class.
+ * The inputs are ordered as main input, side inputs, and scalar inputs.
+ */
+public class SpoofFusedOp extends Hop implements MultiThreadedHop
+{
+	private String _className = null;
+	private CellType _cellType = null;
+	private int _numThreads = -1;
+	
+	private SpoofFusedOp() {
+		//default constructor for clone
+	}
+	
+	public SpoofFusedOp(String name, DataType dt, ValueType vt, String className, CellType type, ArrayList<Hop> inputs) 
+	{
+		super(name, dt, vt);
+		_className = className;
+		_cellType = type;
+		for( Hop in : inputs ) {
+			getInput().add(in);
+			in.getParent().add(this);
+		}
+		
+		//compute unknown dims and nnz
+		refreshSizeInformation();
+	}
+	
+	public String getClassName() {
+		return _className;
+	}
+	
+	public CellType getCellType() {
+		return _cellType;
+	}
+
+	@Override
+	public void setMaxNumThreads(int k) {
+		_numThreads = k;
+	}
+
+	@Override
+	public int getMaxNumThreads() {
+		return _numThreads;
+	}
+
+	@Override
+	public boolean allowsAllExecTypes() {
+		return false;
+	}
+
+	@Override
+	protected double computeOutputMemEstimate(long dim1, long dim2, long nnz) {
+		//worst-case dense output (sparse output only for sparse-safe ops)
+		return OptimizerUtils.estimateSizeExactSparsity(dim1, dim2, 1.0);
+	}
+
+	@Override
+	protected double computeIntermediateMemEstimate(long dim1, long dim2, long nnz) {
+		//no intermediates (which is the purpose of fused operators)
+		return 0;
+	}
+
+	@Override
+	protected long[] inferOutputCharacteristics(MemoTable memo) {
+		long[] ret = null;
+		long[] dims = getMaxInputDims(memo);
+		if( dims != null ) {
+			switch( _cellType ) {
+				case NO_AGG:  ret = new long[]{dims[0], dims[1], -1}; break;
+				case ROW_AGG: ret = new long[]{dims[0], 1, -1}; break;
+				case COL_AGG: ret = new long[]{1, dims[1], -1}; break;
+				default: //FULL_AGG (scalar)
+			}
+		}
+		return ret;
+	}
+
+	@Override
+	public Lop constructLops() 
+		throws HopsException, LopsException 
+	{
+		//return already created lops
+		if( getLops() != null )
+			return getLops();
+		
+		ExecType et = optFindExecType();
+		
+		ArrayList<Lop> inputs = new ArrayList<Lop>();
+		for( Hop c : getInput() )
+			inputs.add(c.constructLops());
+		
+		int k = OptimizerUtils.getConstrainedNumThreads(_numThreads);
+		SpoofFused lop = new SpoofFused(inputs, getDataType(), getValueType(), _className, et, k);
+		setOutputDimensions(lop);
+		setLineNumbers(lop);
+		setLops(lop);
+		
+		//add reblock/checkpoint lops if necessary
+		constructAndSetLopsDataFlowProperties();
+		
+		return getLops();
+	}
+	
+	@Override
+	protected ExecType optFindExecType() 
+		throws HopsException 
+	{
+		//fused operators are only compiled for in-memory execution, 
+		//see SpoofCompiler for the corresponding memory constraints
+		_etype = ExecType.CP;
+		return _etype;
+	}
+
+	@Override
+	public String getOpString() {
+		return "spoof("+_className+")";
+	}
+
+	@Override
+	public void refreshSizeInformation() 
+	{
+		if( _cellType == CellType.FULL_AGG )
+			return; //scalar output
+		
+		long[] dims = getMaxInputDims(null);
+		if( dims != null ) {
+			switch( _cellType ) {
+				case NO_AGG:  setDim1(dims[0]); setDim2(dims[1]); break;
+				case ROW_AGG: setDim1(dims[0]); setDim2(1); break;
+				case COL_AGG: setDim1(1); setDim2(dims[1]); break;
+				default: //FULL_AGG (scalar)
+			}
+		}
+	}
+	
+	/**
+	 * Gets the output dimensions of the cell-wise operations (max over 
+	 * all matrix inputs due to broadcasting), or null if unknown.
+	 * 
+	 * @param memo memo table of input statistics (optional)
+	 * @return
+	 */
+	private long[] getMaxInputDims(MemoTable memo) {
+		long[] ret = new long[]{0, 0};
+		for( Hop c : getInput() ) {
+			if( c.getDataType() != DataType.MATRIX )
+				continue;
+			long dim1 = c.getDim1(), dim2 = c.getDim2();
+			if( memo != null ) {
+				MatrixCharacteristics mc = memo.getAllInputStats(c);
+				dim1 = mc.getRows(); dim2 = mc.getCols();
+			}
+			if( dim1 <= 0 || dim2 <= 0 )
+				return null;
+			ret[0] = Math.max(ret[0], dim1);
+			ret[1] = Math.max(ret[1], dim2);
+		}
+		return ret;
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException 
+	{
+		SpoofFusedOp ret = new SpoofFusedOp();
+		
+		//copy generic attributes
+		ret.clone(this, false);
+		
+		//copy specific attributes
+		ret._className = _className;
+		ret._cellType = _cellType;
+		ret._numThreads = _numThreads;
+		
+		return ret;
+	}
+	
+	@Override
+	public boolean compare( Hop that )
+	{
+		if( !(that instanceof SpoofFusedOp) )
+			return false;
+		
+		SpoofFusedOp that2 = (SpoofFusedOp)that;
+		boolean ret = _className.equals(that2._className)
+				&& _numThreads == that2._numThreads
+				&& getInput().size() == that2.getInput().size();
+		
+		//compare all childs
+		if( ret ) //sizes matched
+			for( int i=0; i<getInput().size(); i++ )
+				ret &= getInput().get(i) == that2.getInput().get(i);
+		
+		return ret;
+	}
+	
+	@Override
+	public void printMe() throws HopsException 
+	{
+		if (LOG.isDebugEnabled()){
+			if (getVisited() != VisitStatus.DONE) {
+				super.printMe();
+				LOG.debug("  Class: " + _className);
+				for (Hop h : getInput()) {
+					h.printMe();
+				}
+			}
+			setVisited(VisitStatus.DONE);
+		}
+	}
+}
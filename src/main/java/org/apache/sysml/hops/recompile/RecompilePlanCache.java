@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.recompile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.Hop.VisitStatus;
+import org.apache.sysml.hops.MemoTable;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.Instruction.INSTRUCTION_TYPE;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Cache of recompiled runtime plans per statement block (or predicate hop dag),
+ * keyed by a signature of the hop dag after literal replacement and size update.
+ * The signature covers the dag structure incl literals, the dimensions and 
+ * sparsity classes of all hops, and the exec-type relevant settings (forced exec 
+ * types, degree of parallelism, memory budget, runtime platform). A cache hit 
+ * avoids the dynamic rewrites, memory estimates, lop construction and instruction 
+ * generation of the dynamic recompilation.
+ *
+ * Note that we only cache pure CP plans, whose instructions do not depend on
+ * the exact number of non-zeros and can be reused across executions in the
+ * same way as instructions of program blocks that do not require recompilation.
+ * However, the memory estimates and thus exec-type decisions still vary within 
+ * a sparsity class. Hence, in hybrid execution mode, a cached plan is only reused 
+ * if the memory estimates of all hops of the current dag fit into the local 
+ * memory budget, i.e., if a full recompilation would again select CP for all hops.
+ * The number of cached plans is bounded by an LRU eviction policy.
+ *
+ */
+public class RecompilePlanCache
+{
+	//max number of cached plans over all statement blocks
+	private static final int CACHE_SIZE = 256;
+
+	private static final LinkedHashMap<PlanKey, ArrayList<Instruction>> _cache =
+		new LinkedHashMap<PlanKey, ArrayList<Instruction>>(CACHE_SIZE, 0.75f, true) {
+			private static final long serialVersionUID = -3627407372541462718L;
+			@Override
+			protected boolean removeEldestEntry(Entry<PlanKey, ArrayList<Instruction>> eldest) {
+				return size() > CACHE_SIZE;
+			}
+		};
+
+	/**
+	 * Creates the plan signature of the given (deep-copied) hop dag after
+	 * literal replacement and size update, or null if the dag cannot be cached.
+	 *
+	 * @param hops
+	 * @return
+	 */
+	public static String createSignature(ArrayList<Hop> hops)
+	{
+		StringBuilder sb = createSignatureHeader();
+		HashMap<Long, Integer> memo = new HashMap<Long, Integer>();
+		Hop.resetVisitStatus(hops);
+		for( Hop hopRoot : hops )
+			if( !rCreateSignature(hopRoot, memo, sb) )
+				return null;
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the plan signature of the given (deep-copied) predicate hop dag
+	 * after literal replacement and size update, or null if the dag cannot be cached.
+	 *
+	 * @param hops
+	 * @return
+	 */
+	public static String createSignature(Hop hops)
+	{
+		StringBuilder sb = createSignatureHeader();
+		HashMap<Long, Integer> memo = new HashMap<Long, Integer>();
+		hops.resetVisitStatus();
+		if( !rCreateSignature(hops, memo, sb) )
+			return null;
+		return sb.toString();
+	}
+
+	/**
+	 * Gets a copy of the cached plan of the given statement block and signature, 
+	 * or null if no such plan exists or the given (deep-copied) hop dag exceeds the 
+	 * local memory budget.
+	 *
+	 * @param owner
+	 * @param signature
+	 * @param hops
+	 * @return
+	 */
+	public static ArrayList<Instruction> get(Object owner, String signature, ArrayList<Hop> hops)
+	{
+		ArrayList<Instruction> ret = null;
+		synchronized( _cache ) {
+			ret = _cache.get(new PlanKey(owner, signature));
+		}
+
+		//memory estimates vary within sparsity classes (see class comment)
+		if( ret != null && !isWithinMemBudget(hops) )
+			ret = null;
+
+		if( DMLScript.STATISTICS ) {
+			if( ret != null )
+				Statistics.incrementHOPRecompilePlanCacheHits();
+			else
+				Statistics.incrementHOPRecompilePlanCacheMisses();
+		}
+
+		return (ret != null) ? new ArrayList<Instruction>(ret) : null;
+	}
+
+	/**
+	 * Gets a copy of the cached plan of the given predicate dag and signature, 
+	 * or null if no such plan exists or the given (deep-copied) predicate hop dag 
+	 * exceeds the local memory budget.
+	 *
+	 * @param owner
+	 * @param signature
+	 * @param hops
+	 * @return
+	 */
+	public static ArrayList<Instruction> get(Object owner, String signature, Hop hops) {
+		return get(owner, signature, new ArrayList<Hop>(Arrays.asList(hops)));
+	}
+
+	/**
+	 * Puts a copy of the given plan into the cache if it is a pure CP plan.
+	 *
+	 * @param owner
+	 * @param signature
+	 * @param inst
+	 */
+	public static void put(Object owner, String signature, ArrayList<Instruction> inst)
+	{
+		for( Instruction linst : inst )
+			if( linst.getType() != INSTRUCTION_TYPE.CONTROL_PROGRAM )
+				return;
+
+		synchronized( _cache ) {
+			_cache.put(new PlanKey(owner, signature), new ArrayList<Instruction>(inst));
+		}
+	}
+
+	/**
+	 * Removes all cached plans.
+	 */
+	public static void clear() {
+		synchronized( _cache ) {
+			_cache.clear();
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public static int size() {
+		synchronized( _cache ) {
+			return _cache.size();
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static StringBuilder createSignatureHeader()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(DMLScript.rtplatform);
+		sb.append(',');
+		sb.append(OptimizerUtils.getLocalMemBudget());
+		sb.append(',');
+		sb.append(OptimizerUtils.getConstrainedNumThreads(-1));
+		sb.append(';');
+		return sb;
+	}
+
+	/**
+	 * Appends the signature of the given hop and its inputs, where shared
+	 * hops are referenced by their position in the traversal order (which is 
+	 * independent of the hop ids of the deep-copied dags).
+	 *
+	 * @param hop
+	 * @param memo
+	 * @param sb
+	 * @return
+	 */
+	private static boolean rCreateSignature(Hop hop, HashMap<Long, Integer> memo, StringBuilder sb)
+	{
+		if( hop.getVisited() == VisitStatus.DONE ) {
+			sb.append('#');
+			sb.append(memo.get(hop.getHopID()));
+			sb.append(';');
+			return true;
+		}
+
+		//recursively process children
+		if( hop.getInput() != null )
+			for( Hop c : hop.getInput() )
+				if( !rCreateSignature(c, memo, sb) )
+					return false;
+
+		//basic operator information (incl literal values and names)
+		int pos = memo.size();
+		memo.put(hop.getHopID(), pos);
+		sb.append(pos);
+		sb.append(':');
+		sb.append(hop.getOpString());
+		sb.append(',');
+		sb.append(hop.getDataType());
+		sb.append(',');
+		sb.append(hop.getValueType());
+		if( hop.getForcedExecType() != null ) {
+			sb.append(',');
+			sb.append(hop.getForcedExecType());
+		}
+		if( hop instanceof MultiThreadedHop ) {
+			sb.append(',');
+			sb.append(((MultiThreadedHop)hop).getMaxNumThreads());
+		}
+
+		//read meta data potentially changes (read-after-write)
+		if( hop instanceof DataOp && !hop.dimsKnown()
+			&& ((DataOp)hop).getDataOpType() == DataOpTypes.PERSISTENTREAD )
+			return false;
+		
+		//updated statistics (scalar values only matter via literals and sizes)
+		if( hop.getDataType() != DataType.SCALAR ) {
+			sb.append(',');
+			sb.append(hop.getDim1());
+			sb.append('x');
+			sb.append(hop.getDim2());
+			sb.append(',');
+			sb.append(getSparsityClass(hop));
+		}
+		sb.append(';');
+
+		hop.setVisited(VisitStatus.DONE);
+		return true;
+	}
+
+	/**
+	 * Gets the sparsity class, which distinguishes unknown, empty, fully 
+	 * dense, and dense-format inputs (above the sparsity turn point) from 
+	 * log-scale classes of sparse-format inputs, where the sparsity within
+	 * each sparse class varies at most by a factor of two.
+	 *
+	 * @param hop
+	 * @return
+	 */
+	private static int getSparsityClass(Hop hop)
+	{
+		if( hop.getNnz() < 0 || !hop.dimsKnown() )
+			return -1;
+		return getSparsityClass(hop.getDim1(), hop.getDim2(), hop.getNnz());
+	}
+
+	/**
+	 * Gets the sparsity class of the given known dimensions and number of
+	 * non-zeros (see getSparsityClass(Hop)).
+	 *
+	 * @param rlen
+	 * @param clen
+	 * @param nnz
+	 * @return
+	 */
+	public static int getSparsityClass(long rlen, long clen, long nnz)
+	{
+		double cells = (double)rlen * clen;
+		if( nnz == 0 )
+			return 0;
+		else if( nnz >= cells )
+			return 1;
+		
+		double sp = nnz / cells;
+		if( sp >= MatrixBlock.SPARSITY_TURN_POINT )
+			return 2;
+		else //classes [tp/2^(c+1), tp/2^c) for c>=0
+			return 3 + (int)Math.floor(Math.log(MatrixBlock.SPARSITY_TURN_POINT / sp) / Math.log(2));
+	}
+
+	/**
+	 * Indicates if the memory estimates of all hops of the given (deep-copied)
+	 * hop dag fit into the local memory budget. This is always true outside
+	 * hybrid execution mode, where the plan does not depend on memory estimates.
+	 *
+	 * @param hops
+	 * @return
+	 */
+	private static boolean isWithinMemBudget(ArrayList<Hop> hops)
+	{
+		if( !OptimizerUtils.isHybridExecutionMode() )
+			return true;
+
+		//refresh memory estimates (based on updated stats)
+		MemoTable memo = new MemoTable();
+		Hop.resetVisitStatus(hops);
+		for( Hop hopRoot : hops )
+			hopRoot.refreshMemEstimates(memo);
+
+		//check memory estimates against local budget
+		double budget = OptimizerUtils.getLocalMemBudget();
+		Hop.resetVisitStatus(hops);
+		for( Hop hopRoot : hops )
+			if( !rIsWithinMemBudget(hopRoot, budget) )
+				return false;
+		return true;
+	}
+
+	/**
+	 *
+	 * @param hop
+	 * @param budget
+	 * @return
+	 */
+	private static boolean rIsWithinMemBudget(Hop hop, double budget)
+	{
+		if( hop.getVisited() == VisitStatus.DONE )
+			return true;
+
+		if( hop.getInput() != null )
+			for( Hop c : hop.getInput() )
+				if( !rIsWithinMemBudget(c, budget) )
+					return false;
+
+		//forced exec types are part of the signature
+		if( hop.getForcedExecType() == null && hop.getMemEstimate() >= budget )
+			return false;
+
+		hop.setVisited(VisitStatus.DONE);
+		return true;
+	}
+
+	/**
+	 * Cache key of statement block (or predicate dag) and plan signature,
+	 * where the owner is compared by reference.
+	 */
+	private static class PlanKey
+	{
+		private final Object _owner;
+		private final String _signature;
+
+		public PlanKey(Object owner, String signature) {
+			_owner = owner;
+			_signature = signature;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(_owner) * 31 + _signature.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if( !(o instanceof PlanKey) )
+				return false;
+			PlanKey that = (PlanKey) o;
+			return _owner == that._owner
+				&& _signature.equals(that._signature);
+		}
+	}
+}
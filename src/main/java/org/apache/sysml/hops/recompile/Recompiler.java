@@ -138,6 +138,7 @@ public class Recompiler
 	 */
 	public static void reinitRecompiler() {
 		_rewriter.set(new ProgramRewriter(false, true));
+		RecompilePlanCache.clear();
 	}
 	
 	/**
@@ -191,30 +192,46 @@ public class Recompiler
 			for( Hop hopRoot : hops )
 				rUpdateStatistics( hopRoot, vars );
 			
-			// dynamic hop rewrites
-			if( !inplace )
-				_rewriter.get().rewriteHopDAGs( hops, null );
-			
-			// refresh memory estimates (based on updated stats,
-			// before: init memo table with propagated worst-case estimates,
-			// after: extract worst-case estimates from memo table 
-			Hop.resetVisitStatus(hops);
-			MemoTable memo = new MemoTable();
-			memo.init(hops, status);
-			Hop.resetVisitStatus(hops);
-			for( Hop hopRoot : hops )
-				hopRoot.refreshMemEstimates(memo); 
-			memo.extract(hops, status);
-			
-			// construct lops			
-			Dag<Lop> dag = new Dag<Lop>();
-			for( Hop hopRoot : hops ){
-				Lop lops = hopRoot.constructLops();
-				lops.addToDag(dag);	
-			}		
+			// probe plan cache (by literals, sizes and sparsity classes)
+			String signature = null;
+			if( OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE 
+				&& !inplace && status == null && sb != null ) {
+				signature = RecompilePlanCache.createSignature(hops);
+				if( signature != null )
+					newInst = RecompilePlanCache.get(sb, signature, hops);
+			}
 			
-			// generate runtime instructions (incl piggybacking)
-			newInst = dag.getJobs(sb, ConfigurationManager.getDMLConfig());	
+			if( newInst == null )
+			{
+				// dynamic hop rewrites
+				if( !inplace )
+					_rewriter.get().rewriteHopDAGs( hops, null );
+				
+				// refresh memory estimates (based on updated stats,
+				// before: init memo table with propagated worst-case estimates,
+				// after: extract worst-case estimates from memo table 
+				Hop.resetVisitStatus(hops);
+				MemoTable memo = new MemoTable();
+				memo.init(hops, status);
+				Hop.resetVisitStatus(hops);
+				for( Hop hopRoot : hops )
+					hopRoot.refreshMemEstimates(memo); 
+				memo.extract(hops, status);
+				
+				// construct lops			
+				Dag<Lop> dag = new Dag<Lop>();
+				for( Hop hopRoot : hops ){
+					Lop lops = hopRoot.constructLops();
+					lops.addToDag(dag);	
+				}		
+				
+				// generate runtime instructions (incl piggybacking)
+				newInst = dag.getJobs(sb, ConfigurationManager.getDMLConfig());
+				
+				// keep generated plan for reuse (before thread id replacement)
+				if( signature != null )
+					RecompilePlanCache.put(sb, signature, newInst);
+			}
 		}
 		
 		// replace thread ids in new instructions
@@ -263,7 +280,8 @@ public class Recompiler
 		{	
 			LOG.debug ("\n**************** Optimizer (Recompile) *************\nMemory Budget = " + 
 					   OptimizerUtils.toMB(OptimizerUtils.getLocalMemBudget()) + " MB");
-
+			Hop owner = hops; //shared predicate dag
+			
 			// prepare hops dag for recompile
 			if( !inplace ) {
 				// deep copy hop dag (for non-reversable rewrites)
@@ -286,24 +304,39 @@ public class Recompiler
 			hops.resetVisitStatus();
 			rUpdateStatistics( hops, vars );
 			
-			// dynamic hop rewrites
-			if( !inplace )
-				_rewriter.get().rewriteHopDAG( hops, null );
-			
-			// refresh memory estimates (based on updated stats)
-			MemoTable memo = new MemoTable();
-			hops.resetVisitStatus();
-			memo.init(hops, status);
-			hops.resetVisitStatus();
-			hops.refreshMemEstimates(memo); 		
-			
-			// construct lops			
-			Dag<Lop> dag = new Dag<Lop>();
-			Lop lops = hops.constructLops();
-			lops.addToDag(dag);		
+			// probe plan cache (by literals, sizes and sparsity classes)
+			String signature = null;
+			if( OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE && !inplace && status == null ) {
+				signature = RecompilePlanCache.createSignature(hops);
+				if( signature != null )
+					newInst = RecompilePlanCache.get(owner, signature, hops);
+			}
 			
-			// generate runtime instructions (incl piggybacking)
-			newInst = dag.getJobs(null, ConfigurationManager.getDMLConfig());
+			if( newInst == null )
+			{
+				// dynamic hop rewrites
+				if( !inplace )
+					_rewriter.get().rewriteHopDAG( hops, null );
+				
+				// refresh memory estimates (based on updated stats)
+				MemoTable memo = new MemoTable();
+				hops.resetVisitStatus();
+				memo.init(hops, status);
+				hops.resetVisitStatus();
+				hops.refreshMemEstimates(memo); 		
+				
+				// construct lops			
+				Dag<Lop> dag = new Dag<Lop>();
+				Lop lops = hops.constructLops();
+				lops.addToDag(dag);		
+				
+				// generate runtime instructions (incl piggybacking)
+				newInst = dag.getJobs(null, ConfigurationManager.getDMLConfig());
+				
+				// keep generated plan for reuse (before thread id replacement)
+				if( signature != null )
+					RecompilePlanCache.put(owner, signature, newInst);
+			}
 		}
 		
 		// replace thread ids in new instructions
@@ -104,6 +104,7 @@ public class ProgramRewriter
 			if( OptimizerUtils.ALLOW_AUTO_VECTORIZATION )
 				_dagRuleSet.add( new RewriteIndexingVectorization()              ); //dependency: cse, simplifications
 			_dagRuleSet.add( new RewriteInjectSparkPReadCheckpointing()          ); //dependency: reblock
+			_dagRuleSet.add( new RewriteCompressedReblock()                      ); //dependency: reblock
 			
 			//add statment block rewrite rules
  			if( OptimizerUtils.ALLOW_BRANCH_REMOVAL )			
@@ -257,8 +258,14 @@ public class ProgramRewriter
 			fsb.setFromHops(rewriteHopDAG(fsb.getFromHops(), state));
 			fsb.setToHops(rewriteHopDAG(fsb.getToHops(), state));
 			fsb.setIncrementHops(rewriteHopDAG(fsb.getIncrementHops(), state));
+			
+			//maintain parfor context information (e.g., for codegen)
+			boolean prestatus = state.isInParforContext();
+			if( current instanceof ParForStatementBlock )
+				state.setInParforContext(true);
 			for (StatementBlock sb : fstmt.getBody())
 				rewriteStatementBlockHopDAGs(sb, state);
+			state.setInParforContext(prestatus);
 		}
 		else //generic (last-level)
 		{
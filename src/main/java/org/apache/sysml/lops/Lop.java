@@ -59,6 +59,8 @@ public abstract class Lop
 		WeightedSquaredLoss, WeightedSigmoid, WeightedDivMM, WeightedCeMM, WeightedUMM,
 		SortKeys, PickValues,
 		Checkpoint, 										//Spark persist into storage level
+		Compression,                                        //CP compression of matrix blocks
+		SpoofFused,                                         //CP fused operator of generated code
 	};
 
 	/**
@@ -482,6 +484,11 @@ public abstract class Lop
 		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
 	}
 	
+	/** Method should be overridden if needed **/
+	public String getInstructions(String[] inputs, String output) throws LopsException {
+		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
+	}
+	
 	/** Method should be overridden if needed **/
 	public String getInstructions() throws LopsException {
 		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
@@ -48,6 +48,9 @@ public class ParameterizedBuiltin extends Lop
 	private OperationTypes _operation;
 	private HashMap<String, Lop> _inputParams;
 	private boolean _bRmEmptyBC;
+	
+	//cp-specific parameters
+	private int _numThreads = 1;
 
 	/**
 	 * Creates a new builtin function LOP.
@@ -148,6 +151,13 @@ public class ParameterizedBuiltin extends Lop
 		_bRmEmptyBC = bRmEmptyBC;
 	}
 	
+	public ParameterizedBuiltin(HashMap<String, Lop> paramLops, OperationTypes op, DataType dt, ValueType vt, ExecType et, int k) 
+			throws HopsException 
+	{
+		this(paramLops, op, dt, vt, et);
+		_numThreads = k;
+	}
+	
 	public OperationTypes getOp() { 
 		return _operation; 
 	}
@@ -268,6 +278,14 @@ public class ParameterizedBuiltin extends Lop
 			sb.append( _bRmEmptyBC );
 			sb.append(OPERAND_DELIMITOR);
 		}
+		
+		if( getExecType()==ExecType.CP && (_operation == OperationTypes.RMEMPTY 
+			|| _operation == OperationTypes.REXPAND) ) {
+			sb.append( "k" );
+			sb.append( NAME_VALUE_SEPARATOR );
+			sb.append( _numThreads );
+			sb.append( OPERAND_DELIMITOR );
+		}
 
 		sb.append(this.prepOutputOperand(output));
 		
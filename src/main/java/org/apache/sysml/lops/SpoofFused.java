@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.lops;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.lops.LopProperties.ExecLocation;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+
+/**
+ * Lop for fused operators of generated code, which have an arbitrary
+ * number of matrix and scalar inputs and a single output.
+ */
+public class SpoofFused extends Lop
+{
+	public static final String OPCODE = "spoof";
+	
+	private final String _className;
+	private final int _numThreads;
+	
+	/**
+	 * 
+	 * @param inputs
+	 * @param dt
+	 * @param vt
+	 * @param className
+	 * @param et
+	 * @param k
+	 */
+	public SpoofFused( ArrayList<Lop> inputs, DataType dt, ValueType vt, String className, ExecType et, int k) 
+	{
+		super(Lop.Type.SpoofFused, dt, vt);
+		_className = className;
+		_numThreads = k;
+		
+		for( Lop lop : inputs ) {
+			addInput(lop);
+			lop.addOutput(this);
+		}
+		
+		boolean breaksAlignment = false;
+		boolean aligner = false;
+		boolean definesMRJob = false;
+		
+		lps.addCompatibility(JobType.INVALID);
+		lps.setProperties( inputs, et, ExecLocation.ControlProgram, breaksAlignment, aligner, definesMRJob );
+	}
+
+	@Override
+	public String toString() {
+		return "spoof("+_className+")";
+	}
+
+	@Override
+	public String getInstructions(String[] inputs, String output) 
+		throws LopsException
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append( getExecType() );
+		sb.append( Lop.OPERAND_DELIMITOR );
+		sb.append( OPCODE );
+		sb.append( Lop.OPERAND_DELIMITOR );
+		sb.append( _className );
+		
+		for( int i=0; i<inputs.length; i++ ) {
+			sb.append( Lop.OPERAND_DELIMITOR );
+			sb.append( getInputs().get(i).prepInputOperand(inputs[i]) );
+		}
+		
+		sb.append( Lop.OPERAND_DELIMITOR );
+		sb.append( prepOutputOperand(output) );
+		sb.append( Lop.OPERAND_DELIMITOR );
+		sb.append( _numThreads );
+		
+		return sb.toString();
+	}
+}
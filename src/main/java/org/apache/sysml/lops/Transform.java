@@ -66,9 +66,14 @@ public class Transform extends Lop
 	}
 
 	public Transform(Lop input, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et, boolean bSortIndInMem) {
+		this(input, op, dt, vt, et, bSortIndInMem, 1);
+	}
+	
+	public Transform(Lop input, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et, boolean bSortIndInMem, int k) {
 		super(Lop.Type.Transform, dt, vt);		
 		_bSortIndInMem = bSortIndInMem;
 		init(input, op, dt, vt, et);
+		_numThreads = k;
 	}
 	
 	private void init (Lop input, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et) 
@@ -205,6 +210,10 @@ public class Transform extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( _bSortIndInMem );
 		}
+		else if( getExecType()==ExecType.CP && operation == OperationTypes.Sort ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
 		
 		return sb.toString();
 	}
@@ -62,8 +62,13 @@ public class Unary extends Lop
 	 */
 
 	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et) {
+		this(input1, input2, op, dt, vt, et, 1);
+	}
+	
+	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et, int numThreads) {
 		super(Lop.Type.UNARY, dt, vt);
 		init(input1, input2, op, dt, vt, et);
+		_numThreads = numThreads;
 	}
 	
 	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt) {
@@ -414,6 +419,12 @@ public class Unary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
+		//num threads for matrix-scalar cp ops
+		if( getExecType() == ExecType.CP && operation != OperationTypes.MR_IQM ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
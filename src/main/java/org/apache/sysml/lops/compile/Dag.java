@@ -72,6 +72,7 @@ import org.apache.sysml.runtime.instructions.Instruction.INSTRUCTION_TYPE;
 import org.apache.sysml.runtime.instructions.InstructionParser;
 import org.apache.sysml.runtime.instructions.SPInstructionParser;
 import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
 import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CPInstruction.CPINSTRUCTION_TYPE;
 import org.apache.sysml.runtime.instructions.MRJobInstruction;
@@ -1407,6 +1408,17 @@ public class Dag<N extends Lop>
 					
 					inst_string = node.getInstructions(inputs, outputs);
 				}
+				
+				// Fused operators with arbitrary number of inputs and one output
+				else if ( node.getType() == Lop.Type.SpoofFused )
+				{
+					String[] inputs = new String[node.getInputs().size()];
+					int count = 0;
+					for( Lop in : node.getInputs() )
+						inputs[count++] = in.getOutputParameters().getLabel();
+					
+					inst_string = node.getInstructions(inputs, node.getOutputParameters().getLabel());
+				}
 				else {
 					if ( node.getInputs().isEmpty() ) {
 						// currently, such a case exists only for Rand lop
@@ -1513,6 +1525,9 @@ public class Dag<N extends Lop>
 				try {
 					if( LOG.isTraceEnabled() )
 						LOG.trace("Generating instruction - "+ inst_string);
+					//note: operator instructions are still created via instruction strings,
+					//only variable instructions (createvar, rmvar, cpvar, mvvar, assignvar) 
+					//are constructed directly (see VariableCPInstruction.prepare*Instruction)
 					Instruction currInstr = InstructionParser.parseSingleInstruction(inst_string);
 					if(currInstr == null) {
 						 throw new LopsException("Error parsing the instruction:" + inst_string);
@@ -2329,21 +2344,14 @@ public class Dag<N extends Lop>
 		return oinfo;
 	}
 	
-	private String prepareAssignVarInstruction(Lop input, Lop node) {
-		StringBuilder sb = new StringBuilder();
-		
-		sb.append(ExecType.CP);
-		sb.append(Lop.OPERAND_DELIMITOR);
-		
-		sb.append("assignvar");
-		sb.append(Lop.OPERAND_DELIMITOR);
-
-		sb.append( input.prepScalarInputOperand(ExecType.CP) );
-		sb.append(Lop.OPERAND_DELIMITOR);
-		
-		sb.append(node.prepOutputOperand());
-
-		return sb.toString();
+	private Instruction prepareAssignVarInstruction(Lop input, Lop node) throws DMLRuntimeException {
+		//direct construction w/o parsing (same operands as "CP assignvar in out")
+		boolean literal = (input.getExecLocation() == ExecLocation.Data && ((Data)input).isLiteral());
+		CPOperand in = new CPOperand(input.getOutputParameters().getLabel(), 
+				input.getValueType(), input.getDataType(), literal);
+		CPOperand out = new CPOperand(node.getOutputParameters().getLabel(), 
+				node.getValueType(), node.getDataType());
+		return VariableCPInstruction.prepareAssignVariableInstruction(in, out);
 	}
 
 	/**
@@ -2491,8 +2499,7 @@ public class Dag<N extends Lop>
 			if ( node.getDataType() == DataType.SCALAR ) {
 				// generate assignment operations for final and transient writes
 				if ( oparams.getFile_name() == null && !(node instanceof Data && ((Data)node).isPersistentWrite()) ) {
-					String io_inst = prepareAssignVarInstruction(node.getInputs().get(0), node);
-					CPInstruction currInstr = CPInstructionParser.parseSingleInstruction(io_inst);
+					Instruction currInstr = prepareAssignVarInstruction(node.getInputs().get(0), node);
 					
 					if (node._beginLine != 0)
 						currInstr.setLocation(node);
@@ -53,6 +53,7 @@ import org.apache.sysml.hops.ParameterizedBuiltinOp;
 import org.apache.sysml.hops.ReorgOp;
 import org.apache.sysml.hops.TernaryOp;
 import org.apache.sysml.hops.UnaryOp;
+import org.apache.sysml.hops.codegen.SpoofCompiler;
 import org.apache.sysml.hops.ipa.InterProceduralAnalysis;
 import org.apache.sysml.hops.rewrite.ProgramRewriter;
 import org.apache.sysml.hops.recompile.Recompiler;
@@ -273,6 +274,12 @@ public class DMLTranslator
 		rewriter2.rewriteProgramHopDAGs(dmlp);
 		resetHopsDAGVisitStatus(dmlp);
 		
+		//apply operator fusion with code generation (after all rewrites)
+		if( SpoofCompiler.isEnabled() ) {
+			SpoofCompiler.generateCode(dmlp);
+			resetHopsDAGVisitStatus(dmlp);
+		}
+		
 		// Compute memory estimates for all the hops. These estimates are used
 		// subsequently in various optimizations, e.g. CP vs. MR scheduling and parfor.
 		refreshMemEstimates(dmlp);
@@ -2803,6 +2810,12 @@ public class DMLTranslator
 			
 		case CONV2D:
 		{
+			if( ConvolutionOp.USE_DIRECT_CONV2D ) {
+				ArrayList<Hop> inHops = getALHopsForDirectConvOp(expr, expr2, source, hops);
+				currBuiltinOp = new ConvolutionOp(target.getName(), target.getDataType(), target.getValueType(), Hop.ConvOp.DIRECT_CONV2D, inHops);
+				setBlockSizeAndRefreshSizeInfo(expr, currBuiltinOp);
+				break;
+			}
 			Hop filter = expr2;
 			// Step 1: IM2COL
 			Hop image = expr;
@@ -2840,6 +2853,12 @@ public class DMLTranslator
 		}
 		case CONV2D_BACKWARD_FILTER:
 		{
+			if( ConvolutionOp.USE_DIRECT_CONV2D ) {
+				ArrayList<Hop> inHops = getALHopsForDirectConvOp(expr, expr2, source, hops);
+				currBuiltinOp = new ConvolutionOp(target.getName(), target.getDataType(), target.getValueType(), Hop.ConvOp.DIRECT_CONV2D_BACKWARD_FILTER, inHops);
+				setBlockSizeAndRefreshSizeInfo(expr, currBuiltinOp);
+				break;
+			}
 			Hop image = expr;
 			Hop dout = expr2;
 
@@ -2856,6 +2875,12 @@ public class DMLTranslator
 		}
 		case CONV2D_BACKWARD_DATA:
 		{
+			if( ConvolutionOp.USE_DIRECT_CONV2D ) {
+				ArrayList<Hop> inHops = getALHopsForDirectConvOp(expr, expr2, source, hops);
+				currBuiltinOp = new ConvolutionOp(target.getName(), target.getDataType(), target.getValueType(), Hop.ConvOp.DIRECT_CONV2D_BACKWARD_DATA, inHops);
+				setBlockSizeAndRefreshSizeInfo(expr, currBuiltinOp);
+				break;
+			}
 			Hop filter = expr;
 			Hop dout = expr2;
 
@@ -2956,6 +2981,12 @@ public class DMLTranslator
 		return ret;
 	}
 
+	private ArrayList<Hop> getALHopsForDirectConvOp(Hop first, Hop second, BuiltinFunctionExpression source, HashMap<String, Hop> hops) throws ParseException {
+		ArrayList<Hop> ret = getALHopsForConvOp(first, source, 2, hops);
+		ret.add(1, second);
+		return ret;
+	}
+	
 	private ArrayList<Hop> getALHopsForConvOp(Hop first, BuiltinFunctionExpression source, int skip, HashMap<String, Hop> hops) throws ParseException {
 		ArrayList<Hop> ret = new ArrayList<Hop>();
 		ret.add(first);
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.codegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+
+/**
+ * Utilities for the in-process compilation of generated operator classes
+ * (via the system java compiler) and a registry of compiled classes by name, 
+ * which is used by the runtime instructions to instantiate fused operators.
+ * 
+ */
+public class CodegenUtils 
+{
+	//package of all generated classes
+	public static final String PACKAGE = "codegen";
+	
+	//registry of compiled classes by (simple) class name
+	private static ConcurrentHashMap<String, Class<?>> _cache = new ConcurrentHashMap<String, Class<?>>();
+	
+	/**
+	 * Indicates if the system java compiler is available, which is not the 
+	 * case if SystemML runs on a JRE instead of a JDK.
+	 * 
+	 * @return
+	 */
+	public static boolean isCompilerAvailable() {
+		return ToolProvider.getSystemJavaCompiler() != null;
+	}
+	
+	/**
+	 * Compiles the given java source code into a class of the given name,
+	 * loads it via a dedicated class loader, and registers it by name.
+	 * 
+	 * @param name simple class name (in package codegen)
+	 * @param src java source code
+	 * @return compiled class
+	 * @throws DMLRuntimeException
+	 */
+	public static Class<?> compileClass(String name, String src) 
+		throws DMLRuntimeException
+	{
+		//check for existing compiled class
+		Class<?> ret = _cache.get(name);
+		if( ret != null )
+			return ret;
+		
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if( compiler == null )
+			throw new DMLRuntimeException("Java compiler not available (requires a JDK).");
+		
+		try
+		{
+			//compile source into in-memory byte code
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+			StandardJavaFileManager sfm = compiler.getStandardFileManager(diagnostics, null, null);
+			InMemoryFileManager fm = new InMemoryFileManager(sfm);
+			String fname = PACKAGE + "." + name;
+			List<String> options = Arrays.asList("-classpath", getClassPath(), "-nowarn");
+			List<JavaFileObject> units = Arrays.<JavaFileObject>asList(new SourceFile(fname, src));
+			StringWriter out = new StringWriter();
+			boolean success = compiler.getTask(out, fm, diagnostics, options, null, units).call();
+			fm.close();
+			if( !success ) {
+				StringBuilder sb = new StringBuilder();
+				for( Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics() )
+					sb.append(d.toString()+"\n");
+				throw new DMLRuntimeException("Failed to compile class "+fname+":\n"+sb.toString()+"\n"+src);
+			}
+			
+			//load and register compiled class
+			ret = new ByteCodeClassLoader(fm.getByteCode()).loadClass(fname);
+			_cache.put(name, ret);
+		}
+		catch(DMLRuntimeException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Gets a compiled class by name.
+	 * 
+	 * @param name simple class name
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static Class<?> getClass(String name) 
+		throws DMLRuntimeException 
+	{
+		Class<?> ret = _cache.get(name);
+		if( ret == null )
+			throw new DMLRuntimeException("Generated class "+name+" not found.");
+		return ret;
+	}
+	
+	/**
+	 * Creates a new operator instance of the given generated class.
+	 * 
+	 * @param cla
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static SpoofOperator createInstance(Class<?> cla) 
+		throws DMLRuntimeException 
+	{
+		try {
+			return (SpoofOperator) cla.newInstance();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Clears the registry of compiled classes.
+	 */
+	public static void clearClassCache() {
+		_cache.clear();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private static String getClassPath() {
+		//classpath of the jvm and location of the systemml classes 
+		//(which might differ if loaded by a custom class loader)
+		String ret = System.getProperty("java.class.path");
+		try {
+			String loc = new File(SpoofOperator.class.getProtectionDomain()
+				.getCodeSource().getLocation().toURI()).getPath();
+			ret = loc + File.pathSeparator + ret;
+		}
+		catch(Exception ex) {
+			//ignore, fallback to jvm classpath
+		}
+		return ret;
+	}
+	
+	/**
+	 * In-memory java source file.
+	 */
+	private static class SourceFile extends SimpleJavaFileObject 
+	{
+		private final String _src;
+		
+		protected SourceFile(String name, String src) {
+			super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			_src = src;
+		}
+		
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return _src;
+		}
+	}
+	
+	/**
+	 * In-memory class file.
+	 */
+	private static class ByteCodeFile extends SimpleJavaFileObject 
+	{
+		private final ByteArrayOutputStream _bos = new ByteArrayOutputStream();
+		
+		protected ByteCodeFile(String name) {
+			super(URI.create("bytes:///" + name.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+		
+		@Override
+		public OutputStream openOutputStream() {
+			return _bos;
+		}
+		
+		public byte[] getBytes() {
+			return _bos.toByteArray();
+		}
+	}
+	
+	/**
+	 * File manager that writes class files into memory.
+	 */
+	private static class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> 
+	{
+		private final HashMap<String, ByteCodeFile> _classes = new HashMap<String, ByteCodeFile>();
+		
+		protected InMemoryFileManager(JavaFileManager fm) {
+			super(fm);
+		}
+		
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) {
+			ByteCodeFile ret = new ByteCodeFile(className);
+			_classes.put(className, ret);
+			return ret;
+		}
+		
+		public HashMap<String, byte[]> getByteCode() {
+			HashMap<String, byte[]> ret = new HashMap<String, byte[]>();
+			for( String name : _classes.keySet() )
+				ret.put(name, _classes.get(name).getBytes());
+			return ret;
+		}
+	}
+	
+	/**
+	 * Class loader for the compiled byte code of generated classes
+	 * (incl. potential inner classes).
+	 */
+	private static class ByteCodeClassLoader extends ClassLoader 
+	{
+		private final HashMap<String, byte[]> _byteCode;
+		
+		protected ByteCodeClassLoader(HashMap<String, byte[]> byteCode) {
+			super(SpoofOperator.class.getClassLoader());
+			_byteCode = byteCode;
+		}
+		
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] b = _byteCode.get(name);
+			if( b == null )
+				return super.findClass(name);
+			return defineClass(name, b, 0, b.length);
+		}
+	}
+}
@@ -0,0 +1,409 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.codegen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.instructions.cp.DoubleObject;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+
+/**
+ * Base class of generated cell-wise operators, i.e., fused chains of 
+ * cell-wise unary and binary operations with an optional sum, rowSums,
+ * or colSums aggregation on top. The generated genexec method computes 
+ * the value of a single output cell without materialized intermediates.
+ * 
+ */
+public abstract class SpoofCellwise extends SpoofOperator
+{
+	private static final long serialVersionUID = 3442528770573293590L;
+	
+	//min number of cells for multi-threaded execution 
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+	
+	public enum CellType {
+		NO_AGG,
+		FULL_AGG,
+		ROW_AGG,
+		COL_AGG,
+	}
+	
+	private final CellType _type;
+	private final boolean _sparseSafe;
+	
+	protected SpoofCellwise(CellType type, boolean sparseSafe) {
+		_type = type;
+		_sparseSafe = sparseSafe;
+	}
+	
+	public CellType getCellType() {
+		return _type;
+	}
+	
+	public boolean isSparseSafe() {
+		return _sparseSafe;
+	}
+	
+	/**
+	 * Computes the value of a single cell.
+	 * 
+	 * @param a value of the main input
+	 * @param b side inputs
+	 * @param scalars scalar inputs
+	 * @param rix row index
+	 * @param cix column index
+	 * @return
+	 */
+	protected abstract double genexec( double a, SideInput[] b, double[] scalars, int rix, int cix );
+	
+	@Override
+	public ScalarObject execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalars, int k) 
+		throws DMLRuntimeException 
+	{
+		if( _type != CellType.FULL_AGG )
+			throw new DMLRuntimeException("Invalid scalar execute for cell type "+_type+".");
+		
+		//prepare inputs and output dimensions
+		int m = getOutputRows(inputs);
+		int n = getOutputCols(inputs);
+		SideInput a = new SideInput(inputs.get(0), m, n);
+		SideInput[] b = prepInputSides(inputs, m, n);
+		double[] s = prepInputScalars(scalars);
+		
+		//sequential or multi-threaded aggregation over row partitions
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		if( k <= 1 || (long)m*n < PAR_NUMCELL_THRESHOLD || m <= k ) {
+			executeRows(inputs.get(0), a, b, s, null, kbuff, m, n, 0, m);
+		}
+		else {
+			List<KahanObject> partials = new ArrayList<KahanObject>();
+			ArrayList<CellTask> tasks = new ArrayList<CellTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ ) {
+				KahanObject kpartial = new KahanObject(0, 0);
+				partials.add(kpartial);
+				tasks.add(new CellTask(inputs.get(0), a, b, s, null, kpartial, m, n, i*blklen, Math.min((i+1)*blklen, m)));
+			}
+			executeTasks(tasks, k);
+			for( KahanObject kpartial : partials )
+				kplus.execute(kbuff, kpartial._sum, kpartial._correction);
+		}
+		
+		return new DoubleObject(kbuff._sum);
+	}
+	
+	@Override
+	public void execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalars, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		if( _type == CellType.FULL_AGG )
+			throw new DMLRuntimeException("Invalid matrix execute for cell type "+_type+".");
+		
+		//prepare inputs and output dimensions
+		MatrixBlock in = inputs.get(0);
+		int m = getOutputRows(inputs);
+		int n = getOutputCols(inputs);
+		SideInput a = new SideInput(in, m, n);
+		SideInput[] b = prepInputSides(inputs, m, n);
+		double[] s = prepInputScalars(scalars);
+		
+		//allocate output (sparse output only for sparse-safe ops over sparse inputs)
+		boolean sparseOut = _type == CellType.NO_AGG && _sparseSafe && isFullSparse(in, m, n);
+		if( _type == CellType.NO_AGG )
+			out.reset(m, n, sparseOut);
+		else if( _type == CellType.ROW_AGG )
+			out.reset(m, 1, false);
+		else //COL_AGG
+			out.reset(1, n, false);
+		if( sparseOut )
+			out.allocateSparseRowsBlock();
+		else
+			out.allocateDenseBlock();
+		double[] colAgg = (_type == CellType.COL_AGG) ? new double[2*n] : null;
+		
+		//sequential or multi-threaded execution over row partitions
+		long nnz = 0;
+		if( k <= 1 || (long)m*n < PAR_NUMCELL_THRESHOLD || m <= k ) {
+			nnz = executeRows(in, a, b, s, out, colAgg, m, n, 0, m);
+		}
+		else {
+			ArrayList<CellTask> tasks = new ArrayList<CellTask>();
+			List<double[]> partials = new ArrayList<double[]>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ ) {
+				double[] cpartial = (colAgg != null) ? new double[2*n] : null;
+				partials.add(cpartial);
+				tasks.add(new CellTask(in, a, b, s, out, cpartial, m, n, i*blklen, Math.min((i+1)*blklen, m)));
+			}
+			for( Long tnnz : executeTasks(tasks, k) )
+				nnz += tnnz;
+			if( colAgg != null ) {
+				KahanObject kbuff = new KahanObject(0, 0);
+				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+				for( int j=0; j<n; j++ ) {
+					kbuff.set(0, 0);
+					for( double[] cpartial : partials )
+						kplus.execute(kbuff, cpartial[2*j], cpartial[2*j+1]);
+					colAgg[2*j] = kbuff._sum;
+					colAgg[2*j+1] = kbuff._correction;
+				}
+			}
+		}
+		
+		//copy column aggregates into output
+		if( colAgg != null ) {
+			double[] c = out.getDenseBlock();
+			nnz = 0;
+			for( int j=0; j<n; j++ ) {
+				c[j] = colAgg[2*j];
+				nnz += (c[j] != 0) ? 1 : 0;
+			}
+		}
+		
+		//post-processing
+		out.setNonZeros(nnz);
+		out.examSparsity();
+	}
+	
+	/**
+	 * Computes the given row range, where the aggregation target is either a
+	 * KahanObject (full aggregation), an array of column sums and corrections 
+	 * (column aggregation), or the output block.
+	 * 
+	 * @param in
+	 * @param a
+	 * @param b
+	 * @param s
+	 * @param out
+	 * @param agg
+	 * @param m
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros of the output row range
+	 * @throws DMLRuntimeException
+	 */
+	private long executeRows(MatrixBlock in, SideInput a, SideInput[] b, double[] s, MatrixBlock out, 
+			Object agg, int m, int n, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		KahanObject kbuff = (agg instanceof KahanObject) ? (KahanObject) agg : new KahanObject(0, 0);
+		double[] colAgg = (agg instanceof double[]) ? (double[]) agg : null;
+		double[] c = (out != null && !out.isInSparseFormat()) ? out.getDenseBlock() : null;
+		SparseBlock csparse = (out != null && out.isInSparseFormat()) ? out.getSparseBlock() : null;
+		long lnnz = 0;
+		
+		//sparse-safe sparse main input: iterate over non-zeros only
+		if( _sparseSafe && isFullSparse(in, m, n) ) {
+			SparseBlock sblock = in.getSparseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				if( sblock == null || sblock.isEmpty(i) )
+					continue;
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				int[] aix = sblock.indexes(i);
+				double[] avals = sblock.values(i);
+				if( _type == CellType.ROW_AGG )
+					kbuff.set(0, 0);
+				for( int j=apos; j<apos+alen; j++ ) {
+					double val = genexec(avals[j], b, s, i, aix[j]);
+					switch( _type ) {
+						case NO_AGG:
+							if( val != 0 ) {
+								csparse.append(i, aix[j], val);
+								lnnz++;
+							}
+							break;
+						case COL_AGG:
+							kbuff.set(colAgg[2*aix[j]], colAgg[2*aix[j]+1]);
+							kplus.execute2(kbuff, val);
+							colAgg[2*aix[j]] = kbuff._sum;
+							colAgg[2*aix[j]+1] = kbuff._correction;
+							break;
+						default: //FULL_AGG, ROW_AGG
+							kplus.execute2(kbuff, val);
+					}
+				}
+				if( _type == CellType.ROW_AGG ) {
+					c[i] = kbuff._sum;
+					lnnz += (c[i] != 0) ? 1 : 0;
+				}
+			}
+			return lnnz;
+		}
+		
+		//default: iterate over all cells (w/ row-wise expansion of the main input)
+		boolean fullDense = !in.isInSparseFormat() && !in.isEmptyBlock(false) 
+			&& in.getNumRows()==m && in.getNumColumns()==n;
+		boolean fullSparse = !fullDense && isFullSparse(in, m, n);
+		SparseBlock sblock = in.getSparseBlock();
+		double[] avals = fullDense ? in.getDenseBlock() : new double[n];
+		for( int i=rl; i<ru; i++ ) {
+			int aix = fullDense ? i*n : 0;
+			if( fullSparse ) {
+				Arrays.fill(avals, 0);
+				if( sblock != null && !sblock.isEmpty(i) ) {
+					int apos = sblock.pos(i);
+					int alen = sblock.size(i);
+					int[] aixs = sblock.indexes(i);
+					double[] svals = sblock.values(i);
+					for( int j=apos; j<apos+alen; j++ )
+						avals[aixs[j]] = svals[j];
+				}
+			}
+			else if( !fullDense ) {
+				for( int j=0; j<n; j++ )
+					avals[j] = a.getValue(i, j);
+			}
+			if( _type == CellType.ROW_AGG )
+				kbuff.set(0, 0);
+			for( int j=0; j<n; j++ ) {
+				double val = genexec(avals[aix+j], b, s, i, j);
+				switch( _type ) {
+					case NO_AGG:
+						c[i*n+j] = val;
+						lnnz += (val != 0) ? 1 : 0;
+						break;
+					case COL_AGG:
+						kbuff.set(colAgg[2*j], colAgg[2*j+1]);
+						kplus.execute2(kbuff, val);
+						colAgg[2*j] = kbuff._sum;
+						colAgg[2*j+1] = kbuff._correction;
+						break;
+					default: //FULL_AGG, ROW_AGG
+						kplus.execute2(kbuff, val);
+				}
+			}
+			if( _type == CellType.ROW_AGG ) {
+				c[i] = kbuff._sum;
+				lnnz += (c[i] != 0) ? 1 : 0;
+			}
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * 
+	 * @param tasks
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static List<Long> executeTasks(List<CellTask> tasks, int k) 
+		throws DMLRuntimeException
+	{
+		List<Long> ret = new ArrayList<Long>();
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			List<Future<Long>> rtasks = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Long> rtask : rtasks )
+				ret.add(rtask.get());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param m
+	 * @param n
+	 * @return
+	 */
+	private static boolean isFullSparse(MatrixBlock in, int m, int n) {
+		return (in.isInSparseFormat() || in.isEmptyBlock(false))
+			&& in.getNumRows()==m && in.getNumColumns()==n;
+	}
+	
+	/**
+	 * 
+	 * @param inputs
+	 * @return
+	 */
+	private static int getOutputRows(ArrayList<MatrixBlock> inputs) {
+		int ret = 0;
+		for( MatrixBlock mb : inputs )
+			ret = Math.max(ret, mb.getNumRows());
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param inputs
+	 * @return
+	 */
+	private static int getOutputCols(ArrayList<MatrixBlock> inputs) {
+		int ret = 0;
+		for( MatrixBlock mb : inputs )
+			ret = Math.max(ret, mb.getNumColumns());
+		return ret;
+	}
+	
+	/**
+	 * Task for the computation of a row partition.
+	 */
+	private class CellTask implements Callable<Long> 
+	{
+		private final MatrixBlock _in;
+		private final SideInput _a;
+		private final SideInput[] _b;
+		private final double[] _s;
+		private final MatrixBlock _out;
+		private final Object _agg;
+		private final int _m, _n, _rl, _ru;
+		
+		protected CellTask(MatrixBlock in, SideInput a, SideInput[] b, double[] s, MatrixBlock out, 
+				Object agg, int m, int n, int rl, int ru) 
+		{
+			_in = in;
+			_a = a;
+			_b = b;
+			_s = s;
+			_out = out;
+			_agg = agg;
+			_m = m;
+			_n = n;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			return executeRows(_in, _a, _b, _s, _out, _agg, _m, _n, _rl, _ru);
+		}
+	}
+}
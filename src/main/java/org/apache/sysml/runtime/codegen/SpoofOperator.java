@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.codegen;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Base class of all generated (fused) operators. Generated operators are 
+ * compiled at runtime from java source code, which is created by the
+ * code generator for fusible hop DAG fragments (see SpoofCompiler).
+ * 
+ */
+public abstract class SpoofOperator implements Serializable
+{
+	private static final long serialVersionUID = 3834006998853573319L;
+
+	/**
+	 * Executes the fused operator over the given inputs, where the first 
+	 * matrix is the main input that determines the iteration space.
+	 * 
+	 * @param inputs matrix inputs
+	 * @param scalars scalar inputs
+	 * @param out output matrix block
+	 * @param k degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	public abstract void execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalars, MatrixBlock out, int k) 
+		throws DMLRuntimeException;
+	
+	/**
+	 * Executes the fused operator over the given inputs, for operators
+	 * with scalar output (e.g., full aggregations).
+	 * 
+	 * @param inputs matrix inputs
+	 * @param scalars scalar inputs
+	 * @param k degree of parallelism
+	 * @return scalar output
+	 * @throws DMLRuntimeException
+	 */
+	public ScalarObject execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalars, int k) 
+		throws DMLRuntimeException 
+	{
+		throw new DMLRuntimeException("Invalid invocation of scalar execute for "+getClass().getName()+".");
+	}
+	
+	/**
+	 * 
+	 * @param scalars
+	 * @return
+	 */
+	protected static double[] prepInputScalars(ArrayList<ScalarObject> scalars) {
+		double[] ret = new double[scalars.size()];
+		for( int i=0; i<scalars.size(); i++ )
+			ret[i] = scalars.get(i).getDoubleValue();
+		return ret;
+	}
+	
+	/**
+	 * Prepares all matrix inputs except the main input as side inputs, 
+	 * including the validation of broadcasting (vector/scalar) dimensions.
+	 * 
+	 * @param inputs
+	 * @param m
+	 * @param n
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	protected static SideInput[] prepInputSides(ArrayList<MatrixBlock> inputs, int m, int n) 
+		throws DMLRuntimeException 
+	{
+		SideInput[] ret = new SideInput[inputs.size()-1];
+		for( int i=1; i<inputs.size(); i++ )
+			ret[i-1] = new SideInput(inputs.get(i), m, n);
+		return ret;
+	}
+	
+	/**
+	 * Gets the value of the given side input at the given cell position 
+	 * (w/ broadcasting of row vectors, column vectors and 1x1 matrices).
+	 * Generated operators use this accessor for all side inputs.
+	 * 
+	 * @param in side input
+	 * @param rix row index
+	 * @param cix column index
+	 * @return
+	 */
+	protected static double getValue(SideInput in, int rix, int cix) {
+		return in.getValue(rix, cix);
+	}
+	
+	/**
+	 * Wrapper of a side input of a fused operator, which resolves
+	 * the broadcasting of vectors against the main iteration space.
+	 */
+	public static final class SideInput
+	{
+		private final MatrixBlock _mb;
+		private final double[] _dense;
+		private final int _clen;
+		private final int _rmult;
+		private final int _cmult;
+		
+		public SideInput(MatrixBlock mb, int m, int n) 
+			throws DMLRuntimeException 
+		{
+			int rlen = mb.getNumRows();
+			int clen = mb.getNumColumns();
+			if( !((rlen==m || rlen==1) && (clen==n || clen==1)) )
+				throw new DMLRuntimeException("Incompatible side input dimensions: "
+					+rlen+"x"+clen+" vs "+m+"x"+n+".");
+			_mb = mb;
+			_dense = (!mb.isInSparseFormat() && !mb.isEmptyBlock(false)) ? mb.getDenseBlock() : null;
+			_clen = clen;
+			_rmult = (rlen==1) ? 0 : 1;
+			_cmult = (clen==1) ? 0 : 1;
+		}
+		
+		public double getValue(int rix, int cix) {
+			int r = rix * _rmult;
+			int c = cix * _cmult;
+			if( _dense != null )
+				return _dense[r*_clen + c];
+			return _mb.quickGetValue(r, c);
+		}
+	}
+}
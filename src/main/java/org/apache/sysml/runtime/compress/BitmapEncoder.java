@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Extraction of uncompressed bitmaps (distinct value tuples and their row
+ * offsets) for a set of columns, either over all rows of the input or over
+ * a sample of rows for size estimation.
+ */
+public class BitmapEncoder
+{
+	/**
+	 * Extracts the bitmap of the given columns over all rows. For sparse
+	 * inputs, the caller passes the transposed input (columns as rows) in
+	 * order to avoid binary searches per cell.
+	 *
+	 * @param colIndexes column indexes
+	 * @param rawblock input matrix block
+	 * @param transposed true if rawblock is the transposed input
+	 * @return
+	 */
+	public static UncompressedBitmap extractBitmap(int[] colIndexes, MatrixBlock rawblock, boolean transposed)
+	{
+		LinkedHashMap<DblArray, IntArrayList> distinct = new LinkedHashMap<DblArray, IntArrayList>();
+
+		if( !transposed ) {
+			int m = rawblock.getNumRows();
+			for( int i=0; i<m; i++ )
+				addTuple(distinct, getTuple(rawblock, i, colIndexes), i);
+		}
+		else if( rawblock.isInSparseFormat() ) {
+			SparseBlock sblock = rawblock.getSparseBlock();
+			int n = colIndexes.length;
+			int[] pos = new int[n];
+			if( sblock != null ) {
+				//merge the sorted sparse rows of all columns in row order
+				while( true ) {
+					int minrow = Integer.MAX_VALUE;
+					for( int j=0; j<n; j++ ) {
+						int c = colIndexes[j];
+						if( !sblock.isEmpty(c) && pos[j] < sblock.size(c) )
+							minrow = Math.min(minrow, sblock.indexes(c)[sblock.pos(c)+pos[j]]);
+					}
+					if( minrow == Integer.MAX_VALUE )
+						break;
+					double[] tuple = new double[n];
+					for( int j=0; j<n; j++ ) {
+						int c = colIndexes[j];
+						if( !sblock.isEmpty(c) && pos[j] < sblock.size(c)
+							&& sblock.indexes(c)[sblock.pos(c)+pos[j]] == minrow ) {
+							tuple[j] = sblock.values(c)[sblock.pos(c)+pos[j]];
+							pos[j]++;
+						}
+					}
+					addTuple(distinct, tuple, minrow);
+				}
+			}
+		}
+		else {
+			int m = rawblock.getNumColumns();
+			for( int i=0; i<m; i++ ) {
+				double[] tuple = new double[colIndexes.length];
+				for( int j=0; j<colIndexes.length; j++ )
+					tuple[j] = rawblock.quickGetValue(colIndexes[j], i);
+				addTuple(distinct, tuple, i);
+			}
+		}
+
+		return createBitmap(colIndexes.length, distinct);
+	}
+
+	/**
+	 * Extracts the bitmap of the given columns over the given sample of
+	 * rows, where the row offsets refer to positions in the sample.
+	 *
+	 * @param colIndexes column indexes
+	 * @param rawblock input matrix block (not transposed)
+	 * @param sampleRows sorted row indexes of the sample
+	 * @return
+	 */
+	public static UncompressedBitmap extractBitmapFromSample(int[] colIndexes, MatrixBlock rawblock, int[] sampleRows)
+	{
+		LinkedHashMap<DblArray, IntArrayList> distinct = new LinkedHashMap<DblArray, IntArrayList>();
+		for( int i=0; i<sampleRows.length; i++ )
+			addTuple(distinct, getTuple(rawblock, sampleRows[i], colIndexes), i);
+		return createBitmap(colIndexes.length, distinct);
+	}
+
+	/**
+	 *
+	 * @param rawblock
+	 * @param r
+	 * @param colIndexes
+	 * @return
+	 */
+	private static double[] getTuple(MatrixBlock rawblock, int r, int[] colIndexes) {
+		double[] tuple = new double[colIndexes.length];
+		if( !rawblock.isInSparseFormat() && rawblock.getDenseBlock() != null ) {
+			double[] a = rawblock.getDenseBlock();
+			int aix = r * rawblock.getNumColumns();
+			for( int j=0; j<colIndexes.length; j++ )
+				tuple[j] = a[aix + colIndexes[j]];
+		}
+		else if( rawblock.isInSparseFormat() && rawblock.getSparseBlock() != null ) {
+			SparseBlock sblock = rawblock.getSparseBlock();
+			if( !sblock.isEmpty(r) ) {
+				int apos = sblock.pos(r);
+				int alen = sblock.size(r);
+				int[] aix = sblock.indexes(r);
+				double[] avals = sblock.values(r);
+				for( int j=0; j<colIndexes.length; j++ ) {
+					int ix = Arrays.binarySearch(aix, apos, apos+alen, colIndexes[j]);
+					tuple[j] = (ix >= 0) ? avals[ix] : 0;
+				}
+			}
+		}
+		return tuple;
+	}
+
+	/**
+	 *
+	 * @param distinct
+	 * @param tuple
+	 * @param rix
+	 */
+	private static void addTuple(LinkedHashMap<DblArray, IntArrayList> distinct, double[] tuple, int rix) {
+		//zero tuples are not stored (implicit in all encodings)
+		if( DblArray.isZero(tuple) )
+			return;
+		DblArray key = new DblArray(tuple);
+		IntArrayList list = distinct.get(key);
+		if( list == null ) {
+			list = new IntArrayList();
+			distinct.put(key, list);
+		}
+		list.appendValue(rix);
+	}
+
+	/**
+	 *
+	 * @param numCols
+	 * @param distinct
+	 * @return
+	 */
+	private static UncompressedBitmap createBitmap(int numCols, LinkedHashMap<DblArray, IntArrayList> distinct) {
+		int numVals = distinct.size();
+		double[] values = new double[numVals * numCols];
+		int[][] offsetsLists = new int[numVals][];
+		int[] offsetsLens = new int[numVals];
+		int bitmapix = 0;
+		for( Entry<DblArray, IntArrayList> e : distinct.entrySet() ) {
+			System.arraycopy(e.getKey().getData(), 0, values, bitmapix*numCols, numCols);
+			offsetsLists[bitmapix] = e.getValue().data();
+			offsetsLens[bitmapix] = e.getValue().size();
+			bitmapix++;
+		}
+		return new UncompressedBitmap(numCols, values, offsetsLists, offsetsLens);
+	}
+
+	/**
+	 * Growable array of row offsets.
+	 */
+	private static class IntArrayList
+	{
+		private int[] _data = new int[4];
+		private int _size = 0;
+
+		public void appendValue(int value) {
+			if( _size == _data.length )
+				_data = Arrays.copyOf(_data, 2*_data.length);
+			_data[_size++] = value;
+		}
+
+		public int[] data() {
+			return _data;
+		}
+
+		public int size() {
+			return _size;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Abstract column group of a compressed matrix block. A column group
+ * stores a subset of columns (over all rows) in a specific encoding, and
+ * the column groups of a compressed block are disjoint and cover all
+ * columns. All operations add their contributions to the given outputs,
+ * which allows to process the column groups independently.
+ */
+public abstract class ColGroup
+{
+	public enum CompressionType {
+		UNCOMPRESSED, //uncompressed sparse/dense
+		OLE_BITMAP,   //offset-list encoding
+		RLE_BITMAP,   //run-length encoding
+		DDC1,         //dense dictionary coding w/ 1 byte codes
+		DDC2,         //dense dictionary coding w/ 2 byte codes
+	}
+
+	//sorted column indexes of this group
+	protected final int[] _colIndexes;
+
+	//number of rows of the entire matrix
+	protected final int _numRows;
+
+	protected ColGroup(int[] colIndexes, int numRows) {
+		_colIndexes = colIndexes;
+		_numRows = numRows;
+	}
+
+	public int[] getColIndices() {
+		return _colIndexes;
+	}
+
+	public int getNumCols() {
+		return _colIndexes.length;
+	}
+
+	public int getNumRows() {
+		return _numRows;
+	}
+
+	/**
+	 * Obtain the compression type of this column group.
+	 *
+	 * @return
+	 */
+	public abstract CompressionType getCompType();
+
+	/**
+	 * Estimate the in-memory size of this column group in bytes.
+	 *
+	 * @return
+	 */
+	public abstract long estimateInMemorySize();
+
+	/**
+	 * Gets the number of non-zero values of this column group.
+	 *
+	 * @return
+	 */
+	public abstract long getNumberNonZeros();
+
+	/**
+	 * Decompresses this column group into the given dense target block
+	 * of the full matrix dimensions.
+	 *
+	 * @param target allocated dense matrix block
+	 */
+	public abstract void decompressToBlock(MatrixBlock target);
+
+	/**
+	 * Multiplies this column group with the given dense column vector
+	 * (of the full number of columns) and adds the result rows rl to ru
+	 * to the given output vector.
+	 *
+	 * @param b dense input vector (length number of columns)
+	 * @param c dense output vector (length number of rows)
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	public abstract void rightMultByVector(double[] b, double[] c, int rl, int ru);
+
+	/**
+	 * Multiplies the given dense row vector with this column group and adds
+	 * the result to the columns of this group in the given output vector.
+	 *
+	 * @param a dense input vector (length number of rows)
+	 * @param c dense output vector (length number of columns)
+	 */
+	public abstract void leftMultByRowVector(double[] a, double[] c);
+
+	/**
+	 * Computes the sum of all values of this column group.
+	 *
+	 * @return
+	 */
+	public abstract double computeSum();
+
+	/**
+	 * Adds the column sums of this column group to the given output vector.
+	 *
+	 * @param c dense output vector (length number of columns)
+	 */
+	public abstract void computeColSums(double[] c);
+
+	/**
+	 * Adds the row sums of rows rl to ru of this column group to the
+	 * given output vector.
+	 *
+	 * @param c dense output vector (length number of rows)
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	public abstract void computeRowSums(double[] c, int rl, int ru);
+
+	/**
+	 * Applies the given scalar operation to all values of this column group,
+	 * including zeros if the operation is not sparse-safe.
+	 *
+	 * @param op scalar operator
+	 * @return new column group
+	 * @throws DMLRuntimeException
+	 */
+	public abstract ColGroup scalarOperation(ScalarOperator op)
+		throws DMLRuntimeException;
+
+	/**
+	 * Gets the memory overhead of the common meta data of a column group.
+	 *
+	 * @param numCols
+	 * @return
+	 */
+	protected static long estimateBaseSize(int numCols) {
+		//object header, number of rows, column indexes array
+		return 16 + 4 + 8 + (16 + 4L*numCols);
+	}
+}
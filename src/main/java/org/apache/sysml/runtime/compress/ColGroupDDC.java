@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class of column groups with dense dictionary coding (DDC), which
+ * store for every row a fixed-size code into the dictionary. In contrast
+ * to offset-based encodings, the zero tuple (if present) is an explicit
+ * dictionary entry. This encoding is well suited for dense columns with
+ * few distinct values such as binned or integer-valued features.
+ */
+public abstract class ColGroupDDC extends ColGroupValue
+{
+	protected ColGroupDDC(int[] colIndexes, int numRows, double[] values) {
+		super(colIndexes, numRows, values);
+	}
+
+	/**
+	 * Gets the dictionary code of the given row.
+	 *
+	 * @param r row index
+	 * @return
+	 */
+	protected abstract int getCode(int r);
+
+	/**
+	 * Creates a new column group with the same codes and the given dictionary.
+	 *
+	 * @param values
+	 * @return
+	 */
+	protected abstract ColGroupDDC create(double[] values);
+
+	@Override
+	public void decompressToBlock(MatrixBlock target) {
+		double[] c = target.getDenseBlock();
+		int clen = target.getNumColumns();
+		int numCols = getNumCols();
+		for( int i=0, cix=0; i<_numRows; i++, cix+=clen ) {
+			int valOff = getCode(i) * numCols;
+			for( int j=0; j<numCols; j++ )
+				c[cix + _colIndexes[j]] = _values[valOff+j];
+		}
+	}
+
+	@Override
+	public int[] getCounts() {
+		int[] ret = new int[getNumValues()];
+		for( int i=0; i<_numRows; i++ )
+			ret[getCode(i)]++;
+		return ret;
+	}
+
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) {
+		double[] vals = preaggValues(b);
+		for( int i=rl; i<ru; i++ )
+			c[i] += vals[getCode(i)];
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		double[] vals = new double[getNumValues()];
+		for( int i=0; i<_numRows; i++ )
+			vals[getCode(i)] += a[i];
+		postScaling(vals, c);
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		double[] vals = sumAllValues();
+		for( int i=rl; i<ru; i++ )
+			c[i] += vals[getCode(i)];
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op)
+		throws DMLRuntimeException
+	{
+		//zero tuples are explicit, hence all operations apply to the dictionary
+		return create(applyScalarOp(op));
+	}
+
+	/**
+	 * Creates the dictionary of a DDC column group from the given bitmap,
+	 * where the zero tuple is appended if not all rows are covered.
+	 *
+	 * @param ubm
+	 * @param numRows
+	 * @return
+	 */
+	protected static double[] createValues(UncompressedBitmap ubm, int numRows) {
+		double[] values = ubm.getValues();
+		if( ubm.getNumOffsets() < numRows ) {
+			double[] tmp = new double[values.length + ubm.getNumColumns()];
+			System.arraycopy(values, 0, tmp, 0, values.length);
+			values = tmp;
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the number of dictionary entries of a DDC encoding of the given
+	 * bitmap, including the zero tuple if not all rows are covered.
+	 *
+	 * @param ubm
+	 * @param numRows
+	 * @return
+	 */
+	public static int getNumDictionaryEntries(UncompressedBitmap ubm, int numRows) {
+		return ubm.getNumValues() + ((ubm.getNumOffsets() < numRows) ? 1 : 0);
+	}
+}
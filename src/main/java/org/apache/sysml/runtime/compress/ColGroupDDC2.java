@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+
+/**
+ * Column group with dense dictionary coding and 2 byte codes, i.e.,
+ * for up to 65536 distinct value tuples (including the zero tuple).
+ */
+public class ColGroupDDC2 extends ColGroupDDC
+{
+	public static final int MAX_TUPLES = 65536;
+
+	private final char[] _data;
+
+	public ColGroupDDC2(int[] colIndexes, int numRows, UncompressedBitmap ubm) {
+		super(colIndexes, numRows, createValues(ubm, numRows));
+		_data = new char[numRows];
+
+		//initialize all rows with the zero tuple (if present, last entry)
+		int numVals = ubm.getNumValues();
+		if( numVals < getNumValues() )
+			Arrays.fill(_data, (char)numVals);
+		for( int k=0; k<numVals; k++ ) {
+			int[] offsets = ubm.getOffsetsList(k);
+			int len = ubm.getNumOffsets(k);
+			for( int i=0; i<len; i++ )
+				_data[offsets[i]] = (char)k;
+		}
+	}
+
+	private ColGroupDDC2(int[] colIndexes, int numRows, double[] values, char[] data) {
+		super(colIndexes, numRows, values);
+		_data = data;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.DDC2;
+	}
+
+	@Override
+	protected int getCode(int r) {
+		return _data[r];
+	}
+
+	@Override
+	protected ColGroupDDC create(double[] values) {
+		return new ColGroupDDC2(_colIndexes, _numRows, values, _data);
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateInMemorySize(getNumCols(), getNumValues(), _numRows);
+	}
+
+	/**
+	 * Estimates the in-memory size of a DDC2 column group.
+	 *
+	 * @param numCols number of columns
+	 * @param numVals number of dictionary entries
+	 * @param numRows number of rows
+	 * @return
+	 */
+	public static long estimateInMemorySize(int numCols, int numVals, int numRows) {
+		return estimateBaseSize(numCols) + estimateDictionarySize(numCols, numVals)
+			+ (8 + 16 + 2L*numRows);
+	}
+}
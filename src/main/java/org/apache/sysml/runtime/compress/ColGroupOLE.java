@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+
+/**
+ * Column group with offset-list encoding (OLE), which stores for each
+ * distinct non-zero value tuple the sorted list of row offsets. This
+ * encoding is well suited for sparse columns with few distinct values
+ * such as one-hot encoded features.
+ */
+public class ColGroupOLE extends ColGroupOffset
+{
+	public ColGroupOLE(int[] colIndexes, int numRows, UncompressedBitmap ubm) {
+		this(colIndexes, numRows, ubm.getValues(), encode(ubm));
+	}
+
+	private ColGroupOLE(int[] colIndexes, int numRows, double[] values, int[][] ptrdata) {
+		this(colIndexes, numRows, values, ptrdata[0], ptrdata[1]);
+	}
+
+	protected ColGroupOLE(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data) {
+		super(colIndexes, numRows, values, ptr, data);
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.OLE_BITMAP;
+	}
+
+	@Override
+	protected ColGroupOffset create(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data) {
+		return new ColGroupOLE(colIndexes, numRows, values, ptr, data);
+	}
+
+	@Override
+	protected ColGroupOffset create(int[] colIndexes, int numRows, UncompressedBitmap ubm) {
+		return new ColGroupOLE(colIndexes, numRows, ubm);
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateInMemorySize(getNumCols(), getNumValues(), _data.length);
+	}
+
+	@Override
+	protected int[] decodeOffsets(int k) {
+		return Arrays.copyOfRange(_data, _ptr[k], _ptr[k+1]);
+	}
+
+	@Override
+	public int[] getCounts() {
+		int numVals = getNumValues();
+		int[] ret = new int[numVals];
+		for( int k=0; k<numVals; k++ )
+			ret[k] = _ptr[k+1] - _ptr[k];
+		return ret;
+	}
+
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) {
+		double[] vals = preaggValues(b);
+		addToRows(vals, c, rl, ru);
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		int numVals = getNumValues();
+		double[] vals = new double[numVals];
+		for( int k=0; k<numVals; k++ ) {
+			double lsum = 0;
+			for( int i=_ptr[k]; i<_ptr[k+1]; i++ )
+				lsum += a[_data[i]];
+			vals[k] = lsum;
+		}
+		postScaling(vals, c);
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		addToRows(sumAllValues(), c, rl, ru);
+	}
+
+	/**
+	 * Adds the given per-value aggregates to all rows rl to ru of the
+	 * respective value tuples.
+	 *
+	 * @param vals
+	 * @param c
+	 * @param rl
+	 * @param ru
+	 */
+	private void addToRows(double[] vals, double[] c, int rl, int ru) {
+		int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			int end = _ptr[k+1];
+			int start = _ptr[k];
+			if( rl > 0 ) { //find first row >= rl
+				int ix = Arrays.binarySearch(_data, start, end, rl);
+				start = (ix >= 0) ? ix : -(ix+1);
+			}
+			for( int i=start; i<end && _data[i]<ru; i++ )
+				c[_data[i]] += val;
+		}
+	}
+
+	/**
+	 * Encodes the given bitmap into start pointers and concatenated offsets.
+	 *
+	 * @param ubm
+	 * @return
+	 */
+	private static int[][] encode(UncompressedBitmap ubm) {
+		int numVals = ubm.getNumValues();
+		int[] lens = new int[numVals];
+		for( int k=0; k<numVals; k++ )
+			lens[k] = ubm.getNumOffsets(k);
+		int[] ptr = computePointers(lens);
+		int[] data = new int[ptr[numVals]];
+		for( int k=0; k<numVals; k++ )
+			System.arraycopy(ubm.getOffsetsList(k), 0, data, ptr[k], lens[k]);
+		return new int[][]{ptr, data};
+	}
+
+	/**
+	 * Estimates the in-memory size of an OLE column group.
+	 *
+	 * @param numCols number of columns
+	 * @param numVals number of distinct non-zero value tuples
+	 * @param numOffsets number of rows with non-zero value tuples
+	 * @return
+	 */
+	public static long estimateInMemorySize(int numCols, int numVals, long numOffsets) {
+		return estimateBaseSize(numCols) + estimateDictionarySize(numCols, numVals)
+			+ (8 + 16 + 4L*(numVals+1)) + (8 + 16 + 4L*numOffsets);
+	}
+}
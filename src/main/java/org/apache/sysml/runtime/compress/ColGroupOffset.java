@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class of bitmap-based column groups (offset lists and run-length
+ * encoding), which store per value tuple a list of rows in a shared data
+ * array. Rows with a zero tuple are not stored.
+ */
+public abstract class ColGroupOffset extends ColGroupValue
+{
+	//start positions of the encoded rows of each value tuple in _data
+	protected final int[] _ptr;
+
+	//encoded rows of all value tuples
+	protected final int[] _data;
+
+	protected ColGroupOffset(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data) {
+		super(colIndexes, numRows, values);
+		_ptr = ptr;
+		_data = data;
+	}
+
+	/**
+	 * Decodes the sorted row offsets of the given value tuple.
+	 *
+	 * @param k value tuple index
+	 * @return
+	 */
+	protected abstract int[] decodeOffsets(int k);
+
+	/**
+	 * Creates a new column group of the same encoding from the given
+	 * dictionary and encoded data.
+	 */
+	protected abstract ColGroupOffset create(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data);
+
+	/**
+	 * Creates a new column group of the same encoding from the given bitmap.
+	 */
+	protected abstract ColGroupOffset create(int[] colIndexes, int numRows, UncompressedBitmap ubm);
+
+	@Override
+	public void decompressToBlock(MatrixBlock target) {
+		double[] c = target.getDenseBlock();
+		int clen = target.getNumColumns();
+		int numCols = getNumCols();
+		int numVals = getNumValues();
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int[] offsets = decodeOffsets(k);
+			for( int i=0; i<offsets.length; i++ ) {
+				int cix = offsets[i] * clen;
+				for( int j=0; j<numCols; j++ )
+					c[cix + _colIndexes[j]] = _values[valOff+j];
+			}
+		}
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op)
+		throws DMLRuntimeException
+	{
+		//sparse-safe operation: apply to dictionary, reuse encoded rows
+		double val0 = op.executeScalar(0);
+		if( val0 == 0 )
+			return create(_colIndexes, _numRows, applyScalarOp(op), _ptr, _data);
+
+		//non sparse-safe operation: rows with zero tuple become an explicit
+		//value tuple, which requires to re-encode the column group
+		int numCols = getNumCols();
+		int numVals = getNumValues();
+		boolean[] covered = new boolean[_numRows];
+		int[][] offsetsLists = new int[numVals+1][];
+		int[] offsetsLens = new int[numVals+1];
+		int numCovered = 0;
+		for( int k=0; k<numVals; k++ ) {
+			int[] offsets = decodeOffsets(k);
+			for( int i=0; i<offsets.length; i++ )
+				covered[offsets[i]] = true;
+			offsetsLists[k] = offsets;
+			offsetsLens[k] = offsets.length;
+			numCovered += offsets.length;
+		}
+		int[] zeroRows = new int[_numRows - numCovered];
+		for( int i=0, pos=0; i<_numRows; i++ )
+			if( !covered[i] )
+				zeroRows[pos++] = i;
+
+		double[] values = applyScalarOp(op);
+		if( zeroRows.length > 0 ) {
+			values = Arrays.copyOf(values, values.length + numCols);
+			Arrays.fill(values, values.length - numCols, values.length, val0);
+			offsetsLists[numVals] = zeroRows;
+			offsetsLens[numVals] = zeroRows.length;
+		}
+		else {
+			offsetsLists = Arrays.copyOf(offsetsLists, numVals);
+			offsetsLens = Arrays.copyOf(offsetsLens, numVals);
+		}
+
+		return create(_colIndexes, _numRows,
+			new UncompressedBitmap(numCols, values, offsetsLists, offsetsLens));
+	}
+
+	/**
+	 * Computes the start positions of the value tuples in the data array
+	 * from the encoded lengths per value tuple.
+	 *
+	 * @param lens encoded lengths per value tuple
+	 * @return
+	 */
+	protected static int[] computePointers(int[] lens) {
+		int[] ptr = new int[lens.length+1];
+		for( int k=0; k<lens.length; k++ )
+			ptr[k+1] = ptr[k] + lens[k];
+		return ptr;
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+/**
+ * Column group with run-length encoding (RLE), which stores for each
+ * distinct non-zero value tuple the list of runs of consecutive rows as
+ * (start, length) pairs. This encoding is well suited for sorted or
+ * clustered columns such as group ids or binned timestamps.
+ */
+public class ColGroupRLE extends ColGroupOffset
+{
+	public ColGroupRLE(int[] colIndexes, int numRows, UncompressedBitmap ubm) {
+		this(colIndexes, numRows, ubm.getValues(), encode(ubm));
+	}
+
+	private ColGroupRLE(int[] colIndexes, int numRows, double[] values, int[][] ptrdata) {
+		this(colIndexes, numRows, values, ptrdata[0], ptrdata[1]);
+	}
+
+	protected ColGroupRLE(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data) {
+		super(colIndexes, numRows, values, ptr, data);
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.RLE_BITMAP;
+	}
+
+	@Override
+	protected ColGroupOffset create(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data) {
+		return new ColGroupRLE(colIndexes, numRows, values, ptr, data);
+	}
+
+	@Override
+	protected ColGroupOffset create(int[] colIndexes, int numRows, UncompressedBitmap ubm) {
+		return new ColGroupRLE(colIndexes, numRows, ubm);
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateInMemorySize(getNumCols(), getNumValues(), _data.length/2);
+	}
+
+	@Override
+	protected int[] decodeOffsets(int k) {
+		int[] ret = new int[getCount(k)];
+		for( int i=_ptr[k], pos=0; i<_ptr[k+1]; i+=2 )
+			for( int r=_data[i]; r<_data[i]+_data[i+1]; r++ )
+				ret[pos++] = r;
+		return ret;
+	}
+
+	@Override
+	public int[] getCounts() {
+		int numVals = getNumValues();
+		int[] ret = new int[numVals];
+		for( int k=0; k<numVals; k++ )
+			ret[k] = getCount(k);
+		return ret;
+	}
+
+	private int getCount(int k) {
+		int cnt = 0;
+		for( int i=_ptr[k]; i<_ptr[k+1]; i+=2 )
+			cnt += _data[i+1];
+		return cnt;
+	}
+
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) {
+		double[] vals = preaggValues(b);
+		addToRows(vals, c, rl, ru);
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		int numVals = getNumValues();
+		double[] vals = new double[numVals];
+		for( int k=0; k<numVals; k++ ) {
+			double lsum = 0;
+			for( int i=_ptr[k]; i<_ptr[k+1]; i+=2 ) {
+				int end = _data[i] + _data[i+1];
+				for( int r=_data[i]; r<end; r++ )
+					lsum += a[r];
+			}
+			vals[k] = lsum;
+		}
+		postScaling(vals, c);
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		addToRows(sumAllValues(), c, rl, ru);
+	}
+
+	/**
+	 * Adds the given per-value aggregates to all rows rl to ru of the
+	 * respective value tuples.
+	 *
+	 * @param vals
+	 * @param c
+	 * @param rl
+	 * @param ru
+	 */
+	private void addToRows(double[] vals, double[] c, int rl, int ru) {
+		int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ ) {
+			double val = vals[k];
+			if( val == 0 )
+				continue;
+			for( int i=_ptr[k]; i<_ptr[k+1] && _data[i]<ru; i+=2 ) {
+				int end = Math.min(_data[i] + _data[i+1], ru);
+				for( int r=Math.max(_data[i], rl); r<end; r++ )
+					c[r] += val;
+			}
+		}
+	}
+
+	/**
+	 * Encodes the given bitmap into start pointers and (start, length) runs.
+	 *
+	 * @param ubm
+	 * @return
+	 */
+	private static int[][] encode(UncompressedBitmap ubm) {
+		int numVals = ubm.getNumValues();
+		int[][] runs = new int[numVals][];
+		int[] lens = new int[numVals];
+		for( int k=0; k<numVals; k++ ) {
+			int[] offsets = ubm.getOffsetsList(k);
+			int len = ubm.getNumOffsets(k);
+			int[] lruns = new int[2*len];
+			int pos = 0;
+			for( int i=0; i<len; i++ ) {
+				if( i > 0 && offsets[i] == offsets[i-1]+1 )
+					lruns[pos-1]++; //extend current run
+				else {
+					lruns[pos++] = offsets[i];
+					lruns[pos++] = 1;
+				}
+			}
+			runs[k] = lruns;
+			lens[k] = pos;
+		}
+		int[] ptr = computePointers(lens);
+		int[] data = new int[ptr[numVals]];
+		for( int k=0; k<numVals; k++ )
+			System.arraycopy(runs[k], 0, data, ptr[k], lens[k]);
+		return new int[][]{ptr, data};
+	}
+
+	/**
+	 * Estimates the in-memory size of an RLE column group.
+	 *
+	 * @param numCols number of columns
+	 * @param numVals number of distinct non-zero value tuples
+	 * @param numRuns number of runs over all value tuples
+	 * @return
+	 */
+	public static long estimateInMemorySize(int numCols, int numVals, long numRuns) {
+		return estimateBaseSize(numCols) + estimateDictionarySize(numCols, numVals)
+			+ (8 + 16 + 4L*(numVals+1)) + (8 + 16 + 8L*numRuns);
+	}
+}
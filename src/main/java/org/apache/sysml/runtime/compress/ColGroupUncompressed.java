@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Column group of incompressible columns, stored as a regular (dense or
+ * sparse) matrix block with one column per column of the group.
+ */
+public class ColGroupUncompressed extends ColGroup
+{
+	//uncompressed data of the columns of this group (numRows x numCols)
+	private final MatrixBlock _data;
+
+	public ColGroupUncompressed(int[] colIndexes, MatrixBlock rawblock, boolean transposed)
+		throws DMLRuntimeException
+	{
+		super(colIndexes, transposed ? rawblock.getNumColumns() : rawblock.getNumRows());
+
+		int m = _numRows;
+		int n = colIndexes.length;
+		boolean sparse = rawblock.isInSparseFormat();
+		if( !transposed ) {
+			_data = new MatrixBlock(m, n, sparse);
+			for( int i=0; i<m; i++ )
+				for( int j=0; j<n; j++ )
+					_data.appendValue(i, j, rawblock.quickGetValue(i, colIndexes[j]));
+		}
+		else {
+			//copy the rows of the transposed input and transpose back
+			MatrixBlock tmp = new MatrixBlock(n, m, sparse);
+			for( int j=0; j<n; j++ )
+				for( int i=0; i<m; i++ )
+					tmp.appendValue(j, i, rawblock.quickGetValue(colIndexes[j], i));
+			_data = LibMatrixReorg.transpose(tmp, new MatrixBlock(m, n, sparse));
+		}
+		_data.examSparsity();
+	}
+
+	private ColGroupUncompressed(int[] colIndexes, int numRows, MatrixBlock data) {
+		super(colIndexes, numRows);
+		_data = data;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.UNCOMPRESSED;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return estimateBaseSize(getNumCols()) + 8 + _data.getInMemorySize();
+	}
+
+	@Override
+	public long getNumberNonZeros() {
+		return _data.getNonZeros();
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target) {
+		double[] c = target.getDenseBlock();
+		int clen = target.getNumColumns();
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=0; i<_numRows; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int j=apos; j<apos+alen; j++ )
+					c[i*clen + _colIndexes[aix[j]]] = avals[j];
+			}
+		}
+		else {
+			double[] a = _data.getDenseBlock();
+			int n = getNumCols();
+			for( int i=0, aix=0; i<_numRows; i++, aix+=n )
+				for( int j=0; j<n; j++ )
+					c[i*clen + _colIndexes[j]] = a[aix+j];
+		}
+	}
+
+	@Override
+	public void rightMultByVector(double[] b, double[] c, int rl, int ru) {
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				double lsum = 0;
+				for( int j=apos; j<apos+alen; j++ )
+					lsum += avals[j] * b[_colIndexes[aix[j]]];
+				c[i] += lsum;
+			}
+		}
+		else {
+			double[] a = _data.getDenseBlock();
+			int n = getNumCols();
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
+				double lsum = 0;
+				for( int j=0; j<n; j++ )
+					lsum += a[aix+j] * b[_colIndexes[j]];
+				c[i] += lsum;
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock b = _data.getSparseBlock();
+			for( int i=0; i<_numRows; i++ ) {
+				if( b.isEmpty(i) || a[i] == 0 )
+					continue;
+				int bpos = b.pos(i);
+				int blen = b.size(i);
+				int[] bix = b.indexes(i);
+				double[] bvals = b.values(i);
+				for( int j=bpos; j<bpos+blen; j++ )
+					c[_colIndexes[bix[j]]] += a[i] * bvals[j];
+			}
+		}
+		else {
+			double[] b = _data.getDenseBlock();
+			int n = getNumCols();
+			for( int i=0, bix=0; i<_numRows; i++, bix+=n ) {
+				if( a[i] == 0 )
+					continue;
+				for( int j=0; j<n; j++ )
+					c[_colIndexes[j]] += a[i] * b[bix+j];
+			}
+		}
+	}
+
+	@Override
+	public double computeSum() {
+		double[] tmp = new double[getNumCols()];
+		computeSums(tmp, 0, _numRows, false);
+		double sum = 0;
+		for( int j=0; j<tmp.length; j++ )
+			sum += tmp[j];
+		return sum;
+	}
+
+	@Override
+	public void computeColSums(double[] c) {
+		double[] tmp = new double[getNumCols()];
+		computeSums(tmp, 0, _numRows, false);
+		for( int j=0; j<tmp.length; j++ )
+			c[_colIndexes[j]] += tmp[j];
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		computeSums(c, rl, ru, true);
+	}
+
+	/**
+	 * Computes row sums (added to c[i]) or column sums (added to c[j])
+	 * over rows rl to ru of the uncompressed data.
+	 *
+	 * @param c
+	 * @param rl
+	 * @param ru
+	 * @param rowSums
+	 */
+	private void computeSums(double[] c, int rl, int ru, boolean rowSums) {
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int j=apos; j<apos+alen; j++ )
+					c[rowSums ? i : aix[j]] += avals[j];
+			}
+		}
+		else {
+			double[] a = _data.getDenseBlock();
+			int n = getNumCols();
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+				for( int j=0; j<n; j++ )
+					c[rowSums ? i : j] += a[aix+j];
+		}
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op)
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = (MatrixBlock) _data.scalarOperations(op, new MatrixBlock());
+		return new ColGroupUncompressed(_colIndexes, _numRows, ret);
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class of all value-based column groups, which store a dictionary of
+ * distinct value tuples and per row (implicitly or explicitly) a reference
+ * into this dictionary. Operations are executed over the dictionary and
+ * the per-value counts or row references, without decompression.
+ */
+public abstract class ColGroupValue extends ColGroup
+{
+	//distinct value tuples (linearized, numVals x numCols)
+	protected final double[] _values;
+
+	protected ColGroupValue(int[] colIndexes, int numRows, double[] values) {
+		super(colIndexes, numRows);
+		_values = values;
+	}
+
+	public double[] getValues() {
+		return _values;
+	}
+
+	public int getNumValues() {
+		return _values.length / _colIndexes.length;
+	}
+
+	/**
+	 * Gets the number of rows per value tuple of the dictionary.
+	 *
+	 * @return
+	 */
+	public abstract int[] getCounts();
+
+	@Override
+	public long getNumberNonZeros() {
+		int[] counts = getCounts();
+		int numCols = getNumCols();
+		long nnz = 0;
+		for( int k=0, valOff=0; k<counts.length; k++, valOff+=numCols ) {
+			int lnnz = 0;
+			for( int j=0; j<numCols; j++ )
+				lnnz += (_values[valOff+j] != 0) ? 1 : 0;
+			nnz += (long)lnnz * counts[k];
+		}
+		return nnz;
+	}
+
+	@Override
+	public double computeSum() {
+		int[] counts = getCounts();
+		double[] tsums = sumAllValues();
+		double sum = 0;
+		for( int k=0; k<counts.length; k++ )
+			sum += tsums[k] * counts[k];
+		return sum;
+	}
+
+	@Override
+	public void computeColSums(double[] c) {
+		int[] counts = getCounts();
+		int numCols = getNumCols();
+		for( int k=0, valOff=0; k<counts.length; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ )
+				c[_colIndexes[j]] += _values[valOff+j] * counts[k];
+	}
+
+	/**
+	 * Pre-aggregates the dictionary with the given dense column vector,
+	 * i.e., computes the dot product of each value tuple with the vector
+	 * entries of the columns of this group.
+	 *
+	 * @param b dense input vector (length number of columns)
+	 * @return pre-aggregated values per value tuple
+	 */
+	protected double[] preaggValues(double[] b) {
+		int numVals = getNumValues();
+		int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double lsum = 0;
+			for( int j=0; j<numCols; j++ )
+				lsum += _values[valOff+j] * b[_colIndexes[j]];
+			ret[k] = lsum;
+		}
+		return ret;
+	}
+
+	/**
+	 * Computes the sum of each value tuple of the dictionary.
+	 *
+	 * @return
+	 */
+	protected double[] sumAllValues() {
+		int numVals = getNumValues();
+		int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double lsum = 0;
+			for( int j=0; j<numCols; j++ )
+				lsum += _values[valOff+j];
+			ret[k] = lsum;
+		}
+		return ret;
+	}
+
+	/**
+	 * Scales the dictionary by the given per-value weights and adds the
+	 * result to the columns of this group in the given output vector.
+	 *
+	 * @param vals weights per value tuple
+	 * @param c dense output vector (length number of columns)
+	 */
+	protected void postScaling(double[] vals, double[] c) {
+		int numVals = getNumValues();
+		int numCols = getNumCols();
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double aval = vals[k];
+			if( aval == 0 )
+				continue;
+			for( int j=0; j<numCols; j++ )
+				c[_colIndexes[j]] += aval * _values[valOff+j];
+		}
+	}
+
+	/**
+	 * Applies the given scalar operation to all values of the dictionary.
+	 *
+	 * @param op scalar operator
+	 * @return new dictionary
+	 * @throws DMLRuntimeException
+	 */
+	protected double[] applyScalarOp(ScalarOperator op)
+		throws DMLRuntimeException
+	{
+		double[] ret = new double[_values.length];
+		for( int i=0; i<_values.length; i++ )
+			ret[i] = op.executeScalar(_values[i]);
+		return ret;
+	}
+
+	/**
+	 * Gets the in-memory size of a dictionary.
+	 *
+	 * @param numCols
+	 * @param numVals
+	 * @return
+	 */
+	protected static long estimateDictionarySize(int numCols, int numVals) {
+		return 8 + 16 + 8L * numCols * numVals;
+	}
+}
@@ -0,0 +1,739 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.ColGroup.CompressionType;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.ReduceAll;
+import org.apache.sysml.runtime.functionobjects.ReduceCol;
+import org.apache.sysml.runtime.functionobjects.ReduceRow;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.MatrixValue;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+
+/**
+ * Matrix block that stores its columns in compressed column groups
+ * (offset lists, run-length encoding, dense dictionary coding, or
+ * uncompressed), where correlated columns may be co-coded into a single
+ * column group. The compression plan is obtained by sample-based size
+ * estimation and greedy co-coding (see {@link PlanningCoCoder}).
+ *
+ * Matrix-vector and vector-matrix multiplications, mmchain, t(X)%*%X,
+ * sum/rowSums/colSums, and scalar operations are executed directly on the
+ * compressed representation; all other operations require decompression.
+ * Hence, compressed blocks are only handed out to instructions that
+ * explicitly support them (see MatrixObject.acquireReadCompressed), while
+ * all other consumers obtain a decompressed copy. The serialized form
+ * (write, eviction) is the regular uncompressed matrix block format.
+ *
+ * Before compression, the block behaves like a regular matrix block.
+ */
+public class CompressedMatrixBlock extends MatrixBlock
+{
+	private static final long serialVersionUID = 7319972089143154056L;
+
+	private static final Log LOG = LogFactory.getLog(CompressedMatrixBlock.class.getName());
+
+	//compressed column groups (null if not compressed)
+	private ArrayList<ColGroup> _colGroups = null;
+
+	//decompressed form for read-only consumers (reused while softly reachable)
+	private transient SoftReference<MatrixBlock> _decompressed = null;
+
+	public CompressedMatrixBlock() {
+		super();
+	}
+
+	/**
+	 * Creates an uncompressed block as a shallow copy of the given block,
+	 * which must not be modified afterwards.
+	 *
+	 * @param mb matrix block
+	 */
+	public CompressedMatrixBlock(MatrixBlock mb) {
+		super(mb.getNumRows(), mb.getNumColumns(), mb.isInSparseFormat());
+		nonZeros = mb.getNonZeros();
+		denseBlock = mb.getDenseBlock();
+		sparseBlock = mb.getSparseBlock();
+	}
+
+	private CompressedMatrixBlock(int rl, int cl, ArrayList<ColGroup> colGroups) {
+		super(rl, cl, false);
+		_colGroups = colGroups;
+		recomputeNonZeros();
+	}
+
+	public boolean isCompressed() {
+		return (_colGroups != null);
+	}
+
+	public List<ColGroup> getColGroups() {
+		return _colGroups;
+	}
+
+	/**
+	 * Compresses this matrix block if beneficial (i.e., if the compressed
+	 * size is smaller than the uncompressed in-memory size).
+	 *
+	 * @param k degree of parallelism
+	 * @return true if the block has been compressed
+	 * @throws DMLRuntimeException
+	 */
+	public boolean compress(int k)
+		throws DMLRuntimeException
+	{
+		if( isCompressed() )
+			return true;
+		if( rlen <= 0 || clen <= 0 || isEmptyBlock(false) )
+			return false;
+
+		long t0 = System.nanoTime();
+		long origSize = getInMemorySize();
+
+		//step 1: classify columns by sample-based size estimates
+		CompressedSizeEstimator estim = new CompressedSizeEstimator(this);
+		CompressedSizeInfo[] colInfos = estimateColumnSizes(estim, k);
+		ArrayList<Integer> compressible = new ArrayList<Integer>();
+		ArrayList<Integer> uncompressible = new ArrayList<Integer>();
+		for( int j=0; j<clen; j++ )
+			(colInfos[j].isCompressible() ? compressible : uncompressible).add(j);
+
+		//step 2: co-coding of compressible columns
+		List<int[]> groups = PlanningCoCoder.findCoCodes(estim, compressible, colInfos, k);
+
+		//step 3: compression of column groups (w/ exact sizes), where the
+		//columns of incompressible groups are added to the uncompressed group
+		boolean transposed = isInSparseFormat();
+		MatrixBlock raw = transposed ? LibMatrixReorg.transpose(
+			this, new MatrixBlock(clen, rlen, sparse), k) : this;
+		ArrayList<ColGroup> colGroups = compressColGroups(raw, transposed, groups, k);
+		for( int[] cols : groups ) {
+			if( !containsColGroup(colGroups, cols) )
+				for( int col : cols )
+					uncompressible.add(col);
+		}
+		if( !uncompressible.isEmpty() ) {
+			int[] cols = new int[uncompressible.size()];
+			for( int i=0; i<cols.length; i++ )
+				cols[i] = uncompressible.get(i);
+			Arrays.sort(cols);
+			colGroups.add(new ColGroupUncompressed(cols, raw, transposed));
+		}
+
+		//step 4: check for compression benefit
+		long size = estimateCompressedSizeInMemory(colGroups);
+		if( LOG.isDebugEnabled() ) {
+			LOG.debug("Compression of "+rlen+"x"+clen+" block in "+(System.nanoTime()-t0)/1000000+"ms: "
+				+origSize+" -> "+size+" bytes ("+colGroups.size()+" column groups, "
+				+uncompressible.size()+" uncompressed columns, sample size "+estim.getSampleSize()+").");
+		}
+		if( size >= origSize )
+			return false;
+
+		//set compressed representation and release uncompressed data
+		_colGroups = colGroups;
+		denseBlock = null;
+		sparseBlock = null;
+		sparse = false;
+		return true;
+	}
+
+	/**
+	 * Decompresses this block into a regular (dense or sparse) matrix block.
+	 *
+	 * @return uncompressed matrix block
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock decompress()
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return new MatrixBlock(this);
+
+		MatrixBlock ret = new MatrixBlock(rlen, clen, false, nonZeros);
+		ret.allocateDenseBlock();
+		for( ColGroup grp : _colGroups )
+			grp.decompressToBlock(ret);
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	/**
+	 * Gets the decompressed form of this block for read-only consumers,
+	 * which is reused across calls as long as it is softly reachable.
+	 * The returned block must not be modified.
+	 *
+	 * @return uncompressed matrix block
+	 * @throws DMLRuntimeException
+	 */
+	public synchronized MatrixBlock getDecompressed()
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = (_decompressed != null) ? _decompressed.get() : null;
+		if( ret == null ) {
+			ret = decompress();
+			_decompressed = new SoftReference<MatrixBlock>(ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Obtains the compression type of each column group.
+	 *
+	 * @return
+	 */
+	public CompressionType[] getCompressionTypes() {
+		CompressionType[] ret = new CompressionType[_colGroups.size()];
+		for( int i=0; i<ret.length; i++ )
+			ret[i] = _colGroups.get(i).getCompType();
+		return ret;
+	}
+
+	/**
+	 *
+	 * @param estim
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private CompressedSizeInfo[] estimateColumnSizes(final CompressedSizeEstimator estim, int k)
+		throws DMLRuntimeException
+	{
+		final CompressedSizeInfo[] ret = new CompressedSizeInfo[clen];
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		int blklen = (int)Math.ceil((double)clen/k);
+		for( int i=0; i<k && i*blklen<clen; i++ ) {
+			final int cl = i*blklen;
+			final int cu = Math.min((i+1)*blklen, clen);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					for( int j=cl; j<cu; j++ )
+						ret[j] = estim.estimateCompressedColGroupSize(new int[]{j});
+					return null;
+				}
+			});
+		}
+		executeTasks(tasks, k);
+		return ret;
+	}
+
+	/**
+	 * Compresses the given column groups in parallel, where groups that are
+	 * not compressible (according to exact sizes) are omitted.
+	 *
+	 * @param raw
+	 * @param transposed
+	 * @param groups
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private ArrayList<ColGroup> compressColGroups(final MatrixBlock raw, final boolean transposed, List<int[]> groups, int k)
+		throws DMLRuntimeException
+	{
+		final ColGroup[] ret = new ColGroup[groups.size()];
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for( int i=0; i<groups.size(); i++ ) {
+			final int ix = i;
+			final int[] cols = groups.get(i);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					ret[ix] = compressColGroup(raw, transposed, cols);
+					return null;
+				}
+			});
+		}
+		executeTasks(tasks, k);
+
+		ArrayList<ColGroup> colGroups = new ArrayList<ColGroup>();
+		for( ColGroup grp : ret )
+			if( grp != null )
+				colGroups.add(grp);
+		return colGroups;
+	}
+
+	/**
+	 *
+	 * @param raw
+	 * @param transposed
+	 * @param cols
+	 * @return
+	 */
+	private ColGroup compressColGroup(MatrixBlock raw, boolean transposed, int[] cols) {
+		UncompressedBitmap ubm = BitmapEncoder.extractBitmap(cols, raw, transposed);
+		CompressedSizeInfo info = CompressedSizeEstimator.computeSizeInfo(ubm, rlen, rlen);
+		if( !info.isCompressible() )
+			return null;
+		switch( info.getBestCompressionType() ) {
+			case RLE_BITMAP: return new ColGroupRLE(cols, rlen, ubm);
+			case DDC1:       return new ColGroupDDC1(cols, rlen, ubm);
+			case DDC2:       return new ColGroupDDC2(cols, rlen, ubm);
+			default:         return new ColGroupOLE(cols, rlen, ubm);
+		}
+	}
+
+	/**
+	 *
+	 * @param colGroups
+	 * @param cols
+	 * @return
+	 */
+	private static boolean containsColGroup(List<ColGroup> colGroups, int[] cols) {
+		for( ColGroup grp : colGroups )
+			if( grp.getColIndices() == cols )
+				return true;
+		return false;
+	}
+
+	/**
+	 *
+	 * @param colGroups
+	 * @return
+	 */
+	private static long estimateCompressedSizeInMemory(List<ColGroup> colGroups) {
+		//basic matrix block meta data, list of column groups
+		long size = 44 + 8 + 16 + 8L*colGroups.size();
+		for( ColGroup grp : colGroups )
+			size += grp.estimateInMemorySize();
+		return size;
+	}
+
+	//////////////////////////////////////////
+	// CacheBlock and serialization
+
+	@Override
+	public long getInMemorySize() {
+		return isCompressed() ? estimateCompressedSizeInMemory(_colGroups) :
+			super.getInMemorySize();
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		//serialized in uncompressed format (consistent with write)
+		if( !isCompressed() )
+			return super.getExactSizeOnDisk();
+		return (nonZeros == 0) ? HEADER_SIZE :
+			estimateSizeOnDisk(rlen, clen, nonZeros);
+	}
+
+	@Override
+	public boolean isShallowSerialize() {
+		//compressed blocks are always kept by reference in the buffer pool
+		return isCompressed() || super.isShallowSerialize();
+	}
+
+	@Override
+	public void write(DataOutput out)
+		throws IOException
+	{
+		if( !isCompressed() ) {
+			super.write(out);
+			return;
+		}
+		try {
+			decompress().write(out);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in)
+		throws IOException
+	{
+		_colGroups = null;
+		super.readFields(in);
+	}
+
+	@Override
+	public void recomputeNonZeros() {
+		if( !isCompressed() ) {
+			super.recomputeNonZeros();
+			return;
+		}
+		long nnz = 0;
+		for( ColGroup grp : _colGroups )
+			nnz += grp.getNumberNonZeros();
+		nonZeros = nnz;
+	}
+
+	@Override
+	public void examSparsity()
+		throws DMLRuntimeException
+	{
+		//no representation change of compressed blocks
+		if( !isCompressed() )
+			super.examSparsity();
+	}
+
+	//////////////////////////////////////////
+	// Operations on compressed representation
+
+	@Override
+	public MatrixValue scalarOperations(ScalarOperator op, MatrixValue result)
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return super.scalarOperations(op, result);
+
+		ArrayList<ColGroup> colGroups = new ArrayList<ColGroup>(_colGroups.size());
+		for( ColGroup grp : _colGroups )
+			colGroups.add(grp.scalarOperation(op));
+		return new CompressedMatrixBlock(rlen, clen, colGroups);
+	}
+
+	@Override
+	public MatrixValue aggregateBinaryOperations(MatrixValue m1Value, MatrixValue m2Value, MatrixValue result, AggregateBinaryOperator op)
+		throws DMLRuntimeException
+	{
+		MatrixBlock m1 = (MatrixBlock) m1Value;
+		MatrixBlock m2 = (MatrixBlock) m2Value;
+		if( !isCompressed(m1) && !isCompressed(m2) )
+			return super.aggregateBinaryOperations(m1Value, m2Value, result, op);
+
+		//check dimensions and operation
+		if( m1.getNumColumns() != m2.getNumRows() ) {
+			throw new RuntimeException("Dimensions do not match for matrix multiplication ("
+				+m1.getNumColumns()+"!="+m2.getNumRows()+").");
+		}
+		if( !(op.binaryFn instanceof Multiply && op.aggOp.increOp.fn instanceof Plus) ) {
+			throw new DMLRuntimeException("Unsupported binary aggregate operation: ("+op.binaryFn+", "+op.aggOp+").");
+		}
+
+		int k = op.getNumThreads();
+		MatrixBlock ret = (result != null) ? (MatrixBlock) result : new MatrixBlock();
+		if( isCompressed(m1) && !isCompressed(m2) && m2.getNumColumns() == 1 ) {
+			//matrix-vector multiplication
+			ret.reset(m1.getNumRows(), 1, false);
+			ret.allocateDenseBlock();
+			((CompressedMatrixBlock)m1).rightMultByVector(getDenseVector(m2), ret.getDenseBlock(), k);
+		}
+		else if( isCompressed(m2) && !isCompressed(m1) && m1.getNumRows() == 1 ) {
+			//vector-matrix multiplication
+			ret.reset(1, m2.getNumColumns(), false);
+			ret.allocateDenseBlock();
+			((CompressedMatrixBlock)m2).leftMultByRowVector(getDenseVector(m1), ret.getDenseBlock(), k);
+		}
+		else {
+			//general case: decompress compressed inputs
+			MatrixBlock d1 = isCompressed(m1) ? ((CompressedMatrixBlock)m1).decompress() : m1;
+			MatrixBlock d2 = isCompressed(m2) ? ((CompressedMatrixBlock)m2).decompress() : m2;
+			return d1.aggregateBinaryOperations(d1, d2, ret, op);
+		}
+
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	@Override
+	public MatrixBlock transposeSelfMatrixMultOperations(MatrixBlock out, MMTSJType tstype, int k)
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() || tstype != MMTSJType.LEFT )
+			return isCompressed() ? decompress().transposeSelfMatrixMultOperations(out, tstype, k) :
+				super.transposeSelfMatrixMultOperations(out, tstype, k);
+
+		//compute t(X)%*%X column by column: t(X[,j]) %*% X[,j:n]
+		final MatrixBlock ret = (out != null) ? out : new MatrixBlock();
+		ret.reset(clen, clen, false);
+		ret.allocateDenseBlock();
+		final double[] c = ret.getDenseBlock();
+		final int[] colToGroup = new int[clen];
+		for( int i=0; i<_colGroups.size(); i++ )
+			for( int col : _colGroups.get(i).getColIndices() )
+				colToGroup[col] = i;
+
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		int blklen = (int)Math.ceil((double)clen/k);
+		for( int i=0; i<k && i*blklen<clen; i++ ) {
+			final int cl = i*blklen;
+			final int cu = Math.min((i+1)*blklen, clen);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					double[] a = new double[rlen];
+					double[] e = new double[clen];
+					double[] row = new double[clen];
+					for( int j=cl; j<cu; j++ ) {
+						//extract column j via multiplication with unit vector
+						Arrays.fill(a, 0);
+						e[j] = 1;
+						_colGroups.get(colToGroup[j]).rightMultByVector(e, a, 0, rlen);
+						e[j] = 0;
+						//row j of output (upper triangle)
+						Arrays.fill(row, 0);
+						for( ColGroup grp : _colGroups ) {
+							int[] cols = grp.getColIndices();
+							if( cols[cols.length-1] >= j )
+								grp.leftMultByRowVector(a, row);
+						}
+						System.arraycopy(row, j, c, j*clen+j, clen-j);
+					}
+					return null;
+				}
+			});
+		}
+		executeTasks(tasks, k);
+
+		//copy upper to lower triangle
+		for( int i=0; i<clen; i++ )
+			for( int j=i+1; j<clen; j++ )
+				c[j*clen+i] = c[i*clen+j];
+
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	@Override
+	public MatrixBlock chainMatrixMultOperations(MatrixBlock v, MatrixBlock w, MatrixBlock out, ChainType ctype, int k)
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return super.chainMatrixMultOperations(v, w, out, ctype, k);
+
+		//check for transpose type and matching dimensions
+		if( !(ctype == ChainType.XtXv || ctype == ChainType.XtwXv || ctype == ChainType.XtXvy) )
+			throw new DMLRuntimeException("Invalid mmchain type '"+ctype.toString()+"'.");
+		if( clen != v.getNumRows() )
+			throw new DMLRuntimeException("Dimensions mismatch on mmchain operation ("+clen+" != "+v.getNumRows()+")");
+		if( v.getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid input vector (column vector expected, but ncol="+v.getNumColumns()+")");
+		if( w!=null && w.getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid weight vector (column vector expected, but ncol="+w.getNumColumns()+")");
+
+		//compute X%*%v, apply weights, and compute t(tmp)%*%X
+		double[] tmp = new double[rlen];
+		rightMultByVector(getDenseVector(v), tmp, k);
+		if( ctype == ChainType.XtwXv || ctype == ChainType.XtXvy ) {
+			double[] wvals = getDenseVector(w);
+			for( int i=0; i<rlen; i++ )
+				tmp[i] = (ctype == ChainType.XtwXv) ? tmp[i] * wvals[i] : tmp[i] - wvals[i];
+		}
+
+		MatrixBlock ret = (out != null) ? out : new MatrixBlock();
+		ret.reset(clen, 1, false);
+		ret.allocateDenseBlock();
+		leftMultByRowVector(tmp, ret.getDenseBlock(), k);
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	@Override
+	public MatrixValue aggregateUnaryOperations(AggregateUnaryOperator op, MatrixValue result,
+			int blockingFactorRow, int blockingFactorCol, MatrixIndexes indexesIn, boolean inCP)
+		throws DMLRuntimeException
+	{
+		if( !isCompressed() )
+			return super.aggregateUnaryOperations(op, result, blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+
+		//fall back to decompression for unsupported operations or non-CP outputs
+		boolean sum = (op.aggOp.increOp.fn instanceof KahanPlus);
+		if( !inCP || !sum || !(op.indexFn instanceof ReduceAll
+			|| op.indexFn instanceof ReduceRow || op.indexFn instanceof ReduceCol) ) {
+			return decompress().aggregateUnaryOperations(op, result,
+				blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+		}
+
+		MatrixBlock ret = (result != null) ? (MatrixBlock) result : new MatrixBlock();
+		if( op.indexFn instanceof ReduceAll ) {
+			double val = 0;
+			for( ColGroup grp : _colGroups )
+				val += grp.computeSum();
+			ret.reset(1, 1, false);
+			ret.quickSetValue(0, 0, val);
+		}
+		else if( op.indexFn instanceof ReduceRow ) { //colSums
+			ret.reset(1, clen, false);
+			ret.allocateDenseBlock();
+			for( ColGroup grp : _colGroups )
+				grp.computeColSums(ret.getDenseBlock());
+		}
+		else { //rowSums
+			ret.reset(rlen, 1, false);
+			ret.allocateDenseBlock();
+			computeRowSums(ret.getDenseBlock(), Math.max(op.getNumThreads(), 1));
+		}
+
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	/**
+	 * Multiplies this block with the given dense column vector in parallel
+	 * over row partitions.
+	 *
+	 * @param b dense input vector (length clen)
+	 * @param c dense output vector (length rlen)
+	 * @param k degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private void rightMultByVector(final double[] b, final double[] c, int k)
+		throws DMLRuntimeException
+	{
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		int blklen = (int)Math.ceil((double)rlen/Math.max(k,1));
+		for( int i=0; i*blklen<rlen; i++ ) {
+			final int rl = i*blklen;
+			final int ru = Math.min((i+1)*blklen, rlen);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					for( ColGroup grp : _colGroups )
+						grp.rightMultByVector(b, c, rl, ru);
+					return null;
+				}
+			});
+		}
+		executeTasks(tasks, k);
+	}
+
+	/**
+	 * Multiplies the given dense row vector with this block in parallel over
+	 * column groups (which write to disjoint columns of the output).
+	 *
+	 * @param a dense input vector (length rlen)
+	 * @param c dense output vector (length clen)
+	 * @param k degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private void leftMultByRowVector(final double[] a, final double[] c, int k)
+		throws DMLRuntimeException
+	{
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		for( final ColGroup grp : _colGroups ) {
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					grp.leftMultByRowVector(a, c);
+					return null;
+				}
+			});
+		}
+		executeTasks(tasks, k);
+	}
+
+	/**
+	 * Computes the row sums of this block in parallel over row partitions.
+	 *
+	 * @param c dense output vector (length rlen)
+	 * @param k degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private void computeRowSums(final double[] c, int k)
+		throws DMLRuntimeException
+	{
+		ArrayList<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+		int blklen = (int)Math.ceil((double)rlen/k);
+		for( int i=0; i*blklen<rlen; i++ ) {
+			final int rl = i*blklen;
+			final int ru = Math.min((i+1)*blklen, rlen);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					for( ColGroup grp : _colGroups )
+						grp.computeRowSums(c, rl, ru);
+					return null;
+				}
+			});
+		}
+		executeTasks(tasks, k);
+	}
+
+	/**
+	 *
+	 * @param tasks
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private static void executeTasks(List<Callable<Object>> tasks, int k)
+		throws DMLRuntimeException
+	{
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			List<Future<Object>> rtasks = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> rtask : rtasks )
+				rtask.get(); //error handling
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Obtains the values of the given (row or column) vector as dense array.
+	 *
+	 * @param vect
+	 * @return
+	 */
+	private static double[] getDenseVector(MatrixBlock vect) {
+		int len = vect.getNumRows() * vect.getNumColumns();
+		if( !vect.isInSparseFormat() && vect.getDenseBlock() != null )
+			return vect.getDenseBlock();
+		double[] ret = new double[len];
+		if( !vect.isEmptyBlock(false) )
+			for( int i=0; i<len; i++ )
+				ret[i] = (vect.getNumColumns() == 1) ?
+					vect.quickGetValue(i, 0) : vect.quickGetValue(0, i);
+		return ret;
+	}
+
+	/**
+	 * Indicates if the given block is compressed.
+	 *
+	 * @param mb
+	 * @return
+	 */
+	public static boolean isCompressed(MatrixBlock mb) {
+		return (mb instanceof CompressedMatrixBlock
+			&& ((CompressedMatrixBlock)mb).isCompressed());
+	}
+}
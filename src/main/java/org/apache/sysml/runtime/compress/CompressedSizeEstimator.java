@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Random;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Sample-based estimator of the compressed size of column groups, which is
+ * used by the compression planner to classify columns and to decide on the
+ * co-coding of columns without encoding the entire input.
+ */
+public class CompressedSizeEstimator
+{
+	//sample size as fraction of rows, and lower bound of sample size
+	public static final double SAMPLE_FRACTION = 0.01;
+	public static final int MIN_SAMPLE_SIZE = 2000;
+
+	//fixed seed for reproducible compression plans
+	private static final long SAMPLE_SEED = 7;
+
+	private final MatrixBlock _data;
+	private final int _numRows;
+	private final int[] _sampleRows;
+
+	public CompressedSizeEstimator(MatrixBlock data) {
+		_data = data;
+		_numRows = data.getNumRows();
+		int sampleSize = (int) Math.min(_numRows,
+			Math.max(MIN_SAMPLE_SIZE, Math.ceil(SAMPLE_FRACTION * _numRows)));
+		_sampleRows = getSortedSample(_numRows, sampleSize, SAMPLE_SEED);
+	}
+
+	public int getSampleSize() {
+		return _sampleRows.length;
+	}
+
+	/**
+	 * Estimates the size information of the given column group over the
+	 * sample of rows.
+	 *
+	 * @param colIndexes column indexes
+	 * @return
+	 */
+	public CompressedSizeInfo estimateCompressedColGroupSize(int[] colIndexes) {
+		UncompressedBitmap ubm = BitmapEncoder.extractBitmapFromSample(colIndexes, _data, _sampleRows);
+		return computeSizeInfo(ubm, _sampleRows.length, _numRows);
+	}
+
+	/**
+	 * Computes the size information from the given bitmap, which is exact if
+	 * the bitmap covers all rows and otherwise scaled up from the sample.
+	 *
+	 * @param ubm uncompressed bitmap of sample or all rows
+	 * @param sampleSize number of rows covered by the bitmap
+	 * @param numRows total number of rows
+	 * @return
+	 */
+	public static CompressedSizeInfo computeSizeInfo(UncompressedBitmap ubm, int sampleSize, int numRows) {
+		int numCols = ubm.getNumColumns();
+		int numVals = ubm.getNumValues();
+		long numOffs = ubm.getNumOffsets();
+		long numRuns = ubm.getNumRuns();
+
+		//count non-zero cells and distinct values that appear only once
+		double[] values = ubm.getValues();
+		long nnz = 0;
+		int singletons = 0;
+		for( int k=0; k<numVals; k++ ) {
+			int cnt = ubm.getNumOffsets(k);
+			for( int j=0; j<numCols; j++ )
+				nnz += (values[k*numCols+j] != 0) ? cnt : 0;
+			singletons += (cnt == 1) ? 1 : 0;
+		}
+
+		//scale up sample statistics, where the number of distinct values is
+		//estimated by extrapolating the values seen once (as in Goodman's
+		//first-order estimator), which is exact for low-cardinality columns
+		if( sampleSize < numRows ) {
+			double scale = (double)numRows / sampleSize;
+			numVals = (int) Math.min(numRows, numVals + singletons * (scale - 1));
+			numOffs = (long) Math.min(numRows, Math.ceil(numOffs * scale));
+			numRuns = (long) Math.min(numOffs, Math.ceil(numRuns * scale));
+			nnz = (long) Math.min((long)numRows*numCols, Math.ceil(nnz * scale));
+		}
+
+		return new CompressedSizeInfo(numCols, numRows, numVals, numOffs, numRuns, nnz);
+	}
+
+	/**
+	 * Draws a sorted sample of rows without replacement (selection sampling).
+	 *
+	 * @param numRows
+	 * @param sampleSize
+	 * @param seed
+	 * @return
+	 */
+	private static int[] getSortedSample(int numRows, int sampleSize, long seed) {
+		int[] ret = new int[sampleSize];
+		if( sampleSize == numRows ) {
+			for( int i=0; i<numRows; i++ )
+				ret[i] = i;
+			return ret;
+		}
+		Random rand = new Random(seed);
+		for( int i=0, pos=0; i<numRows && pos<sampleSize; i++ )
+			if( rand.nextDouble() * (numRows - i) < sampleSize - pos )
+				ret[pos++] = i;
+		return ret;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import org.apache.sysml.runtime.compress.ColGroup.CompressionType;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * (Estimated) size information of a column group under the different
+ * encodings, derived from the number of distinct value tuples, non-zero
+ * rows and runs.
+ */
+public class CompressedSizeInfo
+{
+	private final int _numCols;
+	private final int _numRows;
+	private final int _numVals;
+	private final long _numOffs;
+	private final long _numRuns;
+	private final long _numNonZeros;
+
+	public CompressedSizeInfo(int numCols, int numRows, int numVals, long numOffs, long numRuns, long numNonZeros) {
+		_numCols = numCols;
+		_numRows = numRows;
+		_numVals = numVals;
+		_numOffs = numOffs;
+		_numRuns = numRuns;
+		_numNonZeros = numNonZeros;
+	}
+
+	public int getNumValues() {
+		return _numVals;
+	}
+
+	/**
+	 * Gets the size of the given encoding, or Long.MAX_VALUE if the
+	 * encoding is not applicable.
+	 *
+	 * @param type compression type
+	 * @return
+	 */
+	public long getSize(CompressionType type) {
+		//number of dictionary entries incl zero tuple (for DDC)
+		int numDDCVals = _numVals + ((_numOffs < _numRows) ? 1 : 0);
+		switch( type ) {
+			case OLE_BITMAP:
+				return ColGroupOLE.estimateInMemorySize(_numCols, _numVals, _numOffs);
+			case RLE_BITMAP:
+				return ColGroupRLE.estimateInMemorySize(_numCols, _numVals, _numRuns);
+			case DDC1:
+				return (numDDCVals <= ColGroupDDC1.MAX_TUPLES) ?
+					ColGroupDDC1.estimateInMemorySize(_numCols, numDDCVals, _numRows) : Long.MAX_VALUE;
+			case DDC2:
+				return (numDDCVals <= ColGroupDDC2.MAX_TUPLES) ?
+					ColGroupDDC2.estimateInMemorySize(_numCols, numDDCVals, _numRows) : Long.MAX_VALUE;
+			case UNCOMPRESSED:
+				return MatrixBlock.estimateSizeInMemory(_numRows, _numCols,
+					(double)_numNonZeros / _numRows / _numCols);
+			default:
+				return Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Gets the compressed encoding of minimum size.
+	 *
+	 * @return
+	 */
+	public CompressionType getBestCompressionType() {
+		CompressionType ret = CompressionType.OLE_BITMAP;
+		for( CompressionType type : new CompressionType[]{
+			CompressionType.RLE_BITMAP, CompressionType.DDC1, CompressionType.DDC2} )
+			if( getSize(type) < getSize(ret) )
+				ret = type;
+		return ret;
+	}
+
+	/**
+	 * Gets the size of the compressed encoding of minimum size.
+	 *
+	 * @return
+	 */
+	public long getMinSize() {
+		return getSize(getBestCompressionType());
+	}
+
+	/**
+	 * Indicates if the best compressed encoding is smaller than the
+	 * uncompressed representation of the column group.
+	 *
+	 * @return
+	 */
+	public boolean isCompressible() {
+		return getMinSize() < getSize(CompressionType.UNCOMPRESSED);
+	}
+}
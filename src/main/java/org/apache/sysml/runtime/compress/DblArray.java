@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.Arrays;
+
+/**
+ * Hashable wrapper of a value tuple (i.e., the values of a row restricted
+ * to the columns of a column group), used as key for building dictionaries.
+ */
+public class DblArray
+{
+	private final double[] _arr;
+	private final int _hash;
+
+	public DblArray(double[] arr) {
+		_arr = arr;
+		_hash = Arrays.hashCode(arr);
+	}
+
+	public double[] getData() {
+		return _arr;
+	}
+
+	@Override
+	public int hashCode() {
+		return _hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return (o instanceof DblArray
+			&& _hash == ((DblArray)o)._hash
+			&& Arrays.equals(_arr, ((DblArray)o)._arr));
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(_arr);
+	}
+
+	/**
+	 * Indicates if all values of the given tuple are zero.
+	 *
+	 * @param arr
+	 * @return
+	 */
+	public static boolean isZero(double[] arr) {
+		for( int i=0; i<arr.length; i++ )
+			if( arr[i] != 0 )
+				return false;
+		return true;
+	}
+}
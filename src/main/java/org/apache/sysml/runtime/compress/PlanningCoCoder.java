@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+
+/**
+ * Planner for the co-coding of columns, i.e., the grouping of correlated
+ * columns into column groups that are encoded together. Columns are first
+ * partitioned into bins of similar cardinality, and within each bin groups
+ * are greedily merged as long as the estimated size of the merged group is
+ * smaller than the sum of the individual sizes.
+ */
+public class PlanningCoCoder
+{
+	//max number of columns per bin (bounds the quadratic planning costs)
+	public static final int BIN_SIZE = 32;
+
+	/**
+	 * Finds the column groups of the given compressible columns.
+	 *
+	 * @param estim size estimator
+	 * @param cols compressible columns
+	 * @param colInfos size information of all columns (by column index)
+	 * @param k degree of parallelism
+	 * @return list of sorted column index arrays
+	 * @throws DMLRuntimeException
+	 */
+	public static List<int[]> findCoCodes(CompressedSizeEstimator estim, List<Integer> cols,
+			final CompressedSizeInfo[] colInfos, int k)
+		throws DMLRuntimeException
+	{
+		//partition columns into bins of similar cardinality
+		ArrayList<Integer> sorted = new ArrayList<Integer>(cols);
+		Collections.sort(sorted, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Integer.compare(colInfos[o1].getNumValues(), colInfos[o2].getNumValues());
+			}
+		});
+		ArrayList<CoCodeTask> tasks = new ArrayList<CoCodeTask>();
+		for( int i=0; i<sorted.size(); i+=BIN_SIZE )
+			tasks.add(new CoCodeTask(estim, colInfos,
+				sorted.subList(i, Math.min(i+BIN_SIZE, sorted.size()))));
+
+		//greedy co-coding per bin
+		List<int[]> ret = new ArrayList<int[]>();
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			List<Future<List<int[]>>> rtasks = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<List<int[]>> rtask : rtasks )
+				ret.addAll(rtask.get());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Greedy co-coding of the given columns: repeatedly merges the pair of
+	 * groups with the largest estimated size reduction.
+	 *
+	 * @param estim
+	 * @param colInfos
+	 * @param cols
+	 * @return
+	 */
+	private static List<int[]> findCoCodesGreedy(CompressedSizeEstimator estim, CompressedSizeInfo[] colInfos, List<Integer> cols)
+	{
+		ArrayList<int[]> groups = new ArrayList<int[]>();
+		ArrayList<Long> sizes = new ArrayList<Long>();
+		for( Integer col : cols ) {
+			groups.add(new int[]{col});
+			sizes.add(colInfos[col].getMinSize());
+		}
+
+		//merged sizes of all pairs of current groups (i<j), maintained incrementally
+		ArrayList<ArrayList<Long>> pairSizes = new ArrayList<ArrayList<Long>>();
+		for( int i=0; i<groups.size(); i++ ) {
+			ArrayList<Long> row = new ArrayList<Long>();
+			for( int j=0; j<i; j++ )
+				row.add(estimateMergedSize(estim, groups.get(j), groups.get(i)));
+			pairSizes.add(row);
+		}
+
+		while( groups.size() > 1 ) {
+			//find pair with max positive size reduction
+			int bi = -1, bj = -1;
+			long bestGain = 0;
+			for( int i=0; i<groups.size(); i++ )
+				for( int j=0; j<i; j++ ) {
+					long gain = sizes.get(i) + sizes.get(j) - pairSizes.get(i).get(j);
+					if( gain > bestGain ) {
+						bestGain = gain; bi = i; bj = j;
+					}
+				}
+			if( bi < 0 )
+				break;
+
+			//replace the pair (bj<bi) by the merged group
+			int[] merged = mergeColumns(groups.get(bj), groups.get(bi));
+			long msize = pairSizes.get(bi).get(bj);
+			for( int ix : new int[]{bi, bj} ) {
+				groups.remove(ix);
+				sizes.remove(ix);
+				pairSizes.remove(ix);
+				for( int i=ix; i<pairSizes.size(); i++ )
+					pairSizes.get(i).remove(ix);
+			}
+			ArrayList<Long> row = new ArrayList<Long>();
+			for( int j=0; j<groups.size(); j++ )
+				row.add(estimateMergedSize(estim, groups.get(j), merged));
+			groups.add(merged);
+			sizes.add(msize);
+			pairSizes.add(row);
+		}
+
+		return groups;
+	}
+
+	/**
+	 *
+	 * @param estim
+	 * @param g1
+	 * @param g2
+	 * @return
+	 */
+	private static long estimateMergedSize(CompressedSizeEstimator estim, int[] g1, int[] g2) {
+		return estim.estimateCompressedColGroupSize(mergeColumns(g1, g2)).getMinSize();
+	}
+
+	/**
+	 *
+	 * @param g1
+	 * @param g2
+	 * @return
+	 */
+	private static int[] mergeColumns(int[] g1, int[] g2) {
+		int[] ret = new int[g1.length + g2.length];
+		System.arraycopy(g1, 0, ret, 0, g1.length);
+		System.arraycopy(g2, 0, ret, g1.length, g2.length);
+		Arrays.sort(ret);
+		return ret;
+	}
+
+	/**
+	 * Co-coding task of one bin of columns.
+	 */
+	private static class CoCodeTask implements Callable<List<int[]>>
+	{
+		private final CompressedSizeEstimator _estim;
+		private final CompressedSizeInfo[] _colInfos;
+		private final List<Integer> _cols;
+
+		protected CoCodeTask(CompressedSizeEstimator estim, CompressedSizeInfo[] colInfos, List<Integer> cols) {
+			_estim = estim;
+			_colInfos = colInfos;
+			_cols = cols;
+		}
+
+		@Override
+		public List<int[]> call() {
+			return findCoCodesGreedy(_estim, _colInfos, _cols);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.compress;
+
+/**
+ * Uncompressed representation of a column group, i.e., the distinct non-zero
+ * value tuples and for each tuple the sorted list of row offsets. This is the
+ * common intermediate of all compressed encodings and the basis of the
+ * exact size computation during compression.
+ */
+public final class UncompressedBitmap
+{
+	private final int _numCols;
+
+	//distinct non-zero value tuples (linearized, numVals x numCols)
+	private final double[] _values;
+
+	//sorted row offsets per value tuple
+	private final int[][] _offsetsLists;
+	private final int[] _offsetsLens;
+
+	public UncompressedBitmap(int numCols, double[] values, int[][] offsetsLists, int[] offsetsLens) {
+		_numCols = numCols;
+		_values = values;
+		_offsetsLists = offsetsLists;
+		_offsetsLens = offsetsLens;
+	}
+
+	public int getNumColumns() {
+		return _numCols;
+	}
+
+	public int getNumValues() {
+		return _offsetsLens.length;
+	}
+
+	public double[] getValues() {
+		return _values;
+	}
+
+	public int[] getOffsetsList(int ix) {
+		return _offsetsLists[ix];
+	}
+
+	public int getNumOffsets(int ix) {
+		return _offsetsLens[ix];
+	}
+
+	/**
+	 * Gets the total number of rows with non-zero value tuples.
+	 *
+	 * @return
+	 */
+	public long getNumOffsets() {
+		long ret = 0;
+		for( int len : _offsetsLens )
+			ret += len;
+		return ret;
+	}
+
+	/**
+	 * Gets the total number of runs of consecutive row offsets
+	 * over all value tuples.
+	 *
+	 * @return
+	 */
+	public long getNumRuns() {
+		long ret = 0;
+		for( int i=0; i<_offsetsLens.length; i++ ) {
+			int[] list = _offsetsLists[i];
+			int len = _offsetsLens[i];
+			for( int j=0; j<len; j++ )
+				if( j==0 || list[j] != list[j-1]+1 )
+					ret++;
+		}
+		return ret;
+	}
+}
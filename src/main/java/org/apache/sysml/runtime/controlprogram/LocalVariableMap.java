@@ -20,6 +20,7 @@
 package org.apache.sysml.runtime.controlprogram;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.LineageItem;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
@@ -43,6 +44,7 @@ public class LocalVariableMap implements Cloneable
 	private static IDSequence _seq = new IDSequence();
 	
 	private HashMap <String, Data> localMap = null;
+	private HashMap <String, LineageItem> lineageMap = null; //lazily created
 	private final long localID;
 	
 	public LocalVariableMap()
@@ -54,6 +56,8 @@ public class LocalVariableMap implements Cloneable
 	public LocalVariableMap(LocalVariableMap vars)
 	{
 		localMap = new HashMap <String, Data>(vars.localMap);
+		if( vars.lineageMap != null )
+			lineageMap = new HashMap <String, LineageItem>(vars.lineageMap);
 		localID = _seq.getNextID();
 	}
 	
@@ -87,6 +91,8 @@ public class LocalVariableMap implements Cloneable
 	public void put(String name, Data val)
 	{
 		localMap.put( name, val );
+		if( lineageMap != null )
+			lineageMap.remove( name );
 	}
 
 	/**
@@ -98,6 +104,11 @@ public class LocalVariableMap implements Cloneable
 		if( vars == this || vars == null )
 			return;
 		localMap.putAll (vars.localMap);
+		if( lineageMap != null )
+			lineageMap.keySet().removeAll(vars.localMap.keySet());
+		if( vars.lineageMap != null )
+			for( Entry<String, LineageItem> e : vars.lineageMap.entrySet() )
+				setLineage(e.getKey(), e.getValue());
 	}
 	
 	/**
@@ -106,6 +117,8 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public Data remove( String name )
 	{
+		if( lineageMap != null )
+			lineageMap.remove( name );
 		return localMap.remove( name );
 	}
 	
@@ -115,6 +128,40 @@ public class LocalVariableMap implements Cloneable
 	public void removeAll()
 	{
 		localMap.clear();
+		if( lineageMap != null )
+			lineageMap.clear();
+	}
+	
+	/**
+	 * Gets the lineage of the data object bound to the given variable name, 
+	 * or null if the variable is untraced.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public LineageItem getLineage( String name )
+	{
+		return (lineageMap != null) ? lineageMap.get( name ) : null;
+	}
+	
+	/**
+	 * Sets the lineage of the data object bound to the given variable name, 
+	 * which is maintained until the variable is removed or replaced. 
+	 * 
+	 * @param name
+	 * @param li lineage item, or null to mark the variable as untraced
+	 */
+	public void setLineage( String name, LineageItem li )
+	{
+		if( li == null ) {
+			if( lineageMap != null )
+				lineageMap.remove( name );
+		}
+		else if( localMap.containsKey( name ) ) {
+			if( lineageMap == null )
+				lineageMap = new HashMap <String, LineageItem>();
+			lineageMap.put( name, li );
+		}
 	}
 	
 	/**
@@ -33,6 +33,10 @@ import org.apache.sysml.parser.StatementBlock;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
+import org.apache.sysml.runtime.controlprogram.caching.AsyncPrefetcher;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.LineageCache;
+import org.apache.sysml.runtime.controlprogram.caching.LineageItem;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
@@ -213,14 +217,34 @@ public class ProgramBlock
 	protected void executeInstructions(ArrayList<Instruction> inst, ExecutionContext ec) 
 		throws DMLRuntimeException 
 	{
-		for (int i = 0; i < inst.size(); i++) 
+		//optional async prefetch of upcoming inputs (evicted or not yet read)
+		AsyncPrefetcher prefetch = null;
+		if( ConfigurationManager.isAsyncPrefetch() && CacheableData.isCachingActive() ) {
+			prefetch = new AsyncPrefetcher();
+			prefetch.prefetch(inst, -1, ec);
+		}
+		
+		try 
 		{
-			//indexed access required due to dynamic add
-			Instruction currInst = inst.get(i);
-			
-			//execute instruction
-			ec.updateDebugState(i);
-			executeSingleInstruction(currInst, ec);
+			for (int i = 0; i < inst.size(); i++) 
+			{
+				//indexed access required due to dynamic add
+				Instruction currInst = inst.get(i);
+				
+				//execute instruction
+				ec.updateDebugState(i);
+				if( prefetch != null )
+					prefetch.cancel(currInst, ec);
+				executeSingleInstruction(currInst, ec);
+				if( prefetch != null ) {
+					prefetch.consume(currInst, ec);
+					prefetch.prefetch(inst, i, ec);
+				}
+			}
+		}
+		finally {
+			if( prefetch != null )
+				prefetch.close();
 		}
 	}
 	
@@ -300,8 +324,16 @@ public class ProgramBlock
 			// pre-process instruction (debug state, inst patching, listeners)
 			Instruction tmp = currInst.preprocessInstruction( ec );
 			
-			// process actual instruction
-			tmp.processInstruction( ec );
+			// process actual instruction (or reuse output of redundant instruction)
+			if( ConfigurationManager.isLineageReuse() ) {
+				LineageItem li = LineageCache.trace( tmp, ec );
+				boolean reused = LineageCache.reuse( tmp, li, ec );
+				if( !reused )
+					tmp.processInstruction( ec );
+				LineageCache.update( tmp, li, reused, ec );
+			}
+			else
+				tmp.processInstruction( ec );
 			
 			// post-process instruction (debug) 
 			tmp.postprocessInstruction( ec );
@@ -309,7 +341,7 @@ public class ProgramBlock
 			// maintain aggregate statistics
 			if( DMLScript.STATISTICS) {
 				Statistics.maintainCPHeavyHitters(
-						tmp.getExtendedOpcode(), System.nanoTime()-t0);
+						tmp.getHeavyHitterID(), System.nanoTime()-t0);
 			}
 				
 			// optional trace information (instruction and runtime)
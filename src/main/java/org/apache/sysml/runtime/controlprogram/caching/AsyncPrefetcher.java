@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.FunctionCallCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Asynchronous prefetch of evicted or not yet read (HDFS-backed) matrices, which
+ * looks ahead in the instruction stream of a program block and issues restores
+ * or reads of the matrix inputs of upcoming CP instructions to a background I/O
+ * pool. This overlaps I/O with computation, especially in loop bodies that touch
+ * more data than the buffer pool holds. A consuming instruction simply waits on
+ * the matrix object's lock if the prefetch is still in progress.
+ *
+ * Prefetched blocks are pinned in memory (by a strong reference held by the
+ * issued task) until the consuming instruction has acquired them, because the
+ * buffer pool keeps released blocks only as soft references. The estimated size
+ * of issued but not yet consumed prefetches (incl pinned blocks) is bounded by a
+ * fraction of the max heap size. Pending prefetches are canceled if the variable
+ * is removed or overwritten, and when the execution of the program block ends.
+ * The look ahead stops at the first non-CP instruction or function call because
+ * such instructions may produce or modify the files of subsequent inputs.
+ *
+ */
+public class AsyncPrefetcher
+{
+	private static final Log LOG = LogFactory.getLog(AsyncPrefetcher.class.getName());
+
+	//max number of instructions to look ahead
+	public static final int PREFETCH_LOOKAHEAD = 16;
+
+	//fraction of max heap used for prefetched but not yet consumed matrices
+	public static final double PREFETCH_BUFFER_SIZE = 0.1;
+
+	private static final long _limit;
+	private static ExecutorService _pool = null;
+
+	static {
+		long maxMem = InfrastructureAnalyzer.getLocalMaxMemory();
+		_limit = (long)(PREFETCH_BUFFER_SIZE * maxMem);
+	}
+
+	//issued prefetches of this program block execution
+	private final HashMap<CacheableData<?>, PrefetchTask> _tasks = new HashMap<CacheableData<?>, PrefetchTask>();
+	private long _size = 0;
+
+	/**
+	 * Issues prefetches for the matrix inputs of the instructions following
+	 * the given position, up to the look ahead and memory budget.
+	 *
+	 * @param inst
+	 * @param pos position of the current instruction
+	 * @param ec
+	 */
+	public void prefetch( ArrayList<Instruction> inst, int pos, ExecutionContext ec )
+	{
+		//names (re)defined in the look ahead window (bound to different objects later on)
+		HashSet<String> defined = new HashSet<String>();
+
+		int end = Math.min(pos + 1 + PREFETCH_LOOKAHEAD, inst.size());
+		for( int i=pos+1; i<end && _size < _limit; i++ )
+		{
+			Instruction linst = inst.get(i);
+			if( !(linst instanceof CPInstruction) || linst instanceof FunctionCallCPInstruction )
+				break;
+
+			if( linst instanceof ComputationCPInstruction ) {
+				ComputationCPInstruction cpinst = (ComputationCPInstruction) linst;
+				for( CPOperand in : cpinst.getInputs() )
+					if( in != null && in.getDataType() == DataType.MATRIX && !defined.contains(in.getName()) )
+						prefetch(ec.getVariable(in.getName()));
+				defined.add(cpinst.getOutputVariableName());
+			}
+			else if( linst instanceof VariableCPInstruction ) {
+				String name = getOverwrittenVariableName((VariableCPInstruction) linst);
+				if( name != null )
+					defined.add(name);
+			}
+		}
+	}
+
+	/**
+	 * Unpins the prefetched inputs of the given (executed) instruction and
+	 * releases their budget.
+	 *
+	 * @param inst
+	 * @param ec
+	 */
+	public void consume( Instruction inst, ExecutionContext ec )
+	{
+		if( _tasks.isEmpty() || !(inst instanceof ComputationCPInstruction) )
+			return;
+
+		for( CPOperand in : ((ComputationCPInstruction) inst).getInputs() )
+			if( in != null && in.getDataType() == DataType.MATRIX ) {
+				PrefetchTask task = _tasks.remove(ec.getVariable(in.getName()));
+				if( task != null )
+					_size -= task._size;
+			}
+	}
+
+	/**
+	 * Cancels the pending prefetch of the variable removed or overwritten
+	 * by the given instruction, before its execution.
+	 *
+	 * @param inst
+	 * @param ec
+	 */
+	public void cancel( Instruction inst, ExecutionContext ec )
+	{
+		if( _tasks.isEmpty() || !(inst instanceof VariableCPInstruction) )
+			return;
+
+		String name = getOverwrittenVariableName((VariableCPInstruction) inst);
+		if( name != null ) {
+			PrefetchTask task = _tasks.remove(ec.getVariable(name));
+			if( task != null ) {
+				_size -= task._size;
+				cancel(task);
+			}
+		}
+	}
+
+	/**
+	 * Cancels all pending prefetches, at the end of the program block execution.
+	 */
+	public void close()
+	{
+		for( Entry<CacheableData<?>, PrefetchTask> e : _tasks.entrySet() )
+			cancel(e.getValue());
+		_tasks.clear();
+		_size = 0;
+	}
+
+	/**
+	 *
+	 * @param dat
+	 */
+	private void prefetch( Data dat )
+	{
+		if( !(dat instanceof MatrixObject) || _tasks.containsKey(dat) )
+			return;
+
+		//check for known size and memory budget (before the file system probe)
+		MatrixObject mo = (MatrixObject) dat;
+		MatrixCharacteristics mc = mo.getMatrixCharacteristics();
+		if( !mc.dimsKnown() )
+			return;
+		long size = mc.nnzKnown() ? OptimizerUtils.estimateSizeExactSparsity(mc) :
+			OptimizerUtils.estimateSizeExactSparsity(mc.getRows(), mc.getCols(), 1.0);
+		if( _size + size > _limit || !mo.isPrefetchCandidate() )
+			return;
+
+		//issue asynchronous restore/read (result pins the block until consumed)
+		_tasks.put(mo, new PrefetchTask(getPool().submit(new PrefetchCallable(mo)), size));
+		_size += size;
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPrefetches();
+	}
+
+	/**
+	 *
+	 * @param task
+	 */
+	private static void cancel( PrefetchTask task )
+	{
+		//cancel only if not started yet (otherwise the cleanup waits on the object lock)
+		if( task._future.cancel(false) && DMLScript.STATISTICS )
+			CacheStatistics.incrementPrefetchCancels();
+	}
+
+	/**
+	 * Gets the name of the variable whose bound object is removed or replaced
+	 * by the given variable instruction (rmvar, rmfilevar, cpvar, mvvar).
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static String getOverwrittenVariableName( VariableCPInstruction inst )
+	{
+		if( inst.isRemoveVariable() || inst.getOpcode().equals("rmfilevar") )
+			return inst.getInput1().getName();
+		else if( (inst.getOpcode().equals("cpvar") || inst.getOpcode().equals("mvvar"))
+			&& inst.getInput3() == null )
+			return inst.getInput2().getName();
+		else if( inst.getOpcode().equals("createvar") )
+			return inst.getInput1().getName();
+		return null;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static synchronized ExecutorService getPool()
+	{
+		//create threadpool for async prefetch (daemon threads
+		//in order to never block the JVM shutdown on pending reads)
+		if( _pool == null ) {
+			int par = Math.max(InfrastructureAnalyzer.getLocalParallelism()/2, 1);
+			_pool = Executors.newFixedThreadPool(par, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "async-prefetch");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return _pool;
+	}
+
+	/**
+	 * Issued prefetch, incl its estimated size in memory, where the
+	 * result of the future is the pinned block.
+	 */
+	private static class PrefetchTask
+	{
+		private final Future<MatrixBlock> _future;
+		private final long _size;
+
+		public PrefetchTask(Future<MatrixBlock> future, long size) {
+			_future = future;
+			_size = size;
+		}
+	}
+
+	/**
+	 * Asynchronous restore or read of a matrix object.
+	 */
+	private static class PrefetchCallable implements Callable<MatrixBlock>
+	{
+		private final MatrixObject _mo;
+
+		public PrefetchCallable(MatrixObject mo) {
+			_mo = mo;
+		}
+
+		@Override
+		public MatrixBlock call() {
+			try {
+				return _mo.prefetch();
+			}
+			catch(Exception ex) {
+				//failures are reported by the consuming instruction
+				LOG.debug("Failed to prefetch "+_mo.getVarName()+".", ex);
+				return null;
+			}
+		}
+	}
+}
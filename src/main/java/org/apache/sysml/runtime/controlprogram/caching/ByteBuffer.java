@@ -32,12 +32,12 @@ import org.apache.sysml.runtime.util.LocalFileUtils;
  */
 public class ByteBuffer
 {
-	private boolean _serialized;	
+	private volatile boolean _serialized;	
 	private boolean _shallow;
 	private long _size;
 	
-	protected byte[]     _bdata = null; //sparse matrix
-	protected CacheBlock _cdata = null; //dense matrix/frame
+	protected volatile byte[]     _bdata = null; //sparse matrix
+	protected volatile CacheBlock _cdata = null; //dense matrix/frame
 	
 	public ByteBuffer( long size )
 	{
@@ -87,6 +87,8 @@ public class ByteBuffer
 	}
 	
 	/**
+	 * Deserializes the buffered cache block, or returns null if the 
+	 * buffer has been concurrently freed after eviction.
 	 * 
 	 * @return
 	 * @throws IOException
@@ -97,9 +99,12 @@ public class ByteBuffer
 		CacheBlock ret = null;
 		
 		if( !_shallow ) { //sparse matrix 
-			CacheDataInput din = new CacheDataInput(_bdata);
-			ret = new MatrixBlock();
-			ret.readFields(din);
+			byte[] bdata = _bdata;
+			if( bdata != null ) {
+				CacheDataInput din = new CacheDataInput(bdata);
+				ret = new MatrixBlock();
+				ret.readFields(din);
+			}
 		}
 		else { //dense matrix/frame
 			ret = _cdata;
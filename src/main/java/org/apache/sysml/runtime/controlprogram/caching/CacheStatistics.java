@@ -44,6 +44,9 @@ public class CacheStatistics
 		CACHE_WRITES_FSBUFF,
 		CACHE_WRITES_FS,
 		CACHE_WRITES_HDFS,
+		CACHE_EVICTS_FSBUFF,
+		CACHE_HITS_OFFHEAP,
+		CACHE_WRITES_OFFHEAP,
 		CACHE_TIME_ACQR, //acquire read
 		CACHE_TIME_ACQM, //acquire read
 		CACHE_TIME_RLS, //release
@@ -62,6 +65,17 @@ public class CacheStatistics
 	private static AtomicLong _numWritesFS     = null;
 	private static AtomicLong _numWritesHDFS   = null;
 	
+	//eviction statistics write buffer
+	private static AtomicLong _numEvictsFSBuff = null;
+	
+	//hit/write statistics off-heap buffer
+	private static AtomicLong _numHitsOffHeap   = null;
+	private static AtomicLong _numWritesOffHeap = null;
+	
+	//prefetch statistics (async restore/read)
+	private static AtomicLong _numPrefetches       = null;
+	private static AtomicLong _numPrefetchCancels  = null;
+	
 	//time statistics caching
 	private static AtomicLong _ctimeAcquireR   = null; //in nano sec
 	private static AtomicLong _ctimeAcquireM   = null; //in nano sec
@@ -85,6 +99,14 @@ public class CacheStatistics
 		_numWritesFS = new AtomicLong(0);
 		_numWritesHDFS = new AtomicLong(0);
 		
+		_numEvictsFSBuff = new AtomicLong(0);
+		
+		_numHitsOffHeap = new AtomicLong(0);
+		_numWritesOffHeap = new AtomicLong(0);
+		
+		_numPrefetches = new AtomicLong(0);
+		_numPrefetchCancels = new AtomicLong(0);
+		
 		_ctimeAcquireR = new AtomicLong(0);
 		_ctimeAcquireM = new AtomicLong(0);
 		_ctimeRelease = new AtomicLong(0);
@@ -211,6 +233,51 @@ public class CacheStatistics
 		return _numWritesHDFS.get();
 	}
 	
+	public static void incrementFSBuffEvictions()
+	{
+		_numEvictsFSBuff.incrementAndGet();
+	}
+	
+	public static void incrementFSBuffEvictions(int delta)
+	{
+		_numEvictsFSBuff.addAndGet(delta);
+	}
+	
+	public static long getFSBuffEvictions()
+	{
+		return _numEvictsFSBuff.get();
+	}
+	
+	public static void incrementOffHeapHits()
+	{
+		_numHitsOffHeap.incrementAndGet();
+	}
+	
+	public static void incrementOffHeapHits(int delta)
+	{
+		_numHitsOffHeap.addAndGet(delta);
+	}
+	
+	public static long getOffHeapHits()
+	{
+		return _numHitsOffHeap.get();
+	}
+	
+	public static void incrementOffHeapWrites()
+	{
+		_numWritesOffHeap.incrementAndGet();
+	}
+	
+	public static void incrementOffHeapWrites(int delta)
+	{
+		_numWritesOffHeap.addAndGet(delta);
+	}
+	
+	public static long getOffHeapWrites()
+	{
+		return _numWritesOffHeap.get();
+	}
+	
 	public static void incrementAcquireRTime(long delta)
 	{
 		_ctimeAcquireR.addAndGet(delta);
@@ -281,6 +348,62 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayWriteBuffer()
+	{	
+		//hits, misses (reads from local FS), and evictions of the write buffer
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHitsFSBuff.get());
+		sb.append("/");
+		sb.append(_numHitsFS.get());
+		sb.append("/");
+		sb.append(_numEvictsFSBuff.get());
+		sb.append(" (");
+		sb.append(LazyWriteBuffer.getPolicy().name());
+		sb.append(")");
+		
+		return sb.toString();
+	}
+	
+	public static String displayOffHeap()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHitsOffHeap.get());
+		sb.append("/");
+		sb.append(_numWritesOffHeap.get());
+		
+		return sb.toString();
+	}
+	
+	public static void incrementPrefetches()
+	{
+		_numPrefetches.incrementAndGet();
+	}
+	
+	public static long getPrefetches()
+	{
+		return _numPrefetches.get();
+	}
+	
+	public static void incrementPrefetchCancels()
+	{
+		_numPrefetchCancels.incrementAndGet();
+	}
+	
+	public static long getPrefetchCancels()
+	{
+		return _numPrefetchCancels.get();
+	}
+	
+	public static String displayPrefetch()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numPrefetches.get());
+		sb.append("/");
+		sb.append(_numPrefetchCancels.get());
+		
+		return sb.toString();
+	}
+	
 	public static String displayTime()
 	{	
 		StringBuilder sb = new StringBuilder();
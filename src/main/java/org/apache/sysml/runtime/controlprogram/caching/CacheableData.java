@@ -67,12 +67,14 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	// global constant configuration parameters
 	public static final long 	CACHING_THRESHOLD = 4*1024; //obj not s.t. caching if below threshold [in bytes]
 	public static final double 	CACHING_BUFFER_SIZE = 0.15; 
-	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; 
+	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; //default, see DMLConfig.CP_BUFFER_POLICY
 	public static final boolean CACHING_BUFFER_PAGECACHE = false; 
 	public static final boolean CACHING_WRITE_CACHE_ON_READ = false;	
 	public static final String  CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
 	public static final String  CACHING_EVICTION_FILEEXTENSION = ".dat";
 	public static final boolean CACHING_ASYNC_FILECLEANUP = true;
+	public static final boolean CACHING_ASYNC_WRITEBACK = true;
+	public static final boolean CACHING_EVICTION_MMAP = true;
     
 	/**
 	 * Defines all possible cache status types for a data blob.
@@ -154,6 +156,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	 * checks which can be expensive.
 	 */
 	private boolean _hdfsFileExists = false; 
+	
+	/** Memoized result of the existence check for prefetching (null if unknown). */
+	private Boolean _prefetchFileExists = null;
 
 	/** Information relevant to specific external file formats. */
 	private FileFormatProperties _formatProps = null;
@@ -275,6 +280,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 			if( !isEmpty(true) )
 				_dirtyFlag = true;
 		_hdfsFileName = file;
+		_prefetchFileExists = null;
 	}
 	
 	/**
@@ -472,6 +478,54 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		return _data;
 	}
 
+	/**
+	 * Indicates if an acquire read would require a restore of an evicted block 
+	 * or a read from HDFS, i.e., blocking I/O that is subject to prefetching.
+	 * 
+	 * @return
+	 */
+	public synchronized boolean isPrefetchCandidate()
+	{
+		//in-memory or pending rdd/broadcast
+		if( _data != null || (_cache != null && _cache.get() != null) 
+			|| getRDDHandle() != null || getBroadcastHandle() != null )
+			return false;
+		
+		//evicted to write buffer or local FS
+		if( _cacheStatus == CacheStatus.CACHED )
+			return true;
+		
+		//not yet read (or collected) from existing hdfs file (w/ memoized 
+		//existence check because the same file is probed in every iteration)
+		if( !isEmpty(true) || _hdfsFileName == null )
+			return false;
+		if( _hdfsFileExists )
+			return true;
+		if( _prefetchFileExists == null )
+			_prefetchFileExists = MapReduceTool.existsFileOnHDFS(_hdfsFileName);
+		return _prefetchFileExists;
+	}
+	
+	/**
+	 * Restores an evicted block or reads it from HDFS (e.g., by an asynchronous 
+	 * prefetch). Acquire and release are performed atomically in order to not 
+	 * interfere with concurrent modifications or the cleanup of this object, 
+	 * which leaves the block in the soft-referenced cache. The caller pins the 
+	 * block in memory by holding the returned reference until it is consumed.
+	 * 
+	 * @return cache block, or null if not available to read
+	 * @throws CacheException
+	 */
+	public synchronized T prefetch()
+		throws CacheException
+	{
+		if( !isAvailableToRead() )
+			return null;
+		T ret = acquireRead();
+		release();
+		return ret;
+	}
+	
 	/**
 	 * Acquires the exclusive "write" lock for a thread that wants to change cache block
 	 * cell values.  Produces the reference to the cache block, restores the cache block
@@ -1317,6 +1371,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	 * 
 	 */
 	public synchronized static void cleanupCacheDir() {
+		//cleanup cached intermediates (incl spilled ones)
+		LineageCache.clear();
+		
 		//cleanup remaining cached writes
 		LazyWriteBuffer.cleanup();
 		
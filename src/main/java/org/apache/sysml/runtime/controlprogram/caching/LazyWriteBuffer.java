@@ -23,34 +23,63 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
 /**
+ * Write buffer for evicted cache blocks, which keeps serialized blocks in memory
+ * up to a global size limit and spills blocks to local files according to the
+ * configured eviction policy. 
  * 
- * 
+ * The buffer is safe for concurrent use (e.g., by local parfor workers): lookups
+ * go through a concurrent map and only the bookkeeping of the eviction order is 
+ * guarded by a short critical section. Victims are selected inside this critical
+ * section but serialized, written and freed outside, optionally by an asynchronous
+ * write-back service. Until its write is complete, an evicted block remains
+ * readable from memory. 
  */
 public class LazyWriteBuffer 
 {
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
+	
 	public enum RPolicy {
 		FIFO, //first-in, first-out eviction
-		LRU   //least recently used eviction
+		LRU,  //least recently used eviction
+		SIZE  //largest block first (fewest evictions), FIFO among equal sizes
 	}
 	
 	//global size limit in bytes
 	private static long _limit; 
 	
-	//current size in bytes
-	private static long _size;  
+	//replacement policy (see DMLConfig.CP_BUFFER_POLICY)
+	private static RPolicy _policy = CacheableData.CACHING_BUFFER_POLICY;
+	
+	//current size in bytes (of buffered, non-evicted blocks)
+	private static AtomicLong _size = new AtomicLong(0);
+	
+	//buffer pool of <filename,buffer> pairs (for concurrent get/insert/delete)
+	private static ConcurrentHashMap<String, ByteBuffer> _mBuffers;
 	
-	//eviction queue of <filename,buffer> pairs (implemented via linked hash map 
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
+	//eviction order of buffered blocks according to the replacement policy
 	private static EvictionQueue _mQueue;
 	
+	//write-back service for synchronous or asynchronous write of evicted blocks
+	private static WriteBackService _wBack;
+	
 	//file cleaner for synchronous or asynchronous delete of evicted files
 	private static FileCleaner _fClean;
 	
@@ -69,6 +98,11 @@ public class LazyWriteBuffer
 	public static void writeBlock( String fname, CacheBlock cb ) 
 		throws IOException
 	{	
+		//wait for pending async write-back or delete of a previously evicted 
+		//block of the same file name, which would otherwise delete the new file
+		_wBack.awaitPending(fname);
+		_fClean.awaitPendingDelete(fname);
+		
 		//obtain basic meta data of cache block
 		long lSize = cb.getExactSerializedSize();  
 		boolean requiresWrite = (   lSize > _limit  //global buffer limit
@@ -77,43 +111,27 @@ public class LazyWriteBuffer
 		//handle caching/eviction if it fits in writebuffer
 		if( !requiresWrite ) 
 		{			
-			ByteBuffer bbuff = null;
-			
-			//modify buffer pool
-			synchronized( _mQueue )
-			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize >= _limit )
-				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-					String ftmp = entry.getKey();
-					ByteBuffer tmp = entry.getValue();
-					
-					if( tmp != null ) 
-					{
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size-=tmp.getSize();
-						
-						if( DMLScript.STATISTICS )
-							CacheStatistics.incrementFSWrites();
-					}
+			//reserve memory and evict blocks to make room (by default FIFO)
+			long size = _size.addAndGet(lSize);
+			try {
+				while( size >= _limit ) {
+					if( !evictBlock() ) 
+						break; //concurrently emptied buffer
+					size = _size.get();
 				}
-				
-				//create buffer (reserve mem), and lock
-				bbuff = new ByteBuffer( lSize );
-				
-				//put placeholder into buffer pool 
-				_mQueue.addLast(fname, bbuff);
-				_size += lSize;	
+			}
+			catch(IOException ex) {
+				//release reservation on failed synchronous write-back
+				_size.addAndGet(-lSize);
+				throw ex;
 			}
 			
-			//serialize matrix (outside synchronized critical path)
+			//create buffer and put placeholder into buffer pool
+			ByteBuffer bbuff = new ByteBuffer( lSize );
+			_mBuffers.put(fname, bbuff);
+			_mQueue.add(fname, lSize);
+			
+			//serialize matrix (outside any critical path)
 			bbuff.serializeBlock(cb); 
 			
 			if( DMLScript.STATISTICS )
@@ -128,6 +146,38 @@ public class LazyWriteBuffer
 		}	
 	}
 	
+	/**
+	 * Selects a victim according to the replacement policy and hands
+	 * it over to the write-back service.
+	 * 
+	 * @return false if there was no block to evict 
+	 * @throws IOException
+	 */
+	private static boolean evictBlock() 
+		throws IOException
+	{
+		String fname = _mQueue.poll();
+		if( fname == null )
+			return false;
+		
+		//the block is removed from the buffer pool only after it has been 
+		//registered as pending write, i.e., it remains readable in memory
+		ByteBuffer bbuff = _mBuffers.get(fname);
+		if( bbuff != null ) {
+			_wBack.register(fname, bbuff);
+			if( _mBuffers.remove(fname, bbuff) ) {
+				_size.addAndGet(-bbuff.getSize());
+				_wBack.writeBack(fname);
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementFSBuffEvictions();
+			}
+			else { //concurrently deleted
+				_wBack.unregister(fname);
+			}
+		}
+		return true;
+	}
+	
 	/**
 	 * 
 	 * @param fname
@@ -136,15 +186,21 @@ public class LazyWriteBuffer
 	{
 		boolean requiresDelete = true;
 		
-		synchronized( _mQueue )
-		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null ) {
-				_size -= ldata.getSize(); 
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
+		//remove buffer pool and queue entry 
+		ByteBuffer ldata = _mBuffers.remove(fname);
+		if( ldata != null ) {
+			_mQueue.remove(fname);
+			_size.addAndGet(-ldata.getSize()); 
+			requiresDelete = false;
+			ldata.freeMemory(); //cleanup
+		}
+		//cancel or delete pending write-back
+		else if( _wBack.cancel(fname) ) {
+			requiresDelete = false;
+		}
+		//remove off-heap buffer
+		else if( OffHeapBuffer.deleteBlock(fname) ) {
+			requiresDelete = false;
 		}
 		
 		//delete from FS if required
@@ -162,30 +218,35 @@ public class LazyWriteBuffer
 		throws IOException
 	{
 		CacheBlock cb = null;
-		ByteBuffer ldata = null;
 		
-		//probe write buffer
-		synchronized( _mQueue )
-		{
-			ldata = _mQueue.get(fname);
-			
+		//probe write buffer and pending write-backs
+		ByteBuffer ldata = _mBuffers.get(fname);
+		if( ldata != null ) {
 			//modify eviction order (accordingly to access)
-			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
-				&& ldata != null )
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
-			}
+			_mQueue.touch(fname);
+		}
+		else {
+			ldata = _wBack.getPending(fname);
 		}
 		
-		//deserialize or read from FS if required
+		//deserialize (null if concurrently written and freed)
 		if( ldata != null )
-		{
 			cb = ldata.deserializeBlock();
+		
+		//rethrow errors of failed write-backs w/o readable buffer
+		if( cb == null )
+			_wBack.checkFailed(fname);
+		
+		//read from off-heap buffer or FS if required
+		if( cb != null )
+		{
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffHits();
 		}
+		else if( matrix && (cb = OffHeapBuffer.readBlock(fname)) != null ) 
+		{
+			//off-heap hit (statistics maintained by off-heap buffer)
+		}
 		else
 		{
 			cb = LocalFileUtils.readCacheBlockFromLocal(fname, matrix); 
@@ -200,9 +261,25 @@ public class LazyWriteBuffer
 	 * 
 	 */
 	public static void init() {
-		_mQueue = new EvictionQueue();
+		init(getBufferPolicy(), getWriteBufferSize());
+	}
+	
+	/**
+	 * Initializes the write buffer with the given replacement policy 
+	 * and size limit in bytes.
+	 * 
+	 * @param policy
+	 * @param limit
+	 */
+	public static void init( RPolicy policy, long limit ) {
+		_policy = policy;
+		_limit = limit;
+		_mBuffers = new ConcurrentHashMap<String, ByteBuffer>();
+		_mQueue = new EvictionQueue(policy);
+		_wBack = new WriteBackService();
 		_fClean = new FileCleaner();
-		_size = 0;
+		_size.set(0);
+		OffHeapBuffer.init(getOffHeapBufferSize());
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -211,10 +288,15 @@ public class LazyWriteBuffer
 	 * 
 	 */
 	public static void cleanup() {
+		if( _mBuffers != null )
+			_mBuffers.clear();
 		if( _mQueue != null )
 			_mQueue.clear();
+		if( _wBack != null )
+			_wBack.close();
 		if( _fClean != null )
 			_fClean.close();
+		OffHeapBuffer.cleanup();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.clear();
 	}
@@ -228,6 +310,71 @@ public class LazyWriteBuffer
 		return (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
 	}
 	
+	/**
+	 * Gets the configured replacement policy of the write buffer, where
+	 * unknown policies fall back to the default policy.
+	 * 
+	 * @return
+	 */
+	public static RPolicy getBufferPolicy() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		if( conf == null )
+			return CacheableData.CACHING_BUFFER_POLICY;
+		String policy = conf.getTextValue(DMLConfig.CP_BUFFER_POLICY);
+		try {
+			return RPolicy.valueOf(policy.trim().toUpperCase());
+		}
+		catch(Exception ex) {
+			LOG.warn("Unknown buffer pool replacement policy '"+policy+"', using "
+				+ CacheableData.CACHING_BUFFER_POLICY.name() + ".");
+			return CacheableData.CACHING_BUFFER_POLICY;
+		}
+	}
+	
+	/**
+	 * Gets the replacement policy the write buffer was initialized with.
+	 * 
+	 * @return
+	 */
+	public static RPolicy getPolicy() {
+		return _policy;
+	}
+	
+	/**
+	 * Indicates if the given block is buffered in memory and not 
+	 * yet selected for eviction.
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	public static boolean isBuffered( String fname ) {
+		return _mBuffers.containsKey(fname);
+	}
+	
+	/**
+	 * Waits until all currently pending write-backs of evicted blocks 
+	 * are completed, either written or failed.
+	 * 
+	 * @throws IOException
+	 */
+	public static void awaitWriteBacks() 
+		throws IOException
+	{
+		_wBack.awaitAll();
+	}
+	
+	/**
+	 * Gets the configured budget of the off-heap buffer in bytes.
+	 * 
+	 * @return
+	 */
+	public static long getOffHeapBufferSize() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		if( conf == null )
+			return 0;
+		return (long)conf.getIntValue(DMLConfig.CP_OFFHEAP_BUFFER) * 1024 * 1024;
+	}
+	
 	/**
 	 * 
 	 */
@@ -238,12 +385,15 @@ public class LazyWriteBuffer
 		//print buffer meta data
 		System.out.println("\tWB: Buffer Meta Data: " +
 				     "limit="+_limit+", " +
-				     "size[bytes]="+_size+", " +
-				     "size[elements]="+_mQueue.size()+"/"+_mQueue.size());
+				     "size[bytes]="+_size.get()+", " +
+				     "size[elements]="+_mBuffers.size()+"/"+_mQueue.size()+", " +
+				     "pending[elements]="+_wBack.size()+", " +
+				     "offheap[bytes]="+OffHeapBuffer.getSize()+", " +
+				     "offheap[elements]="+OffHeapBuffer.getNumBlocks());
 		
 		//print current buffer entries
-		int count = _mQueue.size();
-		for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
+		int count = _mBuffers.size();
+		for( Entry<String, ByteBuffer> entry : _mBuffers.entrySet() )
 		{
 			String fname = entry.getKey();
 			ByteBuffer bbuff = entry.getValue();
@@ -254,29 +404,319 @@ public class LazyWriteBuffer
 	}
 	
 	/**
-	 * Extended LinkedHashMap with convenience methods for adding and removing 
-	 * last/first entries.
+	 * Eviction order of buffered blocks (file names and sizes) for the
+	 * different replacement policies. All operations are constant time, 
+	 * except poll with the SIZE policy which scans the queue. The queue
+	 * uses its own monitor and never performs I/O while holding it.
 	 * 
 	 */
-	private static class EvictionQueue extends LinkedHashMap<String, ByteBuffer>
+	private static class EvictionQueue
 	{
-		private static final long serialVersionUID = -5208333402581364859L;
+		private final RPolicy _policy;
+		private final LinkedHashMap<String, Long> _queue;
 		
-		public void addLast( String fname, ByteBuffer bbuff ) {
+		public EvictionQueue( RPolicy policy ) {
+			_policy = policy;
+			//LRU uses the access order of the linked hash map
+			_queue = new LinkedHashMap<String, Long>(16, 0.75f, policy==RPolicy.LRU);
+		}
+		
+		public synchronized void add( String fname, long size ) {
 			//put entry into eviction queue w/ 'addLast' semantics
-			put(fname, bbuff);
+			_queue.put(fname, size);
+		}
+		
+		public void touch( String fname ) {
+			//move entry to end of eviction queue
+			if( _policy == RPolicy.LRU ) {
+				synchronized( this ) {
+					_queue.get(fname);
+				}
+			}
+		}
+		
+		public synchronized void remove( String fname ) {
+			_queue.remove(fname);
+		}
+		
+		public synchronized String poll() 
+		{
+			if( _queue.isEmpty() )
+				return null;
+			
+			Iterator<Entry<String, Long>> iter = _queue.entrySet().iterator();
+			Entry<String, Long> entry = iter.next();
+			if( _policy == RPolicy.SIZE ) {
+				//find largest entry (first one if equal sizes)
+				while( iter.hasNext() ) {
+					Entry<String, Long> tmp = iter.next();
+					if( tmp.getValue() > entry.getValue() )
+						entry = tmp;
+				}
+				_queue.remove(entry.getKey());
+			}
+			else {
+				//remove first entry 
+				iter.remove();
+			}
+			
+			return entry.getKey();
+		}
+		
+		public synchronized int size() {
+			return _queue.size();
+		}
+		
+		public synchronized void clear() {
+			_queue.clear();
+		}
+	}
+	
+	/**
+	 * Write-back service for evicted buffers. Evicted buffers are registered
+	 * as pending (and hence remain readable) until written to the local file 
+	 * system. With asynchronous write-back, the write is executed by a small 
+	 * daemon thread pool unless the size of pending buffers exceeds the buffer
+	 * limit, in which case the evicting thread writes synchronously in order 
+	 * to bound the memory of pending write-backs.
+	 */
+	private static class WriteBackService
+	{
+		private final ConcurrentHashMap<String, WriteBackTask> _pending;
+		private final AtomicLong _pendingSize;
+		private ExecutorService _pool = null;
+		
+		public WriteBackService() {
+			_pending = new ConcurrentHashMap<String, WriteBackTask>();
+			_pendingSize = new AtomicLong(0);
+			
+			//create new threadpool for async write-back (daemon threads
+			//in order to never block the JVM shutdown on scratch writes)
+			if( CacheableData.CACHING_ASYNC_WRITEBACK ) {
+				int par = Math.max(InfrastructureAnalyzer.getLocalParallelism()/2, 1);
+				_pool = Executors.newFixedThreadPool(par, new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "lazy-write-buffer-writeback");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+			}
+		}
+		
+		public void register( String fname, ByteBuffer bbuff ) {
+			_pending.put(fname, new WriteBackTask(fname, bbuff));
+		}
+		
+		public void unregister( String fname ) {
+			WriteBackTask task = _pending.remove(fname);
+			if( task != null )
+				task.complete(); //never submitted
+		}
+		
+		public void writeBack( String fname ) 
+			throws IOException
+		{
+			WriteBackTask task = _pending.get(fname);
+			long size = _pendingSize.addAndGet(task.getBuffer().getSize());
+			
+			if( CacheableData.CACHING_ASYNC_WRITEBACK && size < _limit )
+				_pool.submit(task);
+			else
+				task.write();
+		}
+		
+		public ByteBuffer getPending( String fname ) {
+			WriteBackTask task = _pending.get(fname);
+			return (task != null) ? task.getBuffer() : null;
+		}
+		
+		public boolean cancel( String fname ) {
+			WriteBackTask task = _pending.get(fname);
+			return (task != null) && task.cancel();
 		}
 		
-		public Entry<String, ByteBuffer> removeFirst() 
+		public void checkFailed( String fname ) 
+			throws IOException
 		{
-			//move iterator to first entry
-			Iterator<Entry<String, ByteBuffer>> iter = entrySet().iterator();
-			Entry<String, ByteBuffer> entry = iter.next();
+			WriteBackTask task = _pending.get(fname);
+			IOException ex = (task != null) ? task.getError() : null;
+			if( ex != null )
+				throw new IOException("Failed to write back evicted buffer: "+fname, ex);
+		}
+		
+		public void awaitPending( String fname ) 
+			throws IOException
+		{
+			WriteBackTask task = _pending.get(fname);
+			if( task != null ) {
+				task.awaitCompletion();
+				//release pinned buffer of failed write-back (superseded)
+				if( task.getError() != null )
+					task.cancel();
+			}
+		}
+		
+		public void awaitAll() 
+			throws IOException
+		{
+			for( WriteBackTask task : _pending.values() )
+				task.awaitCompletion();
+		}
+		
+		public int size() {
+			return _pending.size();
+		}
+		
+		public void close() {
+			//cancel pending tasks (queued tasks skip the write, running 
+			//tasks delete their file) and wait for their completion in 
+			//order to not write into the concurrently deleted cache dir
+			for( WriteBackTask task : _pending.values() )
+				task.cancel();
+			if( CacheableData.CACHING_ASYNC_WRITEBACK )
+				shutdownAndAwait(_pool);
+		}
+		
+		private class WriteBackTask implements Runnable 
+		{
+			private final String _fname;
+			private final ByteBuffer _bbuff;
+			private boolean _written = false;
+			private boolean _canceled = false;
+			private boolean _completed = false;
+			private boolean _released = false;
+			private IOException _error = null;
+			
+			public WriteBackTask( String fname, ByteBuffer bbuff ) {
+				_fname = fname;
+				_bbuff = bbuff;
+			}
+			
+			public ByteBuffer getBuffer() {
+				return _bbuff;
+			}
+			
+			public synchronized IOException getError() {
+				return _error;
+			}
+			
+			/**
+			 * Cancels the write-back of a deleted block, where an already
+			 * written off-heap buffer or file is deleted and the pinned 
+			 * buffer of a failed write-back is released. 
+			 * 
+			 * @return true if the task was not canceled before
+			 */
+			public synchronized boolean cancel() {
+				if( _canceled )
+					return false;
+				_canceled = true;
+				if( _written )
+					deleteWritten();
+				else if( _error != null )
+					release();
+				return true;
+			}
+			
+			public void write() 
+				throws IOException
+			{
+				try {
+					synchronized( this ) {
+						if( _canceled ) 
+							return;
+					}
+					
+					//wait for pending serialization and evict matrix
+					//(to off-heap buffer if possible, otherwise to local FS)
+					_bbuff.checkSerialized();
+					boolean offheap = false;
+					try {
+						offheap = OffHeapBuffer.writeBlock(_fname, _bbuff);
+					}
+					catch(Exception ex) {
+						LOG.warn("Failed to write off-heap buffer, falling back to local FS: "+_fname, ex);
+					}
+					if( !offheap ) {
+						_bbuff.evictBuffer(_fname);
+						if( DMLScript.STATISTICS )
+							CacheStatistics.incrementFSWrites();
+					}
+					
+					//delete written block if canceled during write
+					synchronized( this ) {
+						_written = true;
+						if( _canceled )
+							deleteWritten();
+					}
+				}
+				catch(Exception ex) {
+					//keep the buffer pinned and pending, i.e., readable from memory, 
+					//remove partially written files, and record the error for readers
+					LocalFileUtils.deleteFileIfExists(_fname, true);
+					IOException ioex = (ex instanceof IOException) ? (IOException) ex :
+						new IOException("Failed to write back evicted buffer: "+_fname, ex);
+					synchronized( this ) {
+						_error = ioex;
+						if( _canceled )
+							release();
+					}
+					throw ioex;
+				}
+				finally {
+					synchronized( this ) {
+						//release buffer (readers fall back to the written file)
+						if( _error == null )
+							release();
+					}
+					complete();
+				}
+			}
+			
+			public synchronized void complete() {
+				_completed = true;
+				notifyAll();
+			}
+			
+			public synchronized void awaitCompletion() 
+				throws IOException
+			{
+				try {
+					while( !_completed )
+						wait();
+				}
+				catch(InterruptedException ex) {
+					throw new IOException("Interrupted while waiting for write-back: "+_fname, ex);
+				}
+			}
+			
+			private void release() {
+				if( _released )
+					return;
+				_released = true;
+				_bbuff.freeMemory();
+				_pending.remove(_fname, this);
+				_pendingSize.addAndGet(-_bbuff.getSize());
+			}
 			
-			//remove current iterator entry
-			iter.remove();
+			private void deleteWritten() {
+				if( !OffHeapBuffer.deleteBlock(_fname) )
+					LocalFileUtils.deleteFileIfExists(_fname, true);
+			}
 			
-			return entry;
+			@Override
+			public void run() {
+				try {
+					write();
+				}
+				catch(IOException ex) {
+					//no rethrow because the future is never checked; the buffer
+					//remains readable and the error is rethrown by readers if needed
+					LOG.error("Failed to write back evicted buffer: "+_fname, ex);
+				}
+			}
 		}
 	}
 	
@@ -290,24 +730,51 @@ public class LazyWriteBuffer
 	{
 		private ExecutorService _pool = null;
 		
+		//pending async deletes by file name (removed on completion)
+		private final ConcurrentHashMap<String, Future<Void>> _pending;
+		
 		public FileCleaner() {
+			_pending = new ConcurrentHashMap<String, Future<Void>>();
+			
 			//create new threadpool for async cleanup
 			if( CacheableData.CACHING_ASYNC_FILECLEANUP )
 				_pool = Executors.newCachedThreadPool();
 		}
 		
-		public void deleteFile(String fname) {
+		public void deleteFile(final String fname) {
 			//sync or async file delete
-			if( CacheableData.CACHING_ASYNC_FILECLEANUP )
-				_pool.submit(new FileCleanerTask(fname));
+			if( CacheableData.CACHING_ASYNC_FILECLEANUP ) {
+				FutureTask<Void> task = new FutureTask<Void>(new FileCleanerTask(fname), null) {
+					@Override
+					protected void done() {
+						_pending.remove(fname, this);
+					}
+				};
+				_pending.put(fname, task);
+				_pool.execute(task);
+			}
 			else
 				LocalFileUtils.deleteFileIfExists(fname, true);
 		}
 		
+		public void awaitPendingDelete(String fname) 
+			throws IOException
+		{
+			Future<Void> task = _pending.get(fname);
+			if( task != null ) {
+				try {
+					task.get();
+				}
+				catch(Exception ex) {
+					throw new IOException("Failed to wait for pending delete: "+fname, ex);
+				}
+			}
+		}
+		
 		public void close() {
 			//execute pending tasks and shutdown pool
 			if( CacheableData.CACHING_ASYNC_FILECLEANUP )
-				_pool.shutdown();
+				shutdownAndAwait(_pool);
 		}
 		
 		private class FileCleanerTask implements Runnable {
@@ -323,4 +790,23 @@ public class LazyWriteBuffer
 			}			
 		}
 	}
+	
+	/**
+	 * Shuts down the given thread pool and waits for the completion
+	 * of all submitted tasks.
+	 * 
+	 * @param pool
+	 */
+	private static void shutdownAndAwait( ExecutorService pool )
+	{
+		pool.shutdown();
+		try {
+			while( !pool.awaitTermination(1, TimeUnit.SECONDS) )
+				LOG.debug("Waiting for pending tasks of the write buffer.");
+		}
+		catch(InterruptedException ex) {
+			pool.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
 }
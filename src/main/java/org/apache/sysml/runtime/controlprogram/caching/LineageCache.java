@@ -0,0 +1,571 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.MRJobInstruction;
+import org.apache.sysml.runtime.instructions.cp.AggregateBinaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.AggregateUnaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.ArithmeticBinaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.BooleanBinaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.BooleanUnaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.BuiltinBinaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.BuiltinUnaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.MMChainCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.MMTSJCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.MatrixIndexingCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.RelationalBinaryCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.ReorgCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Lineage tracing of CP instructions and reuse cache of intermediate results.
+ *
+ * The lineage of all variables is maintained in the symbol table, where each
+ * traced instruction derives the lineage of its output from its opcode and the
+ * lineage of its inputs (persistent reads and scalar values are leafs, and
+ * reblocks of persistent reads inherit the lineage of their inputs). Lineage is
+ * only traced for deterministic instructions whose operands fully describe the
+ * operation; all other outputs remain untraced.
+ *
+ * The outputs of expensive operations (matrix multiplications, tsmm, mmchain,
+ * solve, and aggregates) are kept in a reuse cache, keyed by their lineage,
+ * such that redundant operations (e.g., t(X)%*%X in multiple cv folds, or
+ * colSums(X) in repeated function calls) return a copy of the cached output.
+ * The cache is bounded by a fraction of the max heap size. On eviction, victims
+ * are handed over to the buffer pool's write buffer (which spills them to local
+ * disk according to its own eviction policy) up to the same size limit.
+ * Spilled intermediates are written and read outside the cache lock, and
+ * intermediates that cannot be written or read are dropped and recomputed.
+ *
+ */
+public class LineageCache
+{
+	private static final Log LOG = LogFactory.getLog(LineageCache.class.getName());
+
+	//fraction of max heap used for cached intermediates (and spilled intermediates)
+	public static final double LINEAGE_CACHE_SIZE = 0.05;
+
+	//prefix of file names of spilled intermediates (w/ cache prefix for cleanup)
+	private static final String LINEAGE_FILE_PREFIX = "lineage";
+
+	//estimated size of cached scalar outputs in bytes
+	private static final long SCALAR_SIZE = 64;
+
+	private static final long _limit;
+	private static long _size = 0;      //in-memory size of cached intermediates
+	private static long _spillSize = 0; //size of spilled intermediates
+	private static IDSequence _seq = new IDSequence();
+
+	private static final LinkedHashMap<LineageItem, Entry> _cache =
+			new LinkedHashMap<LineageItem, Entry>(16, 0.75f, true);
+
+	static {
+		long maxMem = InfrastructureAnalyzer.getLocalMaxMemory();
+		_limit = (long)(LINEAGE_CACHE_SIZE * maxMem);
+	}
+
+	/**
+	 * Obtains the lineage of the output of the given instruction, before its
+	 * execution, or null if the instruction is not traced.
+	 *
+	 * @param inst
+	 * @param ec
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static LineageItem trace( Instruction inst, ExecutionContext ec )
+		throws DMLRuntimeException
+	{
+		LocalVariableMap vars = ec.getVariables();
+
+		if( inst instanceof VariableCPInstruction )
+		{
+			VariableCPInstruction vinst = (VariableCPInstruction) inst;
+			String opcode = vinst.getOpcode();
+			CPOperand in1 = vinst.getInput1();
+
+			//copy/move/assign: output inherits the lineage of the input
+			if( opcode.equals("cpvar") || opcode.equals("assignvar")
+				|| (opcode.equals("mvvar") && vinst.getInput3() == null) )
+				return getLineage(in1, vars);
+
+			//createvar of persistent read: file name and file status (modification 
+			//time and size) of the input and its meta data file
+			if( opcode.equals("createvar") && in1.getDataType() == DataType.MATRIX
+				&& vinst.getInput3().getName().equalsIgnoreCase("false") )
+			{
+				String fname = vinst.getInput2().getName();
+				String fstat = getFileStatus(fname);
+				return (fstat != null) ? LineageItem.getLeaf("read" + Instruction.OPERAND_DELIM 
+					+ fname + Instruction.OPERAND_DELIM + fstat + Instruction.OPERAND_DELIM 
+					+ getFileStatus(fname + ".mtd")) : null;
+			}
+			return null;
+		}
+		else if( inst instanceof MRJobInstruction )
+		{
+			//reblock of a single input (e.g., text/csv read): output inherits the
+			//lineage of the input, because only the block format changes
+			MRJobInstruction jinst = (MRJobInstruction) inst;
+			return isSingleReblock(jinst) ? vars.getLineage(jinst.getInputVars()[0]) : null;
+		}
+		else if( isTraced(inst) )
+		{
+			ComputationCPInstruction cpinst = (ComputationCPInstruction) inst;
+			CPOperand[] in = cpinst.getInputs();
+			LineageItem[] items = new LineageItem[in.length];
+			for( int i=0; i<in.length; i++ )
+				if( (items[i] = getLineage(in[i], vars)) == null )
+					return null;
+			return LineageItem.getItem(getLineageOpcode(cpinst), items);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Binds the cached output of the given instruction and lineage, if available.
+	 *
+	 * @param inst
+	 * @param li
+	 * @param ec
+	 * @return true if the output was reused, i.e., the instruction must not be executed
+	 * @throws DMLRuntimeException
+	 */
+	public static boolean reuse( Instruction inst, LineageItem li, ExecutionContext ec )
+		throws DMLRuntimeException
+	{
+		if( li == null || !isReusable(inst) )
+			return false;
+
+		Object data = get(li);
+		if( DMLScript.STATISTICS ) {
+			if( data != null )
+				Statistics.incrementLineageCacheHits();
+			else
+				Statistics.incrementLineageCacheMisses();
+		}
+		if( data == null )
+			return false;
+
+		String outName = ((ComputationCPInstruction) inst).getOutputVariableName();
+		if( data instanceof MatrixBlock )
+			ec.setMatrixOutput(outName, (MatrixBlock) data);
+		else
+			ec.setScalarOutput(outName, (ScalarObject) data);
+		return true;
+	}
+
+	/**
+	 * Maintains the lineage of the output of the given instruction after
+	 * its execution, and puts the output into the reuse cache if required.
+	 *
+	 * @param inst
+	 * @param li
+	 * @param reused
+	 * @param ec
+	 * @throws DMLRuntimeException
+	 */
+	public static void update( Instruction inst, LineageItem li, boolean reused, ExecutionContext ec )
+		throws DMLRuntimeException
+	{
+		if( li == null )
+			return;
+
+		//maintain lineage of output variable
+		String outName = getOutputVariableName(inst);
+		ec.getVariables().setLineage(outName, li);
+
+		//put output into reuse cache
+		if( !reused && isReusable(inst) ) {
+			Data dat = ec.getVariable(outName);
+			if( dat instanceof MatrixObject ) {
+				MatrixObject mo = (MatrixObject) dat;
+				MatrixBlock mb = mo.acquireRead();
+				if( mb.getInMemorySize() <= _limit / 2 )
+					put(li, new MatrixBlock(mb), mb.getInMemorySize());
+				mo.release();
+			}
+			else if( dat instanceof ScalarObject ) {
+				put(li, dat, SCALAR_SIZE);
+			}
+		}
+	}
+
+	/**
+	 * Removes all cached intermediates. Note that spilled intermediates are
+	 * deleted with the cache directory of the buffer pool.
+	 */
+	public static void clear() {
+		synchronized( _cache ) {
+			for( Entry e : _cache.values() )
+				e._removed = true;
+			_cache.clear();
+			_size = 0;
+			_spillSize = 0;
+		}
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public static int size() {
+		synchronized( _cache ) {
+			return _cache.size();
+		}
+	}
+
+	/**
+	 * Gets a copy of the cached output of the given lineage item. Spilled 
+	 * intermediates are read outside the global cache lock, and intermediates
+	 * that cannot be read are dropped from the cache such that the output is
+	 * recomputed.
+	 *
+	 * @param li
+	 * @return
+	 */
+	private static Object get( LineageItem li )
+	{
+		Entry e = null;
+		Object data = null;
+		synchronized( _cache ) {
+			e = _cache.get(li);
+			if( e == null )
+				return null;
+			data = e._data;
+		}
+
+		//copy in-memory intermediate (cached blocks are never modified)
+		if( data instanceof MatrixBlock )
+			return new MatrixBlock((MatrixBlock) data);
+		else if( data != null )
+			return data;
+
+		//read spilled intermediate (fresh block)
+		try {
+			return (MatrixBlock) LazyWriteBuffer.readBlock(e._fname, true);
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to read spilled intermediate, dropped for recomputation: "+e._fname, ex);
+			remove(e);
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * @param li
+	 * @param data
+	 * @param size
+	 */
+	private static void put( LineageItem li, Object data, long size )
+	{
+		ArrayList<Entry> spills = new ArrayList<Entry>();
+		ArrayList<String> deletes = new ArrayList<String>();
+
+		synchronized( _cache ) {
+			if( _cache.containsKey(li) )
+				return;
+			_cache.put(li, new Entry(li, data, size));
+			_size += size;
+
+			//select least recently used intermediates to spill or drop
+			Iterator<Entry> iter = _cache.values().iterator();
+			while( _size > _limit && iter.hasNext() ) {
+				Entry e = iter.next();
+				if( e._fname != null ) //spilled or pending spill
+					continue;
+				_size -= e._size;
+				if( e._data instanceof MatrixBlock && CacheableData.isCachingActive() ) {
+					e._fname = CacheableData.cacheEvictionLocalFilePath
+						+ CacheableData.cacheEvictionLocalFilePrefix + LINEAGE_FILE_PREFIX
+						+ String.format("%09d", _seq.getNextID()) + CacheableData.CACHING_EVICTION_FILEEXTENSION;
+					_spillSize += e._size;
+					spills.add(e);
+				}
+				else {
+					iter.remove();
+					e._removed = true;
+				}
+			}
+
+			//select least recently used spilled intermediates to delete
+			iter = _cache.values().iterator();
+			while( _spillSize > _limit && iter.hasNext() ) {
+				Entry e = iter.next();
+				if( e._data != null ) //in memory or pending spill
+					continue;
+				_spillSize -= e._size;
+				iter.remove();
+				e._removed = true;
+				deletes.add(e._fname);
+			}
+		}
+
+		//write and delete outside the global cache lock, where pending
+		//spills remain in memory (and readable) until they are written
+		for( String fname : deletes )
+			LazyWriteBuffer.deleteBlock(fname);
+		for( Entry e : spills )
+			spill(e);
+	}
+
+	/**
+	 * Writes a pending spill via the write buffer, where intermediates that
+	 * cannot be written are dropped from the cache.
+	 *
+	 * @param e
+	 */
+	private static void spill( Entry e )
+	{
+		boolean written = true;
+		try {
+			LazyWriteBuffer.writeBlock(e._fname, (MatrixBlock) e._data);
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to spill intermediate, dropped from cache: "+e._fname, ex);
+			written = false;
+		}
+
+		boolean delete = false;
+		synchronized( _cache ) {
+			if( written && !e._removed ) {
+				e._data = null;
+				if( DMLScript.STATISTICS )
+					Statistics.incrementLineageCacheSpills();
+			}
+			else {
+				if( !e._removed ) {
+					_cache.remove(e._key);
+					_spillSize -= e._size;
+					e._removed = true;
+				}
+				delete = true;
+			}
+		}
+		if( delete )
+			LazyWriteBuffer.deleteBlock(e._fname);
+	}
+
+	/**
+	 * Removes the given entry from the cache (if not removed concurrently),
+	 * and deletes its spilled intermediate if necessary.
+	 *
+	 * @param e
+	 */
+	private static void remove( Entry e )
+	{
+		synchronized( _cache ) {
+			if( e._removed )
+				return;
+			_cache.remove(e._key);
+			if( e._fname != null )
+				_spillSize -= e._size;
+			else
+				_size -= e._size;
+			e._removed = true;
+		}
+		if( e._fname != null )
+			LazyWriteBuffer.deleteBlock(e._fname);
+	}
+
+	/**
+	 * Indicates if the given instruction is deterministic and fully described
+	 * by its opcode (and type) and input operands.
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static boolean isTraced( Instruction inst )
+	{
+		return inst instanceof ArithmeticBinaryCPInstruction
+			|| inst instanceof RelationalBinaryCPInstruction
+			|| inst instanceof BooleanBinaryCPInstruction
+			|| inst instanceof BuiltinBinaryCPInstruction
+			|| inst instanceof BooleanUnaryCPInstruction
+			|| inst instanceof BuiltinUnaryCPInstruction
+			|| inst instanceof AggregateUnaryCPInstruction
+			|| inst instanceof AggregateBinaryCPInstruction
+			|| inst instanceof MMTSJCPInstruction
+			|| inst instanceof MMChainCPInstruction
+			|| inst instanceof MatrixIndexingCPInstruction
+			|| (inst instanceof ReorgCPInstruction && !((ReorgCPInstruction)inst).getOpcode().equals("rsort"));
+	}
+
+	/**
+	 * Obtains the file status (modification time and size) of the given
+	 * file or directory, or null if it does not exist.
+	 * 
+	 * @param fname file name
+	 * @return file status, or null if it does not exist
+	 */
+	private static String getFileStatus( String fname ) {
+		long mtime = MapReduceTool.getModificationTimeOnHDFS(fname);
+		if( mtime < 0 )
+			return null;
+		try {
+			return mtime + "/" + MapReduceTool.getFilesizeOnHDFS(new Path(fname));
+		}
+		catch(IOException ex) {
+			LOG.error("Failed to obtain size of "+fname, ex);
+			return null;
+		}
+	}
+	
+	/**
+	 * Indicates if the given job is a reblock of a single input without any
+	 * other operations.
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static boolean isSingleReblock( MRJobInstruction inst )
+	{
+		return (inst.getJobType() == JobType.REBLOCK || inst.getJobType() == JobType.CSV_REBLOCK)
+			&& inst.getInputVars().length == 1 && inst.getOutputVars().length == 1
+			&& isEmpty(inst.getIv_recordReaderInstructions()) && isEmpty(inst.getIv_instructionsInMapper())
+			&& isEmpty(inst.getIv_aggInstructions()) && isEmpty(inst.getIv_otherInstructions());
+	}
+
+	private static boolean isEmpty( String inst ) {
+		return inst == null || inst.isEmpty();
+	}
+
+	/**
+	 * Indicates if the output of the given instruction is worth caching,
+	 * i.e., if the operation is expensive compared to copying its output.
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static boolean isReusable( Instruction inst )
+	{
+		if( inst instanceof AggregateUnaryCPInstruction ) {
+			String opcode = ((AggregateUnaryCPInstruction)inst).getOpcode();
+			return !(opcode.equals("nrow") || opcode.equals("ncol") || opcode.equals("length"));
+		}
+		return inst instanceof AggregateBinaryCPInstruction
+			|| inst instanceof MMTSJCPInstruction
+			|| inst instanceof MMChainCPInstruction
+			|| (inst instanceof BuiltinBinaryCPInstruction
+				&& ((BuiltinBinaryCPInstruction)inst).getOpcode().equals("solve"));
+	}
+
+	/**
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static String getLineageOpcode( ComputationCPInstruction inst )
+	{
+		if( inst instanceof MMTSJCPInstruction )
+			return inst.getOpcode() + Instruction.OPERAND_DELIM + ((MMTSJCPInstruction)inst).getMMTSJType();
+		else if( inst instanceof MMChainCPInstruction )
+			return inst.getOpcode() + Instruction.OPERAND_DELIM + ((MMChainCPInstruction)inst).getMMChainType();
+		return inst.getOpcode();
+	}
+
+	/**
+	 *
+	 * @param inst
+	 * @return
+	 */
+	private static String getOutputVariableName( Instruction inst )
+	{
+		if( inst instanceof ComputationCPInstruction )
+			return ((ComputationCPInstruction) inst).getOutputVariableName();
+
+		//reblock jobs (single output)
+		if( inst instanceof MRJobInstruction )
+			return ((MRJobInstruction) inst).getOutputVars()[0];
+
+		//variable instructions (cpvar/mvvar/assignvar, createvar)
+		VariableCPInstruction vinst = (VariableCPInstruction) inst;
+		return vinst.getOpcode().equals("createvar") ?
+			vinst.getInput1().getName() : vinst.getInput2().getName();
+	}
+
+	/**
+	 * Gets the lineage of the given operand, where literals and scalar variables
+	 * are represented by their values.
+	 *
+	 * @param op
+	 * @param vars
+	 * @return
+	 */
+	private static LineageItem getLineage( CPOperand op, LocalVariableMap vars )
+	{
+		if( op.isLiteral() )
+			return LineageItem.getLeaf(op.getValueType() + Instruction.OPERAND_DELIM + op.getName());
+
+		LineageItem li = vars.getLineage(op.getName());
+		if( li == null ) {
+			Data dat = vars.get(op.getName());
+			if( dat instanceof ScalarObject )
+				li = LineageItem.getLeaf(dat.getValueType()
+					+ Instruction.OPERAND_DELIM + ((ScalarObject)dat).getStringValue());
+		}
+		return li;
+	}
+
+	/**
+	 * Cached intermediate, which is either in memory or spilled
+	 * via the write buffer.
+	 */
+	private static class Entry
+	{
+		private final LineageItem _key;
+		private Object _data;  //matrix block or scalar object, null if spilled
+		private String _fname; //file name if spilled or pending spill
+		private final long _size;
+		private boolean _removed = false; //removed from cache
+
+		public Entry(LineageItem key, Object data, long size) {
+			_key = key;
+			_data = data;
+			_size = size;
+		}
+	}
+}
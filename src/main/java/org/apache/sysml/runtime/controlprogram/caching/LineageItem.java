@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+/**
+ * Lineage of a data object, i.e., a node of the lineage dag that describes
+ * how the data object was computed: either a leaf (e.g., persistent read,
+ * scalar value) or an operation (incl all parameters that are not operands)
+ * over the lineage of its inputs.
+ *
+ * All lineage items are hash-consed (i.e., there is at most one instance for
+ * structurally equal lineage dags), which makes equals a shallow comparison
+ * of the opcode and the references of the inputs. Unreferenced lineage items
+ * are released via weak references.
+ *
+ */
+public class LineageItem
+{
+	//max height of lineage dags, to bound the lineage of loop-carried variables
+	public static final int MAX_HEIGHT = 64;
+
+	//canonical instances of all live lineage items
+	private static final WeakHashMap<LineageItem, WeakReference<LineageItem>> _items =
+			new WeakHashMap<LineageItem, WeakReference<LineageItem>>();
+
+	private final String _opcode;
+	private final LineageItem[] _inputs;
+	private final int _height;
+	private final int _hash;
+
+	private LineageItem(String opcode, LineageItem[] inputs) {
+		_opcode = opcode;
+		_inputs = inputs;
+
+		int height = 0;
+		if( inputs != null )
+			for( LineageItem li : inputs )
+				height = Math.max(height, li._height + 1);
+		_height = height;
+		_hash = 31 * opcode.hashCode() + Arrays.hashCode(inputs);
+	}
+
+	/**
+	 * Gets the canonical lineage item of a leaf with the given data.
+	 *
+	 * @param data
+	 * @return
+	 */
+	public static LineageItem getLeaf(String data) {
+		return intern(new LineageItem(data, null));
+	}
+
+	/**
+	 * Gets the canonical lineage item of an operation with the given
+	 * opcode over the given (canonical) input lineage items, or null
+	 * if any input is untraced or the max lineage height is exceeded.
+	 *
+	 * @param opcode
+	 * @param inputs
+	 * @return
+	 */
+	public static LineageItem getItem(String opcode, LineageItem... inputs) {
+		for( LineageItem li : inputs )
+			if( li == null || li._height >= MAX_HEIGHT )
+				return null;
+		return intern(new LineageItem(opcode, inputs));
+	}
+
+	/**
+	 *
+	 * @param li
+	 * @return
+	 */
+	private static LineageItem intern(LineageItem li) {
+		synchronized( _items ) {
+			WeakReference<LineageItem> ref = _items.get(li);
+			LineageItem ret = (ref != null) ? ref.get() : null;
+			if( ret == null ) {
+				_items.put(li, new WeakReference<LineageItem>(li));
+				ret = li;
+			}
+			return ret;
+		}
+	}
+
+	public String getOpcode() {
+		return _opcode;
+	}
+
+	public LineageItem[] getInputs() {
+		return _inputs;
+	}
+
+	public boolean isLeaf() {
+		return _inputs == null;
+	}
+
+	public int getHeight() {
+		return _height;
+	}
+
+	@Override
+	public int hashCode() {
+		return _hash;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if( this == o )
+			return true;
+		if( !(o instanceof LineageItem) )
+			return false;
+
+		//shallow comparison, because inputs are canonical
+		LineageItem that = (LineageItem) o;
+		if( _hash != that._hash || !_opcode.equals(that._opcode)
+			|| (_inputs == null) != (that._inputs == null) )
+			return false;
+		if( _inputs != null ) {
+			if( _inputs.length != that._inputs.length )
+				return false;
+			for( int i=0; i<_inputs.length; i++ )
+				if( _inputs[i] != that._inputs[i] )
+					return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_opcode);
+		if( _inputs != null ) {
+			sb.append('(');
+			for( int i=0; i<_inputs.length; i++ ) {
+				if( i > 0 )
+					sb.append(',');
+				sb.append(_inputs[i]);
+			}
+			sb.append(')');
+		}
+		return sb.toString();
+	}
+}
@@ -31,6 +31,7 @@ import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysml.runtime.instructions.spark.data.RDDObject;
@@ -44,6 +45,7 @@ import org.apache.sysml.runtime.matrix.data.LibMatrixDNN;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.NumItemsByEachReducerMetaData;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.IndexRange;
 import org.apache.sysml.runtime.util.MapReduceTool;
@@ -74,6 +76,7 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	
 	//additional matrix-specific flags
 	private UpdateType _updateType = UpdateType.COPY; 
+	private boolean _compressed = false; //compressed on last release (eviction)
 	
 	//information relevant to partitioned matrices.
 	private boolean _partitioned = false; //indicates if obj partitioned
@@ -230,6 +233,97 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		}
 	}
 	
+	/**
+	 * Acquires a read lock and returns the matrix block. Compressed matrix
+	 * blocks are decompressed, because most operations are not supported 
+	 * over compressed blocks (see acquireReadCompressed). The pinned block
+	 * remains compressed for subsequent reads, while the returned block is
+	 * a read-only decompressed form, which is reused across reads as long 
+	 * as it is softly reachable.
+	 * 
+	 * @return
+	 * @throws CacheException
+	 */
+	@Override
+	public synchronized MatrixBlock acquireRead() 
+		throws CacheException
+	{
+		MatrixBlock mb = super.acquireRead();
+		if( !CompressedMatrixBlock.isCompressed(mb) )
+			return mb;
+		
+		try {
+			return ((CompressedMatrixBlock)mb).getDecompressed();
+		}
+		catch(DMLRuntimeException ex) {
+			throw new CacheException(ex);
+		}
+	}
+	
+	/**
+	 * Acquires a read lock and returns the matrix block, which might be 
+	 * compressed. Only operations that support compressed matrix blocks
+	 * should use this method.
+	 * 
+	 * @return
+	 * @throws CacheException
+	 */
+	public synchronized MatrixBlock acquireReadCompressed() 
+		throws CacheException
+	{
+		return super.acquireRead();
+	}
+	
+	/**
+	 * Acquires an exclusive lock and returns the matrix block, where
+	 * compressed matrix blocks are replaced by their decompressed form.
+	 * 
+	 * @return
+	 * @throws CacheException
+	 */
+	@Override
+	public synchronized MatrixBlock acquireModify() 
+		throws CacheException
+	{
+		if( _data == null )
+			getCache();
+		if( CompressedMatrixBlock.isCompressed(_data) )
+			_data = decompress((CompressedMatrixBlock)_data);
+		return super.acquireModify();
+	}
+	
+	/**
+	 * Releases the lock, where compressed matrix blocks are remembered
+	 * in order to recompress them on restore after eviction.
+	 * 
+	 * @throws CacheException
+	 */
+	@Override
+	public synchronized void release() 
+		throws CacheException
+	{
+		if( _data != null )
+			_compressed = CompressedMatrixBlock.isCompressed(_data);
+		super.release();
+	}
+	
+	/**
+	 * 
+	 * @param cmb
+	 * @return
+	 * @throws CacheException
+	 */
+	private static MatrixBlock decompress(CompressedMatrixBlock cmb) 
+		throws CacheException
+	{
+		try {
+			return cmb.decompress();
+		}
+		catch(DMLRuntimeException ex) {
+			throw new CacheException(ex);
+		}
+	}
+	
 	public String toString()
 	{ 
 		StringBuilder str = new StringBuilder();
@@ -545,7 +639,21 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	
 	@Override
 	protected MatrixBlock readBlobFromCache(String fname) throws IOException {
-		return (MatrixBlock)LazyWriteBuffer.readBlock(fname, true);
+		MatrixBlock mb = (MatrixBlock)LazyWriteBuffer.readBlock(fname, true);
+		
+		//recompress compressed blocks, which are evicted in uncompressed format
+		//(blocks of the write buffer are kept by reference and still compressed)
+		if( _compressed && mb != null && !CompressedMatrixBlock.isCompressed(mb) ) {
+			CompressedMatrixBlock cmb = new CompressedMatrixBlock(mb);
+			try {
+				if( cmb.compress(OptimizerUtils.getConstrainedNumThreads(-1)) )
+					mb = cmb;
+			}
+			catch(DMLRuntimeException ex) {
+				throw new IOException(ex);
+			}
+		}
+		return mb;
 	}
 	
 
@@ -571,6 +679,17 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		if( newData == null )
 			throw new IOException("Unable to load matrix from file: "+fname);
 		
+		//convert read-only sparse binary block inputs to csr (if enabled), which avoids
+		//per-row objects and allows for contiguous scans in sparse kernels; inputs updated 
+		//in place are excluded as inserts into csr shift all subsequent non-zeros
+		if( ConfigurationManager.isSparseCSRRead() && !getUpdateType().isInPlace()
+			&& iimd.getInputInfo() == InputInfo.BinaryBlockInputInfo
+			&& newData.isInSparseFormat() && !newData.isEmptyBlock(false)
+			&& newData.getNonZeros() <= Integer.MAX_VALUE )
+		{
+			newData = new MatrixBlock(newData, SparseBlock.Type.CSR, false);
+		}
+		
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Reading Completed: " + (System.currentTimeMillis()-begin) + " msec.");
 		
@@ -667,6 +786,10 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 
 		if (_data != null)
 		{
+			//compressed blocks are written in uncompressed format
+			MatrixBlock data = CompressedMatrixBlock.isCompressed(_data) ? 
+				decompress((CompressedMatrixBlock)_data) : _data;
+			
 			// Get the dimension information from the metadata stored within MatrixObject
 			MatrixCharacteristics mc = iimd.getMatrixCharacteristics ();
 			// Write the matrix to HDFS in requested format
@@ -678,10 +801,10 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 			if ( oinfo == OutputInfo.BinaryBlockOutputInfo && DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE &&
 				(mc.getRowsPerBlock() != ConfigurationManager.getBlocksize() || mc.getColsPerBlock() != ConfigurationManager.getBlocksize()) ) 
 			{
-				DataConverter.writeMatrixToHDFS(_data, fname, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(), ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize(), mc.getNonZeros()), rep, fprop);
+				DataConverter.writeMatrixToHDFS(data, fname, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(), ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize(), mc.getNonZeros()), rep, fprop);
 			}
 			else {
-				DataConverter.writeMatrixToHDFS(_data, fname, oinfo, mc, rep, fprop);
+				DataConverter.writeMatrixToHDFS(data, fname, oinfo, mc, rep, fprop);
 			}
 
 			if( LOG.isTraceEnabled() )
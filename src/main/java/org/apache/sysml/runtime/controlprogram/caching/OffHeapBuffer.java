@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+
+/**
+ * Optional off-heap tier of the buffer pool between the (on-heap) lazy write 
+ * buffer and the local file system. Matrix blocks evicted from the write buffer
+ * are serialized into direct byte buffers, i.e., outside the GC-managed heap, up 
+ * to the configured budget (see DMLConfig.CP_OFFHEAP_BUFFER). Re-reads deserialize
+ * directly from these buffers; if the budget is exceeded, the oldest blocks are 
+ * spilled to their local eviction files (FIFO).
+ * 
+ * Note that direct memory is released on garbage collection of the buffer 
+ * handles, and hence -XX:MaxDirectMemorySize needs to cover the budget.
+ */
+public class OffHeapBuffer 
+{
+	private static final Log LOG = LogFactory.getLog(OffHeapBuffer.class.getName());
+	
+	//global size limit in bytes (0 if disabled)
+	private static long _limit = 0;
+	
+	//current size in bytes
+	private static AtomicLong _size = new AtomicLong(0);
+	
+	//buffer pool of <filename,direct buffer> pairs 
+	private static ConcurrentHashMap<String, java.nio.ByteBuffer> _mBuffers = null;
+	
+	//spill order of buffered blocks (FIFO)
+	private static LinkedHashMap<String, Long> _mQueue = null;
+	
+	/**
+	 * 
+	 * @param limit budget in bytes, 0 disables the off-heap tier
+	 */
+	public static void init( long limit ) {
+		_limit = Math.max(limit, 0);
+		_size.set(0);
+		_mBuffers = new ConcurrentHashMap<String, java.nio.ByteBuffer>();
+		_mQueue = new LinkedHashMap<String, Long>();
+	}
+	
+	/**
+	 * 
+	 */
+	public static void cleanup() {
+		if( _mBuffers != null )
+			_mBuffers.clear();
+		if( _mQueue != null ) {
+			synchronized( _mQueue ) {
+				_mQueue.clear();
+			}
+		}
+		_size.set(0);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static boolean isEnabled() {
+		return _limit > 0 && _mBuffers != null;
+	}
+	
+	/**
+	 * Writes the given evicted buffer into the off-heap tier if enabled, 
+	 * supported (matrix blocks only), and within the budget.
+	 * 
+	 * @param fname
+	 * @param bbuff
+	 * @return true if the block was written to the off-heap tier
+	 * @throws IOException
+	 */
+	public static boolean writeBlock( String fname, ByteBuffer bbuff ) 
+		throws IOException
+	{
+		if( !isEnabled() )
+			return false;
+		
+		//obtain serialized data and exact size
+		byte[] bdata = bbuff._bdata;
+		CacheBlock cdata = bbuff._cdata;
+		if( bbuff.isShallow() && !(cdata instanceof MatrixBlock) )
+			return false;
+		long lSize = bbuff.isShallow() ? cdata.getExactSerializedSize() : bdata.length;
+		if( lSize > _limit || lSize > Integer.MAX_VALUE )
+			return false;
+		
+		//reserve memory and spill blocks to make room
+		long size = _size.addAndGet(lSize);
+		try {
+			while( size > _limit ) {
+				if( !spillBlock() )
+					break; 
+				size = _size.get();
+			}
+		}
+		catch(IOException ex) {
+			_size.addAndGet(-lSize);
+			throw ex;
+		}
+		if( size > _limit ) { //concurrent writers
+			_size.addAndGet(-lSize);
+			return false;
+		}
+		
+		//serialize block into direct buffer (outside critical path)
+		java.nio.ByteBuffer dbuff = null;
+		try {
+			dbuff = java.nio.ByteBuffer.allocateDirect((int)lSize);
+			if( bbuff.isShallow() )
+				cdata.write(new OffHeapDataOutput(dbuff));
+			else
+				dbuff.put(bdata);
+			dbuff.flip();
+		}
+		catch(OutOfMemoryError ex) { 
+			//out of direct memory (e.g., -XX:MaxDirectMemorySize below the budget), 
+			//release the reservation and let the caller fall back to the local FS
+			_size.addAndGet(-lSize);
+			LOG.warn("Failed to allocate off-heap buffer of "+lSize+" bytes: "+fname, ex);
+			return false;
+		}
+		catch(RuntimeException ex) {
+			_size.addAndGet(-lSize);
+			throw new IOException("Failed to write off-heap buffer: "+fname, ex);
+		}
+		
+		_mBuffers.put(fname, dbuff);
+		synchronized( _mQueue ) {
+			_mQueue.put(fname, lSize);
+		}
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementOffHeapWrites();
+		
+		return true;
+	}
+	
+	/**
+	 * Reads the given block from the off-heap tier.
+	 * 
+	 * @param fname
+	 * @return matrix block, or null if not contained
+	 * @throws IOException
+	 */
+	public static CacheBlock readBlock( String fname ) 
+		throws IOException
+	{
+		if( !isEnabled() )
+			return null;
+		
+		java.nio.ByteBuffer dbuff = _mBuffers.get(fname);
+		if( dbuff == null )
+			return null;
+		
+		//deserialize from private duplicate (independent position)
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(new OffHeapDataInput(dbuff.duplicate()));
+		
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementOffHeapHits();
+		
+		return ret;
+	}
+	
+	/**
+	 * Deletes the given block from the off-heap tier.
+	 * 
+	 * @param fname
+	 * @return true if the block was contained
+	 */
+	public static boolean deleteBlock( String fname ) 
+	{
+		if( !isEnabled() )
+			return false;
+		
+		java.nio.ByteBuffer dbuff = _mBuffers.remove(fname);
+		if( dbuff == null )
+			return false;
+		
+		synchronized( _mQueue ) {
+			_mQueue.remove(fname);
+		}
+		_size.addAndGet(-dbuff.capacity());
+		
+		return true;
+	}
+	
+	/**
+	 * Spills the oldest block to its local eviction file. The block is removed
+	 * from the off-heap tier only after the file has been written, i.e., it 
+	 * remains readable at any time.
+	 * 
+	 * @return false if there was no block to spill
+	 * @throws IOException
+	 */
+	private static boolean spillBlock() 
+		throws IOException
+	{
+		String fname = null;
+		synchronized( _mQueue ) {
+			if( _mQueue.isEmpty() )
+				return false;
+			Iterator<String> iter = _mQueue.keySet().iterator();
+			fname = iter.next();
+			iter.remove();
+		}
+		
+		java.nio.ByteBuffer dbuff = _mBuffers.get(fname);
+		if( dbuff != null ) {
+			try {
+				LocalFileUtils.writeByteBufferToLocal(fname, dbuff);
+			}
+			catch(IOException ex) {
+				//keep the block readable and spillable
+				synchronized( _mQueue ) {
+					if( _mBuffers.get(fname) == dbuff )
+						_mQueue.put(fname, (long)dbuff.capacity());
+				}
+				throw ex;
+			}
+			if( _mBuffers.remove(fname, dbuff) ) {
+				_size.addAndGet(-dbuff.capacity());
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementFSWrites();
+			}
+			else { //concurrently deleted
+				LocalFileUtils.deleteFileIfExists(fname, true);
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static long getSize() {
+		return _size.get();
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public static int getNumBlocks() {
+		return (_mBuffers != null) ? _mBuffers.size() : 0;
+	}
+}
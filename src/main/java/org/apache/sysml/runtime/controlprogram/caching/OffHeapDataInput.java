@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlockDataInput;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Custom DataInput to deserialize directly from the given (direct or memory-mapped)
+ * byte buffer, i.e., without intermediate byte arrays. The given buffer should be a private
+ * duplicate because reads modify its position.
+ * 
+ */
+public class OffHeapDataInput implements DataInput, MatrixBlockDataInput
+{
+	protected ByteBuffer _buff;
+
+	public OffHeapDataInput( ByteBuffer mem ) 
+	{		
+		_buff = mem;
+	}
+
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		_buff.get(b);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		_buff.get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public boolean readBoolean() 
+		throws IOException 
+	{
+		return ( _buff.get() != 0 );
+	}
+
+	@Override
+	public byte readByte()
+		throws IOException 
+	{
+		return _buff.get();
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public int readInt() 
+		throws IOException 
+	{
+		return _buff.getInt();
+	}
+
+	@Override
+	public long readLong() 
+		throws IOException 
+	{
+		return _buff.getLong();
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public double readDouble() 
+		throws IOException 
+	{
+		return _buff.getDouble();
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		throw new IOException("Not supported.");
+	}
+	
+    ///////////////////////////////////////////////
+    // Implementation of MatrixBlockDSMDataOutput
+    ///////////////////////////////////////////////	
+	
+	@Override
+	public long readDoubleArray(int len, double[] varr) 
+		throws IOException 
+	{
+		//bulk copy from buffer and update buffer offset
+		_buff.asDoubleBuffer().get(varr, 0, len);
+		_buff.position(_buff.position() + len*8);
+		
+		//counter for non-zero elements
+		long nnz = 0;
+		for( int i=0; i<len; i++ ) 
+			nnz += (varr[i]!=0) ? 1 : 0; 
+		
+		return nnz;
+	}
+
+	@Override
+	public long readSparseRows(int rlen, SparseBlock rows) 
+		throws IOException 
+	{
+		//counter for non-zero elements
+		long nnz = 0;
+		
+		//read all individual sparse rows from input
+		for( int i=0; i<rlen; i++ )
+		{
+			int lnnz = _buff.getInt();
+			
+			if( lnnz > 0 ) //non-zero row
+			{
+				//get handle to sparse (allocate if necessary)
+				rows.allocate(i, lnnz);
+				
+				//read single sparse row
+				for( int j=0; j<lnnz; j++ ) {
+					int aix = _buff.getInt();
+					double aval = _buff.getDouble();
+					rows.append(i, aix, aval);
+				}
+				
+				nnz += lnnz;	
+			}
+		}
+		
+		return nnz;
+	}
+}
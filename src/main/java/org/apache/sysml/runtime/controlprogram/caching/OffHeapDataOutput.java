@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.sysml.runtime.matrix.data.MatrixBlockDataOutput;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+
+/**
+ * Custom DataOutput to serialize directly into the given (direct or memory-mapped) byte buffer,
+ * using the same big-endian representation as CacheDataOutput. Dense blocks 
+ * are copied in bulk via a double view of the buffer.
+ * 
+ */
+public class OffHeapDataOutput implements DataOutput, MatrixBlockDataOutput 
+{
+	protected ByteBuffer _buff;
+	
+	public OffHeapDataOutput( ByteBuffer mem ) 
+	{		
+		_buff = mem;
+	}
+	
+	@Override
+	public void write(int b) 
+		throws IOException 
+	{
+		_buff.put((byte)b);
+	}
+
+	@Override
+	public void write(byte[] b) 
+		throws IOException 
+	{
+		_buff.put(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) 
+		throws IOException 
+	{
+		_buff.put(b, off, len);
+	}
+	
+	@Override
+	public void writeBoolean(boolean v) 
+		throws IOException 
+	{
+		_buff.put((byte)( v ? 1 : 0 ));
+	}
+
+	@Override
+	public void writeInt(int v) 
+		throws IOException 
+	{
+		_buff.putInt(v);
+	}
+	
+	@Override
+	public void writeDouble(double v) 
+		throws IOException 
+	{
+		_buff.putDouble(v);
+	}
+	
+	@Override
+	public void writeByte(int v) throws IOException {
+		_buff.put((byte) v);
+	}
+
+	@Override
+	public void writeBytes(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeChar(int v) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeChars(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+	
+	@Override
+	public void writeFloat(float v) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeLong(long v) throws IOException {
+		_buff.putLong(v);
+	}
+
+	@Override
+	public void writeShort(int v) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	@Override
+	public void writeUTF(String s) throws IOException {
+		throw new IOException("Not supported.");
+	}
+
+	
+    ///////////////////////////////////////////////
+    // Implementation of MatrixBlockDSMDataOutput
+    ///////////////////////////////////////////////	
+	
+	@Override
+	public void writeDoubleArray(int len, double[] varr) 
+		throws IOException
+	{
+		//bulk copy into buffer and update buffer offset
+		_buff.asDoubleBuffer().put(varr, 0, len);
+		_buff.position(_buff.position() + len*8);
+	}
+	
+	@Override
+	public void writeSparseRows(int rlen, SparseBlock rows) 
+		throws IOException
+	{
+		int lrlen = Math.min(rows.numRows(), rlen);
+		
+		//process existing rows
+		for( int i=0; i<lrlen; i++ )
+		{
+			if( !rows.isEmpty(i) )
+			{
+				int apos = rows.pos(i);
+				int alen = rows.size(i);
+				int[] aix = rows.indexes(i);
+				double[] avals = rows.values(i);
+				
+				_buff.putInt( alen );
+				for( int j=apos; j<apos+alen; j++ ) {
+					_buff.putInt(aix[j]);
+					_buff.putDouble(avals[j]);
+				}	
+			}
+			else 
+				_buff.putInt( 0 );
+		}
+		
+		//process remaining empty rows
+		for( int i=lrlen; i<rlen; i++ )
+			_buff.putInt( 0 );
+	}
+}
@@ -232,6 +232,22 @@ public class ExecutionContext
 		return mo.acquireRead();
 	}
 	
+	/**
+	 * Pins a matrix variable into memory and returns the internal matrix block,
+	 * which might be a compressed matrix block if allowed by the caller.
+	 * 
+	 * @param varName
+	 * @param allowCompressed
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock getMatrixInput(String varName, boolean allowCompressed) 
+		throws DMLRuntimeException 
+	{	
+		MatrixObject mo = getMatrixObject(varName);
+		return allowCompressed ? mo.acquireReadCompressed() : mo.acquireRead();
+	}
+	
 	/**
 	 * Unpins a currently pinned matrix variable. 
 	 * 
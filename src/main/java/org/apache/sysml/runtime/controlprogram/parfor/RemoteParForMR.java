@@ -210,6 +210,9 @@ public class RemoteParForMR
 				CacheStatistics.incrementFSBuffWrites((int)cgroup.getCounter( CacheStatistics.Stat.CACHE_WRITES_FSBUFF.toString() ));
 				CacheStatistics.incrementFSWrites((int)cgroup.getCounter( CacheStatistics.Stat.CACHE_WRITES_FS.toString() ));
 				CacheStatistics.incrementHDFSWrites((int)cgroup.getCounter( CacheStatistics.Stat.CACHE_WRITES_HDFS.toString() ));
+				CacheStatistics.incrementFSBuffEvictions((int)cgroup.getCounter( CacheStatistics.Stat.CACHE_EVICTS_FSBUFF.toString() ));
+				CacheStatistics.incrementOffHeapHits((int)cgroup.getCounter( CacheStatistics.Stat.CACHE_HITS_OFFHEAP.toString() ));
+				CacheStatistics.incrementOffHeapWrites((int)cgroup.getCounter( CacheStatistics.Stat.CACHE_WRITES_OFFHEAP.toString() ));
 				CacheStatistics.incrementAcquireRTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_ACQR.toString() ));
 				CacheStatistics.incrementAcquireMTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_ACQM.toString() ));
 				CacheStatistics.incrementReleaseTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_RLS.toString() ));
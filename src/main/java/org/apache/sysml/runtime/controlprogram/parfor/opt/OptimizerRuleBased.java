@@ -35,6 +35,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.hops.AggBinaryOp;
+import org.apache.sysml.hops.BinaryOp;
 import org.apache.sysml.hops.DataGenOp;
 import org.apache.sysml.hops.DataOp;
 import org.apache.sysml.hops.FunctionOp;
@@ -42,6 +43,7 @@ import org.apache.sysml.hops.Hop;
 import org.apache.sysml.hops.AggBinaryOp.MMultMethod;
 import org.apache.sysml.hops.Hop.DataOpTypes;
 import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.Hop.OpOp3;
 import org.apache.sysml.hops.Hop.ParamBuiltinOp;
 import org.apache.sysml.hops.Hop.ReOrgOp;
 import org.apache.sysml.hops.HopsException;
@@ -51,6 +53,7 @@ import org.apache.sysml.hops.LiteralOp;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.hops.ParameterizedBuiltinOp;
 import org.apache.sysml.hops.ReorgOp;
+import org.apache.sysml.hops.TernaryOp;
 import org.apache.sysml.hops.UnaryOp;
 import org.apache.sysml.hops.rewrite.HopRewriteUtils;
 import org.apache.sysml.hops.rewrite.ProgramRewriteStatus;
@@ -1535,13 +1538,20 @@ public class OptimizerRuleBased extends Optimizer
 					//set degree of parallelism for multi-threaded leaf nodes
 					Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(c.getID());
 					if(    ConfigurationManager.isParallelMatrixOperations() 
-						&& h instanceof MultiThreadedHop //abop, datagenop, qop, paramop
-						&& !( h instanceof ParameterizedBuiltinOp //only paramop-grpagg
-							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.GROUPEDAGG)
+						&& h instanceof MultiThreadedHop //abop, binop, datagenop, qop, paramop, ternop
+						&& !( h instanceof BinaryOp //only matrix binop
+							 && h.getDataType() != DataType.MATRIX )
+						&& !( h instanceof ParameterizedBuiltinOp //only paramop-grpagg, rmempty, rexpand
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.GROUPEDAGG
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.RMEMPTY
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.REXPAND )
 						&& !( h instanceof UnaryOp //only unaryop-cumulativeagg
 							 && !((UnaryOp)h).isCumulativeUnaryOperation() )
-						&& !( h instanceof ReorgOp //only reorgop-transpose
-							 && ((ReorgOp)h).getOp() != ReOrgOp.TRANSPOSE ))
+						&& !( h instanceof ReorgOp //only reorgop-transpose, sort
+							 && ((ReorgOp)h).getOp() != ReOrgOp.TRANSPOSE
+							 && ((ReorgOp)h).getOp() != ReOrgOp.SORT )
+						&& !( h instanceof TernaryOp //only ternaryop-ctable
+							 && ((TernaryOp)h).getOp() != OpOp3.CTABLE ))
 					{
 						MultiThreadedHop mhop = (MultiThreadedHop) h;
 						mhop.setMaxNumThreads(opsK); //set max constraint in hop
@@ -22,6 +22,8 @@ package org.apache.sysml.runtime.instructions;
 
 import java.util.HashMap;
 
+import org.apache.sysml.lops.Compression;
+import org.apache.sysml.lops.SpoofFused;
 import org.apache.sysml.lops.DataGen;
 import org.apache.sysml.lops.UnaryCP;
 import org.apache.sysml.lops.LopProperties.ExecType;
@@ -37,6 +39,8 @@ import org.apache.sysml.runtime.instructions.cp.BuiltinBinaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.BuiltinUnaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CentralMomentCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CompressionCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.SpoofCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.ConvolutionCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CovarianceCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.DataGenCPInstruction;
@@ -220,6 +224,9 @@ public class CPInstructionParser extends InstructionParser
 		String2CPInstructionType.put( "col2im"      , CPINSTRUCTION_TYPE.Convolution);
 		String2CPInstructionType.put( "maxpooling"      , CPINSTRUCTION_TYPE.Convolution);
 		String2CPInstructionType.put( "maxpooling_backward"      , CPINSTRUCTION_TYPE.Convolution);
+		String2CPInstructionType.put( "conv2d"      , CPINSTRUCTION_TYPE.Convolution);
+		String2CPInstructionType.put( "conv2d_backward_filter"      , CPINSTRUCTION_TYPE.Convolution);
+		String2CPInstructionType.put( "conv2d_backward_data"      , CPINSTRUCTION_TYPE.Convolution);
 
 		// Quaternary instruction opcodes
 		String2CPInstructionType.put( "wsloss"  , CPINSTRUCTION_TYPE.Quaternary);
@@ -261,6 +268,8 @@ public class CPInstructionParser extends InstructionParser
 		String2CPInstructionType.put( "eigen", CPINSTRUCTION_TYPE.MultiReturnBuiltin);
 		
 		String2CPInstructionType.put( "partition", CPINSTRUCTION_TYPE.Partition);
+		String2CPInstructionType.put( Compression.OPCODE, CPINSTRUCTION_TYPE.Compression);
+		String2CPInstructionType.put( SpoofFused.OPCODE,  CPINSTRUCTION_TYPE.SpoofFused);
 		
 		
 		//CP FILE instruction
@@ -389,8 +398,8 @@ public class CPInstructionParser extends InstructionParser
 					if ( parts.length == 3 ) {
 						// B=log(A), y=log(x)
 						return BuiltinUnaryCPInstruction.parseInstruction(str);
-					} else if ( parts.length == 4 ) {
-						// B=log(A,10), y=log(x,10)
+					} else if ( parts.length == 4 || parts.length == 5 ) {
+						// B=log(A,10), y=log(x,10), optionally w/ num threads
 						return BuiltinBinaryCPInstruction.parseInstruction(str);
 					}
 				}
@@ -408,6 +417,12 @@ public class CPInstructionParser extends InstructionParser
 			
 			case Partition:
 				return DataPartitionCPInstruction.parseInstruction(str);	
+			
+			case Compression:
+				return CompressionCPInstruction.parseInstruction(str);
+			
+			case SpoofFused:
+				return SpoofCPInstruction.parseInstruction(str);	
 	
 			case CentralMoment:
 				return CentralMomentCPInstruction.parseInstruction(str);
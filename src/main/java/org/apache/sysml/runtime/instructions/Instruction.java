@@ -27,6 +27,7 @@ import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.DataIdentifier;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.utils.Statistics;
 
 
 public abstract class Instruction 
@@ -55,6 +56,7 @@ public abstract class Instruction
 	protected String instString = null;
 	protected String instOpcode = null;
 	private long instID = -1;
+	private int hhID = -1; //interned heavy hitter opcode
 	
 	//originating script positions
 	protected int beginLine = -1;
@@ -143,13 +145,27 @@ public abstract class Instruction
 	}
 
 	public void printMe() {
-		LOG.debug(instString);
+		LOG.debug(toString());
 	}
 	
 	public String toString() {
+		//lazy creation for directly constructed instructions
+		if( instString == null )
+			instString = createInstructionString();
 		return instString;
 	}
 	
+	/**
+	 * Creates the instruction string of instructions that have been constructed
+	 * directly (i.e., without parsing an instruction string), which is only 
+	 * required on demand for explain, label updates, or program serialization.
+	 * 
+	 * @return
+	 */
+	protected String createInstructionString() {
+		return null;
+	}
+	
 	public String getGraphString() {
 		return null;
 	}
@@ -165,13 +181,26 @@ public abstract class Instruction
 			return getOpcode();
 	}
 	
+	/**
+	 * Gets the interned id of the extended opcode for the maintenance of
+	 * heavy hitter statistics, which avoids opcode string lookups per 
+	 * executed instruction.
+	 * 
+	 * @return
+	 */
+	public int getHeavyHitterID() {
+		if( hhID < 0 )
+			hhID = Statistics.getCPHeavyHitterID(getExtendedOpcode());
+		return hhID;
+	}
+	
 	/**
 	 * 
 	 * @return
 	 */
 	public boolean requiresLabelUpdate()
 	{
-		return instString.contains( Lop.VARIABLE_NAME_PLACEHOLDER );
+		return toString().contains( Lop.VARIABLE_NAME_PLACEHOLDER );
 	}	
 	
 	/**
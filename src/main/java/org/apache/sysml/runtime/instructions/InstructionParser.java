@@ -34,7 +34,9 @@ public class InstructionParser
 		if ( str == null || str.isEmpty() )
 			return null;
 		
-		String execType = str.split(Instruction.OPERAND_DELIM)[0]; 
+		//note: no split of the entire instruction string for the exec type
+		int ix = str.indexOf(Instruction.OPERAND_DELIM);
+		String execType = (ix >= 0) ? str.substring(0, ix) : str; 
 		if (   execType.equalsIgnoreCase(ExecType.CP.toString()) 
 			|| execType.equalsIgnoreCase(ExecType.CP_FILE.toString()) ) 
 		{
@@ -616,6 +616,19 @@ public class InstructionUtils
 		throw new DMLRuntimeException("Unknown binary opcode " + opcode);
 	}
 	
+	/**
+	 * 
+	 * @param opcode
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static BinaryOperator parseBinaryOperator(String opcode, int k) 
+		throws DMLRuntimeException
+	{
+		return new BinaryOperator(parseBinaryOperator(opcode).fn, k);
+	}
+	
 	/**
 	 * scalar-matrix operator
 	 * 
@@ -745,6 +758,25 @@ public class InstructionUtils
 		
 		throw new DMLRuntimeException("Unknown binary opcode " + opcode);
 	}	
+	
+	/**
+	 * scalar-matrix operator with given degree of parallelism
+	 * 
+	 * @param opcode
+	 * @param arg1IsScalar
+	 * @param constant
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static ScalarOperator parseScalarBinaryOperator(String opcode, boolean arg1IsScalar, double constant, int k)
+		throws DMLRuntimeException
+	{
+		ScalarOperator sop = parseScalarBinaryOperator(opcode, arg1IsScalar, constant);
+		return (sop instanceof LeftScalarOperator) ? 
+			new LeftScalarOperator(sop.fn, constant, k) :
+			new RightScalarOperator(sop.fn, constant, k);
+	}
 
 
 	/**
@@ -41,7 +41,7 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 		throws DMLRuntimeException
 	{	
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
-		InstructionUtils.checkNumFields ( parts, 3 );
+		InstructionUtils.checkNumFields ( parts, 3, 4 );
 		
 		String opcode = parts[0];
 		in1.split(parts[1]);
@@ -51,6 +51,21 @@ public abstract class BinaryCPInstruction extends ComputationCPInstruction
 		return opcode;
 	}
 	
+	/**
+	 * Parses the optional degree of parallelism of binary instructions
+	 * (appended by the compiler for matrix operations in CP).
+	 * 
+	 * @param instr
+	 * @return number of threads, 1 if not specified
+	 * @throws DMLRuntimeException
+	 */
+	protected static int parseNumThreads(String instr)
+		throws DMLRuntimeException
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(instr);
+		return (parts.length == 5) ? Integer.parseInt(parts[4]) : 1;
+	}
+	
 	protected static String parseBinaryInstruction(String instr, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out)
 		throws DMLRuntimeException
 	{
@@ -53,15 +53,16 @@ public abstract class BuiltinBinaryCPInstruction extends BinaryCPInstruction
 		String opcode = parseBinaryInstruction(str, in1, in2, out);
 		
 		ValueFunction func = Builtin.getBuiltinFnObject(opcode);
+		int k = parseNumThreads(str);
 		
 		// Determine appropriate Function Object based on opcode
 			
 		if ( in1.getDataType() == DataType.SCALAR && in2.getDataType() == DataType.SCALAR ) {
 			return new ScalarScalarBuiltinCPInstruction(new BinaryOperator(func), in1, in2, out, opcode, str);
 		} else if (in1.getDataType() != in2.getDataType()) {
-			return new MatrixScalarBuiltinCPInstruction(new RightScalarOperator(func, 0), in1, in2, out, opcode, str);					
+			return new MatrixScalarBuiltinCPInstruction(new RightScalarOperator(func, 0, k), in1, in2, out, opcode, str);					
 		} else { // if ( in1.getDataType() == DataType.MATRIX && in2.getDataType() == DataType.MATRIX ) {
-			return new MatrixMatrixBuiltinCPInstruction(new BinaryOperator(func), in1, in2, out, opcode, str);	
+			return new MatrixMatrixBuiltinCPInstruction(new BinaryOperator(func, k), in1, in2, out, opcode, str);	
 		} 
 	}
 }
@@ -30,7 +30,7 @@ import org.apache.sysml.runtime.matrix.operators.Operator;
 
 public abstract class CPInstruction extends Instruction 
 {
-	public enum CPINSTRUCTION_TYPE { INVALID, AggregateUnary, AggregateBinary, AggregateTernary, ArithmeticBinary, Ternary, Quaternary, BooleanBinary, BooleanUnary, BuiltinBinary, BuiltinUnary, MultiReturnParameterizedBuiltin, ParameterizedBuiltin, MultiReturnBuiltin, Builtin, Reorg, RelationalBinary, File, Variable, External, Append, Rand, QSort, QPick, MatrixIndexing, MMTSJ, PMMJ, MMChain, MatrixReshape, Partition, StringInit, CentralMoment, Covariance, UaggOuterChain, Convolution }; 
+	public enum CPINSTRUCTION_TYPE { INVALID, AggregateUnary, AggregateBinary, AggregateTernary, ArithmeticBinary, Ternary, Quaternary, BooleanBinary, BooleanUnary, BuiltinBinary, BuiltinUnary, MultiReturnParameterizedBuiltin, ParameterizedBuiltin, MultiReturnBuiltin, Builtin, Reorg, RelationalBinary, File, Variable, External, Append, Rand, QSort, QPick, MatrixIndexing, MMTSJ, PMMJ, MMChain, MatrixReshape, Partition, StringInit, CentralMoment, Covariance, UaggOuterChain, Convolution, Compression, SpoofFused }; 
 	
 	protected CPINSTRUCTION_TYPE _cptype;
 	protected Operator _optr;
@@ -42,8 +42,9 @@ public abstract class CPInstruction extends Instruction
 		instString = istr;
 		
 		//prepare opcode and update requirement for repeated usage
+		//(directly constructed instructions w/o string set this flag themselves)
 		instOpcode = opcode;
-		_requiresLabelUpdate = super.requiresLabelUpdate();
+		_requiresLabelUpdate = (istr != null) && super.requiresLabelUpdate();
 	}
 	
 	public CPInstruction(Operator op, String opcode, String istr) {
@@ -107,9 +107,11 @@ public class CentralMomentCPInstruction extends AggregateUnaryCPInstruction
 		CPOperand scalarInput = (input3==null ? input2 : input3);
 		ScalarObject order = ec.getScalarInput(scalarInput.getName(), scalarInput.getValueType(), scalarInput.isLiteral()); 
 		
+		//create per-call operator to leave the shared operator unchanged
 		CMOperator cm_op = ((CMOperator)_optr); 
 		if ( cm_op.getAggOpType() == AggregateOperationTypes.INVALID ) {
-			((CMOperator)_optr).setCMAggOp((int)order.getLongValue());
+			cm_op = new CMOperator(cm_op.fn, cm_op.aggOpType);
+			cm_op.setCMAggOp((int)order.getLongValue());
 		}
 		
 		CM_COV_Object cmobj = null; 
@@ -124,7 +126,7 @@ public class CentralMomentCPInstruction extends AggregateUnaryCPInstruction
 		
 		ec.releaseMatrixInput(input1.getName());
 		
-		double val = cmobj.getRequiredResult(_optr);
+		double val = cmobj.getRequiredResult(cm_op);
 		DoubleObject ret = new DoubleObject(output_name, val);
 		ec.setScalarOutput(output_name, ret);
 	}
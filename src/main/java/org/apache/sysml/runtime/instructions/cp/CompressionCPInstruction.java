@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.cp;
+
+import org.apache.sysml.lops.Compression;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.Operator;
+
+/**
+ * Compresses a matrix into a compressed matrix block (if beneficial), which
+ * is then used by all subsequent operations that support compressed inputs.
+ *
+ */
+public class CompressionCPInstruction extends UnaryCPInstruction
+{
+	private int _numThreads = 1;
+
+	public CompressionCPInstruction(Operator op, CPOperand in, CPOperand out, int k, String opcode, String istr)
+	{
+		super(op, in, out, opcode, istr);
+		_cptype = CPINSTRUCTION_TYPE.Compression;
+		_numThreads = k;
+	}
+
+	/**
+	 *
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static CompressionCPInstruction parseInstruction ( String str )
+		throws DMLRuntimeException
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		InstructionUtils.checkNumFields ( parts, 3 );
+
+		String opcode = parts[0];
+		CPOperand in1 = new CPOperand(parts[1]);
+		CPOperand out = new CPOperand(parts[2]);
+		int k = Integer.parseInt(parts[3]);
+
+		if(!opcode.equalsIgnoreCase(Compression.OPCODE))
+			throw new DMLRuntimeException("Unknown opcode while parsing a CompressionCPInstruction: " + str);
+		else
+			return new CompressionCPInstruction(new Operator(true), in1, out, k, opcode, str);
+	}
+
+	@Override
+	public void processInstruction(ExecutionContext ec)
+		throws DMLRuntimeException
+	{
+		//get input (potentially already compressed)
+		MatrixBlock in = ec.getMatrixInput(input1.getName(), true);
+
+		//compress input block (shallow copy if not beneficial)
+		CompressedMatrixBlock ret = (in instanceof CompressedMatrixBlock) ?
+			(CompressedMatrixBlock) in : new CompressedMatrixBlock(in);
+		ret.compress(_numThreads);
+
+		//set output and release input
+		ec.releaseMatrixInput(input1.getName());
+		ec.setMatrixOutput(output.getName(), ret);
+	}
+}
@@ -50,6 +50,20 @@ public abstract class ComputationCPInstruction extends CPInstruction
 		return output.getName();
 	}
 	
+	/**
+	 * Gets all input operands of this instruction (e.g., for lineage tracing).
+	 * 
+	 * @return
+	 */
+	public CPOperand[] getInputs() {
+		if( input3 != null )
+			return new CPOperand[]{input1, input2, input3};
+		else if( input2 != null )
+			return new CPOperand[]{input1, input2};
+		else
+			return new CPOperand[]{input1};
+	}
+	
 	/**
 	 * 
 	 * @param in1
@@ -37,7 +37,7 @@ import org.apache.sysml.utils.Statistics;
 
 public class ConvolutionCPInstruction extends UnaryCPInstruction {
 	
-	private CPOperand _in2; // used for pooling backward
+	private CPOperand _in2; // used for pooling backward and direct conv2d ops
 	private ArrayList<CPOperand> _input_shape;
 	private ArrayList<CPOperand> _filter_shape;
 	private ArrayList<CPOperand> _stride = new ArrayList<CPOperand>();
@@ -116,7 +116,10 @@ public class ConvolutionCPInstruction extends UnaryCPInstruction {
 					padding, input_shape, filter_shape, k);
 		} 
 		else if (opcode.equalsIgnoreCase("pooling_backward_reshape")
-				|| opcode.equalsIgnoreCase("maxpooling_backward")) {
+				|| opcode.equalsIgnoreCase("maxpooling_backward")
+				|| opcode.equalsIgnoreCase("conv2d")
+				|| opcode.equalsIgnoreCase("conv2d_backward_filter")
+				|| opcode.equalsIgnoreCase("conv2d_backward_data")) {
 			InstructionUtils.checkNumFields(parts, 16);
 			// dout, stride1, stride2, padding1, padding2
 			// input_shape1, input_shape2, input_shape3, input_shape4,
@@ -231,6 +234,30 @@ public class ConvolutionCPInstruction extends UnaryCPInstruction {
 			LibMatrixDNN.maxpooling_backward(matBlock, dout, outputBlock, params);
 			ec.releaseMatrixInput(_in2.getName());
 		}
+		else if (instOpcode.equalsIgnoreCase("conv2d")) {
+			checkHeightWidth(ec, params);
+			MatrixBlock filter = ec.getMatrixInput(_in2.getName());
+			// needs to be zeroed-out (empty filter rows are skipped)
+			outputBlock = getDenseOutputBlock(ec, N, K*P*Q, false);
+			LibMatrixDNN.conv2d(matBlock, filter, outputBlock, params);
+			ec.releaseMatrixInput(_in2.getName());
+		}
+		else if (instOpcode.equalsIgnoreCase("conv2d_backward_filter")) {
+			checkHeightWidth(ec, params);
+			MatrixBlock dout = ec.getMatrixInput(_in2.getName());
+			// needs to be zeroed-out (aggregation of partial results)
+			outputBlock = getDenseOutputBlock(ec, K, C*R*S, false);
+			LibMatrixDNN.conv2d_backward_filter(matBlock, dout, outputBlock, params);
+			ec.releaseMatrixInput(_in2.getName());
+		}
+		else if (instOpcode.equalsIgnoreCase("conv2d_backward_data")) {
+			checkHeightWidth(ec, params);
+			MatrixBlock dout = ec.getMatrixInput(_in2.getName());
+			// needs to be zeroed-out (col2im accumulates overlapping patches)
+			outputBlock = getDenseOutputBlock(ec, N, C*H*W, false);
+			LibMatrixDNN.conv2d_backward_data(matBlock, dout, outputBlock, params);
+			ec.releaseMatrixInput(_in2.getName());
+		}
 		else {
 			throw new DMLRuntimeException("Unsupported op code " + instOpcode);
 		}
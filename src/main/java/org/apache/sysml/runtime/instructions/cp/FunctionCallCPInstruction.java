@@ -159,7 +159,12 @@ public class FunctionCallCPInstruction extends CPInstruction
 					currFormalParamValue = ec.getVariable(operand.getName());					
 			}
 				
-			functionVariables.put(currFormalParamName,currFormalParamValue);						
+			functionVariables.put(currFormalParamName,currFormalParamValue);
+			
+			// propagate lineage of matrix arguments (scalars are traced by value)
+			if( i < _boundInputParamNames.size() )
+				functionVariables.setLineage(currFormalParamName, 
+					ec.getVariables().getLineage(_boundInputParamNames.get(i)));
 		}
 		
 		// Pin the input variables so that they do not get deleted 
@@ -220,6 +225,8 @@ public class FunctionCallCPInstruction extends CPInstruction
 			if( boundValue instanceof MatrixObject )
 				((MatrixObject) boundValue).setVarName(boundVarName);
 			ec.setVariable(boundVarName, boundValue);
+			ec.getVariables().setLineage(boundVarName, 
+				retVars.getLineage(fpb.getOutputParams().get(i).getName()));
 		}
 	}
 
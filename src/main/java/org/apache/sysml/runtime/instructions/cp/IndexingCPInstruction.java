@@ -47,6 +47,14 @@ public abstract class IndexingCPInstruction extends UnaryCPInstruction
 		colUpper = cu;
 	}
 	
+	@Override
+	public CPOperand[] getInputs() {
+		if( input2 != null ) //left indexing
+			return new CPOperand[]{input1, input2, rowLower, rowUpper, colLower, colUpper};
+		else
+			return new CPOperand[]{input1, rowLower, rowUpper, colLower, colUpper};
+	}
+	
 	/**
 	 * 
 	 * @param ec
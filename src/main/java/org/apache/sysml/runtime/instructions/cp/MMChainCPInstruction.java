@@ -85,7 +85,7 @@ public class MMChainCPInstruction extends UnaryCPInstruction
 		throws DMLRuntimeException 
 	{
 		//get inputs
-		MatrixBlock X = ec.getMatrixInput(input1.getName());
+		MatrixBlock X = ec.getMatrixInput(input1.getName(), true);
 		MatrixBlock v = ec.getMatrixInput(input2.getName());
 		MatrixBlock w = (_type==ChainType.XtwXv || _type==ChainType.XtXvy) ? 
 				ec.getMatrixInput(input3.getName()) : null;
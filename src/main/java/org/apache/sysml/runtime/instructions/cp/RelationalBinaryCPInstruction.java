@@ -36,7 +36,7 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 	}
 	
 	public static RelationalBinaryCPInstruction parseInstruction ( String str ) throws DMLRuntimeException {
-		InstructionUtils.checkNumFields (str, 3);
+		InstructionUtils.checkNumFields (str, 3, 4);
 		CPOperand in1 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
@@ -71,9 +71,10 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 										  + out.getName()
 										  + " is not");
 		
+		int k = parseNumThreads(str);
 		Operator operator = (dt1 != dt2) ?
-					InstructionUtils.parseScalarBinaryOperator(opcode, (dt1 == DataType.SCALAR)) : 
-					InstructionUtils.parseBinaryOperator(opcode);
+					InstructionUtils.parseScalarBinaryOperator(opcode, (dt1 == DataType.SCALAR), 0, k) : 
+					InstructionUtils.parseBinaryOperator(opcode, k);
 		
 		//for scalar relational operations we only allow boolean operands
 		//or when both operands are numeric (int or double)
@@ -49,8 +49,8 @@ public class ScalarMatrixRelationalCPInstruction extends RelationalBinaryCPInstr
 		MatrixBlock inBlock = ec.getMatrixInput(mat.getName());
 		ScalarObject constant = (ScalarObject) ec.getScalarInput(scalar.getName(), scalar.getValueType(), scalar.isLiteral());
 		
-		ScalarOperator sc_op = (ScalarOperator) _optr;
-		sc_op.setConstant(constant.getDoubleValue());
+		//create per-call operator (shared instructions, e.g., in JMLC prepared scripts)
+		ScalarOperator sc_op = ((ScalarOperator) _optr).copy(constant.getDoubleValue());
 		
 		MatrixBlock retBlock = (MatrixBlock) inBlock.scalarOperations(sc_op, new MatrixBlock());
 		
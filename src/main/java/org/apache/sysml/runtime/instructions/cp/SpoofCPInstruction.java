@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.cp;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.lops.SpoofFused;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofOperator;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * CP instruction of a fused operator of generated code, which computes 
+ * a fused DAG fragment over an arbitrary number of matrix and scalar inputs.
+ * 
+ */
+public class SpoofCPInstruction extends CPInstruction
+{
+	private final Class<?> _class;
+	private final SpoofOperator _op;
+	private final CPOperand[] _in;
+	private final CPOperand _out;
+	private final int _numThreads;
+	
+	public SpoofCPInstruction(Class<?> cla, SpoofOperator op, CPOperand[] in, CPOperand out, int k, String opcode, String istr) 
+	{
+		super(null, opcode, istr);
+		_cptype = CPINSTRUCTION_TYPE.SpoofFused;
+		_class = cla;
+		_op = op;
+		_in = in;
+		_out = out;
+		_numThreads = k;
+	}
+	
+	public Class<?> getOperatorClass() {
+		return _class;
+	}
+	
+	/**
+	 * 
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static SpoofCPInstruction parseInstruction(String str) 
+		throws DMLRuntimeException 
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		if( parts.length < 5 )
+			throw new DMLRuntimeException("Invalid number of fields in SpoofCPInstruction: " + str);
+		
+		String opcode = parts[0];
+		if( !opcode.equalsIgnoreCase(SpoofFused.OPCODE) )
+			throw new DMLRuntimeException("Unknown opcode while parsing a SpoofCPInstruction: " + str);
+		
+		//obtain (already compiled) operator class by name
+		Class<?> cla = CodegenUtils.getClass(parts[1]);
+		SpoofOperator op = CodegenUtils.createInstance(cla);
+		
+		CPOperand[] in = new CPOperand[parts.length-4];
+		for( int i=2; i<parts.length-2; i++ )
+			in[i-2] = new CPOperand(parts[i]);
+		CPOperand out = new CPOperand(parts[parts.length-2]);
+		int k = Integer.parseInt(parts[parts.length-1]);
+		
+		return new SpoofCPInstruction(cla, op, in, out, k, opcode, str);
+	}
+
+	@Override
+	public void processInstruction(ExecutionContext ec)
+		throws DMLRuntimeException 
+	{
+		//get matrix and scalar inputs
+		ArrayList<MatrixBlock> inputs = new ArrayList<MatrixBlock>();
+		ArrayList<ScalarObject> scalars = new ArrayList<ScalarObject>();
+		for( CPOperand input : _in ) {
+			if( input.getDataType()==DataType.MATRIX )
+				inputs.add(ec.getMatrixInput(input.getName()));
+			else
+				scalars.add(ec.getScalarInput(input.getName(), input.getValueType(), input.isLiteral()));
+		}
+		
+		//execute fused operator and set output
+		if( _out.getDataType() == DataType.MATRIX ) {
+			MatrixBlock out = new MatrixBlock();
+			_op.execute(inputs, scalars, out, _numThreads);
+			ec.setMatrixOutput(_out.getName(), out);
+		}
+		else {
+			ScalarObject out = _op.execute(inputs, scalars, _numThreads);
+			ec.setScalarOutput(_out.getName(), out);
+		}
+		
+		//release matrix inputs
+		for( CPOperand input : _in )
+			if( input.getDataType()==DataType.MATRIX )
+				ec.releaseMatrixInput(input.getName());
+	}
+}
@@ -891,61 +891,59 @@ public class VariableCPInstruction extends CPInstruction
 	}
 	
 	public static Instruction prepareRemoveInstruction(String varName) throws DMLRuntimeException {
-		StringBuilder sb = new StringBuilder();
-		sb.append("CP");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append("rmvar");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(varName);
-		String str = sb.toString();
-
-		return parseInstruction(str);
+		//direct construction w/o parsing (instruction string created on demand)
+		CPOperand in1 = new CPOperand(varName, ValueType.UNKNOWN, DataType.SCALAR);
+		return createVariableInstruction(VariableOperationCode.RemoveVariable, "rmvar", in1, null, null);
 	}
 	
 	public static Instruction prepareCopyInstruction(String srcVar, String destVar) throws DMLRuntimeException {
-		StringBuilder sb = new StringBuilder();
-		sb.append("CP");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append("cpvar");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(srcVar);
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(destVar);
-		String str = sb.toString();
-
-		return parseInstruction(str);
+		CPOperand in1 = new CPOperand(srcVar, ValueType.UNKNOWN, DataType.UNKNOWN);
+		CPOperand in2 = new CPOperand(destVar, ValueType.UNKNOWN, DataType.UNKNOWN);
+		return createVariableInstruction(VariableOperationCode.CopyVariable, "cpvar", in1, in2, null);
 	}
 	
 	public static Instruction prepareMoveInstruction(String srcVar, String destFileName, String format) throws DMLRuntimeException {
-		StringBuilder sb = new StringBuilder();
-		sb.append("CP");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append("mvvar");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(srcVar);
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(destFileName);
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(format);
-		String str = sb.toString();
-
-		return parseInstruction(str);
+		CPOperand in1 = new CPOperand(srcVar, ValueType.UNKNOWN, DataType.UNKNOWN);
+		CPOperand in2 = new CPOperand(destFileName, ValueType.UNKNOWN, DataType.UNKNOWN);
+		CPOperand in3 = new CPOperand(format, ValueType.UNKNOWN, DataType.UNKNOWN);
+		return createVariableInstruction(VariableOperationCode.MoveVariable, "mvvar", in1, in2, in3);
 	}
 	
 	public static Instruction prepareMoveInstruction(String srcVar, String destVar) throws DMLRuntimeException {
 		// example: mvvar tempA A 
 		// (instead of two instructions -- cpvar tempA A; rmvar tempA)
-		StringBuilder sb = new StringBuilder();
-		sb.append("CP");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append("mvvar");
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(srcVar);
-		sb.append(Lop.OPERAND_DELIMITOR);
-		sb.append(destVar);
-		String str = sb.toString();
-
-		return parseInstruction(str);
+		CPOperand in1 = new CPOperand(srcVar, ValueType.UNKNOWN, DataType.UNKNOWN);
+		CPOperand in2 = new CPOperand(destVar, ValueType.UNKNOWN, DataType.UNKNOWN);
+		return createVariableInstruction(VariableOperationCode.MoveVariable, "mvvar", in1, in2, null);
+	}
+	
+	public static Instruction prepareAssignVariableInstruction(CPOperand in, CPOperand out) throws DMLRuntimeException {
+		//e.g., for scalar transient writes (w/ data and value types, incl literal flag of input)
+		return createVariableInstruction(VariableOperationCode.AssignVariable, "assignvar", in, out, null);
+	}
+	
+	/**
+	 * Constructs a variable instruction directly from its operands, which avoids
+	 * building and re-parsing instruction strings during (re)compilation.
+	 * 
+	 * @param voc
+	 * @param sopcode
+	 * @param in1
+	 * @param in2
+	 * @param in3
+	 * @return
+	 */
+	private static VariableCPInstruction createVariableInstruction(VariableOperationCode voc, String sopcode, CPOperand in1, CPOperand in2, CPOperand in3) {
+		VariableCPInstruction inst = new VariableCPInstruction(voc, in1, in2, in3, null, getArity(voc), sopcode, null);
+		inst._requiresLabelUpdate = requiresLabelUpdate(in1, in2, in3);
+		return inst;
+	}
+	
+	private static boolean requiresLabelUpdate(CPOperand... ops) {
+		for( CPOperand op : ops )
+			if( op != null && op.getName().contains(Lop.VARIABLE_NAME_PLACEHOLDER) )
+				return true;
+		return false;
 	}
 	
 	private static String getBasicCreateVarString(String varName, String fileName, boolean fNameOverride, DataType dt, String format) {
@@ -992,6 +990,10 @@ public class VariableCPInstruction extends CPInstruction
 	}	
 	
 	public static Instruction prepareCreateVariableInstruction(String varName, String fileName, boolean fNameOverride, DataType dt, String format, MatrixCharacteristics mc, UpdateType update) throws DMLRuntimeException {
+		//direct construction w/o parsing (instruction string created on demand)
+		if( OutputInfo.stringToOutputInfo(format) != null && !format.equalsIgnoreCase("csv") )
+			return createCreateVariableInstruction(varName, fileName, fNameOverride, dt, format, mc, update, null);
+		
 		StringBuilder sb = new StringBuilder();
 		sb.append(getBasicCreateVarString(varName, fileName, fNameOverride, dt, format));
 		
@@ -1014,6 +1016,11 @@ public class VariableCPInstruction extends CPInstruction
 	}	
 	
 	public static Instruction prepareCreateVariableInstruction(String varName, String fileName, boolean fNameOverride, DataType dt, String format, MatrixCharacteristics mc, UpdateType update, boolean hasHeader, String delim, boolean sparse) throws DMLRuntimeException {
+		//direct construction w/o parsing (instruction string created on demand)
+		if( format.equalsIgnoreCase("csv") )
+			return createCreateVariableInstruction(varName, fileName, fNameOverride, dt, format, mc, update, 
+				new CSVFileFormatProperties(hasHeader, delim, sparse));
+		
 		StringBuilder sb = new StringBuilder();
 		sb.append(getBasicCreateVarString(varName, fileName, fNameOverride, dt, format));
 		
@@ -1042,6 +1049,98 @@ public class VariableCPInstruction extends CPInstruction
 		return parseInstruction(str);
 	}	
 	
+	private static VariableCPInstruction createCreateVariableInstruction(String varName, String fileName, boolean fNameOverride, 
+		DataType dt, String format, MatrixCharacteristics mc, UpdateType update, FileFormatProperties fmtProperties) 
+		throws DMLRuntimeException
+	{
+		//same operands and meta data as created by parseInstruction
+		ValueType vt = dt==DataType.MATRIX ? ValueType.DOUBLE : ValueType.STRING;
+		CPOperand in1 = new CPOperand(varName, vt, dt);
+		CPOperand in2 = new CPOperand(fileName, ValueType.STRING, DataType.SCALAR);
+		CPOperand in3 = new CPOperand(String.valueOf(fNameOverride), ValueType.BOOLEAN, DataType.SCALAR);
+		OutputInfo oi = OutputInfo.stringToOutputInfo(format);
+		InputInfo ii = OutputInfo.getMatchingInputInfo(oi);
+		MatrixFormatMetaData iimd = new MatrixFormatMetaData(new MatrixCharacteristics(mc.getRows(), 
+			mc.getCols(), mc.getRowsPerBlock(), mc.getColsPerBlock(), mc.getNonZeros()), oi, ii);
+		
+		VariableCPInstruction inst = new VariableCPInstruction(VariableOperationCode.CreateVariable, 
+			in1, in2, in3, iimd, update, -1, fmtProperties, null, "createvar", null);
+		inst._requiresLabelUpdate = requiresLabelUpdate(in1, in2);
+		return inst;
+	}
+	
+	@Override
+	protected String createInstructionString() 
+	{
+		//only required for directly constructed instructions (see prepare*Instruction)
+		StringBuilder sb = new StringBuilder();
+		if( opcode == VariableOperationCode.CreateVariable ) {
+			MatrixFormatMetaData iimd = (MatrixFormatMetaData) metadata;
+			MatrixCharacteristics mc = iimd.getMatrixCharacteristics();
+			String format = null;
+			try {
+				format = OutputInfo.outputInfoToString(iimd.getOutputInfo());
+			}
+			catch(DMLRuntimeException ex) {
+				throw new RuntimeException(ex);
+			}
+			sb.append(getBasicCreateVarString(input1.getName(), input2.getName(), 
+				Boolean.parseBoolean(input3.getName()), input1.getDataType(), format));
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(mc.getRows());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(mc.getCols());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(mc.getRowsPerBlock());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(mc.getColsPerBlock());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(mc.getNonZeros());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(_updateType.toString().toLowerCase());
+			if( _formatProperties instanceof CSVFileFormatProperties ) {
+				CSVFileFormatProperties csvprops = (CSVFileFormatProperties) _formatProperties;
+				sb.append(Lop.OPERAND_DELIMITOR);
+				sb.append(csvprops.hasHeader());
+				sb.append(Lop.OPERAND_DELIMITOR);
+				sb.append(csvprops.getDelim());
+				sb.append(Lop.OPERAND_DELIMITOR);
+				sb.append(csvprops.isSparse());
+			}
+		}
+		else if( opcode == VariableOperationCode.AssignVariable ) {
+			sb.append("CP");
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(getOpcode());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(input1.getName());
+			sb.append(Lop.DATATYPE_PREFIX);
+			sb.append(input1.getDataType());
+			sb.append(Lop.VALUETYPE_PREFIX);
+			sb.append(input1.getValueType());
+			sb.append(Lop.LITERAL_PREFIX);
+			sb.append(input1.isLiteral());
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(input2.getName());
+			sb.append(Lop.DATATYPE_PREFIX);
+			sb.append(input2.getDataType());
+			sb.append(Lop.VALUETYPE_PREFIX);
+			sb.append(input2.getValueType());
+		}
+		else {
+			sb.append("CP");
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(getOpcode());
+			for( CPOperand in : new CPOperand[]{input1, input2, input3} )
+				if( in != null ) {
+					sb.append(Lop.OPERAND_DELIMITOR);
+					sb.append(in.getName());
+				}
+		}
+		
+		return sb.toString();
+	}
+	
 	@Override
 	public void updateInstructionThreadID(String pattern, String replace)
 		throws DMLRuntimeException
@@ -1049,19 +1148,22 @@ public class VariableCPInstruction extends CPInstruction
 		if(    opcode == VariableOperationCode.CreateVariable
 			|| opcode == VariableOperationCode.SetFileName )
 		{
+			//create instruction string if necessary (before in-memory replace)
+			String str = toString();
+			
 			//replace in-memory instruction
 			input2.setName(input2.getName().replaceAll(pattern, replace));
 
 			// Find a start position of file name string.
-			int iPos = StringUtils.ordinalIndexOf(instString, Lop.OPERAND_DELIMITOR, CREATEVAR_FILE_NAME_VAR_POS); 
+			int iPos = StringUtils.ordinalIndexOf(str, Lop.OPERAND_DELIMITOR, CREATEVAR_FILE_NAME_VAR_POS); 
 			// Find a end position of file name string.
-			int iPos2 = StringUtils.indexOf(instString, Lop.OPERAND_DELIMITOR, iPos+1);
+			int iPos2 = StringUtils.indexOf(str, Lop.OPERAND_DELIMITOR, iPos+1);
 			
 			StringBuilder sb = new StringBuilder();
-			sb.append(instString.substring(0,iPos+1));			// It takes first part before file name.
+			sb.append(str.substring(0,iPos+1));			// It takes first part before file name.
 			// This will replace 'pattern' with 'replace' string from file name.
-			sb.append(ProgramConverter.saveReplaceFilenameThreadID(instString.substring(iPos+1, iPos2+1), pattern, replace));  
-			sb.append(instString.substring(iPos2+1));			// It takes last part after file name.
+			sb.append(ProgramConverter.saveReplaceFilenameThreadID(str.substring(iPos+1, iPos2+1), pattern, replace));  
+			sb.append(str.substring(iPos2+1));			// It takes last part after file name.
 			
 			instString = sb.toString();
 		}
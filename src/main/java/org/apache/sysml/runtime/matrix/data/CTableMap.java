@@ -19,10 +19,8 @@
 
 package org.apache.sysml.runtime.matrix.data;
 
-import java.util.ArrayList;
-
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap;
-import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleEntry;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleIterator;
 
 /**
  * Ctable map is an abstraction for the hashmap used for ctable's hash group-by
@@ -53,13 +51,14 @@ public class CTableMap
 	}
 	
 	/**
+	 * Obtains an iterator over all (row, column, value) entries, which 
+	 * does not create any objects per entry.
 	 * 
-	 * @return
+	 * @return entry iterator
 	 */
-	@Deprecated
-	public ArrayList<LLDoubleEntry> entrySet()
+	public LLDoubleIterator getIterator() 
 	{
-		return _map.extractValues();
+		return _map.getIterator();
 	}
 	
 	/**
@@ -94,6 +93,28 @@ public class CTableMap
 		_maxCol = Math.max(_maxCol, col);
 	}
 	
+	/**
+	 * Aggregates all entries of the given ctable map into this map
+	 * (e.g., for merging the partial results of multi-threaded ctable).
+	 * Note that the given map must not be used after this call. 
+	 * 
+	 * @param that ctable map
+	 */
+	public void aggregate(CTableMap that) 
+	{
+		//merge the smaller into the larger map
+		if( that._map.size() > _map.size() ) {
+			LongLongDoubleHashMap tmp = _map;
+			_map = that._map;
+			that._map = tmp;
+		}
+		_map.addValues(that._map);
+		
+		//maintain internal summaries
+		_maxRow = Math.max(_maxRow, that._maxRow);
+		_maxCol = Math.max(_maxCol, that._maxCol);
+	}
+	
 	/**
 	 * 
 	 * @param rlen
@@ -110,30 +131,56 @@ public class CTableMap
 		// copy map values into new matrix block
 		if( sparse ) //SPARSE <- cells
 		{
-			//append cells to sparse target (prevent shifting)
-			for( LLDoubleEntry e : _map.extractValues() ) 
-			{
-				double value = e.value;
-				int rix = (int)e.key1;
-				int cix = (int)e.key2;
+			//count non-zeros per row in order to allocate exact sparse 
+			//rows and append cells without reallocations or shifting
+			int[] cnt = new int[rlen];
+			LLDoubleIterator it = _map.getIterator();
+			while( it.next() ) {
+				long rix = it.getKey1();
+				if( it.getValue() != 0 && rix<=rlen && it.getKey2()<=clen )
+					cnt[(int)rix-1]++;
+			}
+			
+			mb.allocateSparseRowsBlock();
+			SparseBlock sblock = mb.getSparseBlock();
+			long lnnz = 0;
+			for( int i=0; i<rlen; i++ )
+				if( cnt[i] > 0 ) {
+					sblock.allocate(i, cnt[i]);
+					lnnz += cnt[i];
+				}
+			
+			//append cells to sparse target 
+			it = _map.getIterator();
+			while( it.next() ) {
+				double value = it.getValue();
+				long rix = it.getKey1();
+				long cix = it.getKey2();
 				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.appendValue( rix-1, cix-1, value );
+					sblock.append((int)rix-1, (int)cix-1, value);
 			}
 			
 			//sort sparse target representation
-			mb.sortSparseRows();
+			sblock.sort();
+			mb.setNonZeros(lnnz);
 		}
 		else  //DENSE <- cells
 		{
 			//directly insert cells into dense target 
-			for( LLDoubleEntry e : _map.extractValues() ) 
-			{
-				double value = e.value;
-				int rix = (int)e.key1;
-				int cix = (int)e.key2;
-				if( value != 0 && rix<=rlen && cix<=clen )
-					mb.quickSetValue( rix-1, cix-1, value );
+			mb.allocateDenseBlock();
+			double[] c = mb.getDenseBlock();
+			long lnnz = 0;
+			LLDoubleIterator it = _map.getIterator();
+			while( it.next() ) {
+				double value = it.getValue();
+				long rix = it.getKey1();
+				long cix = it.getKey2();
+				if( value != 0 && rix<=rlen && cix<=clen ) {
+					c[(int)(rix-1)*clen+(int)cix-1] = value;
+					lnnz++;
+				}
 			}
+			mb.setNonZeros(lnnz);
 		}
 		
 		return mb;
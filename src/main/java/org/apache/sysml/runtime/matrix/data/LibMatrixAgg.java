@@ -24,12 +24,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
 import org.apache.sysml.runtime.DMLRuntimeException;
-import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.functionobjects.Builtin;
 import org.apache.sysml.runtime.functionobjects.Builtin.BuiltinFunctionCode;
 import org.apache.sysml.runtime.functionobjects.CM;
@@ -44,7 +42,6 @@ import org.apache.sysml.runtime.functionobjects.ReduceCol;
 import org.apache.sysml.runtime.functionobjects.ReduceDiag;
 import org.apache.sysml.runtime.functionobjects.ReduceRow;
 import org.apache.sysml.runtime.functionobjects.ValueFunction;
-import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.runtime.instructions.cp.CM_COV_Object;
 import org.apache.sysml.runtime.instructions.cp.KahanObject;
 import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
@@ -53,7 +50,7 @@ import org.apache.sysml.runtime.matrix.operators.CMOperator;
 import org.apache.sysml.runtime.matrix.operators.CMOperator.AggregateOperationTypes;
 import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
-import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 
@@ -258,7 +255,7 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTask> tasks = new ArrayList<AggTask>();
 			int blklen = (int)(Math.ceil((double)m/k));
 			for( int i=0; i<k & i*blklen<m; i++ ) {
@@ -339,20 +336,19 @@ public class LibMatrixAgg
 	public static MatrixBlock cumaggregateUnaryMatrix(MatrixBlock in, MatrixBlock out, UnaryOperator uop, int k) 
 		throws DMLRuntimeException
 	{
-		AggregateUnaryOperator uaop = InstructionUtils.parseBasicCumulativeAggregateUnaryOperator(uop);
+		AggType aggtype = getAggType(uop);
 		
 		//fall back to sequential if necessary or agg not supported
+		//(note: the partial aggregates of k x n are bounded by the m x n output)
 		if(    k <= 1 || (long)in.rlen*in.clen < PAR_NUMCELL_THRESHOLD || in.rlen <= k
-			|| out.clen*8*k > PAR_INTERMEDIATE_SIZE_THRESHOLD || uaop == null ) {
+			|| aggtype == AggType.INVALID ) {
 			return cumaggregateUnaryMatrix(in, out, uop);
 		}
 		
 		//prepare meta data 
-		AggType aggtype = getAggType(uop);
 		final int m = in.rlen;
 		final int m2 = out.rlen;
 		final int n2 = out.clen;
-		final int mk = aggtype==AggType.CUM_KAHAN_SUM?2:1;
 		
 		//filter empty input blocks (incl special handling for sparse-unsafe operations)
 		if( in.isEmptyBlock(false) ){
@@ -365,36 +361,35 @@ public class LibMatrixAgg
 		out.reset(m2, n2, false); //always dense
 		out.allocateDenseBlock();
 		
-		//core multi-threaded unary aggregate computation
+		//core multi-threaded cumulative aggregate computation as two-phase scan
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			int blklen = (int)(Math.ceil((double)m/k));
 			
-			//step 1: compute aggregates per row partition
-			AggType uaoptype = getAggType(uaop);
-			ArrayList<PartialAggTask> tasks = new ArrayList<PartialAggTask>();
+			//step 1: compute aggregates per row partition (w/o output)
+			ArrayList<PartialCumAggTask> tasks = new ArrayList<PartialCumAggTask>();
 			for( int i=0; i<k & i*blklen<m; i++ )
-				tasks.add( new PartialAggTask(in, new MatrixBlock(mk,n2,false), uaoptype, uaop, i*blklen, Math.min((i+1)*blklen, m)) );
+				tasks.add( new PartialCumAggTask(in, aggtype, uop, i*blklen, Math.min((i+1)*blklen, m)) );
 			List<Future<Object>> taskret = pool.invokeAll(tasks);	
 			for( Future<Object> task : taskret )
 				task.get(); //check for errors
 			
-			//step 2: cumulative aggregate of partition aggregates
-			MatrixBlock tmp = new MatrixBlock(tasks.size(), n2, false);
-			for( int i=0; i<tasks.size(); i++ ) {
-				MatrixBlock row = tasks.get(i).getResult();
-				if( uaop.aggOp.correctionExists )
-					row.dropLastRowsOrColums(uaop.aggOp.correctionLocation);
-				tmp.leftIndexingOperations(row, i, i, 0, n2-1, tmp, UpdateType.INPLACE_PINNED);
-			}
-			MatrixBlock tmp2 = cumaggregateUnaryMatrix(tmp, new MatrixBlock(tasks.size(), n2, false), uop);
+			//step 2: cumulative aggregate of partition aggregates (offsets)
+			final int np = tasks.size();
+			MatrixBlock tmp = new MatrixBlock(np, n2, false);
+			tmp.allocateDenseBlock();
+			for( int i=0; i<np; i++ )
+				System.arraycopy(tasks.get(i).getResult(), 0, tmp.denseBlock, i*n2, n2);
+			MatrixBlock tmp2 = new MatrixBlock(np, n2, false);
+			tmp2.allocateDenseBlock();
+			cumaggregateUnaryMatrixDense(tmp, tmp2, aggtype, uop.fn, null, 0, np);
 			
-			//step 3: compute final cumulative aggregate
+			//step 3: compute final cumulative aggregate w/ offsets
 			ArrayList<CumAggTask> tasks2 = new ArrayList<CumAggTask>();
-			for( int i=0; i<k & i*blklen<m; i++ ) {
+			for( int i=0; i<np; i++ ) {
 				double[] agg = (i==0)? null : 
-					DataConverter.convertToDoubleVector(tmp2.sliceOperations(i-1, i-1, 0, n2-1, new MatrixBlock()));
+					Arrays.copyOfRange(tmp2.denseBlock, (i-1)*n2, i*n2);
 				tasks2.add( new CumAggTask(in, agg, out, aggtype, uop, i*blklen, Math.min((i+1)*blklen, m)) );
 			}
 			List<Future<Long>> taskret2 = pool.invokeAll(tasks2);	
@@ -466,7 +461,7 @@ public class LibMatrixAgg
 		
 		double val = -1;
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTernaryTask> tasks = new ArrayList<AggTernaryTask>();
 			int blklen = (int)(Math.ceil((double)in1.rlen/k));
 			for( int i=0; i<k & i*blklen<in1.rlen; i++ )
@@ -558,7 +553,7 @@ public class LibMatrixAgg
 		//core multi-threaded grouped aggregate computation
 		//(currently: parallelization over columns to avoid additional memory requirements)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<GrpAggTask> tasks = new ArrayList<GrpAggTask>();
 			int blklen = (int)(Math.ceil((double)target.clen/k));
 			for( int i=0; i<k & i*blklen<target.clen; i++ )
@@ -1676,14 +1671,14 @@ public class LibMatrixAgg
 	 * @param ru
 	 * @throws DMLRuntimeException
 	 */
-	private static void cumaggregateUnaryMatrixDense(MatrixBlock in, MatrixBlock out, AggType optype, ValueFunction vFn, double[] agg, int rl, int ru) 
+	private static double[] cumaggregateUnaryMatrixDense(MatrixBlock in, MatrixBlock out, AggType optype, ValueFunction vFn, double[] agg, int rl, int ru) 
 			throws DMLRuntimeException
 	{
 		final int m = in.rlen;
 		final int n = in.clen;
 		
 		double[] a = in.getDenseBlock();
-		double[] c = out.getDenseBlock();		
+		double[] c = (out!=null) ? out.getDenseBlock() : null;		
 		
 		switch( optype )
 		{
@@ -1691,20 +1686,17 @@ public class LibMatrixAgg
 			{
 				KahanObject kbuff = new KahanObject(0, 0);
 				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
-				d_ucumkp(a, agg, c, m, n, kbuff, kplus, rl, ru);
-				break;
+				return d_ucumkp(a, agg, c, m, n, kbuff, kplus, rl, ru);
 			}
 			case CUM_PROD: //CUMPROD
 			{
-				d_ucumm(a, agg, c, m, n, rl, ru);
-				break;
+				return d_ucumm(a, agg, c, m, n, rl, ru);
 			}
 			case CUM_MIN:
 			case CUM_MAX:
 			{
 				double init = Double.MAX_VALUE * ((optype==AggType.CUM_MAX)?-1:1);
-				d_ucummxx(a, agg, c, m, n, init, (Builtin)vFn, rl, ru);
-				break;
+				return d_ucummxx(a, agg, c, m, n, init, (Builtin)vFn, rl, ru);
 			}
 			
 			default:
@@ -1723,14 +1715,14 @@ public class LibMatrixAgg
 	 * @param ru
 	 * @throws DMLRuntimeException
 	 */
-	private static void cumaggregateUnaryMatrixSparse(MatrixBlock in, MatrixBlock out, AggType optype, ValueFunction vFn, double[] agg, int rl, int ru) 
+	private static double[] cumaggregateUnaryMatrixSparse(MatrixBlock in, MatrixBlock out, AggType optype, ValueFunction vFn, double[] agg, int rl, int ru) 
 			throws DMLRuntimeException
 	{
 		final int m = in.rlen;
 		final int n = in.clen;
 		
 		SparseBlock a = in.getSparseBlock();
-		double[] c = out.getDenseBlock();
+		double[] c = (out!=null) ? out.getDenseBlock() : null;
 		
 		switch( optype )
 		{
@@ -1738,20 +1730,17 @@ public class LibMatrixAgg
 			{
 				KahanObject kbuff = new KahanObject(0, 0);
 				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
-				s_ucumkp(a, agg, c, m, n, kbuff, kplus, rl, ru);
-				break;
+				return s_ucumkp(a, agg, c, m, n, kbuff, kplus, rl, ru);
 			}
 			case CUM_PROD: //CUMPROD
 			{
-				s_ucumm(a, agg, c, m, n, rl, ru);
-				break;
+				return s_ucumm(a, agg, c, m, n, rl, ru);
 			}
 			case CUM_MIN:
 			case CUM_MAX:
 			{
 				double init = Double.MAX_VALUE * ((optype==AggType.CUM_MAX)?-1:1);
-				s_ucummxx(a, agg, c, m, n, init, (Builtin)vFn, rl, ru);
-				break;
+				return s_ucummxx(a, agg, c, m, n, init, (Builtin)vFn, rl, ru);
 			}
 
 			default:
@@ -1888,8 +1877,16 @@ public class LibMatrixAgg
 	 */
 	private static void d_uackp( double[] a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
+		//vectorizable column aggregation w/o special handling of INF values
 		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
-			sumAgg( a, c, aix, 0, n, kbuff, kplus );
+			sumAggKahan( a, c, aix, 0, n, false );
+		
+		//recompute with INF handling if necessary (output initialized w/ 0s)
+		if( !isFinite(c, 0, 2*n) ) {
+			Arrays.fill(c, 0, 2*n, 0);
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+				sumAgg( a, c, aix, 0, n, kbuff, kplus );
+		}
 	}
 
 	/**
@@ -1962,8 +1959,16 @@ public class LibMatrixAgg
 	private static void d_uacsqkp(double[] a, double[] c, int m, int n, KahanObject kbuff,
 	                              KahanPlusSq kplusSq, int rl, int ru)
 	{
+		//vectorizable column aggregation w/o special handling of INF values
 		for (int i=rl, aix=rl*n; i<ru; i++, aix+=n)
-			sumSqAgg(a, c, aix, 0, n, kbuff, kplusSq);
+			sumAggKahan(a, c, aix, 0, n, true);
+
+		//recompute with INF handling if necessary (output initialized w/ 0s)
+		if( !isFinite(c, 0, 2*n) ) {
+			Arrays.fill(c, 0, 2*n, 0);
+			for (int i=rl, aix=rl*n; i<ru; i++, aix+=n)
+				sumSqAgg(a, c, aix, 0, n, kbuff, kplusSq);
+		}
 	}
 
 	/**
@@ -1976,7 +1981,7 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_ucumkp( double[] a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
+	private static double[] d_ucumkp( double[] a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
 		//init current row sum/correction arrays w/ neutral 0
 		double[] csums = new double[ 2*n ];
@@ -1986,8 +1991,11 @@ public class LibMatrixAgg
 		//scan once and compute prefix sums
 		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
 			sumAgg( a, csums, aix, 0, n, kbuff, kplus );
-			System.arraycopy(csums, 0, c, aix, n);	
+			if( c != null )
+				System.arraycopy(csums, 0, c, aix, n);	
 		}
+		
+		return csums;
 	}
 	
 	/**
@@ -2000,7 +2008,7 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void d_ucumm( double[] a, double[] agg, double[] c, int m, int n, int rl, int ru ) 
+	private static double[] d_ucumm( double[] a, double[] agg, double[] c, int m, int n, int rl, int ru ) 
 	{	
 		//init current row product array w/ neutral 1
 		double[] cprods = (agg!=null) ? agg : new double[ n ]; 
@@ -2010,8 +2018,11 @@ public class LibMatrixAgg
 		//scan once and compute prefix products
 		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
 			productAgg( a, cprods, aix, 0, n );
-			System.arraycopy(cprods, 0, c, aix, n);
-		}			
+			if( c != null )
+				System.arraycopy(cprods, 0, c, aix, n);
+		}
+		
+		return cprods;
 	}
 	
 	/**
@@ -2023,7 +2034,7 @@ public class LibMatrixAgg
 	 * @param n
 	 * @param builtin
 	 */
-	private static void d_ucummxx( double[] a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
+	private static double[] d_ucummxx( double[] a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru )
 	{
 		//init current row min/max array w/ extreme value 
 		double[] cmxx = (agg!=null) ? agg : new double[ n ]; 
@@ -2033,8 +2044,11 @@ public class LibMatrixAgg
 		//scan once and compute prefix min/max
 		for( int i=rl, aix=rl*n; i<ru; i++, aix+=n ) {
 			builtinAgg( a, cmxx, aix, n, builtin );
-			System.arraycopy(cmxx, 0, c, aix, n);
+			if( c != null )
+				System.arraycopy(cmxx, 0, c, aix, n);
 		}
+		
+		return cmxx;
 	}
 	/**
 	 * TRACE, opcode: uaktrace 
@@ -2339,13 +2353,30 @@ public class LibMatrixAgg
 	private static void s_uarkp( SparseBlock a, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
 		//compute row aggregates
-		for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 )
-			if( !a.isEmpty(i) ) {
-				kbuff.set(0, 0); //reset buffer
-				sum( a.values(i), a.pos(i), a.size(i), kbuff, kplus );
-				c[cix+0] = kbuff._sum;
-				c[cix+1] = kbuff._correction;			
+		if( a instanceof SparseBlockCSR ) {
+			//direct scan over csr arrays w/o per-row indirection
+			int[] aptr = ((SparseBlockCSR)a).rowPointers();
+			double[] avals = ((SparseBlockCSR)a).values();
+			for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 ) {
+				int apos = aptr[i];
+				int alen = aptr[i+1] - apos;
+				if( alen > 0 ) {
+					kbuff.set(0, 0); //reset buffer
+					sum( avals, apos, alen, kbuff, kplus );
+					c[cix+0] = kbuff._sum;
+					c[cix+1] = kbuff._correction;
+				}
 			}
+		}
+		else {
+			for( int i=rl, cix=rl*2; i<ru; i++, cix+=2 )
+				if( !a.isEmpty(i) ) {
+					kbuff.set(0, 0); //reset buffer
+					sum( a.values(i), a.pos(i), a.size(i), kbuff, kplus );
+					c[cix+0] = kbuff._sum;
+					c[cix+1] = kbuff._correction;			
+				}
+		}
 	}
 	
 	/**
@@ -2474,7 +2505,7 @@ public class LibMatrixAgg
 	 * @param kbuff
 	 * @param kplus
 	 */
-	private static void s_ucumkp( SparseBlock a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru )
+	private static double[] s_ucumkp( SparseBlock a, double[] agg, double[] c, int m, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru )
 	{
 		//init current row sum/correction arrays w/ neutral 0
 		double[] csums = new double[ 2*n ]; 
@@ -2487,8 +2518,11 @@ public class LibMatrixAgg
 				sumAgg( a.values(i), csums, a.indexes(i), a.pos(i), a.size(i), n, kbuff, kplus );
 
 			//always copy current sum (not sparse-safe)
-			System.arraycopy(csums, 0, c, ix, n);
+			if( c != null )
+				System.arraycopy(csums, 0, c, ix, n);
 		}
+		
+		return csums;
 	}
 	
 	/**
@@ -2499,7 +2533,7 @@ public class LibMatrixAgg
 	 * @param m
 	 * @param n
 	 */
-	private static void s_ucumm( SparseBlock a, double[] agg, double[] c, int m, int n, int rl, int ru )
+	private static double[] s_ucumm( SparseBlock a, double[] agg, double[] c, int m, int n, int rl, int ru )
 	{
 		//init current row prod arrays w/ neutral 1
 		double[] cprod = (agg!=null) ? agg : new double[ n ]; 
@@ -2525,12 +2559,15 @@ public class LibMatrixAgg
 			//correction (not sparse-safe and cumulative)
 			//note: we need to determine if there are only nnz in a column
 			for( int j=0; j<n; j++ )
-				if( cnt[j] < i+1 ) //no dense column
+				if( cnt[j] < i-rl+1 ) //no dense column
 					cprod[j] *= 0;
 			
 			//always copy current sum (not sparse-safe)
-			System.arraycopy(cprod, 0, c, ix, n);
-		}	
+			if( c != null )
+				System.arraycopy(cprod, 0, c, ix, n);
+		}
+		
+		return cprod;
 	}
 	
 	/**
@@ -2543,7 +2580,7 @@ public class LibMatrixAgg
 	 * @param init
 	 * @param builtin
 	 */
-	private static void s_ucummxx( SparseBlock a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru ) 
+	private static double[] s_ucummxx( SparseBlock a, double[] agg, double[] c, int m, int n, double init, Builtin builtin, int rl, int ru ) 
 	{
 		//init current row min/max array w/ extreme value 
 		double[] cmxx = (agg!=null) ? agg : new double[ n ]; 
@@ -2568,12 +2605,15 @@ public class LibMatrixAgg
 			//correction (not sparse-safe and cumulative)
 			//note: we need to determine if there are only nnz in a column
 			for( int j=0; j<n; j++ )
-				if( cnt[j] < i+1 ) //no dense column
+				if( cnt[j] < i-rl+1 ) //no dense column
 					cmxx[j] = builtin.execute2(cmxx[j], 0);
 			
 			//always copy current sum (not sparse-safe)
-			System.arraycopy(cmxx, 0, c, ix, n);
+			if( c != null )
+				System.arraycopy(cmxx, 0, c, ix, n);
 		}
+		
+		return cmxx;
 	}
 	
 	/**
@@ -2647,14 +2687,28 @@ public class LibMatrixAgg
 		//init result (for empty rows)
 		Arrays.fill(c, rl, ru, init); //not sparse-safe
 		
-		for( int i=rl; i<ru; i++ )
-		{
-			if( !a.isEmpty(i) )
-				c[ i ] = builtin(a.values(i), a.pos(i), init, a.size(i), builtin);
-		
-			//correction (not sparse-safe)
-			if( a.size(i) < n )
-				c[ i ] = builtin.execute2(c[ i ], 0); 
+		if( a instanceof SparseBlockCSR ) {
+			//direct scan over csr arrays w/o per-row indirection
+			int[] aptr = ((SparseBlockCSR)a).rowPointers();
+			double[] avals = ((SparseBlockCSR)a).values();
+			for( int i=rl; i<ru; i++ ) {
+				int apos = aptr[i];
+				int alen = aptr[i+1] - apos;
+				if( alen > 0 )
+					c[ i ] = builtin(avals, apos, init, alen, builtin);
+				//correction (not sparse-safe)
+				if( alen < n )
+					c[ i ] = builtin.execute2(c[ i ], 0); 
+			}
+		}
+		else {
+			for( int i=rl; i<ru; i++ ) {
+				if( !a.isEmpty(i) )
+					c[ i ] = builtin(a.values(i), a.pos(i), init, a.size(i), builtin);
+				//correction (not sparse-safe)
+				if( a.size(i) < n )
+					c[ i ] = builtin.execute2(c[ i ], 0); 
+			}
 		}
 	}
 	
@@ -3063,7 +3117,7 @@ public class LibMatrixAgg
 	 */
 	private static void sum(double[] a, int ai, final int len, KahanObject kbuff, KahanPlus kplus)
 	{
-		sumWithFn(a, ai, len, kbuff, kplus);
+		sumKahan(a, ai, len, false, kbuff, kplus);
 	}
 
 	/**
@@ -3083,7 +3137,7 @@ public class LibMatrixAgg
 	private static void sumAgg(double[] a, double[] c, int[] aix, int ai, final int len, final int n,
 	                           KahanObject kbuff, KahanPlus kplus)
 	{
-		sumAggWithFn(a, c, aix, ai, len, n, kbuff, kplus);
+		sumAggKahan(a, c, aix, ai, len, n, false);
 	}
 
 	/**
@@ -3093,7 +3147,7 @@ public class LibMatrixAgg
 	private static void sumSq(double[] a, int ai, final int len,
 	                          KahanObject kbuff, KahanPlusSq kplusSq)
 	{
-		sumWithFn(a, ai, len, kbuff, kplusSq);
+		sumKahan(a, ai, len, true, kbuff, kplusSq);
 	}
 
 	/**
@@ -3113,7 +3167,168 @@ public class LibMatrixAgg
 	private static void sumSqAgg(double[] a, double[] c, int[] aix, int ai, final int len, final int n,
 	                             KahanObject kbuff, KahanPlusSq kplusSq)
 	{
-		sumAggWithFn(a, c, aix, ai, len, n, kbuff, kplusSq);
+		sumAggKahan(a, c, aix, ai, len, n, true);
+	}
+
+	/**
+	 * Summation (of optionally squared values) using the Kahan summation 
+	 * algorithm with four independent accumulators and an unrolled loop 
+	 * w/o function calls. The partial sums and corrections are finally added
+	 * to the given buffer. For non-finite results, we recompute the sum with
+	 * the given Kahan function in order to retain its handling of INF values.
+	 *
+	 * @param a Array of values to sum.
+	 * @param ai Index at which to start processing.
+	 * @param len Number of values to process, starting at index ai.
+	 * @param sq Indicator for summation of squared values.
+	 * @param kbuff A KahanObject to hold the current sum and
+	 *              correction factor for the Kahan summation
+	 *              algorithm.
+	 * @param kfunc A KahanFunction object for the fallback summation.
+	 */
+	private static void sumKahan(double[] a, int ai, final int len, final boolean sq,
+	                             KahanObject kbuff, KahanFunction kfunc)
+	{
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		double c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+		final int bn = len%4;
+		
+		//compute rest (not aligned to 4-blocks)
+		for( int i=ai; i<ai+bn; i++ ) {
+			double v = sq ? a[i]*a[i] : a[i];
+			double corr = v + c0;
+			double sum = s0 + corr;
+			c0 = corr - (sum - s0);
+			s0 = sum;
+		}
+		
+		//unrolled 4-block (for better instruction-level parallelism)
+		for( int i=ai+bn; i<ai+len; i+=4 ) {
+			double v0 = sq ? a[i+0]*a[i+0] : a[i+0];
+			double v1 = sq ? a[i+1]*a[i+1] : a[i+1];
+			double v2 = sq ? a[i+2]*a[i+2] : a[i+2];
+			double v3 = sq ? a[i+3]*a[i+3] : a[i+3];
+			double corr0 = v0 + c0, corr1 = v1 + c1;
+			double corr2 = v2 + c2, corr3 = v3 + c3;
+			double sum0 = s0 + corr0, sum1 = s1 + corr1;
+			double sum2 = s2 + corr2, sum3 = s3 + corr3;
+			c0 = corr0 - (sum0 - s0); c1 = corr1 - (sum1 - s1);
+			c2 = corr2 - (sum2 - s2); c3 = corr3 - (sum3 - s3);
+			s0 = sum0; s1 = sum1; s2 = sum2; s3 = sum3;
+		}
+		
+		//add partial sums and corrections to buffer
+		double sum = kbuff._sum, corr = kbuff._correction;
+		kahanAdd(kbuff, s0, c0);
+		kahanAdd(kbuff, s1, c1);
+		kahanAdd(kbuff, s2, c2);
+		kahanAdd(kbuff, s3, c3);
+		
+		//recompute with INF handling if necessary
+		if( Double.isNaN(kbuff._sum + kbuff._correction) 
+			|| Double.isInfinite(kbuff._sum) ) {
+			kbuff.set(sum, corr);
+			sumWithFn(a, ai, len, kbuff, kfunc);
+		}
+	}
+	
+	/**
+	 * Adds the given value and its correction to the given buffer
+	 * via the Kahan summation algorithm.
+	 * 
+	 * @param kbuff
+	 * @param val
+	 * @param corr
+	 */
+	private static void kahanAdd(KahanObject kbuff, double val, double corr)
+	{
+		double lcorr = val + (kbuff._correction + corr);
+		double sum = kbuff._sum + lcorr;
+		kbuff.set(sum, lcorr - (sum - kbuff._sum));
+	}
+	
+	/**
+	 * Aggregated summation (of optionally squared values) using the Kahan 
+	 * summation algorithm w/o function calls and special handling of INF 
+	 * values, which allows for a vectorized execution. The callers are 
+	 * responsible for handling non-finite results.
+	 *
+	 * @param a Array of values to sum.
+	 * @param c Output array to store aggregated sum and correction
+	 *          factors.
+	 * @param ai Index at which to start processing array `a`.
+	 * @param ci Index at which to start storing aggregated results
+	 *           into array `c`.
+	 * @param len Number of values to process, starting at index ai.
+	 * @param sq Indicator for summation of squared values.
+	 */
+	private static void sumAggKahan(double[] a, double[] c, int ai, int ci, final int len, final boolean sq)
+	{
+		if( sq ) {
+			for( int i=0; i<len; i++ ) {
+				double corr = a[ai+i]*a[ai+i] + c[ci+len+i];
+				double sum = c[ci+i] + corr;
+				c[ci+len+i] = corr - (sum - c[ci+i]);
+				c[ci+i] = sum;
+			}
+		}
+		else {
+			for( int i=0; i<len; i++ ) {
+				double corr = a[ai+i] + c[ci+len+i];
+				double sum = c[ci+i] + corr;
+				c[ci+len+i] = corr - (sum - c[ci+i]);
+				c[ci+i] = sum;
+			}
+		}
+	}
+	
+	/**
+	 * Aggregated summation (of optionally squared values) using the Kahan 
+	 * summation algorithm w/o function calls, which retains the special 
+	 * handling of INF values of the Kahan functions.
+	 *
+	 * @param a Array of values to sum.
+	 * @param c Output array to store aggregated sum and correction
+	 *          factors.
+	 * @param aix Array of indices to process for array `a`.
+	 * @param ai Index at which to start processing.
+	 * @param len Number of indices in `ai` to process.
+	 * @param n Number of values per row.
+	 * @param sq Indicator for summation of squared values.
+	 */
+	private static void sumAggKahan(double[] a, double[] c, int[] aix, int ai, final int len, final int n, final boolean sq)
+	{
+		for( int i=ai; i<ai+len; i++ ) {
+			int cix = aix[i];
+			double v = sq ? a[i]*a[i] : a[i];
+			double sum0 = c[cix];
+			if( Double.isInfinite(sum0) || Double.isInfinite(v) ) {
+				c[cix] = Double.isInfinite(v) ? v : sum0;
+				c[cix+n] = 0;
+			}
+			else {
+				double corr = v + c[cix+n];
+				double sum = sum0 + corr;
+				c[cix+n] = corr - (sum - sum0);
+				c[cix] = sum;
+			}
+		}
+	}
+	
+	/**
+	 * Indicates if all values of the given range are finite.
+	 * 
+	 * @param a
+	 * @param ai
+	 * @param len
+	 * @return
+	 */
+	private static boolean isFinite(double[] a, int ai, final int len)
+	{
+		double chk = 0;
+		for( int i=ai; i<ai+len; i++ )
+			chk += a[i] * 0; //NaN for INF or NaN
+		return !Double.isNaN(chk);
 	}
 
 	/**
@@ -3261,6 +3476,17 @@ public class LibMatrixAgg
 	 */
 	private static void mean( double[] a, int ai, final int len, int count, KahanObject kbuff, Mean mean )
 	{
+		//fast path for initial mean via kahan sum (finite results)
+		if( count == 0 && len > 0 && kbuff._sum == 0 && kbuff._correction == 0 ) {
+			sumKahan(a, ai, len, false, kbuff, KahanPlus.getKahanPlusFnObject());
+			if( !Double.isNaN(kbuff._sum + kbuff._correction) 
+				&& !Double.isInfinite(kbuff._sum) ) {
+				kbuff.set(kbuff._sum/len, kbuff._correction/len);
+				return;
+			}
+			kbuff.set(0, 0);
+		}
+		
 		for( int i=0; i<len; i++, ai++, count++ )
 		{
 			//delta: (newvalue-buffer._sum)/count
@@ -3635,6 +3861,46 @@ public class LibMatrixAgg
 		}
 	}
 
+	/**
+	 * Partial cumulative aggregate of a row partition, which only computes
+	 * the final aggregate of the partition (i.e., its last row) w/o output.
+	 */
+	private static class PartialCumAggTask extends AggTask 
+	{
+		private MatrixBlock _in  = null;
+		private double[] _ret = null;
+		private AggType _aggtype = null;
+		private UnaryOperator _uop = null;		
+		private int _rl = -1;
+		private int _ru = -1;
+
+		protected PartialCumAggTask( MatrixBlock in, AggType aggtype, UnaryOperator uop, int rl, int ru ) 
+			throws DMLRuntimeException
+		{
+			_in = in;	
+			_aggtype = aggtype;
+			_uop = uop;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() throws DMLRuntimeException
+		{
+			//compute partial aggregate (first n values, w/o corrections)
+			if( !_in.sparse )
+				_ret = cumaggregateUnaryMatrixDense(_in, null, _aggtype, _uop.fn, null, _rl, _ru);
+			else
+				_ret = cumaggregateUnaryMatrixSparse(_in, null, _aggtype, _uop.fn, null, _rl, _ru);
+			
+			return null;
+		}
+		
+		public double[] getResult() {
+			return _ret;
+		}
+	}
+	
 	/**
 	 * 
 	 */
@@ -19,7 +19,12 @@
 
 package org.apache.sysml.runtime.matrix.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.functionobjects.Divide;
@@ -36,7 +41,9 @@ import org.apache.sysml.runtime.functionobjects.Or;
 import org.apache.sysml.runtime.functionobjects.Plus;
 import org.apache.sysml.runtime.functionobjects.Power2;
 import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.SortUtils;
 
@@ -54,7 +61,8 @@ import org.apache.sysml.runtime.util.SortUtils;
  */
 public class LibMatrixBincell 
 {
-
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+	
 	public enum BinaryAccessType {
 		MATRIX_MATRIX,
 		MATRIX_COL_VECTOR,
@@ -63,6 +71,18 @@ public class LibMatrixBincell
 		INVALID,
 	}
 	
+	//row-range kernels for multi-threaded execution
+	private enum BincellKernel {
+		SAFE_SCALAR,
+		UNSAFE_SCALAR,
+		SAFE_MM_SPARSE_SPARSE,
+		SAFE_MM_SPARSE_DENSE,
+		SAFE_MM_DENSE,
+		SAFE_MV_DENSE,
+		SAFE_MV_SPARSE,
+		DENSE_DENSE_DENSE,
+	}
+	
 	private LibMatrixBincell() {
 		//prevent instantiation via private constructor
 	}
@@ -146,6 +166,124 @@ public class LibMatrixBincell
 			m1ret.examSparsity();
 	}
 	
+	/**
+	 * Multi-threaded matrix-scalar, scalar-matrix binary operations. Falls back to
+	 * the single-threaded operation for small or empty inputs.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		//fallback to sequential computation for small or empty inputs 
+		if( !satisfiesMultiThreadingConstraints(m1, k) || m1.isEmptyBlock(false) 
+			|| (op.sparseSafe && m1.isInSparseFormat()!=ret.isInSparseFormat())
+			|| (!op.sparseSafe && ret.isInSparseFormat()) ) 
+		{
+			bincellOp(m1, ret, op);
+			return;
+		}
+		
+		//allocate output block (sparse rows, csr or dense block) 
+		//note: csr outputs of csr inputs are updated by position and hence thread-safe
+		if( op.sparseSafe )
+			allocateSafeScalarOutput(m1, ret);
+		else
+			ret.allocateDenseBlock(true);
+		if( ret.sparse && !ret.sparseBlock.isThreadSafe() 
+			&& !(ret.sparseBlock instanceof SparseBlockCSR) ) {
+			bincellOp(m1, ret, op);
+			return;
+		}
+		
+		//execute binary cell operations
+		BincellKernel kernel = op.sparseSafe ? 
+			BincellKernel.SAFE_SCALAR : BincellKernel.UNSAFE_SCALAR;
+		ret.nonZeros = bincellOpParallel(kernel, m1, null, ret, op, false, k);
+		compactSafeScalarOutput(ret);
+		
+		//ensure empty results sparse representation 
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
+	/**
+	 * Multi-threaded matrix-matrix binary operations, MM, MV. Falls back to the 
+	 * single-threaded operation for small or empty inputs, and combinations of
+	 * input/output representations without dedicated row-range kernels.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		BincellKernel kernel = satisfiesMultiThreadingConstraints(m1, k) ? 
+			getBincellKernel(m1, m2, ret, op) : null;
+		
+		//fallback to sequential computation
+		if( kernel == null ) {
+			bincellOp(m1, m2, ret, op);
+			return;
+		}
+		
+		//allocate output block (sparse rows or dense block) 
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		if( ret.sparse && !ret.sparseBlock.isThreadSafe() ) {
+			bincellOp(m1, m2, ret, op);
+			return;
+		}
+		
+		//execute binary cell operations
+		boolean aligned = (kernel == BincellKernel.SAFE_MM_SPARSE_SPARSE 
+			&& ret.sparse && m1.sparseBlock.isAligned(m2.sparseBlock));
+		ret.nonZeros = bincellOpParallel(kernel, m1, m2, ret, op, aligned, k);
+		
+		//ensure empty results sparse representation 
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
+	/**
+	 * Multi-threaded in-place binary operations, which are only parallelized for 
+	 * an allocated dense left input and dense right input.
+	 * 
+	 * @param m1ret
+	 * @param m2
+	 * @param op
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void bincellOpInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		//fallback to sequential computation (incl early abort and special cases)
+		if( !satisfiesMultiThreadingConstraints(m1ret, k) || m1ret.isEmptyBlock(false) 
+			|| !isBinaryInPlaceDense(m1ret, m2) ) 
+		{
+			bincellOpInPlace(m1ret, m2, op);
+			return;
+		}
+		
+		//execute binary cell operations
+		m1ret.nonZeros = bincellOpParallel(BincellKernel.DENSE_DENSE_DENSE, m1ret, m2, m1ret, op, false, k);
+		
+		//ensure empty results sparse representation 
+		if( m1ret.isEmptyBlock(false) )
+			m1ret.examSparsity();
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -214,6 +352,101 @@ public class LibMatrixBincell
 	// private sparse-safe/sparse-unsafe implementations
 	///////////////////////////////////
 
+	/**
+	 * 
+	 * @param in
+	 * @param k
+	 * @return
+	 */
+	private static boolean satisfiesMultiThreadingConstraints(MatrixBlock in, int k) {
+		return k > 1 && (long)in.rlen*in.clen >= PAR_NUMCELL_THRESHOLD && in.rlen > k;
+	}
+	
+	/**
+	 * Determines the row-range kernel for the given matrix-matrix or matrix-vector
+	 * operation, consistent with the kernel selection of the single-threaded
+	 * operations, or null if there is no applicable row-range kernel.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @return
+	 */
+	private static BincellKernel getBincellKernel(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op)
+	{
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		
+		if( !(op.sparseSafe || isSparseSafeDivide(op, m2)) ) { //UNSAFE
+			return isBinaryDenseDenseDense(m1, m2, ret, atype) ? 
+				BincellKernel.DENSE_DENSE_DENSE : null;
+		}
+		
+		//empty inputs handled via sparse-safe early aborts
+		if( m1.isEmptyBlock(false) || m2.isEmptyBlock(false) )
+			return null;
+		
+		if(    atype == BinaryAccessType.MATRIX_COL_VECTOR 
+			|| atype == BinaryAccessType.MATRIX_ROW_VECTOR )
+		{
+			if( !m1.sparse && !m2.sparse && !ret.sparse )
+				return BincellKernel.SAFE_MV_DENSE;
+			else if( m1.sparse )
+				return BincellKernel.SAFE_MV_SPARSE;
+		}
+		else if( atype == BinaryAccessType.MATRIX_MATRIX )
+		{
+			if( m1.sparse && m2.sparse )
+				return BincellKernel.SAFE_MM_SPARSE_SPARSE;
+			else if( !ret.sparse && (m1.sparse || m2.sparse) &&
+				(op.fn instanceof Plus || op.fn instanceof Minus || 
+				(op.fn instanceof Multiply && !m2.sparse )))
+				return BincellKernel.SAFE_MM_SPARSE_DENSE;
+			else if( !ret.sparse && !m1.sparse && !m2.sparse )
+				return BincellKernel.SAFE_MM_DENSE;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Executes the given row-range kernel with k tasks over disjoint row partitions
+	 * of a preallocated output and returns the total number of non-zeros.
+	 * 
+	 * @param kernel
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param aligned
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long bincellOpParallel(BincellKernel kernel, MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, Operator op, boolean aligned, int k) 
+		throws DMLRuntimeException
+	{
+		long lnnz = 0;
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellTask> tasks = new ArrayList<BincellTask>();
+			int m = m1.rlen;
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add( new BincellTask(kernel, m1, m2, ret, op, aligned, i*blklen, Math.min((i+1)*blklen, m)) );
+			List<Future<Long>> taskret = pool.invokeAll(tasks);	
+			pool.shutdown();
+			for( Future<Long> task : taskret )
+				lnnz += task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		return lnnz;
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -258,52 +491,14 @@ public class LibMatrixBincell
 		{
 			if(m1.sparse && m2.sparse)
 			{
-				if(ret.sparse)
-					ret.allocateSparseRowsBlock();	
+				//allocate output once (appends w/o nnz maintenance)
+				ret.allocateDenseOrSparseBlock();
 				
 				//both sparse blocks existing
 				if(m1.sparseBlock!=null && m2.sparseBlock!=null)
 				{
-					SparseBlock lsblock = m1.sparseBlock;
-					SparseBlock rsblock = m2.sparseBlock;
-					
-					if( ret.sparse && lsblock.isAligned(rsblock) )
-					{
-						SparseBlock c = ret.sparseBlock;
-						for(int r=0; r<rlen; r++) 
-							if( !lsblock.isEmpty(r) ) {
-								int alen = lsblock.size(r);
-								int apos = lsblock.pos(r);
-								int[] aix = lsblock.indexes(r);
-								double[] avals = lsblock.values(r);
-								double[] bvals = rsblock.values(r);
-								c.allocate(r, alen);
-								for( int j=apos; j<apos+alen; j++ ) {
-									double tmp = op.fn.execute(avals[j], bvals[j]);
-									c.append(r, aix[j], tmp);
-								}
-								ret.nonZeros += c.size(r);
-							}
-					}
-					else //general case
-					{	
-						for(int r=0; r<rlen; r++)
-						{
-							if( !lsblock.isEmpty(r) && !rsblock.isEmpty(r) ) {
-								mergeForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), lsblock.pos(r), lsblock.size(r),
-										rsblock.values(r), rsblock.indexes(r), rsblock.pos(r), rsblock.size(r), r, ret);	
-							}
-							else if( !rsblock.isEmpty(r) ) {
-								appendRightForSparseBinary(op, rsblock.values(r), rsblock.indexes(r), 
-										rsblock.pos(r), rsblock.size(r), 0, r, ret);
-							}
-							else if( !lsblock.isEmpty(r) ){
-								appendLeftForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), 
-										lsblock.pos(r), lsblock.size(r), 0, r, ret);
-							}
-							// do nothing if both not existing
-						}
-					}
+					boolean aligned = ret.sparse && m1.sparseBlock.isAligned(m2.sparseBlock);
+					ret.nonZeros = safeBinaryMMSparseSparse(m1, m2, ret, op, aligned, 0, rlen);
 				}
 				//right sparse block existing
 				else if( m2.sparseBlock!=null )
@@ -313,7 +508,7 @@ public class LibMatrixBincell
 					for(int r=0; r<Math.min(rlen, rsblock.numRows()); r++)
 						if( !rsblock.isEmpty(r) )
 						{
-							appendRightForSparseBinary(op, rsblock.values(r), rsblock.indexes(r), 
+							ret.nonZeros += appendRightForSparseBinary(op, rsblock.values(r), rsblock.indexes(r), 
 									rsblock.pos(r), rsblock.size(r), 0, r, ret);
 						}
 				}
@@ -325,7 +520,7 @@ public class LibMatrixBincell
 					for(int r=0; r<rlen; r++)
 						if( !lsblock.isEmpty(r) )
 						{
-							appendLeftForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), 
+							ret.nonZeros += appendLeftForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), 
 									lsblock.pos(r), lsblock.size(r), 0, r, ret);
 						}
 				}
@@ -336,89 +531,12 @@ public class LibMatrixBincell
 			{
 				//specific case in order to prevent binary search on sparse inputs (see quickget and quickset)
 				ret.allocateDenseBlock();
-				final int m = ret.rlen;
-				final int n = ret.clen;
-				double[] c = ret.denseBlock;
-				
-				//1) process left input: assignment
-				
-				if( m1.sparse ) //SPARSE left
-				{
-					Arrays.fill(ret.denseBlock, 0, ret.denseBlock.length, 0); 
-					
-					if( m1.sparseBlock != null )
-					{
-						SparseBlock a = m1.sparseBlock;
-						
-						for( int i=0, ix=0; i<m; i++, ix+=n ) {
-							if( !a.isEmpty(i) )
-							{
-								int apos = a.pos(i);
-								int alen = a.size(i);
-								int[] aix = a.indexes(i);
-								double[] avals = a.values(i);
-								for(int k = apos; k < apos+alen; k++) 
-									c[ix+aix[k]] = avals[k];
-							}
-						}
-					}
-				}
-				else //DENSE left
-				{
-					if( !m1.isEmptyBlock(false) ) 
-						System.arraycopy(m1.denseBlock, 0, c, 0, m*n);
-					else
-						Arrays.fill(ret.denseBlock, 0, m*n, 0); 
-				}
-				
-				//2) process right input: op.fn (+,-,*), * only if dense
-				if( m2.sparse ) //SPARSE right
-				{				
-					if(m2.sparseBlock!=null)
-					{
-						SparseBlock a = m2.sparseBlock;
-						
-						for( int i=0, ix=0; i<m; i++, ix+=n ) {
-							if( !a.isEmpty(i) ) {
-								int apos = a.pos(i);
-								int alen = a.size(i);
-								int[] aix = a.indexes(i);
-								double[] avals = a.values(i);
-								for(int k = apos; k < apos+alen; k++) 
-									c[ix+aix[k]] = op.fn.execute(c[ix+aix[k]], avals[k]);
-							}
-						}	
-					}
-				}
-				else //DENSE right
-				{
-					if( !m2.isEmptyBlock(false) )
-						for( int i=0; i<m*n; i++ )
-							c[i] = op.fn.execute(c[i], m2.denseBlock[i]);
-					else if(op.fn instanceof Multiply)
-						Arrays.fill(ret.denseBlock, 0, m*n, 0); 
-				}
-	
-				//3) recompute nnz
-				ret.recomputeNonZeros();
+				ret.nonZeros = safeBinaryMMSparseDenseDense(m1, m2, ret, op, 0, rlen);
 			}
 			else if( !ret.sparse && !m1.sparse && !m2.sparse && m1.denseBlock!=null && m2.denseBlock!=null )
 			{
 				ret.allocateDenseBlock();
-				final int m = ret.rlen;
-				final int n = ret.clen;
-				double[] c = ret.denseBlock;
-				
-				//int nnz = 0;
-				for( int i=0; i<m*n; i++ )
-				{
-					c[i] = op.fn.execute(m1.denseBlock[i], m2.denseBlock[i]);
-					//HotSpot JVM bug causes crash in presence of NaNs 
-					//nnz += (c[i]!=0)? 1 : 0;
-					if( c[i] != 0 )
-						ret.nonZeros++;
-				}
-				//result.nonZeros = nnz;
+				ret.nonZeros = safeBinaryMMDenseDenseDense(m1, m2, ret, op, 0, rlen);
 			}
 			else //generic case
 			{
@@ -437,6 +555,187 @@ public class LibMatrixBincell
 		}
 	}
 	
+	/**
+	 * Sparse-safe matrix-matrix operation over two allocated sparse inputs for the 
+	 * row range [rl, ru). The output (sparse or dense) is expected to be allocated
+	 * and the number of non-zeros is returned instead of maintained in the output.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param aligned
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMMSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, boolean aligned, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		SparseBlock lsblock = m1.sparseBlock;
+		SparseBlock rsblock = m2.sparseBlock;
+		long lnnz = 0;
+		
+		if( aligned ) //sparse output only
+		{
+			SparseBlock c = ret.sparseBlock;
+			for(int r=rl; r<ru; r++) 
+				if( !lsblock.isEmpty(r) ) {
+					int alen = lsblock.size(r);
+					int apos = lsblock.pos(r);
+					int[] aix = lsblock.indexes(r);
+					double[] avals = lsblock.values(r);
+					double[] bvals = rsblock.values(r);
+					c.allocate(r, alen);
+					for( int j=apos; j<apos+alen; j++ ) {
+						double tmp = op.fn.execute(avals[j], bvals[j]);
+						c.append(r, aix[j], tmp);
+					}
+					lnnz += c.size(r);
+				}
+		}
+		else //general case
+		{	
+			for(int r=rl; r<ru; r++)
+			{
+				if( !lsblock.isEmpty(r) && !rsblock.isEmpty(r) ) {
+					lnnz += mergeForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), lsblock.pos(r), lsblock.size(r),
+							rsblock.values(r), rsblock.indexes(r), rsblock.pos(r), rsblock.size(r), r, ret);	
+				}
+				else if( !rsblock.isEmpty(r) ) {
+					lnnz += appendRightForSparseBinary(op, rsblock.values(r), rsblock.indexes(r), 
+							rsblock.pos(r), rsblock.size(r), 0, r, ret);
+				}
+				else if( !lsblock.isEmpty(r) ){
+					lnnz += appendLeftForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), 
+							lsblock.pos(r), lsblock.size(r), 0, r, ret);
+				}
+				// do nothing if both not existing
+			}
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Sparse-safe matrix-matrix operation (+, -, * with dense rhs) over mixed sparse/dense
+	 * inputs and dense output for the row range [rl, ru).
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMMSparseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		final int n = ret.clen;
+		double[] c = ret.denseBlock;
+		
+		//1) process left input: assignment
+		
+		if( m1.sparse ) //SPARSE left
+		{
+			Arrays.fill(c, rl*n, ru*n, 0); 
+			
+			if( m1.sparseBlock != null )
+			{
+				SparseBlock a = m1.sparseBlock;
+				
+				for( int i=rl, ix=rl*n; i<ru; i++, ix+=n ) {
+					if( !a.isEmpty(i) )
+					{
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						for(int k = apos; k < apos+alen; k++) 
+							c[ix+aix[k]] = avals[k];
+					}
+				}
+			}
+		}
+		else //DENSE left
+		{
+			if( !m1.isEmptyBlock(false) ) 
+				System.arraycopy(m1.denseBlock, rl*n, c, rl*n, (ru-rl)*n);
+			else
+				Arrays.fill(c, rl*n, ru*n, 0); 
+		}
+		
+		//2) process right input: op.fn (+,-,*), * only if dense
+		if( m2.sparse ) //SPARSE right
+		{				
+			if(m2.sparseBlock!=null)
+			{
+				SparseBlock a = m2.sparseBlock;
+				
+				for( int i=rl, ix=rl*n; i<ru; i++, ix+=n ) {
+					if( !a.isEmpty(i) ) {
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						for(int k = apos; k < apos+alen; k++) 
+							c[ix+aix[k]] = op.fn.execute(c[ix+aix[k]], avals[k]);
+					}
+				}	
+			}
+		}
+		else //DENSE right
+		{
+			if( !m2.isEmptyBlock(false) ) {
+				double[] b = m2.denseBlock;
+				for( int i=rl*n; i<ru*n; i++ )
+					c[i] = op.fn.execute(c[i], b[i]);
+			}
+			else if(op.fn instanceof Multiply)
+				Arrays.fill(c, rl*n, ru*n, 0); 
+		}
+
+		//3) recompute nnz
+		return ret.recomputeNonZeros(rl, ru-1, 0, n-1);
+	}
+	
+	/**
+	 * Sparse-safe matrix-matrix operation over dense inputs and dense output 
+	 * for the row range [rl, ru).
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMMDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		final int n = ret.clen;
+		double[] a = m1.denseBlock;
+		double[] b = m2.denseBlock;
+		double[] c = ret.denseBlock;
+		
+		long lnnz = 0;
+		for( int i=rl*n; i<ru*n; i++ )
+		{
+			c[i] = op.fn.execute(a[i], b[i]);
+			//HotSpot JVM bug causes crash in presence of NaNs 
+			//nnz += (c[i]!=0)? 1 : 0;
+			if( c[i] != 0 )
+				lnnz++;
+		}
+		
+		return lnnz;
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -450,22 +749,41 @@ public class LibMatrixBincell
 	{
 		boolean isMultiply = (op.fn instanceof Multiply);
 		boolean skipEmpty = (isMultiply);
-		BinaryAccessType atype = getBinaryAccessType(m1, m2);
-		int rlen = m1.rlen;
-		int clen = m1.clen;
 		
 		//early abort on skip and empy
 		if( skipEmpty && (m1.isEmptyBlock(false) || m2.isEmptyBlock(false) ) )
 			return; // skip entire empty block
 		
 		ret.allocateDenseBlock();
+		ret.nonZeros = safeBinaryMVDense(m1, m2, ret, op, 0, m1.rlen);
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMVDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		boolean isMultiply = (op.fn instanceof Multiply);
+		boolean skipEmpty = (isMultiply);
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		int clen = m1.clen;
+		
 		double[] a = m1.denseBlock;
 		double[] b = m2.denseBlock;
 		double[] c = ret.denseBlock;
 
 		if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
 		{
-			for( int i=0, ix=0; i<rlen; i++, ix+=clen )
+			for( int i=rl, ix=rl*clen; i<ru; i++, ix+=clen )
 			{
 				//replicate vector value
 				double v2 = (b==null) ? 0 : b[i];
@@ -492,26 +810,26 @@ public class LibMatrixBincell
 			if( a==null && b==null ) //both empty
 			{
 				double v = op.fn.execute( 0, 0 );
-				Arrays.fill(c, 0, rlen*clen, v);
+				Arrays.fill(c, rl*clen, ru*clen, v);
 			}
 			else if( a==null ) //left empty
 			{
 				//compute first row
 				for( int j=0; j<clen; j++ )
-					c[j] = op.fn.execute( 0, b[j] );
+					c[rl*clen+j] = op.fn.execute( 0, b[j] );
 				//copy first to all other rows
-				for( int i=1, ix=clen; i<rlen; i++, ix+=clen )
-					System.arraycopy(c, 0, c, ix, clen);
+				for( int i=rl+1, ix=(rl+1)*clen; i<ru; i++, ix+=clen )
+					System.arraycopy(c, rl*clen, c, ix, clen);
 			}
 			else //default case (incl right empty) 
 			{
-				for( int i=0, ix=0; i<rlen; i++, ix+=clen )
+				for( int i=rl, ix=rl*clen; i<ru; i++, ix+=clen )
 					for( int j=0; j<clen; j++ )
 						c[ix+j] = op.fn.execute( a[ix+j], ((b!=null) ? b[j] : 0) );	
 			}
 		}
 		
-		ret.recomputeNonZeros();
+		return ret.recomputeNonZeros(rl, ru-1, 0, clen-1);
 	}
 	
 	/**
@@ -528,22 +846,40 @@ public class LibMatrixBincell
 		boolean isMultiply = (op.fn instanceof Multiply);
 		boolean skipEmpty = (isMultiply);
 		
-		int rlen = m1.rlen;
-		int clen = m1.clen;
-		SparseBlock a = m1.sparseBlock;
-		BinaryAccessType atype = getBinaryAccessType(m1, m2);
-		
 		//early abort on skip and empty
 		if( skipEmpty && (m1.isEmptyBlock(false) || m2.isEmptyBlock(false) ) )
 			return; // skip entire empty block
 		
 		//allocate once in order to prevent repeated reallocation
-		if( ret.sparse )
-			ret.allocateSparseRowsBlock();
+		ret.allocateDenseOrSparseBlock();
+		ret.nonZeros = safeBinaryMVSparse(m1, m2, ret, op, 0, m1.rlen);
+	}
+	
+	/**
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryMVSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		boolean isMultiply = (op.fn instanceof Multiply);
+		boolean skipEmpty = (isMultiply);
+		
+		int clen = m1.clen;
+		SparseBlock a = m1.sparseBlock;
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		long lnnz = 0;
 		
 		if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
 		{
-			for( int i=0; i<rlen; i++ )
+			for( int i=rl; i<ru; i++ )
 			{
 				double v2 = m2.quickGetValue(i, 0);
 				
@@ -556,7 +892,7 @@ public class LibMatrixBincell
 				if( isMultiply && v2==1 ) //ROW COPY
 				{
 					if( a != null && !a.isEmpty(i)  )
-						ret.appendRow(i, a.get(i));
+						lnnz += appendRow(ret, i, a);
 				}
 				else //GENERAL CASE
 				{
@@ -572,11 +908,11 @@ public class LibMatrixBincell
 							//empty left
 							for( int k = lastIx+1; k<aix[j]; k++ ){
 								double v = op.fn.execute( 0, v2 );
-								ret.appendValue(i, k, v);
+								lnnz += appendValue(ret, i, k, v);
 							}
 							//actual value
 							double v = op.fn.execute( avals[j], v2 );
-							ret.appendValue(i, aix[j], v);	
+							lnnz += appendValue(ret, i, aix[j], v);	
 							lastIx = aix[j];
 						}
 					}
@@ -584,14 +920,14 @@ public class LibMatrixBincell
 					//empty left
 					for( int k = lastIx+1; k<clen; k++ ){
 						double v = op.fn.execute( 0, v2 );
-						ret.appendValue(i, k, v);
+						lnnz += appendValue(ret, i, k, v);
 					}
 				}
 			}
 		}
 		else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR )
 		{
-			for( int i=0; i<rlen; i++ )
+			for( int i=rl; i<ru; i++ )
 			{
 				if( skipEmpty && (a==null || a.isEmpty(i)) )
 					continue; //skip empty rows
@@ -609,12 +945,12 @@ public class LibMatrixBincell
 						for( int k = lastIx+1; k<aix[j]; k++ ){
 							double v2 = m2.quickGetValue(0, k);
 							double v = op.fn.execute( 0, v2 );
-							ret.appendValue(i, k, v);
+							lnnz += appendValue(ret, i, k, v);
 						}
 						//actual value
 						double v2 = m2.quickGetValue(0, aix[j]);
 						double v = op.fn.execute( avals[j], v2 );
-						ret.appendValue(i, aix[j], v);	
+						lnnz += appendValue(ret, i, aix[j], v);	
 						lastIx = aix[j];
 					}
 				}
@@ -623,12 +959,12 @@ public class LibMatrixBincell
 				for( int k = lastIx+1; k<clen; k++ ){
 					double v2 = m2.quickGetValue(0, k);
 					double v = op.fn.execute( 0, v2 );
-					ret.appendValue(i, k, v);
+					lnnz += appendValue(ret, i, k, v);
 				}
 			}
 		}
 		
-		//no need to recomputeNonZeros since maintained in append value
+		return lnnz;
 	}
 	
 	/**
@@ -838,7 +1174,12 @@ public class LibMatrixBincell
 		int clen = m1.clen;
 		BinaryAccessType atype = getBinaryAccessType(m1, m2);
 		
-		if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) //MATRIX - COL_VECTOR
+		if( isBinaryDenseDenseDense(m1, m2, ret, atype) ) //DENSE MM, MV
+		{
+			ret.allocateDenseBlock();
+			ret.nonZeros = binaryDenseDenseDense(m1, m2, ret, op, 0, rlen);
+		}
+		else if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) //MATRIX - COL_VECTOR
 		{
 			for(int r=0; r<rlen; r++)
 			{
@@ -887,33 +1228,85 @@ public class LibMatrixBincell
 		}
 		else // MATRIX - MATRIX
 		{
-			//dense non-empty vectors
-			if( m1.clen==1 && !m1.sparse && !m1.isEmptyBlock(false)   
-				&& !m2.sparse && !m2.isEmptyBlock(false)  )
-			{
-				ret.allocateDenseBlock();
-				double[] a = m1.denseBlock;
-				double[] b = m2.denseBlock;
-				double[] c = ret.denseBlock;
-				for( int i=0; i<rlen; i++ ) {
-					c[i] = op.fn.execute( a[i], b[i] );
-					if( c[i] != 0 ) 
-						ret.nonZeros++;
+			for(int r=0; r<rlen; r++)
+				for(int c=0; c<clen; c++)
+				{
+					double v1 = m1.quickGetValue(r, c);
+					double v2 = m2.quickGetValue(r, c);
+					double v = op.fn.execute( v1, v2 );
+					ret.appendValue(r, c, v);
 				}
+		}
+	}
+	
+	/**
+	 * Indicates if a matrix-matrix or matrix-vector operation can be computed 
+	 * via direct dense block access (dense inputs and output).
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param atype
+	 * @return
+	 */
+	private static boolean isBinaryDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryAccessType atype)
+	{
+		return !m1.sparse && !m2.sparse && !ret.sparse 
+			&& (atype == BinaryAccessType.MATRIX_MATRIX
+				|| atype == BinaryAccessType.MATRIX_COL_VECTOR
+				|| atype == BinaryAccessType.MATRIX_ROW_VECTOR);
+	}
+	
+	/**
+	 * Matrix-matrix or matrix-vector operation over dense inputs (incl empty inputs 
+	 * w/o allocated blocks) and an allocated dense output for the row range [rl, ru).
+	 * Since all cells are computed, this kernel applies to sparse-safe and -unsafe 
+	 * operations, and in-place operations (output equals left input) as well.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static long binaryDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		int clen = m1.clen;
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		
+		double[] a = m1.denseBlock;
+		double[] b = m2.denseBlock;
+		double[] c = ret.denseBlock;
+		
+		long lnnz = 0;
+		for( int i=rl, ix=rl*clen; i<ru; i++, ix+=clen )
+		{
+			if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) {
+				//replicated vector value
+				double v2 = (b!=null) ? b[i] : 0;
+				for( int j=0; j<clen; j++ )
+					c[ix+j] = op.fn.execute( (a!=null) ? a[ix+j] : 0, v2 );
 			}
-			//general case
-			else 
-			{
-				for(int r=0; r<rlen; r++)
-					for(int c=0; c<clen; c++)
-					{
-						double v1 = m1.quickGetValue(r, c);
-						double v2 = m2.quickGetValue(r, c);
-						double v = op.fn.execute( v1, v2 );
-						ret.appendValue(r, c, v);
-					}
+			else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR ) {
+				for( int j=0; j<clen; j++ )
+					c[ix+j] = op.fn.execute( (a!=null) ? a[ix+j] : 0, (b!=null) ? b[j] : 0 );
+			}
+			else { //MATRIX_MATRIX
+				for( int j=0; j<clen; j++ )
+					c[ix+j] = op.fn.execute( (a!=null) ? a[ix+j] : 0, (b!=null) ? b[ix+j] : 0 );
 			}
+			
+			//maintain nnz (w/o branchless update, see HotSpot issue with NaNs)
+			for( int j=0; j<clen; j++ )
+				if( c[ix+j] != 0 )
+					lnnz++;
 		}
+		
+		return lnnz;
 	}
 	
 	/**
@@ -935,16 +1328,88 @@ public class LibMatrixBincell
 		if( m1.sparse != ret.sparse )
 			throw new DMLRuntimeException("Unsupported safe binary scalar operations over different input/output representation: "+m1.sparse+" "+ret.sparse);
 		
+		//allocate output block (sparse rows, csr or dense block) 
+		allocateSafeScalarOutput(m1, ret);
+		
+		ret.nonZeros = safeBinaryScalar(m1, ret, op, 0, m1.rlen);
+		compactSafeScalarOutput(ret);
+	}
+	
+	/**
+	 * Allocates the output of sparse-safe scalar operations. For inputs in CSR
+	 * representation, the output is allocated as CSR block of identical structure,
+	 * which is then filled by position without per-row indirection.
+	 * 
+	 * @param m1
+	 * @param ret
+	 */
+	private static void allocateSafeScalarOutput(MatrixBlock m1, MatrixBlock ret)
+	{
+		if( m1.sparse && m1.sparseBlock instanceof SparseBlockCSR ) {
+			SparseBlockCSR a = (SparseBlockCSR)m1.sparseBlock;
+			int nnz = (int)a.size();
+			ret.sparseBlock = new SparseBlockCSR(
+				Arrays.copyOf(a.rowPointers(), a.numRows()+1),
+				Arrays.copyOf(a.indexes(), nnz), new double[nnz], nnz);
+		}
+		else if( m1.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock(true);
+	}
+	
+	/**
+	 * Removes zeros from CSR outputs of sparse-safe scalar operations, 
+	 * which are only present if the operation produced zero values.
+	 * 
+	 * @param ret
+	 */
+	private static void compactSafeScalarOutput(MatrixBlock ret)
+	{
+		if( ret.sparse && ret.sparseBlock instanceof SparseBlockCSR 
+			&& ret.nonZeros < ret.sparseBlock.size() )
+			((SparseBlockCSR)ret.sparseBlock).compact();
+	}
+	
+	/**
+	 * Sparse-safe scalar operation for the row range [rl, ru) over a preallocated 
+	 * output block of the same representation as the input.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long safeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
 		boolean copyOnes = (op.fn instanceof NotEquals && op.getConstant()==0);
+		long lnnz = 0;
 		
-		if( m1.sparse ) //SPARSE <- SPARSE
+		if( m1.sparse && m1.sparseBlock instanceof SparseBlockCSR 
+			&& ret.sparseBlock instanceof SparseBlockCSR ) //CSR <- CSR
+		{
+			//output of identical structure, filled by position
+			SparseBlockCSR a = (SparseBlockCSR)m1.sparseBlock;
+			int[] aptr = a.rowPointers();
+			double[] avals = a.values();
+			double[] cvals = ((SparseBlockCSR)ret.sparseBlock).values();
+			
+			int limit = aptr[Math.min(ru, a.numRows())];
+			for( int j=aptr[rl]; j<limit; j++ ) {
+				cvals[j] = op.executeScalar(avals[j]);
+				lnnz += (cvals[j] != 0) ? 1 : 0;
+			}
+		}
+		else if( m1.sparse ) //SPARSE <- SPARSE
 		{	
-			//allocate sparse row structure
-			ret.allocateSparseRowsBlock();
 			SparseBlock a = m1.sparseBlock;
 			SparseBlock c = ret.sparseBlock;
 			
-			for(int r=0; r<Math.min(m1.rlen, a.numRows()); r++) {
+			for(int r=rl; r<Math.min(ru, a.numRows()); r++) {
 				if( !a.isEmpty(r) )
 				{
 					int apos = a.pos(r);
@@ -962,7 +1427,7 @@ public class LibMatrixBincell
 						System.arraycopy(aix, apos, crow.indexes(), 0, alen);
 						Arrays.fill(crow.values(), 0, alen, 1);
 						c.set(r, crow, false);
-						ret.nonZeros+=alen;
+						lnnz+=alen;
 					}
 					else //GENERAL CASE
 					{
@@ -975,7 +1440,7 @@ public class LibMatrixBincell
 						
 						for(int j=apos; j<apos+alen; j++) {
 							double val = op.executeScalar(avals[j]);
-							ret.appendValue(r, aix[j], val);
+							lnnz += appendValue(ret, r, aix[j], val);
 						}
 					}
 				}
@@ -983,21 +1448,19 @@ public class LibMatrixBincell
 		}
 		else //DENSE <- DENSE
 		{
-			//allocate dense block
-			ret.allocateDenseBlock(true);
-		
 			double[] a = m1.denseBlock;
 			double[] c = ret.denseBlock;
 			
-			int limit = m1.rlen*m1.clen;
-			for( int i=0; i<limit; i++ )
+			int limit = ru*m1.clen;
+			for( int i=rl*m1.clen; i<limit; i++ )
 			{
 				c[i] = op.executeScalar( a[i] );
 				if( c[i] != 0 )
-					ret.nonZeros++;
+					lnnz++;
 			}
 		}
 		
+		return lnnz;
 	}
 	
 	/**
@@ -1024,21 +1487,41 @@ public class LibMatrixBincell
 		if( ret.sparse )
 			throw new DMLRuntimeException("Unsupported unsafe binary scalar operations over sparse output representation.");
 		
+		//allocate dense block (if necessary), incl clear nnz
+		ret.allocateDenseBlock(true);
+		
+		ret.nonZeros = unsafeBinaryScalar(m1, ret, op, 0, m1.rlen);
+	}
+	
+	/**
+	 * Sparse-unsafe scalar operation for the row range [rl, ru) over a 
+	 * preallocated dense output block.
+	 * 
+	 * @param m1
+	 * @param ret
+	 * @param op
+	 * @param rl
+	 * @param ru
+	 * @return number of non-zeros in the given row range
+	 * @throws DMLRuntimeException
+	 */
+	private static long unsafeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		long lnnz = 0;
+		
 		if( m1.sparse ) //SPARSE MATRIX
 		{
-			ret.allocateDenseBlock();
-			
 			SparseBlock a = m1.sparseBlock;
 			double[] c = ret.denseBlock;			
-			int m = m1.rlen;
 			int n = m1.clen;
 			
 			//init dense result with unsafe 0-value
 			double cval0 = op.executeScalar(0);
-			Arrays.fill(c, cval0);
+			Arrays.fill(c, rl*n, ru*n, cval0);
 			
 			//compute non-zero input values
-			for(int i=0, cix=0; i<m; i++, cix+=n) 
+			for(int i=rl, cix=rl*n; i<ru; i++, cix+=n) 
 			{
 				if( !a.isEmpty(i) ) {
 					int apos = a.pos(i);
@@ -1053,25 +1536,24 @@ public class LibMatrixBincell
 			}
 		
 			//recompute non zeros 
-			ret.recomputeNonZeros();
+			lnnz = ret.recomputeNonZeros(rl, ru-1, 0, n-1);
 		}
 		else //DENSE MATRIX
 		{
-			//allocate dense block (if necessary), incl clear nnz
-			ret.allocateDenseBlock(true);
-			
 			double[] a = m1.denseBlock;
 			double[] c = ret.denseBlock;
 			
 			//compute scalar operation, incl nnz maintenance
-			int limit = m1.rlen*m1.clen;
-			for( int i=0; i<limit; i++ )
+			int limit = ru*m1.clen;
+			for( int i=rl*m1.clen; i<limit; i++ )
 			{
 				c[i] = op.executeScalar( a[i] );
 				if( c[i] != 0 )
-					ret.nonZeros++;
+					lnnz++;
 			}
 		}
+		
+		return lnnz;
 	}
 
 	/**
@@ -1096,7 +1578,11 @@ public class LibMatrixBincell
 		int rlen = m1ret.rlen;
 		int clen = m1ret.clen;
 		
-		if(m1ret.sparse && m2.sparse)
+		if( isBinaryInPlaceDense(m1ret, m2) ) //DENSE <- DENSE
+		{
+			m1ret.nonZeros = binaryDenseDenseDense(m1ret, m2, m1ret, op, 0, rlen);
+		}
+		else if(m1ret.sparse && m2.sparse)
 		{
 			if(m1ret.sparseBlock!=null)
 				m1ret.allocateSparseRowsBlock(false);
@@ -1136,13 +1622,13 @@ public class LibMatrixBincell
 						if(thisRow!=null)
 						{
 							m1ret.nonZeros-=thisRow.size();
-							mergeForSparseBinary(op, thisRow.values(), thisRow.indexes(), 0, 
+							m1ret.nonZeros += mergeForSparseBinary(op, thisRow.values(), thisRow.indexes(), 0, 
 									thisRow.size(), b.values(r), b.indexes(r), b.pos(r), b.size(r), r, m1ret);
 							
 						}
 						else
 						{
-							appendRightForSparseBinary(op, b.values(r), b.indexes(r), b.pos(r), b.size(r), 0, r, m1ret);
+							m1ret.nonZeros += appendRightForSparseBinary(op, b.values(r), b.indexes(r), b.pos(r), b.size(r), 0, r, m1ret);
 						}
 					}
 				}	
@@ -1154,9 +1640,8 @@ public class LibMatrixBincell
 				for(int r=0; r<rlen; r++)
 				{
 					if( !b.isEmpty(r) ) {
-						SparseRow tmp = new SparseRow( b.size(r), clen );
-						appendRightForSparseBinary(op, b.values(r), b.indexes(r), b.pos(r), b.size(r), 0, r, m1ret);
-						m1ret.sparseBlock.set(r, tmp, false);
+						m1ret.sparseBlock.set(r, new SparseRow(b.size(r), clen), false);
+						m1ret.nonZeros += appendRightForSparseBinary(op, b.values(r), b.indexes(r), b.pos(r), b.size(r), 0, r, m1ret);
 					}
 				}				
 			}
@@ -1207,7 +1692,11 @@ public class LibMatrixBincell
 		int clen = m1ret.clen;
 		BinaryAccessType atype = getBinaryAccessType(m1ret, m2);
 		
-		if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) //MATRIX - COL_VECTOR
+		if( isBinaryInPlaceDense(m1ret, m2) ) //DENSE <- DENSE
+		{
+			m1ret.nonZeros = binaryDenseDenseDense(m1ret, m2, m1ret, op, 0, rlen);
+		}
+		else if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) //MATRIX - COL_VECTOR
 		{
 			for(int r=0; r<rlen; r++)
 			{
@@ -1246,6 +1735,23 @@ public class LibMatrixBincell
 		}
 	}
 	
+	/**
+	 * Indicates if an in-place operation can be computed via direct dense block 
+	 * access, which requires an allocated dense left input and a dense right input.
+	 * 
+	 * @param m1ret
+	 * @param m2
+	 * @return
+	 */
+	private static boolean isBinaryInPlaceDense(MatrixBlock m1ret, MatrixBlock m2)
+	{
+		BinaryAccessType atype = getBinaryAccessType(m1ret, m2);
+		return !m1ret.sparse && m1ret.denseBlock!=null && !m2.sparse 
+			&& (atype == BinaryAccessType.MATRIX_MATRIX
+				|| atype == BinaryAccessType.MATRIX_COL_VECTOR
+				|| atype == BinaryAccessType.MATRIX_ROW_VECTOR);
+	}
+	
 	/**
 	 * * like a merge sort
 	 * 
@@ -1260,10 +1766,11 @@ public class LibMatrixBincell
 	 * @param result
 	 * @throws DMLRuntimeException
 	 */
-	private static void mergeForSparseBinary(BinaryOperator op, double[] values1, int[] cols1, int pos1, int size1, 
+	private static long mergeForSparseBinary(BinaryOperator op, double[] values1, int[] cols1, int pos1, int size1, 
 				double[] values2, int[] cols2, int pos2, int size2, int resultRow, MatrixBlock result) 
 		throws DMLRuntimeException
 	{
+		long lnnz = 0;
 		int p1=0, p2=0, column;
 		while( p1<size1 && p2< size2 )
 		{
@@ -1287,12 +1794,14 @@ public class LibMatrixBincell
 				column = cols2[pos2+p2];
 				p2++;
 			}
-			result.appendValue(resultRow, column, value);	
+			lnnz += appendValue(result, resultRow, column, value);	
 		}
 		
 		//add left over
-		appendLeftForSparseBinary(op, values1, cols1, pos1, size1, p1, resultRow, result);
-		appendRightForSparseBinary(op, values2, cols2, pos2, size2, p2, resultRow, result);
+		lnnz += appendLeftForSparseBinary(op, values1, cols1, pos1, size1, p1, resultRow, result);
+		lnnz += appendRightForSparseBinary(op, values2, cols2, pos2, size2, p2, resultRow, result);
+		
+		return lnnz;
 	}
 	
 	/**
@@ -1307,14 +1816,16 @@ public class LibMatrixBincell
 	 * @param result
 	 * @throws DMLRuntimeException
 	 */
-	private static void appendLeftForSparseBinary(BinaryOperator op, double[] values1, int[] cols1, int pos1, int size1, 
+	private static long appendLeftForSparseBinary(BinaryOperator op, double[] values1, int[] cols1, int pos1, int size1, 
 				int pos, int resultRow, MatrixBlock result) 
 		throws DMLRuntimeException
 	{
+		long lnnz = 0;
 		for(int j=pos1+pos; j<pos1+size1; j++) {
 			double v = op.fn.execute(values1[j], 0);
-			result.appendValue(resultRow, cols1[j], v);
+			lnnz += appendValue(result, resultRow, cols1[j], v);
 		}
+		return lnnz;
 	}
 	
 	/**
@@ -1329,14 +1840,118 @@ public class LibMatrixBincell
 	 * @param result
 	 * @throws DMLRuntimeException
 	 */
-	private static void appendRightForSparseBinary(BinaryOperator op, double[] values2, int[] cols2, int pos2, int size2, 
+	private static long appendRightForSparseBinary(BinaryOperator op, double[] values2, int[] cols2, int pos2, int size2, 
 		int pos, int resultRow, MatrixBlock result) throws DMLRuntimeException
 	{
+		long lnnz = 0;
 		for( int j=pos2+pos; j<pos2+size2; j++ ) {
 			double v = op.fn.execute(0, values2[j]);
-			result.appendValue(resultRow, cols2[j], v);
+			lnnz += appendValue(result, resultRow, cols2[j], v);
+		}
+		return lnnz;
+	}
+	
+	/**
+	 * Appends a single value to a preallocated output block, without nnz 
+	 * maintenance in order to allow concurrent appends to disjoint rows.
+	 * 
+	 * @param ret
+	 * @param r
+	 * @param c
+	 * @param v
+	 * @return number of appended non-zeros
+	 */
+	private static int appendValue(MatrixBlock ret, int r, int c, double v)
+	{
+		//early abort (append guarantees no overwrite)
+		if( v == 0 )
+			return 0;
+		
+		if( ret.sparse ) {
+			ret.sparseBlock.allocate(r, ret.estimatedNNzsPerRow, ret.clen);
+			ret.sparseBlock.append(r, c, v);
+		}
+		else {
+			ret.denseBlock[r*ret.clen+c] = v;
 		}
+		return 1;
 	}
 	
+	/**
+	 * Copies a non-empty sparse row into a preallocated output block, without nnz
+	 * maintenance in order to allow concurrent appends to disjoint rows.
+	 * 
+	 * @param ret
+	 * @param r
+	 * @param a
+	 * @return number of appended non-zeros
+	 */
+	private static long appendRow(MatrixBlock ret, int r, SparseBlock a)
+	{
+		if( ret.sparse ) {
+			ret.sparseBlock.set(r, a.get(r), true);
+		}
+		else {
+			int apos = a.pos(r);
+			int alen = a.size(r);
+			int[] aix = a.indexes(r);
+			double[] avals = a.values(r);
+			double[] c = ret.denseBlock;
+			for( int j=apos, cix=r*ret.clen; j<apos+alen; j++ )
+				c[cix+aix[j]] = avals[j];
+		}
+		return a.size(r);
+	}
+	
+	/**
+	 * Task for the multi-threaded execution of a row-range kernel, 
+	 * returning the number of non-zeros of its row partition.
+	 */
+	private static class BincellTask implements Callable<Long> 
+	{
+		private BincellKernel _kernel = null;
+		private MatrixBlock _m1 = null;
+		private MatrixBlock _m2 = null;
+		private MatrixBlock _ret = null;
+		private Operator _op = null;
+		private boolean _aligned = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected BincellTask( BincellKernel kernel, MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, Operator op, boolean aligned, int rl, int ru ) {
+			_kernel = kernel;
+			_m1 = m1;
+			_m2 = m2;
+			_ret = ret;
+			_op = op;
+			_aligned = aligned;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException
+		{
+			switch( _kernel ) {
+				case SAFE_SCALAR:
+					return safeBinaryScalar(_m1, _ret, (ScalarOperator)_op, _rl, _ru);
+				case UNSAFE_SCALAR:
+					return unsafeBinaryScalar(_m1, _ret, (ScalarOperator)_op, _rl, _ru);
+				case SAFE_MM_SPARSE_SPARSE:
+					return safeBinaryMMSparseSparse(_m1, _m2, _ret, (BinaryOperator)_op, _aligned, _rl, _ru);
+				case SAFE_MM_SPARSE_DENSE:
+					return safeBinaryMMSparseDenseDense(_m1, _m2, _ret, (BinaryOperator)_op, _rl, _ru);
+				case SAFE_MM_DENSE:
+					return safeBinaryMMDenseDenseDense(_m1, _m2, _ret, (BinaryOperator)_op, _rl, _ru);
+				case SAFE_MV_DENSE:
+					return safeBinaryMVDense(_m1, _m2, _ret, (BinaryOperator)_op, _rl, _ru);
+				case SAFE_MV_SPARSE:
+					return safeBinaryMVSparse(_m1, _m2, _ret, (BinaryOperator)_op, _rl, _ru);
+				case DENSE_DENSE_DENSE:
+					return binaryDenseDenseDense(_m1, _m2, _ret, (BinaryOperator)_op, _rl, _ru);
+				default:
+					throw new DMLRuntimeException("Unsupported bincell kernel: "+_kernel);
+			}
+		}
+	}
 }
-
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.CTable;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+
+/**
+ * Library for ctable operations via hash aggregation into ctable maps, i.e., 
+ * ctable(A,B,W), ctable(A,B,w), ctable(A,v2,W), and ctable(A,v2,w) with unknown or
+ * sparse output dimensions. The second and third inputs are either matrices of
+ * the same dimensions as the first input or scalars. For large inputs, row 
+ * partitions are aggregated into thread-local ctable maps, which are finally 
+ * merged into the result map.
+ * 
+ */
+public class LibMatrixCTable 
+{
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
+	
+	private LibMatrixCTable() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * 
+	 * @param in1 first input matrix
+	 * @param in2 second input matrix, or null if scalar
+	 * @param scalar2 second input scalar (if in2 is null)
+	 * @param in3 third input matrix (weights), or null if scalar
+	 * @param scalar3 third input scalar (if in3 is null)
+	 * @param ignoreZeros if true, ignore cells where both inputs are zero
+	 * @param resultMap output ctable map
+	 * @param k degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	public static void ctable(MatrixBlock in1, MatrixBlock in2, double scalar2, MatrixBlock in3, double scalar3, 
+			boolean ignoreZeros, CTableMap resultMap, int k) 
+		throws DMLRuntimeException
+	{
+		//early abort on empty blocks for sparse-safe ctable
+		if( isSparseSafe(in1, in2, in3, ignoreZeros) 
+			&& in1.isEmptyBlock(false) && in2.isEmptyBlock(false) )
+			return;
+		
+		//sequential execution for small inputs
+		if( k <= 1 || (long)in1.rlen*in1.clen < PAR_NUMCELL_THRESHOLD || in1.rlen <= k ) {
+			ctable(in1, in2, scalar2, in3, scalar3, ignoreZeros, resultMap, 0, in1.rlen);
+			return;
+		}
+		
+		//multi-threaded execution over row partitions
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<CTableTask> tasks = new ArrayList<CTableTask>();
+			int m = in1.rlen;
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add( new CTableTask(in1, in2, scalar2, in3, scalar3, ignoreZeros, i*blklen, Math.min((i+1)*blklen, m)) );
+			List<Future<CTableMap>> taskret = pool.invokeAll(tasks);	
+			pool.shutdown();
+			
+			//merge partial ctable maps 
+			for( Future<CTableMap> task : taskret )
+				resultMap.aggregate(task.get());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in1
+	 * @param in2
+	 * @param in3
+	 * @param ignoreZeros
+	 * @return
+	 */
+	private static boolean isSparseSafe(MatrixBlock in1, MatrixBlock in2, MatrixBlock in3, boolean ignoreZeros) {
+		//note: only used if both inputs have aligned zeros, which
+		//allows us to infer that the nnz both inputs are equivalent
+		return ignoreZeros && in2 != null && in3 == null 
+			&& in1.sparse && in2.sparse;
+	}
+	
+	/**
+	 * 
+	 * @param in1
+	 * @param in2
+	 * @param scalar2
+	 * @param in3
+	 * @param scalar3
+	 * @param ignoreZeros
+	 * @param resultMap
+	 * @param rl
+	 * @param ru
+	 * @throws DMLRuntimeException
+	 */
+	private static void ctable(MatrixBlock in1, MatrixBlock in2, double scalar2, MatrixBlock in3, double scalar3, 
+			boolean ignoreZeros, CTableMap resultMap, int rl, int ru) 
+		throws DMLRuntimeException
+	{
+		CTable ctable = CTable.getCTableFnObject();
+		int clen = in1.clen;
+		
+		if( isSparseSafe(in1, in2, in3, ignoreZeros) ) //SPARSE-SAFE & SPARSE INPUTS
+		{
+			if( in1.isEmptyBlock(false) && in2.isEmptyBlock(false) )
+				return;
+			
+			SparseBlock a = in1.sparseBlock;
+			SparseBlock b = in2.sparseBlock;
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) ) continue;
+				int alen = a.size(i);
+				int apos = a.pos(i);
+				double[] avals = a.values(i);
+				int bpos = b.pos(i);
+				double[] bvals = b.values(i); 
+				for( int j=0; j<alen; j++ )
+					ctable.execute(avals[apos+j], bvals[bpos+j], scalar3, ignoreZeros, resultMap);
+			}
+		}
+		else if( isDense(in1) && (in2==null || isDense(in2)) && (in3==null || isDense(in3)) ) //DENSE INPUTS
+		{
+			double[] a = in1.denseBlock;
+			double[] b = (in2 != null) ? in2.denseBlock : null;
+			double[] w = (in3 != null) ? in3.denseBlock : null;
+			for( int i=rl, ix=rl*clen; i<ru; i++ )
+				for( int j=0; j<clen; j++, ix++ )
+					ctable.execute(a[ix], (b!=null) ? b[ix] : scalar2, 
+						(w!=null) ? w[ix] : scalar3, ignoreZeros, resultMap);
+		}
+		else //SPARSE-UNSAFE | GENERIC INPUTS
+		{
+			//sparse-unsafe ctable execution
+			//(because input values of 0 are invalid and have to result in errors) 
+			for( int i=rl; i<ru; i++ )
+				for( int j=0; j<clen; j++ ) {
+					double v1 = in1.quickGetValue(i, j);
+					double v2 = (in2 != null) ? in2.quickGetValue(i, j) : scalar2;
+					double w = (in3 != null) ? in3.quickGetValue(i, j) : scalar3;
+					ctable.execute(v1, v2, w, ignoreZeros, resultMap);
+				}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @return
+	 */
+	private static boolean isDense(MatrixBlock in) {
+		return !in.sparse && in.denseBlock != null;
+	}
+	
+	/**
+	 * 
+	 */
+	private static class CTableTask implements Callable<CTableMap> 
+	{
+		private final MatrixBlock _in1;
+		private final MatrixBlock _in2;
+		private final double _scalar2;
+		private final MatrixBlock _in3;
+		private final double _scalar3;
+		private final boolean _ignoreZeros;
+		private final int _rl;
+		private final int _ru;
+		
+		protected CTableTask( MatrixBlock in1, MatrixBlock in2, double scalar2, MatrixBlock in3, double scalar3, boolean ignoreZeros, int rl, int ru ) {
+			_in1 = in1;
+			_in2 = in2;
+			_scalar2 = scalar2;
+			_in3 = in3;
+			_scalar3 = scalar3;
+			_ignoreZeros = ignoreZeros;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public CTableMap call() throws DMLRuntimeException {
+			CTableMap map = new CTableMap();
+			ctable(_in1, _in2, _scalar2, _in3, _scalar3, _ignoreZeros, map, _rl, _ru);
+			return map;
+		}
+	}
+}
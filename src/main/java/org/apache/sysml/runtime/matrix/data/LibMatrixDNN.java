@@ -20,13 +20,16 @@ package org.apache.sysml.runtime.matrix.data;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.ConvolutionUtils;
 
 public class LibMatrixDNN {
@@ -55,7 +58,8 @@ public class LibMatrixDNN {
 	}
 	
 	enum TaskType {
-		ReshapeCol, Rotate180, Im2Col, Col2Im, MaxPooling_Forward, MaxPooling_Backward
+		ReshapeCol, Rotate180, Im2Col, Col2Im, MaxPooling_Forward, MaxPooling_Backward,
+		DirectConv2d, DirectConv2dBackwardFilter, DirectConv2dBackwardData
 	}
 	public static final int TASK_SIZE = 64; // to take care of extremely small tasks
 	
@@ -135,6 +139,294 @@ public class LibMatrixDNN {
 		}
 	}
 	
+	// Direct conv2d of a 4D tensor (N, C, H, W) with filter (K, C, R, S) into a 4D tensor (N, K, P, Q),
+	// computed per image over a transposed im2col scratch of size (PQ, CRS) instead of the full im2col matrix
+	public static void conv2d(MatrixBlock input, MatrixBlock filter, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
+		params.input1 = input;
+		params.input2 = filter;
+		params.output = outputBlock;
+		
+		if(input.getNumColumns() != params.C*params.H*params.W || input.getNumRows() != params.N) {
+			throw new DMLRuntimeException("Incorrect input dimensions in conv2d:" + input.getNumRows() + " " + input.getNumColumns() + " " + params.N + " " + params.C*params.H*params.W);
+		}
+		if(filter.getNumColumns() != params.C*params.R*params.S || filter.getNumRows() != params.K) {
+			throw new DMLRuntimeException("Incorrect filter dimensions in conv2d:" + filter.getNumRows() + " " + filter.getNumColumns() + " " + params.K + " " + params.C*params.R*params.S);
+		}
+		
+		runConvImageTasks(TaskType.DirectConv2d, params);
+		outputBlock.recomputeNonZeros();
+	}
+	
+	// Direct conv2d_backward_filter: dfilter (K, CRS) = sum_n dout_n (K, PQ) %*% t(im2col(input_n)) 
+	public static void conv2d_backward_filter(MatrixBlock input, MatrixBlock dout, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
+		params.input1 = input;
+		params.input2 = dout;
+		params.output = outputBlock;
+		
+		if(input.getNumColumns() != params.C*params.H*params.W || input.getNumRows() != params.N) {
+			throw new DMLRuntimeException("Incorrect input dimensions in conv2d_backward_filter:" + input.getNumRows() + " " + input.getNumColumns() + " " + params.N + " " + params.C*params.H*params.W);
+		}
+		if(dout.getNumColumns() != params.K*params.P*params.Q || dout.getNumRows() != params.N) {
+			throw new DMLRuntimeException("Incorrect dout dimensions in conv2d_backward_filter:" + dout.getNumRows() + " " + dout.getNumColumns() + " " + params.N + " " + params.K*params.P*params.Q);
+		}
+		
+		runConvImageTasks(TaskType.DirectConv2dBackwardFilter, params);
+		outputBlock.recomputeNonZeros();
+	}
+	
+	// Direct conv2d_backward_data: dinput_n (C, HW) = col2im(t(filter) %*% dout_n)
+	public static void conv2d_backward_data(MatrixBlock filter, MatrixBlock dout, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
+		params.input1 = filter;
+		params.input2 = dout;
+		params.output = outputBlock;
+		
+		if(filter.getNumColumns() != params.C*params.R*params.S || filter.getNumRows() != params.K) {
+			throw new DMLRuntimeException("Incorrect filter dimensions in conv2d_backward_data:" + filter.getNumRows() + " " + filter.getNumColumns() + " " + params.K + " " + params.C*params.R*params.S);
+		}
+		if(dout.getNumColumns() != params.K*params.P*params.Q || dout.getNumRows() != params.N) {
+			throw new DMLRuntimeException("Incorrect dout dimensions in conv2d_backward_data:" + dout.getNumRows() + " " + dout.getNumColumns() + " " + params.N + " " + params.K*params.P*params.Q);
+		}
+		
+		runConvImageTasks(TaskType.DirectConv2dBackwardData, params);
+		outputBlock.recomputeNonZeros();
+	}
+	
+	// Runs the given direct convolution over all images, either sequentially or with one task per 
+	// range of images, where each task allocates its scratch space once and returns its partial result
+	private static void runConvImageTasks(TaskType type, ConvolutionParameters params) throws DMLRuntimeException {
+		int constrainedNumThreads = OptimizerUtils.getConstrainedNumThreads(params.numThreads);
+		ArrayList<ConvTask> tasks = new ArrayList<ConvTask>();
+		if(!ALLOW_MULTI_THREADED_OPS || constrainedNumThreads <= 1 || params.N <= 1) {
+			tasks.add(new ConvTask(0, params.N, 0, 1, type, params));
+		}
+		else {
+			int blklen = (int)Math.ceil((double)params.N/constrainedNumThreads);
+			for( int n = 0; n < params.N; n += blklen )
+				tasks.add(new ConvTask(n, Math.min(n+blklen, params.N), 0, 1, type, params));
+		}
+		
+		double[] outputArray = params.output.getDenseBlock();
+		try {
+			ExecutorService pool = CommonThreadPool.get( Math.min(constrainedNumThreads, tasks.size()) );
+			List<Future<Object>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : taskret ) {
+				Object partial = task.get();
+				// aggregate partial dfilter of each task
+				if( partial != null ) {
+					double[] tmp = (double[]) partial;
+					for( int i = 0; i < tmp.length; i++ )
+						outputArray[i] += tmp[i];
+				}
+			}
+		} 
+		catch (Exception e) {
+			throw new DMLRuntimeException("Error while executing multi-threaded " + type.name(), e);
+		}
+	}
+	
+	// Computes the transposed im2col (PQ, CRS) of the given image into the zeroed scratch ret,
+	// where sparse inputs are processed per non-zero (scattered to all overlapping patches)
+	private static void doIm2colTranspose(int n, ConvolutionParameters params, double[] ret) {
+		MatrixBlock input = params.input1;
+		final int CRS = params.C*params.R*params.S;
+		final int RS = params.R*params.S;
+		final int HW = params.H*params.W;
+		Arrays.fill(ret, 0);
+		
+		if( input.isEmptyBlock(false) ) 
+			return;
+		
+		if( !input.isInSparseFormat() ) {
+			double[] inputArray = input.getDenseBlock();
+			final int inputOffset = n*params.C*HW;
+			for (int p = 0; p < params.P; p++) {
+				for (int q = 0; q < params.Q; q++) {
+					int retOffset = (p*params.Q + q)*CRS;
+					for (int c = 0; c < params.C; c++) {
+						for (int r = 0; r < params.R; r++) {
+							int h = p*params.stride_h - params.pad_h + r;
+							if( h < 0 || h >= params.H )
+								continue;
+							for (int s = 0; s < params.S; s++) {
+								int w = q*params.stride_w - params.pad_w + s;
+								if( w >= 0 && w < params.W )
+									ret[retOffset + c*RS + r*params.S + s] = inputArray[inputOffset + c*HW + h*params.W + w];
+							}
+						}
+					}
+				}
+			}
+		}
+		else if( !input.getSparseBlock().isEmpty(n) ) {
+			SparseBlock a = input.getSparseBlock();
+			int apos = a.pos(n);
+			int alen = a.size(n);
+			int[] aix = a.indexes(n);
+			double[] avals = a.values(n);
+			for (int j = apos; j < apos+alen; j++) {
+				int c = aix[j] / HW;
+				int h = (aix[j] % HW) / params.W;
+				int w = aix[j] % params.W;
+				for (int r = 0; r < params.R; r++) {
+					int ph = h + params.pad_h - r;
+					if( ph < 0 || ph % params.stride_h != 0 || ph/params.stride_h >= params.P )
+						continue;
+					int p = ph / params.stride_h;
+					for (int s = 0; s < params.S; s++) {
+						int qw = w + params.pad_w - s;
+						if( qw < 0 || qw % params.stride_w != 0 || qw/params.stride_w >= params.Q )
+							continue;
+						int q = qw / params.stride_w;
+						ret[(p*params.Q + q)*CRS + c*RS + r*params.S + s] = avals[j];
+					}
+				}
+			}
+		}
+	}
+	
+	private static void doConv2d(int n1, int n2, ConvolutionParameters params) {
+		final int CRS = params.C*params.R*params.S;
+		final int PQ = params.P*params.Q;
+		final int KPQ = params.K*PQ;
+		MatrixBlock filter = params.input2;
+		double[] outputArray = params.output.getDenseBlock();
+		if( filter.isEmptyBlock(false) )
+			return;
+		
+		double[] im2colT = new double[PQ*CRS];
+		for (int n = n1; n < n2; n++) {
+			doIm2colTranspose(n, params, im2colT);
+			for (int k = 0; k < params.K; k++) {
+				int outOffset = n*KPQ + k*PQ;
+				if( !filter.isInSparseFormat() ) {
+					double[] filterArray = filter.getDenseBlock();
+					for (int pq = 0; pq < PQ; pq++)
+						outputArray[outOffset + pq] = LibMatrixMult.dotProduct(filterArray, im2colT, k*CRS, pq*CRS, CRS);
+				}
+				else if( !filter.getSparseBlock().isEmpty(k) ) {
+					SparseBlock f = filter.getSparseBlock();
+					int fpos = f.pos(k);
+					int flen = f.size(k);
+					int[] fix = f.indexes(k);
+					double[] fvals = f.values(k);
+					for (int pq = 0; pq < PQ; pq++)
+						outputArray[outOffset + pq] = LibMatrixMult.dotProduct(fvals, im2colT, fix, fpos, pq*CRS, flen);
+				}
+			}
+		}
+	}
+	
+	private static double[] doConv2dBackwardFilter(int n1, int n2, ConvolutionParameters params) {
+		final int CRS = params.C*params.R*params.S;
+		final int PQ = params.P*params.Q;
+		final int KPQ = params.K*PQ;
+		MatrixBlock dout = params.input2;
+		double[] partial = new double[params.K*CRS];
+		if( dout.isEmptyBlock(false) )
+			return partial;
+		
+		double[] im2colT = new double[PQ*CRS];
+		for (int n = n1; n < n2; n++) {
+			if( dout.isInSparseFormat() && dout.getSparseBlock().isEmpty(n) )
+				continue;
+			doIm2colTranspose(n, params, im2colT);
+			// dfilter[k, ] += dout[n, k, pq] * im2colT[pq, ] for all non-zeros of dout
+			if( !dout.isInSparseFormat() ) {
+				double[] doutArray = dout.getDenseBlock();
+				for (int k = 0; k < params.K; k++)
+					for (int pq = 0; pq < PQ; pq++) {
+						double val = doutArray[n*KPQ + k*PQ + pq];
+						if( val != 0 )
+							LibMatrixMult.vectMultiplyAdd(val, im2colT, partial, pq*CRS, k*CRS, CRS);
+					}
+			}
+			else {
+				SparseBlock d = dout.getSparseBlock();
+				int dpos = d.pos(n);
+				int dlen = d.size(n);
+				int[] dix = d.indexes(n);
+				double[] dvals = d.values(n);
+				for (int j = dpos; j < dpos+dlen; j++) {
+					int k = dix[j] / PQ;
+					int pq = dix[j] % PQ;
+					LibMatrixMult.vectMultiplyAdd(dvals[j], im2colT, partial, pq*CRS, k*CRS, CRS);
+				}
+			}
+		}
+		return partial;
+	}
+	
+	private static void doConv2dBackwardData(int n1, int n2, ConvolutionParameters params) {
+		final int CRS = params.C*params.R*params.S;
+		final int RS = params.R*params.S;
+		final int PQ = params.P*params.Q;
+		final int KPQ = params.K*PQ;
+		final int CHW = params.C*params.H*params.W;
+		final int HW = params.H*params.W;
+		MatrixBlock filter = params.input1;
+		MatrixBlock dout = params.input2;
+		double[] outputArray = params.output.getDenseBlock();
+		if( filter.isEmptyBlock(false) || dout.isEmptyBlock(false) )
+			return;
+		
+		double[] colT = new double[PQ*CRS];
+		for (int n = n1; n < n2; n++) {
+			if( dout.isInSparseFormat() && dout.getSparseBlock().isEmpty(n) )
+				continue;
+			Arrays.fill(colT, 0);
+			
+			// colT[pq, ] += dout[n, k, pq] * filter[k, ] for all non-zeros of dout
+			if( !dout.isInSparseFormat() ) {
+				double[] doutArray = dout.getDenseBlock();
+				for (int k = 0; k < params.K; k++)
+					for (int pq = 0; pq < PQ; pq++) {
+						double val = doutArray[n*KPQ + k*PQ + pq];
+						if( val != 0 )
+							addScaledFilterRow(val, filter, k, colT, pq*CRS, CRS);
+					}
+			}
+			else {
+				SparseBlock d = dout.getSparseBlock();
+				int dpos = d.pos(n);
+				int dlen = d.size(n);
+				int[] dix = d.indexes(n);
+				double[] dvals = d.values(n);
+				for (int j = dpos; j < dpos+dlen; j++)
+					addScaledFilterRow(dvals[j], filter, dix[j] / PQ, colT, (dix[j] % PQ)*CRS, CRS);
+			}
+			
+			// col2im of colT into the output image (taking care of padding & striding)
+			for (int p = 0; p < params.P; p++) {
+				for (int q = 0; q < params.Q; q++) {
+					int colOffset = (p*params.Q + q)*CRS;
+					for (int c = 0; c < params.C; c++) {
+						for (int r = 0; r < params.R; r++) {
+							int h = p*params.stride_h - params.pad_h + r;
+							if( h < 0 || h >= params.H )
+								continue;
+							for (int s = 0; s < params.S; s++) {
+								int w = q*params.stride_w - params.pad_w + s;
+								if( w >= 0 && w < params.W )
+									outputArray[n*CHW + c*HW + h*params.W + w] += colT[colOffset + c*RS + r*params.S + s];
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	private static void addScaledFilterRow(double val, MatrixBlock filter, int k, double[] c, int ci, int CRS) {
+		if( !filter.isInSparseFormat() ) {
+			LibMatrixMult.vectMultiplyAdd(val, filter.getDenseBlock(), c, k*CRS, ci, CRS);
+		}
+		else if( !filter.getSparseBlock().isEmpty(k) ) {
+			SparseBlock f = filter.getSparseBlock();
+			LibMatrixMult.vectMultiplyAdd(val, f.values(k), c, f.indexes(k), f.pos(k), ci, f.size(k));
+		}
+	}
+	
 	public static void maxpooling_backward(MatrixBlock input, MatrixBlock dout, MatrixBlock outputBlock, ConvolutionParameters params) throws DMLRuntimeException {
 		params.input1 = input;
 		params.input2 = dout;
@@ -337,7 +629,7 @@ public class LibMatrixDNN {
 			}
 		}
 
-		ExecutorService pool = Executors.newFixedThreadPool( Math.min(constrainedNumThreads, tasks.size()) );
+		ExecutorService pool = CommonThreadPool.get( Math.min(constrainedNumThreads, tasks.size()) );
 		try {
 			pool.invokeAll(tasks);
 		} catch (InterruptedException e) {
@@ -400,6 +692,14 @@ public class LibMatrixDNN {
 						}
 					}
 					break;
+				case DirectConv2d:
+					LibMatrixDNN.doConv2d(n1, n2, params);
+					break;
+				case DirectConv2dBackwardFilter:
+					return LibMatrixDNN.doConv2dBackwardFilter(n1, n2, params);
+				case DirectConv2dBackwardData:
+					LibMatrixDNN.doConv2dBackwardData(n1, n2, params);
+					break;
 				default:
 					throw new RuntimeException("Unsupported ConvTask:" + type.name());
 			}
@@ -26,10 +26,10 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.math3.util.FastMath;
+import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.lops.MapMultChain.ChainType;
 import org.apache.sysml.lops.WeightedCrossEntropy.WCeMMType;
 import org.apache.sysml.lops.WeightedDivMM.WDivMMType;
@@ -40,6 +40,7 @@ import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.functionobjects.ValueFunction;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 /**
@@ -72,6 +73,12 @@ public class LibMatrixMult
 	public static final long MEM_OVERHEAD_THRESHOLD = 2L*1024*1024; //MAX 2 MB
 	private static final long PAR_MINFLOP_THRESHOLD = 2L*1024*1024; //MIN 2 MFLOP
 	
+	//configuration of packed dense-dense matrix multiplication
+	private static final int PACKED_BLOCKSIZE_K = 64;  //rows of b per packed panel
+	private static final int PACKED_BLOCKSIZE_J = 512; //cols of b per packed panel
+	private static final int PACKED_MIN_DIM = 128;     //min dimensions for packing
+	private static final double PACKED_MIN_SPARSITY = 0.7; //min lhs sparsity for packing (vs skipping zeros)
+	
 	private LibMatrixMult() {
 		//prevent instantiation via private constructor
 	}
@@ -103,6 +110,12 @@ public class LibMatrixMult
 		
 		//Timing time = new Timing(true);
 		
+		//sparse-sparse matrix mult with sparse output (w/o dense intermediate)
+		if( checkSparseMatrixMultSparseOutput(m1, m2) ) {
+			matrixMultSparseSparseCSR(m1, m2, ret, 1);
+			return;
+		}
+		
 		//pre-processing: output allocation
 		boolean tm2 = checkPrepMatrixMultRightInput(m1,m2);
 		m2 = prepMatrixMultRightInput(m1, m2);
@@ -166,6 +179,12 @@ public class LibMatrixMult
 		
 		//Timing time = new Timing(true);
 		
+		//sparse-sparse matrix mult with sparse output (w/o dense intermediate)
+		if( checkSparseMatrixMultSparseOutput(m1, m2) ) {
+			matrixMultSparseSparseCSR(m1, m2, ret, k);
+			return;
+		}
+		
 		//pre-processing: output allocation (in contrast to single-threaded,
 		//we need to allocate sparse as well in order to prevent synchronization)
 		boolean tm2 = checkPrepMatrixMultRightInput(m1,m2);
@@ -182,14 +201,28 @@ public class LibMatrixMult
 		int num = pm2r ? m2.rlen : pm2c ? m2.clen : m1.rlen; 
 		
 		//core multi-threaded matrix mult computation
-		//(currently: always parallelization over number of rows)
+		//(parallelization over rows of lhs or rhs, cols of rhs, or 2D output tiles)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultTask> tasks = new ArrayList<MatrixMultTask>();
-			int nk = (pm2r||pm2c) ? k : UtilFunctions.roundToNext(Math.min(8*k,num/32), k);
-			ArrayList<Integer> blklens = getBalancedBlockSizes(num, nk);
-			for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ )
-				tasks.add(new MatrixMultTask(m1, m2, ret, tm2, pm2r, pm2c, lb, lb+blklens.get(i)));
+			if( !tm2 && !pm2r && !pm2c && checkPackedMatrixMult(m1, m2) ) {
+				//2D output tiles with aspect ratio of output (for tall-skinny, short-wide, square)
+				int nk = UtilFunctions.roundToNext(Math.min(8*k, (m1.rlen/32)*(m2.clen/32)), k);
+				int rk = (int) Math.max(1, Math.min(m1.rlen/32, Math.round(Math.sqrt((double)nk*m1.rlen/m2.clen))));
+				int ck = (int) Math.max(1, Math.min(m2.clen/32, Math.ceil((double)nk/rk)));
+				ArrayList<Integer> rblklens = getBalancedBlockSizes(m1.rlen, rk);
+				ArrayList<Integer> cblklens = getBalancedBlockSizes(m2.clen, ck);
+				for( int i=0, rl=0; i<rblklens.size(); rl+=rblklens.get(i), i++ )
+					for( int j=0, cl=0; j<cblklens.size(); cl+=cblklens.get(j), j++ )
+						tasks.add(new MatrixMultTask(m1, m2, ret, tm2, false, 
+							rl, rl+rblklens.get(i), cl, cl+cblklens.get(j)));
+			}
+			else {
+				int nk = (pm2r||pm2c) ? k : UtilFunctions.roundToNext(Math.min(8*k,num/32), k);
+				ArrayList<Integer> blklens = getBalancedBlockSizes(num, nk);
+				for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ )
+					tasks.add(new MatrixMultTask(m1, m2, ret, tm2, pm2r, pm2c, lb, lb+blklens.get(i)));
+			}
 			//execute tasks
 			List<Future<Object>> taskret = pool.invokeAll(tasks);	
 			pool.shutdown();
@@ -299,7 +332,7 @@ public class LibMatrixMult
 		//core matrix mult chain computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultChainTask> tasks = new ArrayList<MatrixMultChainTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			blklen += (blklen%24 != 0)?24-blklen%24:0;
@@ -396,7 +429,7 @@ public class LibMatrixMult
 	
 		//core multi-threaded matrix mult computation
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultTransposeTask> tasks = new ArrayList<MatrixMultTransposeTask>();
 			//load balance via #tasks=2k due to triangular shape 
 			int blklen = (int)(Math.ceil((double)ret.rlen/(2*k)));
@@ -490,7 +523,7 @@ public class LibMatrixMult
 		
 		try
 		{
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultPermuteTask> tasks = new ArrayList<MatrixMultPermuteTask>();
 			int blklen = (int)(Math.ceil((double)pm1.rlen/k));
 			for( int i=0; i<k & i*blklen<pm1.rlen; i++ )
@@ -581,7 +614,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWSLossTask> tasks = new ArrayList<MatrixMultWSLossTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			for( int i=0; i<k & i*blklen<mX.rlen; i++ )
@@ -672,7 +705,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWSigmoidTask> tasks = new ArrayList<MatrixMultWSigmoidTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -780,7 +813,7 @@ public class LibMatrixMult
 
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWDivTask> tasks = new ArrayList<MatrixMultWDivTask>();			
 			//create tasks (for wdivmm-left, parallelization over columns;
 			//for wdivmm-right, parallelization over rows; both ensure disjoint results)
@@ -878,7 +911,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWCeTask> tasks = new ArrayList<MatrixMultWCeTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -969,7 +1002,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWuTask> tasks = new ArrayList<MatrixMultWuTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -1094,6 +1127,10 @@ public class LibMatrixMult
 					for( int j=0, bix=0; j<n2; j++, bix+=cd )
 						c[cix+j] = dotProduct(a, b, aix, bix, cd);
 			}
+			else if( checkPackedMatrixMult(m1, m2) ) //MATRIX-MATRIX (large, dense)
+			{
+				matrixMultDenseDensePacked(a, b, c, n, cd, rl, ru, cl, cu);
+			}
 			else                       //MATRIX-MATRIX
 			{	
 				//1) Unrolled inner loop (for better instruction-level parallelism)
@@ -1158,6 +1195,65 @@ public class LibMatrixMult
 		
 	}
 	
+	/**
+	 * Dense-dense matrix multiplication for large matrices, which packs L2-sized panels
+	 * of b into a contiguous buffer and computes groups of 4 output rows from 4x4 values 
+	 * of a held in registers, i.e., with a single pass over c per 4 rows of b. Computes 
+	 * the output tile c[rl:ru, cl:cu] and thus allows for parallelization over 2D output
+	 * tiles, where each task reuses its packed panels of b across all its rows.
+	 * 
+	 * @param a dense lhs
+	 * @param b dense rhs
+	 * @param c dense output
+	 * @param n number of columns of b and c
+	 * @param cd common dimension
+	 * @param rl row lower bound
+	 * @param ru row upper bound (exclusive)
+	 * @param cl column lower bound
+	 * @param cu column upper bound (exclusive)
+	 */
+	private static void matrixMultDenseDensePacked(double[] a, double[] b, double[] c, final int n, final int cd, int rl, int ru, int cl, int cu)
+	{
+		final int blocksizeK = PACKED_BLOCKSIZE_K; //256KB b panel (typical L2 size per core)
+		final int blocksizeJ = PACKED_BLOCKSIZE_J; //4KB b panel row, 16KB of c per 4 rows (in L1)
+		
+		//temporary array (packed panel of b)
+		double[] bp = new double[Math.min(cd, blocksizeK) * Math.min(cu-cl, blocksizeJ)];
+		
+		//blocked execution
+		for( int bj = cl; bj < cu; bj+=blocksizeJ )
+			for( int bk = 0, bjlen = Math.min(cu, bj+blocksizeJ)-bj; bk < cd; bk+=blocksizeK ) 
+			{
+				//pack panel b[bk:bk+bklen, bj:bj+bjlen] in row-major order
+				int bklen = Math.min(cd, bk+blocksizeK)-bk;
+				for( int k = 0, bix = bk*n+bj; k < bklen; k++, bix+=n )
+					System.arraycopy(b, bix, bp, k*bjlen, bjlen);
+				
+				//compute blocks of 4 rows of c (rest rows and rest columns of a separately)
+				final int bn = bklen % 4;
+				final int ilen = rl + (ru-rl)/4*4;
+				for( int i = rl; i < ru; i+=4 ) {
+					final int aix = i*cd+bk, cix = i*n+bj;
+					if( i < ilen ) {
+						for( int k = 0; k < bklen-bn; k+=4 )
+							vectMultiplyAdd4x4(a, aix+k, cd, bp, k*bjlen, bjlen, c, cix, n, bjlen);
+						for( int k = bklen-bn; k < bklen; k++ )
+							for( int i2 = 0; i2 < 4; i2++ )
+								vectMultiplyAdd(a[aix+i2*cd+k], bp, c, k*bjlen, cix+i2*n, bjlen);
+					}
+					else {
+						for( int i2 = 0; i2 < ru-ilen; i2++ ) {
+							for( int k = 0; k < bklen-bn; k+=4 )
+								vectMultiplyAdd4(a[aix+i2*cd+k], a[aix+i2*cd+k+1], a[aix+i2*cd+k+2], a[aix+i2*cd+k+3], bp, c, 
+									k*bjlen, (k+1)*bjlen, (k+2)*bjlen, (k+3)*bjlen, cix+i2*n, bjlen);
+							for( int k = bklen-bn; k < bklen; k++ )
+								vectMultiplyAdd(a[aix+i2*cd+k], bp, c, k*bjlen, cix+i2*n, bjlen);
+						}
+					}
+				}
+			}
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -1265,6 +1361,10 @@ public class LibMatrixMult
 					c[0] = dotProduct(a.values(0), b, a.indexes(0), a.pos(0), 0, a.size(0));
 				}
 			}
+			else if( a instanceof SparseBlockCSR && !(pm2 && m<=16) ) //CSR MATRIX-VECTOR/MATRIX
+			{
+				matrixMultSparseCSRDense((SparseBlockCSR)a, b, c, n, cd, rl, ru);
+			}
 			else if( n==1 )            //MATRIX-VECTOR
 			{
 				for( int i=rl; i<ru; i++ )
@@ -1408,6 +1508,91 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Sparse-dense matrix multiplication over a sparse lhs in CSR representation,
+	 * where we directly iterate over the row pointer, column index and value 
+	 * arrays in order to avoid the per-row indirection of the sparse block API.
+	 * 
+	 * @param a
+	 * @param b
+	 * @param c
+	 * @param n
+	 * @param cd
+	 * @param rl
+	 * @param ru
+	 */
+	private static void matrixMultSparseCSRDense(SparseBlockCSR a, double[] b, double[] c, final int n, final int cd, int rl, int ru)
+	{
+		int[] aptr = a.rowPointers();
+		int[] aix = a.indexes();
+		double[] avals = a.values();
+		
+		if( n==1 )                 //MATRIX-VECTOR
+		{
+			for( int i=rl; i<ru; i++ ) {
+				int apos = aptr[i];
+				int alen = aptr[i+1] - apos;
+				if( alen > 0 )
+					c[i] = dotProduct(avals, b, aix, apos, 0, alen);
+			}
+		}
+		else if( n<=64 )           //MATRIX-MATRIX (skinny rhs)
+		{
+			//no blocking since b and c fit into cache anyway
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				int apos = aptr[i];
+				int aend = aptr[i+1];
+				//rest not aligned to blocks of 4 rows
+				int bn = (aend-apos)%4;
+				for( int k=apos; k<apos+bn; k++ )
+					vectMultiplyAdd(avals[k], b, c, aix[k]*n, cix, n); 
+				//compute blocks of 4 rows (core inner loop)
+				for( int k=apos+bn; k<aend; k+=4 )
+					vectMultiplyAdd4( avals[k], avals[k+1], avals[k+2], avals[k+3], b, c, 
+						aix[k]*n, aix[k+1]*n, aix[k+2]*n, aix[k+3]*n, cix, n );
+			}
+		}
+		else                       //MATRIX-MATRIX
+		{
+			//see matrixMultSparseDense for the choice of block sizes
+			final int blocksizeI = 32;
+			final int blocksizeK = 24; 
+			final int blocksizeJ = 1024; 
+			
+			//temporary array of current absolute sparse positions
+			int[] curk = new int[blocksizeI];
+			
+			//blocked execution over IKJ 
+			for( int bi = rl; bi < ru; bi+=blocksizeI ) {
+				int bimin = Math.min(ru, bi+blocksizeI);
+				System.arraycopy(aptr, bi, curk, 0, bimin-bi); //reset positions
+				for( int bk = 0; bk < cd; bk+=blocksizeK ) {
+					for( int bj = 0, bkmin = Math.min(cd, bk+blocksizeK); bj < n; bj+=blocksizeJ ) {
+						int bjlen = Math.min(n, bj+blocksizeJ)-bj;
+						
+						//core sub block matrix multiplication
+						for( int i=bi, cix=bi*n+bj; i<bimin; i++, cix+=n ) {
+							int apos = aptr[i];
+							int aend = aptr[i+1];
+							int k = curk[i-bi];
+							//rest not aligned to blocks of 4 rows
+							int bn = apos + (aend-apos)%4;
+							for( ; k<bn && aix[k]<bkmin; k++ )
+								vectMultiplyAdd(avals[k], b, c, aix[k]*n+bj, cix, bjlen); 
+							//compute blocks of 4 rows (core inner loop), allowed to exceed bkmin
+							for( ; k<aend && aix[k]<bkmin; k+=4 )
+								vectMultiplyAdd4( avals[k], avals[k+1], avals[k+2], avals[k+3], b, c, 
+									aix[k]*n+bj, aix[k+1]*n+bj, aix[k+2]*n+bj, aix[k+3]*n+bj, cix, bjlen );
+							//update positions on last bj block
+							if( bj+bjlen==n )
+								curk[i-bi] = k;
+						}
+					}
+				}
+			}
+		}
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -1515,6 +1700,166 @@ public class LibMatrixMult
 		}
 	}
 
+	/**
+	 * Sparse-sparse matrix multiplication with sparse output (Gustavson's row-wise
+	 * algorithm), which directly produces a CSR output block without dense intermediate.
+	 * A symbolic phase computes the exact number of non-zeros per output row, and a 
+	 * numeric phase computes the output rows into the preallocated CSR arrays. Both 
+	 * phases are parallelized over row partitions with task-local sparse accumulators.
+	 * 
+	 * @param m1 sparse lhs
+	 * @param m2 sparse rhs
+	 * @param ret result matrix
+	 * @param k degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private static void matrixMultSparseSparseCSR(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) 
+		throws DMLRuntimeException
+	{
+		final int m = m1.rlen;
+		int[] rowPtr = new int[m+1];
+		
+		//create tasks (balanced by number of rows)
+		ArrayList<SparseMatrixMultTask> tasks = new ArrayList<SparseMatrixMultTask>();
+		int nk = (k==1) ? 1 : UtilFunctions.roundToNext(Math.min(8*k, Math.max(m/32, 1)), k);
+		ArrayList<Integer> blklens = getBalancedBlockSizes(m, nk);
+		for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ )
+			tasks.add(new SparseMatrixMultTask(m1, m2, rowPtr, lb, lb+blklens.get(i)));
+		
+		try {
+			ExecutorService pool = (tasks.size() > 1) ? CommonThreadPool.get(k) : null;
+			
+			//symbolic phase: nnz per output row
+			executeSparseMatrixMultTasks(pool, tasks);
+			long nnz = 0;
+			for( int i=0; i<m; i++ ) {
+				nnz += rowPtr[i+1];
+				if( nnz > Integer.MAX_VALUE )
+					throw new DMLRuntimeException("Sparse matrix mult output exceeds CSR capacity: "+nnz+" non-zeros.");
+				rowPtr[i+1] = (int)nnz;
+			}
+			
+			//numeric phase: output rows into preallocated CSR arrays
+			int[] colInd = new int[(int)nnz];
+			double[] values = new double[(int)nnz];
+			for( SparseMatrixMultTask task : tasks )
+				task.setOutput(colInd, values);
+			long lnnz = executeSparseMatrixMultTasks(pool, tasks);
+			
+			if( pool != null )
+				pool.shutdown();
+			
+			//set output (incl removal of zeros due to cancellation)
+			SparseBlockCSR c = new SparseBlockCSR(rowPtr, colInd, values, (int)nnz);
+			if( lnnz < nnz )
+				c.compact();
+			ret.reset(m, m2.clen, true);
+			ret.cleanupBlock(true, false);
+			ret.sparseBlock = c;
+			ret.nonZeros = lnnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//post-processing (e.g., dense output if misestimated)
+		ret.examSparsity();
+	}
+	
+	/**
+	 * Executes the given sparse matrix mult tasks, either in the calling
+	 * thread if no pool is given or in parallel, and returns the sum of
+	 * the returned non-zeros.
+	 * 
+	 * @param pool thread pool or null
+	 * @param tasks sparse matrix mult tasks
+	 * @return
+	 * @throws Exception
+	 */
+	private static long executeSparseMatrixMultTasks(ExecutorService pool, ArrayList<SparseMatrixMultTask> tasks) 
+		throws Exception
+	{
+		long nnz = 0;
+		if( pool == null ) {
+			for( SparseMatrixMultTask task : tasks )
+				nnz += task.call();
+		}
+		else {
+			for( Future<Long> task : pool.invokeAll(tasks) )
+				nnz += task.get();
+		}
+		return nnz;
+	}
+	
+	/**
+	 * Computes the output rows [rl, ru) of a sparse-sparse matrix multiplication.
+	 * If the output arrays are null (symbolic phase), this only stores the number
+	 * of non-zeros per row i in rowPtr[i+1]; otherwise it writes the sorted output
+	 * rows starting at rowPtr[i].
+	 * 
+	 * @param a sparse lhs
+	 * @param b sparse rhs
+	 * @param acc task-local sparse accumulator
+	 * @param rowPtr output row pointers
+	 * @param colInd output column indexes, or null
+	 * @param values output values, or null
+	 * @param rl row lower bound
+	 * @param ru row upper bound (exclusive)
+	 * @return number of non-zeros
+	 */
+	private static long matrixMultSparseSparseCSR(SparseBlock a, SparseBlock b, SparseRowAccumulator acc, 
+		int[] rowPtr, int[] colInd, double[] values, int rl, int ru)
+	{
+		final boolean symbolic = (colInd == null);
+		final int n = acc.getNumColumns();
+		long lnnz = 0;
+		
+		for( int i=rl; i<ru; i++ ) {
+			if( a.isEmpty(i) ) {
+				if( symbolic )
+					rowPtr[i+1] = 0;
+				continue;
+			}
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			
+			//upper bound of output row nnz (for choice of accumulator)
+			long ub = 0;
+			for( int k=apos; k<apos+alen; k++ )
+				ub += b.size(aix[k]);
+			acc.reset((int)Math.min(ub, n));
+			
+			//accumulate scaled rows of b
+			for( int k=apos; k<apos+alen; k++ ) {
+				if( b.isEmpty(aix[k]) )
+					continue;
+				int bpos = b.pos(aix[k]);
+				int blen = b.size(aix[k]);
+				int[] bix = b.indexes(aix[k]);
+				double[] bvals = b.values(aix[k]);
+				if( symbolic )
+					for( int j=bpos; j<bpos+blen; j++ )
+						acc.add(bix[j]);
+				else
+					for( int j=bpos; j<bpos+blen; j++ )
+						acc.add(bix[j], avals[k] * bvals[j]);
+			}
+			
+			//output row nnz or sorted row
+			if( symbolic ) {
+				rowPtr[i+1] = acc.size();
+				lnnz += acc.size();
+				acc.clear();
+			}
+			else
+				lnnz += acc.extract(colInd, values, rowPtr[i]);
+		}
+		
+		return lnnz;
+	}
+	
 	/**
 	 * This implementation applies to any combination of dense/sparse if at least one
 	 * input is ultrasparse (sparse and very few nnz). In that case, most importantly,
@@ -3177,7 +3522,7 @@ public class LibMatrixMult
 	 * @param len
 	 * @return
 	 */
-	private static double dotProduct( double[] a, double[] b, int ai, int bi, final int len )
+	protected static double dotProduct( double[] a, double[] b, int ai, int bi, final int len )
 	{
 		double val = 0;
 		final int bn = len%8;
@@ -3205,7 +3550,7 @@ public class LibMatrixMult
 		return val; 
 	}
 	
-	private static double dotProduct( double[] a, double[] b, int[] aix, int ai, final int bi, final int len )
+	protected static double dotProduct( double[] a, double[] b, int[] aix, int ai, final int bi, final int len )
 	{
 		double val = 0;
 		final int bn = len%8;
@@ -3243,7 +3588,7 @@ public class LibMatrixMult
 	 * @param ci
 	 * @param len
 	 */
-	private static void vectMultiplyAdd( final double aval, double[] b, double[] c, int bi, int ci, final int len )
+	protected static void vectMultiplyAdd( final double aval, double[] b, double[] c, int bi, int ci, final int len )
 	{
 		final int bn = len%8;
 		
@@ -3342,6 +3687,41 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Computes c[i,j] += sum_k a[i,k] * b[k,j] for 4 consecutive rows i of a and c,
+	 * and 4 consecutive columns k of a, i.e., rows k of b (with row stride bn). 
+	 * The 16 values of a are held in registers and c is read and written once.
+	 * 
+	 * @param a
+	 * @param ai
+	 * @param cd
+	 * @param b
+	 * @param bi
+	 * @param bn
+	 * @param c
+	 * @param ci
+	 * @param n
+	 * @param len
+	 */
+	private static void vectMultiplyAdd4x4( double[] a, final int ai, final int cd, double[] b, final int bi, final int bn, 
+		double[] c, final int ci, final int n, final int len )
+	{
+		final double a00 = a[ai],      a01 = a[ai+1],      a02 = a[ai+2],      a03 = a[ai+3];
+		final double a10 = a[ai+cd],   a11 = a[ai+cd+1],   a12 = a[ai+cd+2],   a13 = a[ai+cd+3];
+		final double a20 = a[ai+2*cd], a21 = a[ai+2*cd+1], a22 = a[ai+2*cd+2], a23 = a[ai+2*cd+3];
+		final double a30 = a[ai+3*cd], a31 = a[ai+3*cd+1], a32 = a[ai+3*cd+2], a33 = a[ai+3*cd+3];
+		
+		for( int j = 0, bix = bi, cix = ci; j < len; j++, bix++, cix++ ) {
+			//read 4 values of b (one per row)
+			final double b0 = b[bix], b1 = b[bix+bn], b2 = b[bix+2*bn], b3 = b[bix+3*bn];
+			//compute and write back 4 values of c (one per row)
+			c[cix]     += a00 * b0 + a01 * b1 + a02 * b2 + a03 * b3;
+			c[cix+n]   += a10 * b0 + a11 * b1 + a12 * b2 + a13 * b3;
+			c[cix+2*n] += a20 * b0 + a21 * b1 + a22 * b2 + a23 * b3;
+			c[cix+3*n] += a30 * b0 + a31 * b1 + a32 * b2 + a33 * b3;
+		}
+	}
+	
 	/**
 	 * 
 	 * @param aval1
@@ -3428,7 +3808,7 @@ public class LibMatrixMult
 	 * @param ci
 	 * @param len
 	 */
-	private static void vectMultiplyAdd( final double aval, double[] b, double[] c, int[] bix, final int bi, final int ci, final int len )
+	protected static void vectMultiplyAdd( final double aval, double[] b, double[] c, int[] bix, final int bi, final int ci, final int len )
 	{
 		final int bn = len%8;
 		
@@ -3956,6 +4336,40 @@ public class LibMatrixMult
 				&& 8*m2.rlen*m2.clen < 256*1024 ); //rhs fits in L2 cache
 	}
 	
+	/**
+	 * Indicates if a sparse-sparse matrix multiplication should directly produce
+	 * a sparse output, which is the case for non-ultra-sparse inputs and an 
+	 * estimated output sparsity below the sparse-dense turn point.
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @return
+	 */
+	private static boolean checkSparseMatrixMultSparseOutput( MatrixBlock m1, MatrixBlock m2 ) {
+		if( !LOW_LEVEL_OPTIMIZATION || !m1.sparse || !m2.sparse 
+			|| m1.isUltraSparse() || m2.isUltraSparse() || m2.clen == 1 )
+			return false;
+		double sp1 = (double) m1.nonZeros / m1.rlen / m1.clen;
+		double sp2 = (double) m2.nonZeros / m2.rlen / m2.clen;
+		double sp = OptimizerUtils.getMatMultSparsity(sp1, sp2, m1.rlen, m1.clen, m2.clen, false);
+		return MatrixBlock.evalSparseFormatInMemory(m1.rlen, m2.clen, (long)(sp * m1.rlen * m2.clen));
+	}
+	
+	/**
+	 * Indicates if the packed dense-dense matrix multiplication applies, which is
+	 * the case for large dense inputs, where the packing costs are amortized and 
+	 * the lhs has only few zeros (which the default kernel would skip).
+	 * 
+	 * @param m1
+	 * @param m2
+	 * @return
+	 */
+	private static boolean checkPackedMatrixMult( MatrixBlock m1, MatrixBlock m2 ) {
+		return (LOW_LEVEL_OPTIMIZATION && !m1.sparse && !m2.sparse
+			&& m1.rlen >= PACKED_MIN_DIM && m1.clen >= PACKED_MIN_DIM && m2.clen >= PACKED_MIN_DIM
+			&& m1.nonZeros >= PACKED_MIN_SPARSITY * m1.rlen * m1.clen );
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -4134,21 +4548,31 @@ public class LibMatrixMult
 		private MatrixBlock _ret = null;
 		private boolean _tm2 = false; //transposed m2
 		private boolean _pm2r = false; //par over m2 rows
-		private boolean _pm2c = false; //par over m2 rows
 		
 		private int _rl = -1;
 		private int _ru = -1;
+		private int _cl = -1;
+		private int _cu = -1;
 
 		protected MatrixMultTask( MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, 
 				boolean tm2, boolean pm2r, boolean pm2c, int rl, int ru )
+		{
+			//setup target index ranges (rows of lhs/rhs or cols of rhs)
+			this(m1, m2, ret, tm2, pm2r, pm2c ? 0 : rl, pm2c ? m1.rlen : ru, 
+				pm2c ? rl : 0, pm2c ? ru : ret.clen);
+		}
+		
+		protected MatrixMultTask( MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, 
+				boolean tm2, boolean pm2r, int rl, int ru, int cl, int cu )
 		{
 			_m1 = m1;
 			_m2 = m2;
 			_tm2 = tm2;
 			_pm2r = pm2r;
-			_pm2c = pm2c;
 			_rl = rl;
 			_ru = ru;
+			_cl = cl;
+			_cu = cu;
 			
 			if( pm2r ) { //vector-matrix / matrix-matrix
 				//allocate local result for partial aggregation
@@ -4162,11 +4586,7 @@ public class LibMatrixMult
 		@Override
 		public Object call() throws DMLRuntimeException
 		{
-			//setup target index ranges
-			int rl = _pm2c ? 0 : _rl;
-			int ru = _pm2c ? _m1.rlen : _ru;
-			int cl = _pm2c ? _rl : 0;
-			int cu = _pm2c ? _ru : _ret.clen;
+			int rl = _rl, ru = _ru, cl = _cl, cu = _cu;
 			
 			//thread-local allocation
 			if( _pm2r )
@@ -4192,6 +4612,207 @@ public class LibMatrixMult
 		}
 	}
 	
+	/**
+	 * Task of the symbolic or numeric phase of sparse-sparse matrix 
+	 * multiplication with sparse output over a range of rows.
+	 */
+	private static class SparseMatrixMultTask implements Callable<Long> 
+	{
+		private final MatrixBlock _m1;
+		private final MatrixBlock _m2;
+		private final int[] _rowPtr;
+		private final int _rl;
+		private final int _ru;
+		private int[] _colInd = null;
+		private double[] _values = null;
+		private SparseRowAccumulator _acc = null;
+		
+		protected SparseMatrixMultTask( MatrixBlock m1, MatrixBlock m2, int[] rowPtr, int rl, int ru ) {
+			_m1 = m1;
+			_m2 = m2;
+			_rowPtr = rowPtr;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public void setOutput( int[] colInd, double[] values ) {
+			_colInd = colInd;
+			_values = values;
+		}
+		
+		@Override
+		public Long call() {
+			//reuse accumulator across symbolic and numeric phase
+			if( _acc == null )
+				_acc = new SparseRowAccumulator(_m2.clen);
+			return matrixMultSparseSparseCSR(_m1.sparseBlock, _m2.sparseBlock, 
+				_acc, _rowPtr, _colInd, _values, _rl, _ru);
+		}
+	}
+	
+	/**
+	 * Sparse accumulator of a single output row, which uses a dense array 
+	 * of values (SPA) if the upper bound of the row nnz is large relative to 
+	 * the number of columns, and an open-addressing hash table otherwise. In
+	 * both cases, the distinct column indexes are tracked in an index list.
+	 */
+	private static class SparseRowAccumulator
+	{
+		//min ratio of row nnz upper bound to columns for dense SPA
+		private static final int HASH_RATIO = 16;
+		private static final int EMPTY = -1;
+		
+		private final int _n;
+		private boolean _dense = false;
+		private int[] _ix = new int[16]; //distinct column indexes
+		private int _size = 0;
+		
+		//dense SPA (allocated on demand)
+		private double[] _dvals = null;
+		private boolean[] _dflags = null;
+		
+		//hash table (power of two capacity)
+		private int[] _hkeys = null;
+		private double[] _hvals = null;
+		private int _hmask = -1;
+		
+		public SparseRowAccumulator( int n ) {
+			_n = n;
+		}
+		
+		public int getNumColumns() {
+			return _n;
+		}
+		
+		public int size() {
+			return _size;
+		}
+		
+		/**
+		 * Prepares the accumulator for a new row with the given
+		 * upper bound of distinct column indexes.
+		 * 
+		 * @param ub upper bound of row nnz
+		 */
+		public void reset( int ub ) {
+			_size = 0;
+			if( _ix.length < ub )
+				_ix = new int[Math.max(ub, 2*_ix.length)];
+			_dense = ((long)ub * HASH_RATIO >= _n);
+			if( _dense ) {
+				if( _dvals == null ) {
+					_dvals = new double[_n];
+					_dflags = new boolean[_n];
+				}
+			}
+			else {
+				int cap = Integer.highestOneBit(Math.max(2*ub, 8)-1) << 1;
+				if( _hkeys == null || _hkeys.length < cap ) {
+					_hkeys = new int[cap];
+					_hvals = new double[cap];
+					Arrays.fill(_hkeys, EMPTY);
+				}
+				_hmask = cap - 1;
+			}
+		}
+		
+		/**
+		 * Adds the column index (symbolic phase).
+		 * 
+		 * @param j column index
+		 */
+		public void add( int j ) {
+			add(j, 0);
+		}
+		
+		/**
+		 * Adds the value to the given column index.
+		 * 
+		 * @param j column index
+		 * @param v value
+		 */
+		public void add( int j, double v ) {
+			if( _dense ) {
+				if( !_dflags[j] ) {
+					_dflags[j] = true;
+					_ix[_size++] = j;
+				}
+				_dvals[j] += v;
+			}
+			else {
+				int ix = hash(j) & _hmask;
+				while( _hkeys[ix] != EMPTY && _hkeys[ix] != j )
+					ix = (ix + 1) & _hmask;
+				if( _hkeys[ix] == EMPTY ) {
+					_hkeys[ix] = j;
+					_ix[_size++] = j;
+				}
+				_hvals[ix] += v;
+			}
+		}
+		
+		/**
+		 * Writes the accumulated row with sorted column indexes into the
+		 * given arrays, and clears the accumulator.
+		 * 
+		 * @param colInd output column indexes
+		 * @param values output values
+		 * @param pos start position in output
+		 * @return number of non-zero values
+		 */
+		public int extract( int[] colInd, double[] values, int pos ) {
+			//sorted column indexes via scan of flags (if many) or sort
+			if( _dense && (long)_size * HASH_RATIO >= _n ) {
+				for( int j=0, i=0; i<_size; j++ )
+					if( _dflags[j] )
+						_ix[i++] = j;
+			}
+			else
+				Arrays.sort(_ix, 0, _size);
+			int lnnz = 0;
+			for( int i=0; i<_size; i++ ) {
+				int j = _ix[i];
+				double v = 0;
+				if( _dense )
+					v = _dvals[j];
+				else {
+					int ix = hash(j) & _hmask;
+					while( _hkeys[ix] != j )
+						ix = (ix + 1) & _hmask;
+					v = _hvals[ix];
+				}
+				colInd[pos+i] = j;
+				values[pos+i] = v;
+				lnnz += (v != 0) ? 1 : 0;
+			}
+			clear();
+			return lnnz;
+		}
+		
+		/**
+		 * Clears the accumulator without output.
+		 */
+		public void clear() {
+			if( _dense ) {
+				for( int i=0; i<_size; i++ ) {
+					_dvals[_ix[i]] = 0;
+					_dflags[_ix[i]] = false;
+				}
+			}
+			else {
+				Arrays.fill(_hkeys, 0, _hmask+1, EMPTY);
+				Arrays.fill(_hvals, 0, _hmask+1, 0);
+			}
+			_size = 0;
+		}
+		
+		private static int hash( int key ) {
+			//spread sequential column indexes (fibonacci hashing)
+			int h = key * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+	}
+	
 	/**
 	 * 
 	 * 
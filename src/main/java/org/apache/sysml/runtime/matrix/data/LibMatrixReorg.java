@@ -29,8 +29,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -41,6 +41,7 @@ import org.apache.sysml.runtime.functionobjects.SortIndex;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.matrix.mapred.IndexedMatrixValue;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.SortUtils;
 import org.apache.sysml.runtime.util.UtilFunctions;
@@ -117,7 +118,10 @@ public class LibMatrixReorg
 				return diag(in, out); 
 			case SORT:      
 				SortIndex ix = (SortIndex) op.fn;
-				return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn());
+				if( op.getNumThreads() > 1 )
+					return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn(), op.getNumThreads());
+				else
+					return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn());
 			
 			default:        
 				throw new DMLRuntimeException("Unsupported reorg operator: "+op.fn);
@@ -203,7 +207,7 @@ public class LibMatrixReorg
 		
 		//core multi-threaded transpose
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<TransposeTask> tasks = new ArrayList<TransposeTask>();
 			boolean row = in.sparse || in.rlen >= in.clen;
 			int len = row ? in.rlen : in.clen;
@@ -415,49 +419,101 @@ public class LibMatrixReorg
 		}
 		
 		//final pass to ensure stable output
-		for( int i=0; i<rlen-1; i++ ) {
-			double tmp = values[i];
-			//determine run of equal values
-			int len = 0;
-			while( i+len+1<rlen && tmp==values[i+len+1] )
-				len++;
-			//unstable sort of run indexes (equal value guaranteed)
-			if( len>0 ) {
-				Arrays.sort(vix, i, i+len+1);
-				i += len; //skip processed run
-			}
-		}
+		sortIndexesStable(values, vix, 0, rlen);
 
 		//step 4: create output matrix (guaranteed non-empty, see step 2)
-		if( !ixret )
+		//(copy input data or sorted index vector in sorted order into result)
+		if( ixret || !sparse )
+			out.allocateDenseBlock(false);
+		else
+			out.allocateSparseRowsBlock(false);
+		copySortedRows(in, out, vix, ixret, 0, rlen);
+		
+		return out;
+	}
+	
+	/**
+	 * Multi-threaded sort, which extracts and sorts row partitions in parallel, 
+	 * merges the sorted runs in parallel pairwise merge rounds, and finally 
+	 * ensures stable outputs and copies the result rows in parallel.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param by
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret, int k) 
+		throws DMLRuntimeException
+	{
+		//redirect small or special cases (incl error handling) to sequential execution
+		if( k <= 1 || in.isEmptyBlock(false) || in.rlen < k
+			|| (long)in.rlen * in.clen < PAR_NUMCELL_THRESHOLD
+			|| by <= 0 || in.clen < by )
 		{
-			//copy input data in sorted order into result
-			if( !sparse ) //DENSE
-			{
-				out.allocateDenseBlock(false);
-				for( int i=0; i<rlen; i++ ) {
-					System.arraycopy(in.denseBlock, vix[i]*clen, out.denseBlock, i*clen, clen);
-				}
+			return sort(in, out, by, desc, ixret);
+		}
+		
+		//Timing time = new Timing(true);
+		
+		//meta data gathering and preparation
+		int rlen = in.rlen;
+		out.sparse = (in.sparse && !ixret);
+		out.nonZeros = ixret ? rlen : in.nonZeros;
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<Integer> blklens = getBalancedBlockSizes(rlen, k);
+			
+			//special case dense column vector (sort data): 
+			//parallel sort of values only (unstable, no indexes needed)
+			if( !ixret && !in.sparse && in.clen == 1 ) {
+				out.copy( in ); //dense
+				sortByValueParallel(pool, null, -1, out.denseBlock, null, blklens);
+				if( desc )
+					sortReverseDense(out);
+				pool.shutdown();
+				return out;
 			}
-			else //SPARSE
-			{
+			
+			//step 1: parallel extraction of values and sort of index vector
+			int[] vix = new int[rlen];
+			double[] values = new double[rlen];
+			sortByValueParallel(pool, in, by-1, values, vix, blklens);
+			
+			//flip order if descending requested (note that this needs to happen
+			//before we ensure stable outputs, hence we also flip values)
+			if(desc) {
+				sortReverseDense(vix);
+				sortReverseDense(values);
+			}
+			
+			//step 2: parallel stable pass and output copy over partitions that
+			//are aligned with runs of equal values (guaranteed non-empty input)
+			if( ixret || !in.sparse )
+				out.allocateDenseBlock(false);
+			else
 				out.allocateSparseRowsBlock(false);
-				for( int i=0; i<rlen; i++ ) {
-					int ix = vix[i];
-					if( !in.sparseBlock.isEmpty(ix) ) {
-						out.sparseBlock.set(i, in.sparseBlock.get(ix), true);
-					}
-				}
+			ArrayList<SortCopyTask> tasks = new ArrayList<SortCopyTask>();
+			for( int i=0, rl=0, ru=0; i<blklens.size(); i++, rl=ru ) {
+				ru = Math.min(rlen, rl + blklens.get(i));
+				while( ru < rlen && values[ru]==values[ru-1] )
+					ru++; //align with run of equal values
+				if( rl < ru )
+					tasks.add(new SortCopyTask(in, out, values, vix, ixret, rl, ru));
 			}
+			executeTasks(pool, tasks);
+			pool.shutdown();
 		}
-		else
-		{
-			//copy sorted index vector into result
-			out.allocateDenseBlock(false);
-			for( int i=0; i<rlen; i++ )
-				out.setValueDenseUnsafe(i, 0, vix[i]+1);
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
 		}
 		
+		//System.out.println("rsort k="+k+" ("+in.rlen+", "+in.clen+", "+in.sparse+", "+out.sparse+") in "+time.stop()+" ms.");
+		
 		return out;
 	}
 	
@@ -579,6 +635,24 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock rmempty(MatrixBlock in, MatrixBlock ret, boolean rows, MatrixBlock select) 
 		throws DMLRuntimeException
+	{
+		return rmempty(in, ret, rows, select, 1);
+	}
+	
+	/**
+	 * CP rmempty operation (single input, single output matrix), multi-threaded
+	 * over row partitions for large inputs.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param rows
+	 * @param select
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock rmempty(MatrixBlock in, MatrixBlock ret, boolean rows, MatrixBlock select, int k) 
+		throws DMLRuntimeException
 	{
 		//check for empty inputs 
 		//(the semantics of removeEmpty are that for an empty m-by-n matrix, the output 
@@ -591,10 +665,13 @@ public class LibMatrixReorg
 			return ret;
 		}
 		
+		//redirect small inputs to sequential execution
+		boolean par = (k > 1 && in.rlen > 1 && (long)in.rlen * in.clen >= PAR_NUMCELL_THRESHOLD);
+		
 		if( rows )
-			return removeEmptyRows(in, ret, select);
+			return par ? removeEmptyRows(in, ret, select, k) : removeEmptyRows(in, ret, select);
 		else //cols
-			return removeEmptyColumns(in, ret, select);
+			return par ? removeEmptyColumns(in, ret, select, k) : removeEmptyColumns(in, ret, select);
 	}
 
 	/**
@@ -698,6 +775,26 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock rexpand(MatrixBlock in, MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore) 
 		throws DMLRuntimeException
+	{
+		return rexpand(in, ret, max, rows, cast, ignore, 1);
+	}
+	
+	/**
+	 * CP rexpand operation (single input, single output), multi-threaded
+	 * over input row partitions for large inputs.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param rows
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock rexpand(MatrixBlock in, MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore, int k) 
+		throws DMLRuntimeException
 	{
 		//prepare parameters
 		int lmax = (int)UtilFunctions.toLong(max);
@@ -716,11 +813,14 @@ public class LibMatrixReorg
 			return ret;
 		}
 		
+		//redirect small inputs to sequential execution
+		boolean par = (k > 1 && (long)in.rlen * in.clen >= PAR_NUMCELL_THRESHOLD);
+		
 		//execute rexpand operations
 		if( rows )
-			return rexpandRows(in, ret, lmax, cast, ignore);
+			return par ? rexpandRows(in, ret, lmax, cast, ignore, k) : rexpandRows(in, ret, lmax, cast, ignore);
 		else //cols
-			return rexpandColumns(in, ret, lmax, cast, ignore);
+			return par ? rexpandColumns(in, ret, lmax, cast, ignore, k) : rexpandColumns(in, ret, lmax, cast, ignore);
 	}
 
 	/**
@@ -1927,13 +2027,201 @@ public class LibMatrixReorg
 				}
 		}
 		
-		//check sparsity
-		ret.nonZeros = in.nonZeros;
+		//check sparsity (all non-zeros retained w/o select vector)
+		if( select == null )
+			ret.nonZeros = in.nonZeros;
+		else
+			ret.recomputeNonZeros();
 		ret.examSparsity();
 
 		return ret;
 	}
 
+	/**
+	 * Multi-threaded remove empty rows via a two-pass compaction: first, we 
+	 * determine the non-empty rows and their counts per row partition in 
+	 * parallel, second, we compute the output offsets of all partitions via
+	 * a prefix sum and copy the non-empty rows of all partitions in parallel.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param select
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock removeEmptyRows(MatrixBlock in, MatrixBlock ret, MatrixBlock select, int k) 
+		throws DMLRuntimeException 
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		boolean[] flags = (select != null) ? 
+			DataConverter.convertToBooleanVector(select) : new boolean[m];
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<Integer> blklens = getBalancedBlockSizes(m, k);
+			ArrayList<RemoveEmptyRowsTask> tasks = new ArrayList<RemoveEmptyRowsTask>();
+			for( int i=0, rl=0; i<blklens.size(); rl+=blklens.get(i), i++ )
+				tasks.add(new RemoveEmptyRowsTask(in, ret, flags, select==null, rl, rl+blklens.get(i)));
+			
+			//Step 1: scan row partitions and determine non-empty rows
+			List<Future<Long>> cnts = pool.invokeAll(tasks);
+			
+			//Step 2: prefix sums of counts as output offsets of row partitions
+			int rlen2 = 0;
+			for( int i=0; i<tasks.size(); i++ ) {
+				tasks.get(i).setOutputOffset(rlen2);
+				rlen2 += cnts.get(i).get();
+			}
+			
+			//Step 3: reset result and copy rows of all partitions
+			//(dense/sparse output representation independent of input)
+			rlen2 = Math.max(rlen2, 1); //ensure valid output
+			boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen2, n, in.nonZeros);
+			ret.reset(rlen2, n, sp);
+			if( sp )
+				ret.allocateSparseRowsBlock();
+			else
+				ret.allocateDenseBlock();
+			ret.nonZeros = executeTasks(pool, tasks);
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//check sparsity
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Determines the non-empty rows of the given row range and returns
+	 * their number; with given select vector, the flags are only counted.
+	 * 
+	 * @param in
+	 * @param flags
+	 * @param scan
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	private static int computeNonEmptyRows(MatrixBlock in, boolean[] flags, boolean scan, int rl, int ru) 
+	{
+		final int n = in.clen;
+		int cnt = 0;
+		
+		if( !scan ) //SELECT
+		{
+			for( int i=rl; i<ru; i++ )
+				cnt += flags[i] ? 1 : 0;
+		}
+		else if( in.sparse ) //SPARSE 
+		{
+			SparseBlock a = in.sparseBlock;
+			for( int i=rl; i<ru; i++ )
+				if( !a.isEmpty(i) ) {
+					flags[i] = true;
+					cnt++;
+				}
+		}
+		else //DENSE
+		{
+			double[] a = in.denseBlock;
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+				for( int j=0; j<n; j++ )
+					if( a[aix+j] != 0 ) {
+						flags[i] = true;
+						cnt++;
+						break; //early abort for current row
+					}
+		}
+		
+		return cnt;
+	}
+	
+	/**
+	 * Copies the non-empty rows of the given row range into the allocated 
+	 * output, starting at the given output row, and returns the number of
+	 * copied non-zeros. Since all writes are row-local, this method can be
+	 * called concurrently for disjoint row ranges.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param flags
+	 * @param rl
+	 * @param ru
+	 * @param cix
+	 * @return
+	 */
+	private static long copyNonEmptyRows(MatrixBlock in, MatrixBlock ret, boolean[] flags, int rl, int ru, int cix) 
+	{
+		final int n = in.clen;
+		long nnz = 0;
+		
+		if( in.sparse && ret.sparse ) //SPARSE <- SPARSE
+		{
+			SparseBlock a = in.sparseBlock;
+			SparseBlock c = ret.sparseBlock;
+			for( int i=rl; i<ru; i++ )
+				if( flags[i] ) {
+					if( !a.isEmpty(i) ) {
+						c.set(cix, a.get(i), true);
+						nnz += a.size(i);
+					}
+					cix++;
+				}
+		}
+		else if( in.sparse ) //DENSE <- SPARSE
+		{
+			SparseBlock a = in.sparseBlock;
+			double[] c = ret.denseBlock;
+			for( int i=rl; i<ru; i++ )
+				if( flags[i] ) {
+					if( !a.isEmpty(i) ) {
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						for( int j=apos; j<apos+alen; j++ )
+							c[cix*n+aix[j]] = avals[j];
+						nnz += alen;
+					}
+					cix++;
+				}
+		}
+		else if( !ret.sparse ) //DENSE <- DENSE
+		{
+			double[] a = in.denseBlock;
+			double[] c = ret.denseBlock;
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+				if( flags[i] ) {
+					for( int j=0; j<n; j++ )
+						nnz += (a[aix+j] != 0) ? 1 : 0;
+					System.arraycopy(a, aix, c, cix*n, n);
+					cix++;
+				}
+		}
+		else //SPARSE <- DENSE
+		{
+			double[] a = in.denseBlock;
+			SparseBlock c = ret.sparseBlock;
+			for( int i=rl, aix=rl*n; i<ru; i++, aix+=n )
+				if( flags[i] ) {
+					for( int j=0; j<n; j++ )
+						if( a[aix+j] != 0 ) {
+							c.append(cix, j, a[aix+j]);
+							nnz++;
+						}
+					cix++;
+				}
+		}
+		
+		return nnz;
+	}
+	
 	
 	/**
 	 * @param in
@@ -2041,49 +2329,222 @@ public class LibMatrixReorg
 						 ret.appendValue(i, cix[j], a[aix]);	
 		}
 		
-		//check sparsity
-		ret.nonZeros = in.nonZeros;
+		//check sparsity (all non-zeros retained w/o select vector)
+		if( select == null )
+			ret.nonZeros = in.nonZeros;
+		else
+			ret.recomputeNonZeros();
 		ret.examSparsity();
 		
 		return ret;
 	}
 	
 	/**
+	 * Multi-threaded remove empty columns via a two-pass compaction: first, we 
+	 * determine the non-empty columns per row partition in parallel and merge
+	 * the partial flags, second, we compute the output column mapping via a 
+	 * prefix sum and copy the non-empty columns of all row partitions in parallel.
 	 * 
 	 * @param in
 	 * @param ret
-	 * @param max
-	 * @param cast
-	 * @param ignore
+	 * @param select
+	 * @param k
 	 * @return
-	 * @throws DMLRuntimeException 
+	 * @throws DMLRuntimeException
 	 */
-	private static MatrixBlock rexpandRows(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore) 
-		throws DMLRuntimeException
+	private static MatrixBlock removeEmptyColumns(MatrixBlock in, MatrixBlock ret, MatrixBlock select, int k) 
+		throws DMLRuntimeException 
 	{
-		//set meta data
-		final int rlen = max;
-		final int clen = in.rlen;
-		final long nnz = in.nonZeros;
-		boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz);
-		ret.reset(rlen, clen, sp);
-
-		//setup temporary array for 'buffered append w/ sorting' in order
-		//to mitigate performance issues due to random row access for large m
-		final int blksize = 1024*1024; //max 12MB
-		int[] tmpi = new int[Math.min(blksize,clen)];
-		double[] tmp = new double[Math.min(blksize,clen)];
+		final int m = in.rlen;
+		final int n = in.clen;
 		
-		//expand input vertically  (input vector likely dense 
-		//but generic implementation for general case)		
-		for( int i=0; i<clen; i+=blksize )
-		{
-			//create sorted block indexes (append buffer)
-			int len = Math.min(blksize, clen-i);
-			copyColVector(in, i, tmp, tmpi, len);
-			SortUtils.sortByValue(0, len, tmp, tmpi);
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<Integer> blklens = getBalancedBlockSizes(m, k);
+			ArrayList<RemoveEmptyColumnsTask> tasks = new ArrayList<RemoveEmptyColumnsTask>();
+			for( int i=0, rl=0; i<blklens.size(); rl+=blklens.get(i), i++ )
+				tasks.add(new RemoveEmptyColumnsTask(in, ret, rl, rl+blklens.get(i)));
+			
+			//Step 1: scan row partitions and determine non-empty columns
+			boolean[] flags = null;
+			if( select == null ) {
+				flags = new boolean[ n ]; //false
+				executeTasks(pool, tasks);
+				for( RemoveEmptyColumnsTask task : tasks ) {
+					boolean[] lflags = task.getColumnFlags();
+					for( int j=0; j<n; j++ )
+						flags[j] |= lflags[j];
+				}
+			}
+			else {
+				flags = DataConverter.convertToBooleanVector(select);
+			}
+			
+			//Step 2: prefix sums of flags as mapping to target indexes
+			int[] cix = new int[n];
+			int clen2 = 0;
+			for( int j=0; j<n; j++ )
+				if( flags[j] )
+					cix[j] = clen2++;
+			
+			//Step 3: reset result and copy cols of all row partitions
+			//(dense/sparse output representation independent of input)
+			clen2 = Math.max(clen2, 1); //ensure valid output
+			boolean sp = MatrixBlock.evalSparseFormatInMemory(m, clen2, in.nonZeros);
+			ret.reset(m, clen2, sp);
+			if( sp )
+				ret.allocateSparseRowsBlock();
+			else
+				ret.allocateDenseBlock();
+			for( RemoveEmptyColumnsTask task : tasks )
+				task.setColumnMapping(flags, cix);
+			ret.nonZeros = executeTasks(pool, tasks);
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
 		
-			//process current append buffer
+		//check sparsity
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Determines the non-empty columns of the given row range.
+	 * 
+	 * @param in
+	 * @param flags
+	 * @param rl
+	 * @param ru
+	 */
+	private static void computeNonEmptyColumns(MatrixBlock in, boolean[] flags, int rl, int ru) 
+	{
+		final int n = in.clen;
+		
+		if( in.sparse ) //SPARSE 
+		{
+			SparseBlock a = in.sparseBlock;
+			for( int i=rl; i<ru; i++ ) 
+				if( !a.isEmpty(i) ) {
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					for( int j=apos; j<apos+alen; j++ )
+						flags[ aix[j] ] = true;
+				}
+		}
+		else //DENSE
+		{
+			double[] a = in.denseBlock;
+			for( int i=rl, aix=rl*n; i<ru; i++ )
+				for( int j=0; j<n; j++, aix++ )
+					if( a[aix] != 0 )
+						flags[j] = true; 	
+		}
+	}
+	
+	/**
+	 * Copies the non-empty columns of the given row range into the allocated 
+	 * output and returns the number of copied non-zeros. Since all writes are 
+	 * row-local, this method can be called concurrently for disjoint row ranges.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param flags
+	 * @param cix
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	private static long copyNonEmptyColumns(MatrixBlock in, MatrixBlock ret, boolean[] flags, int[] cix, int rl, int ru) 
+	{
+		final int n = in.clen;
+		final int clen2 = ret.clen;
+		long nnz = 0;
+		
+		if( in.sparse ) //* <- SPARSE
+		{
+			SparseBlock a = in.sparseBlock;
+			for( int i=rl; i<ru; i++ ) 
+				if( !a.isEmpty(i) ) {
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					for( int j=apos; j<apos+alen; j++ )
+						if( flags[aix[j]] ) {
+							if( ret.sparse )
+								ret.sparseBlock.append(i, cix[aix[j]], avals[j]);
+							else
+								ret.denseBlock[i*clen2+cix[aix[j]]] = avals[j];
+							nnz++;
+						}
+				}
+		}
+		else if( !ret.sparse ) //DENSE <- DENSE
+		{
+			double[] a = in.denseBlock;
+			double[] c = ret.denseBlock;
+			for( int i=rl, aix=rl*n, lcix=rl*clen2; i<ru; i++, lcix+=clen2 )
+				for( int j=0; j<n; j++, aix++ )
+					if( flags[j] ) {
+						c[ lcix+cix[j] ] = a[aix];
+						nnz += (a[aix] != 0) ? 1 : 0;
+					}
+		}
+		else //SPARSE <- DENSE
+		{
+			double[] a = in.denseBlock;
+			SparseBlock c = ret.sparseBlock;
+			for( int i=rl, aix=rl*n; i<ru; i++ )
+				for( int j=0; j<n; j++, aix++ )
+					if( flags[j] && a[aix]!=0 ) {
+						c.append(i, cix[j], a[aix]);
+						nnz++;
+					}
+		}
+		
+		return nnz;
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @return
+	 * @throws DMLRuntimeException 
+	 */
+	private static MatrixBlock rexpandRows(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore) 
+		throws DMLRuntimeException
+	{
+		//set meta data
+		final int rlen = max;
+		final int clen = in.rlen;
+		final long nnz = in.nonZeros;
+		boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz);
+		ret.reset(rlen, clen, sp);
+
+		//setup temporary array for 'buffered append w/ sorting' in order
+		//to mitigate performance issues due to random row access for large m
+		final int blksize = 1024*1024; //max 12MB
+		int[] tmpi = new int[Math.min(blksize,clen)];
+		double[] tmp = new double[Math.min(blksize,clen)];
+		
+		//expand input vertically  (input vector likely dense 
+		//but generic implementation for general case)		
+		for( int i=0; i<clen; i+=blksize )
+		{
+			//create sorted block indexes (append buffer)
+			int len = Math.min(blksize, clen-i);
+			copyColVector(in, i, tmp, tmpi, len);
+			SortUtils.sortByValue(0, len, tmp, tmpi);
+		
+			//process current append buffer
 			for( int j=0; j<len; j++ )
 			{
 				//get value and cast if necessary (table)
@@ -2097,7 +2558,7 @@ public class LibMatrixReorg
 					
 				//set expanded value if matching
 				if( val == Math.floor(val) && val >= 1 && val <= max )
-					ret.appendValue((int)(val-1), i+tmpi[j], 1);
+					ret.appendValue((int)(val-1), tmpi[j], 1);
 			}
 			
 		}
@@ -2146,6 +2607,154 @@ public class LibMatrixReorg
 		return ret;
 	}
 	
+	/**
+	 * Multi-threaded rexpand rows over partitions of input rows (i.e., output
+	 * columns). For dense outputs, all partitions write disjoint cells directly.
+	 * For sparse outputs, we construct a CSR block via a two-pass approach: 
+	 * first, we count the non-zeros per output row and partition in parallel, 
+	 * second, we compute the row pointers and partition-local write positions
+	 * via a prefix sum, and fill the column indexes in parallel, where the 
+	 * column indexes per row are sorted by construction.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock rexpandRows(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore, int k) 
+		throws DMLRuntimeException
+	{
+		//set meta data
+		final int rlen = max;
+		final int clen = in.rlen;
+		final long nnz = in.nonZeros;
+		boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz);
+		
+		//redirect sparse outputs with large max to sequential execution
+		//(partition-local counts per output row would dominate the costs)
+		if( sp && (long)k * max > clen )
+			return rexpandRows(in, ret, max, cast, ignore);
+		
+		ret.reset(rlen, clen, sp);
+		if( !sp )
+			ret.allocateDenseBlock();
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<Integer> blklens = getBalancedBlockSizes(clen, k);
+			ArrayList<RExpandRowsTask> tasks = new ArrayList<RExpandRowsTask>();
+			for( int i=0, rl=0; i<blklens.size(); rl+=blklens.get(i), i++ )
+				tasks.add(new RExpandRowsTask(in, ret, max, cast, ignore, rl, rl+blklens.get(i)));
+			
+			//Step 1: dense output or count non-zeros per output row and partition
+			long lnnz = executeTasks(pool, tasks);
+			
+			if( sp && lnnz > 0 ) {
+				//Step 2: prefix sums of counts into row pointers and write positions 
+				int[] rowPtr = new int[rlen+1];
+				for( int r=0; r<rlen; r++ ) {
+					int pos = rowPtr[r];
+					for( RExpandRowsTask task : tasks ) {
+						int[] cnt = task.getRowCounts();
+						int tmp = cnt[r];
+						cnt[r] = pos;
+						pos += tmp;
+					}
+					rowPtr[r+1] = pos;
+				}
+				
+				//Step 3: fill column indexes and values of all partitions
+				int[] colInd = new int[(int)lnnz];
+				double[] values = new double[(int)lnnz];
+				for( RExpandRowsTask task : tasks )
+					task.setOutputArrays(colInd, values);
+				executeTasks(pool, tasks);
+				ret.cleanupBlock(true, false);
+				ret.sparseBlock = new SparseBlockCSR(rowPtr, colInd, values, (int)lnnz);
+			}
+			pool.shutdown();
+			ret.nonZeros = lnnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Multi-threaded rexpand columns over partitions of input rows, where 
+	 * all writes are row-local and thus, require no synchronization.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock rexpandColumns(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore, int k) 
+		throws DMLRuntimeException
+	{
+		//set meta data
+		final int rlen = in.rlen;
+		final int clen = max;
+		final long nnz = in.nonZeros;
+		boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz);
+		ret.reset(rlen, clen, sp);
+		if( sp )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<Integer> blklens = getBalancedBlockSizes(rlen, k);
+			ArrayList<RExpandColumnsTask> tasks = new ArrayList<RExpandColumnsTask>();
+			for( int i=0, rl=0; i<blklens.size(); rl+=blklens.get(i), i++ )
+				tasks.add(new RExpandColumnsTask(in, ret, max, cast, ignore, rl, rl+blklens.get(i)));
+			ret.nonZeros = executeTasks(pool, tasks);
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Gets the 0-based expanded index of the given input value, or -1 if
+	 * the value is out of range (e.g., zero or larger than max).
+	 * 
+	 * @param val
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static int getRexpandIndex(double val, int max, boolean cast, boolean ignore) 
+		throws DMLRuntimeException
+	{
+		//cast if necessary (table)
+		if( cast )
+			val = UtilFunctions.toLong(val);
+		
+		//handle invalid values if not to be ignored
+		if( !ignore && val<=0 )
+			throw new DMLRuntimeException("Invalid input value <= 0 for ignore=false: "+val);
+		
+		//expanded index if matching
+		return (val == Math.floor(val) && val >= 1 && val <= max) ? (int)(val-1) : -1;
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -2173,6 +2782,191 @@ public class LibMatrixReorg
 	}
 	
 
+	/**
+	 * Sorts the given values (and optionally the index vector) by sorting the
+	 * given row partitions in parallel and merging the sorted runs in parallel 
+	 * pairwise merge rounds. If an input matrix is given, the values and indexes
+	 * are extracted from the first column by the sort tasks as well.
+	 * 
+	 * @param pool
+	 * @param in
+	 * @param col
+	 * @param values
+	 * @param vix
+	 * @param blklens
+	 * @throws Exception 
+	 */
+	private static void sortByValueParallel(ExecutorService pool, MatrixBlock in, int col, double[] values, int[] vix, ArrayList<Integer> blklens) 
+		throws Exception
+	{
+		//parallel extraction and sort of partitions
+		int[] bounds = new int[blklens.size()+1];
+		ArrayList<SortValuesTask> tasks = new ArrayList<SortValuesTask>();
+		for( int i=0; i<blklens.size(); i++ ) {
+			bounds[i+1] = bounds[i] + blklens.get(i);
+			tasks.add(new SortValuesTask(in, col, values, vix, bounds[i], bounds[i+1]));
+		}
+		executeTasks(pool, tasks);
+		
+		//parallel pairwise merge rounds of sorted runs (double buffering)
+		double[] a = values, c = new double[values.length];
+		int[] ai = vix, ci = (vix != null) ? new int[vix.length] : null;
+		while( bounds.length > 2 ) {
+			int nruns = bounds.length-1;
+			int[] bounds2 = new int[(nruns+1)/2+1];
+			ArrayList<MergeRunsTask> mtasks = new ArrayList<MergeRunsTask>();
+			for( int i=0; i<nruns; i+=2 ) {
+				mtasks.add(new MergeRunsTask(a, ai, c, ci, bounds[i], 
+					bounds[Math.min(i+1, nruns)], bounds[Math.min(i+2, nruns)]));
+				bounds2[i/2+1] = bounds[Math.min(i+2, nruns)];
+			}
+			executeTasks(pool, mtasks);
+			double[] tmp = a; a = c; c = tmp;
+			int[] tmpi = ai; ai = ci; ci = tmpi;
+			bounds = bounds2;
+		}
+		
+		//copy back if final result in temporary buffers
+		if( a != values ) {
+			System.arraycopy(a, 0, values, 0, values.length);
+			if( vix != null )
+				System.arraycopy(ai, 0, vix, 0, vix.length);
+		}
+	}
+	
+	/**
+	 * Merges the sorted runs a[lo,mid) and a[mid,hi) into c[lo,hi), 
+	 * where the index vectors are optional.
+	 * 
+	 * @param a
+	 * @param ai
+	 * @param c
+	 * @param ci
+	 * @param lo
+	 * @param mid
+	 * @param hi
+	 */
+	private static void mergeSortedRuns(double[] a, int[] ai, double[] c, int[] ci, int lo, int mid, int hi)
+	{
+		int i = lo, j = mid, p = lo;
+		while( i < mid && j < hi ) {
+			if( a[j] < a[i] ) {
+				if( ai != null )
+					ci[p] = ai[j];
+				c[p++] = a[j++];
+			}
+			else {
+				if( ai != null )
+					ci[p] = ai[i];
+				c[p++] = a[i++];
+			}
+		}
+		
+		//copy remaining tail of left or right run
+		int pos = (i < mid) ? i : j;
+		int len = (i < mid) ? mid - i : hi - j;
+		System.arraycopy(a, pos, c, p, len);
+		if( ai != null )
+			System.arraycopy(ai, pos, ci, p, len);
+	}
+	
+	/**
+	 * Ensures stable sort outputs by sorting the indexes of runs of equal
+	 * values in the given range, which is assumed to not split runs.
+	 * 
+	 * @param values
+	 * @param vix
+	 * @param rl
+	 * @param ru
+	 */
+	private static void sortIndexesStable(double[] values, int[] vix, int rl, int ru)
+	{
+		for( int i=rl; i<ru-1; i++ ) {
+			double tmp = values[i];
+			//determine run of equal values
+			int len = 0;
+			while( i+len+1<ru && tmp==values[i+len+1] )
+				len++;
+			//unstable sort of run indexes (equal value guaranteed)
+			if( len>0 ) {
+				Arrays.sort(vix, i, i+len+1);
+				i += len; //skip processed run
+			}
+		}
+	}
+	
+	/**
+	 * Copies the rows of the given range in sorted order into the output, 
+	 * where the output is assumed to be allocated (dense for index return).
+	 * 
+	 * @param in
+	 * @param out
+	 * @param vix
+	 * @param ixret
+	 * @param rl
+	 * @param ru
+	 */
+	private static void copySortedRows(MatrixBlock in, MatrixBlock out, int[] vix, boolean ixret, int rl, int ru)
+	{
+		if( ixret ) //INDEXES
+		{
+			double[] c = out.denseBlock;
+			for( int i=rl; i<ru; i++ )
+				c[i] = vix[i]+1;
+		}
+		else if( !in.sparse ) //DENSE
+		{
+			int clen = in.clen;
+			for( int i=rl; i<ru; i++ )
+				System.arraycopy(in.denseBlock, vix[i]*clen, out.denseBlock, i*clen, clen);
+		}
+		else //SPARSE
+		{
+			for( int i=rl; i<ru; i++ ) {
+				int ix = vix[i];
+				if( !in.sparseBlock.isEmpty(ix) )
+					out.sparseBlock.set(i, in.sparseBlock.get(ix), true);
+			}
+		}
+	}
+	
+	/**
+	 * Executes the given tasks and returns the sum of their results 
+	 * (e.g., number of non-zeros).
+	 * 
+	 * @param pool
+	 * @param tasks
+	 * @return
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private static long executeTasks(ExecutorService pool, ArrayList<? extends Callable<Long>> tasks) 
+		throws InterruptedException, ExecutionException
+	{
+		long ret = 0;
+		for( Future<Long> task : pool.invokeAll(tasks) )
+			ret += task.get();
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param len
+	 * @param k
+	 * @return
+	 */
+	private static ArrayList<Integer> getBalancedBlockSizes(int len, int k) {
+		ArrayList<Integer> ret = new ArrayList<Integer>();
+		int base = len / k;
+		int rest = len % k;
+		for( int i=0; i<k; i++ ) {
+			int val = base + (i<rest?1:0);
+			if( val > 0 )
+				ret.add(val);
+		}	
+		return ret; 
+	}
+	
 	/**
 	 * Utility method for in-place transformation of an ascending sorted
 	 * order into a descending sorted order. This method assumes dense
@@ -2363,4 +3157,316 @@ public class LibMatrixReorg
 			return null;
 		}
 	}
+	
+	/**
+	 * Sort task of a row partition, which optionally extracts the values 
+	 * (and initializes the index vector) from the given input column.
+	 */
+	private static class SortValuesTask implements Callable<Long>
+	{
+		private MatrixBlock _in = null;
+		private int _col = -1;
+		private double[] _values = null;
+		private int[] _vix = null;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected SortValuesTask(MatrixBlock in, int col, double[] values, int[] vix, int rl, int ru) {
+			_in = in;
+			_col = col;
+			_values = values;
+			_vix = vix;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() 
+		{
+			//extract values and create index vector
+			if( _in != null )
+				for( int i=_rl; i<_ru; i++ ) {
+					_vix[i] = i;
+					_values[i] = _in.quickGetValue(i, _col);
+				}
+			
+			//sort partition (unstable)
+			if( _vix != null )
+				SortUtils.sortByValue(_rl, _ru, _values, _vix);
+			else
+				Arrays.sort(_values, _rl, _ru);
+			
+			return (long)(_ru - _rl);
+		}
+	}
+	
+	/**
+	 * Merge task of two adjacent sorted runs.
+	 */
+	private static class MergeRunsTask implements Callable<Long>
+	{
+		private double[] _a = null;
+		private int[] _ai = null;
+		private double[] _c = null;
+		private int[] _ci = null;
+		private int _lo = -1;
+		private int _mid = -1;
+		private int _hi = -1;
+		
+		protected MergeRunsTask(double[] a, int[] ai, double[] c, int[] ci, int lo, int mid, int hi) {
+			_a = a;
+			_ai = ai;
+			_c = c;
+			_ci = ci;
+			_lo = lo;
+			_mid = mid;
+			_hi = hi;
+		}
+		
+		@Override
+		public Long call() {
+			mergeSortedRuns(_a, _ai, _c, _ci, _lo, _mid, _hi);
+			return (long)(_hi - _lo);
+		}
+	}
+	
+	/**
+	 * Task for ensuring stable sort outputs and copying the sorted 
+	 * rows of a row partition that is aligned with runs of equal values.
+	 */
+	private static class SortCopyTask implements Callable<Long>
+	{
+		private MatrixBlock _in = null;
+		private MatrixBlock _out = null;
+		private double[] _values = null;
+		private int[] _vix = null;
+		private boolean _ixret = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected SortCopyTask(MatrixBlock in, MatrixBlock out, double[] values, int[] vix, boolean ixret, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_values = values;
+			_vix = vix;
+			_ixret = ixret;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() {
+			sortIndexesStable(_values, _vix, _rl, _ru);
+			copySortedRows(_in, _out, _vix, _ixret, _rl, _ru);
+			return (long)(_ru - _rl);
+		}
+	}
+	
+	/**
+	 * Remove empty rows task of a row partition, which is executed in two
+	 * phases: first, it determines the non-empty rows (and returns their 
+	 * count), second, after the output offset has been set, it copies the 
+	 * non-empty rows (and returns the number of copied non-zeros). 
+	 */
+	private static class RemoveEmptyRowsTask implements Callable<Long>
+	{
+		private MatrixBlock _in = null;
+		private MatrixBlock _ret = null;
+		private boolean[] _flags = null;
+		private boolean _scan = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		private int _cix = -1; //output offset
+		
+		protected RemoveEmptyRowsTask(MatrixBlock in, MatrixBlock ret, boolean[] flags, boolean scan, int rl, int ru) {
+			_in = in;
+			_ret = ret;
+			_flags = flags;
+			_scan = scan;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public void setOutputOffset(int cix) {
+			_cix = cix;
+		}
+		
+		@Override
+		public Long call() 
+		{
+			if( _cix < 0 ) //PHASE 1
+				return (long) computeNonEmptyRows(_in, _flags, _scan, _rl, _ru);
+			else //PHASE 2
+				return copyNonEmptyRows(_in, _ret, _flags, _rl, _ru, _cix);
+		}
+	}
+	
+	/**
+	 * Remove empty columns task of a row partition, which is executed in two
+	 * phases: first, it determines the non-empty columns of its rows, second,
+	 * after the column mapping has been set, it copies the non-empty columns
+	 * (and returns the number of copied non-zeros). 
+	 */
+	private static class RemoveEmptyColumnsTask implements Callable<Long>
+	{
+		private MatrixBlock _in = null;
+		private MatrixBlock _ret = null;
+		private boolean[] _flags = null;
+		private int[] _cix = null; //column mapping
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected RemoveEmptyColumnsTask(MatrixBlock in, MatrixBlock ret, int rl, int ru) {
+			_in = in;
+			_ret = ret;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public boolean[] getColumnFlags() {
+			return _flags;
+		}
+		
+		public void setColumnMapping(boolean[] flags, int[] cix) {
+			_flags = flags;
+			_cix = cix;
+		}
+		
+		@Override
+		public Long call() 
+		{
+			if( _cix == null ) { //PHASE 1
+				_flags = new boolean[_in.clen];
+				computeNonEmptyColumns(_in, _flags, _rl, _ru);
+				return 0L;
+			}
+			else //PHASE 2
+				return copyNonEmptyColumns(_in, _ret, _flags, _cix, _rl, _ru);
+		}
+	}
+	
+	/**
+	 * Rexpand rows task of a partition of input rows (i.e., output columns).
+	 * For dense outputs, the task sets the output cells directly. For sparse
+	 * outputs, it is executed in two phases: first, it counts the non-zeros 
+	 * per output row, second, after the counts have been replaced by write 
+	 * positions and the output arrays have been set, it fills the output.
+	 */
+	private static class RExpandRowsTask implements Callable<Long>
+	{
+		private MatrixBlock _in = null;
+		private MatrixBlock _ret = null;
+		private int _max = -1;
+		private boolean _cast = false;
+		private boolean _ignore = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		private int[] _cnt = null; //counts or write positions per output row
+		private int[] _colInd = null;
+		private double[] _values = null;
+		
+		protected RExpandRowsTask(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore, int rl, int ru) {
+			_in = in;
+			_ret = ret;
+			_max = max;
+			_cast = cast;
+			_ignore = ignore;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public int[] getRowCounts() {
+			return _cnt;
+		}
+		
+		public void setOutputArrays(int[] colInd, double[] values) {
+			_colInd = colInd;
+			_values = values;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException 
+		{
+			final int clen = _in.rlen;
+			long nnz = 0;
+			
+			if( !_ret.sparse ) //DENSE
+			{
+				double[] c = _ret.denseBlock;
+				for( int i=_rl; i<_ru; i++ ) {
+					int ix = getRexpandIndex(_in.quickGetValue(i, 0), _max, _cast, _ignore);
+					if( ix >= 0 ) {
+						c[ix*clen+i] = 1;
+						nnz++;
+					}
+				}
+			}
+			else if( _colInd == null ) //SPARSE PHASE 1
+			{
+				_cnt = new int[_max];
+				for( int i=_rl; i<_ru; i++ ) {
+					int ix = getRexpandIndex(_in.quickGetValue(i, 0), _max, _cast, _ignore);
+					if( ix >= 0 ) {
+						_cnt[ix]++;
+						nnz++;
+					}
+				}
+			}
+			else //SPARSE PHASE 2
+			{
+				for( int i=_rl; i<_ru; i++ ) {
+					int ix = getRexpandIndex(_in.quickGetValue(i, 0), _max, _cast, _ignore);
+					if( ix >= 0 ) {
+						int pos = _cnt[ix]++;
+						_colInd[pos] = i;
+						_values[pos] = 1;
+						nnz++;
+					}
+				}
+			}
+			
+			return nnz;
+		}
+	}
+	
+	/**
+	 * Rexpand columns task of a partition of input rows.
+	 */
+	private static class RExpandColumnsTask implements Callable<Long>
+	{
+		private MatrixBlock _in = null;
+		private MatrixBlock _ret = null;
+		private int _max = -1;
+		private boolean _cast = false;
+		private boolean _ignore = false;
+		private int _rl = -1;
+		private int _ru = -1;
+		
+		protected RExpandColumnsTask(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore, int rl, int ru) {
+			_in = in;
+			_ret = ret;
+			_max = max;
+			_cast = cast;
+			_ignore = ignore;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException 
+		{
+			long nnz = 0;
+			for( int i=_rl; i<_ru; i++ ) {
+				int ix = getRexpandIndex(_in.quickGetValue(i, 0), _max, _cast, _ignore);
+				if( ix >= 0 ) {
+					if( _ret.sparse )
+						_ret.sparseBlock.append(i, ix, 1);
+					else
+						_ret.denseBlock[i*_max+ix] = 1;
+					nnz++;
+				}
+			}
+			return nnz;
+		}
+	}
 }
@@ -128,6 +128,22 @@ public class SparseBlockCSR extends SparseBlock
 		}
 	}
 	
+	/**
+	 * Constructor from given row pointer, column index and value arrays,
+	 * which are used without copy (i.e., passed ownership).
+	 * 
+	 * @param rowPtr row pointer array (size: rlen+1)
+	 * @param colInd column index array (size: >=nnz)
+	 * @param values value array (size: >=nnz)
+	 * @param nnz number of non-zeros
+	 */
+	public SparseBlockCSR(int[] rowPtr, int[] colInd, double[] values, int nnz) {
+		_ptr = rowPtr;
+		_indexes = colInd;
+		_values = values;
+		_size = nnz;
+	}
+	
 	/**
 	 * Get the estimated in-memory size of the sparse block in CSR 
 	 * with the given dimensions w/o accounting for overallocation. 
@@ -150,6 +166,55 @@ public class SparseBlockCSR extends SparseBlock
 		return (long) Math.min(size, Long.MAX_VALUE);
 	}
 	
+	/**
+	 * Get the row pointer array of the entire sparse block, which allows 
+	 * kernels to iterate over rows without per-row method calls.
+	 * 
+	 * @return row pointer array (size: rlen+1)
+	 */
+	public int[] rowPointers() {
+		return _ptr;
+	}
+	
+	/**
+	 * Get the column index array of the entire sparse block.
+	 * 
+	 * @return column index array (size: >=nnz)
+	 */
+	public int[] indexes() {
+		return _indexes;
+	}
+	
+	/**
+	 * Get the value array of the entire sparse block.
+	 * 
+	 * @return value array (size: >=nnz)
+	 */
+	public double[] values() {
+		return _values;
+	}
+	
+	/**
+	 * Removes all zero values, which might have been introduced by
+	 * position-wise updates of the value array, in a single pass.
+	 */
+	public void compact() {
+		int pos = 0;
+		for( int i=0; i<numRows(); i++ ) {
+			int apos = _ptr[i];
+			int alen = _ptr[i+1] - apos;
+			_ptr[i] = pos;
+			for( int j=apos; j<apos+alen; j++ )
+				if( _values[j] != 0 ) {
+					_indexes[pos] = _indexes[j];
+					_values[pos] = _values[j];
+					pos++;
+				}
+		}
+		_ptr[numRows()] = pos;
+		_size = pos;
+	}
+	
 	///////////////////
 	//SparseBlock implementation
 
@@ -45,7 +45,8 @@ public class SparseBlockMCSR extends SparseBlock
 			SparseRow[] orows = ((SparseBlockMCSR)sblock)._rows;
 			_rows = new SparseRow[orows.length];
 			for( int i=0; i<_rows.length; i++ )
-				_rows[i] = new SparseRow(orows[i]);		
+				if( orows[i] != null )
+					_rows[i] = new SparseRow(orows[i]);
 		}
 		//general case SparseBlock
 		else { 
@@ -70,7 +71,8 @@ public class SparseBlockMCSR extends SparseBlock
 		if( deep ) {
 			_rows = new SparseRow[rows.length];
 			for( int i=0; i<_rows.length; i++ )
-				_rows[i] = new SparseRow(rows[i]);
+				if( rows[i] != null )
+					_rows[i] = new SparseRow(rows[i]);
 		}
 		else {
 			_rows = rows;	
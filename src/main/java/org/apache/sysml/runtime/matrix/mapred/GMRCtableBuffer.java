@@ -32,7 +32,7 @@ import org.apache.sysml.runtime.matrix.data.CTableMap;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixCell;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
-import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleEntry;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleIterator;
 
 
 public class GMRCtableBuffer 
@@ -150,9 +150,10 @@ public class GMRCtableBuffer
 					}
 					
 					//output result data 
-					for(LLDoubleEntry e: resultMap.entrySet()) {
-						key = new MatrixIndexes(e.key1, e.key2);
-						value.setValue(e.value);
+					LLDoubleIterator it = resultMap.getIterator();
+					while( it.next() ) {
+						key = new MatrixIndexes(it.getKey1(), it.getKey2());
+						value.setValue(it.getValue());
 						for(Integer i: resultIDs) {
 							_collector.collectOutput(key, value, i, reporter);
 						}
@@ -49,10 +49,16 @@ public class BinaryOperator  extends Operator implements Serializable
 	private static final long serialVersionUID = -2547950181558989209L;
 
 	public ValueFunction fn;
+	private int k; //num threads
 	
-	public BinaryOperator(ValueFunction p)
+	public BinaryOperator(ValueFunction p) {
+		this(p, 1); //default single-threaded
+	}
+	
+	public BinaryOperator(ValueFunction p, int numThreads)
 	{
 		fn=p;
+		k=numThreads;
 		//as long as (0 op 0)=0, then op is sparseSafe
 		if(fn instanceof Plus || fn instanceof Multiply || fn instanceof Minus 
 				|| fn instanceof And || fn instanceof Or)
@@ -61,6 +67,10 @@ public class BinaryOperator  extends Operator implements Serializable
 			sparseSafe=false;
 	}
 	
+	public int getNumThreads() {
+		return k;
+	}
+	
 	/**
 	 * Method for getting the hop binary operator type for a given function object.
 	 * This is used in order to use a common code path for consistency between 
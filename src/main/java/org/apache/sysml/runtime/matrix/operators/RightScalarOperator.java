@@ -34,7 +34,11 @@ public class RightScalarOperator extends ScalarOperator
 	private static final long serialVersionUID = 5148300801904349919L;
 	
 	public RightScalarOperator(ValueFunction p, double cst) {
-		super(p, cst);
+		this(p, cst, 1);
+	}
+	
+	public RightScalarOperator(ValueFunction p, double cst, int numThreads) {
+		super(p, cst, numThreads);
 	}
 
 	@Override
@@ -57,4 +61,11 @@ public class RightScalarOperator extends ScalarOperator
 			sparseSafe = true;
 		}
 	}
+	
+	@Override
+	public ScalarOperator copy(double cst) {
+		ScalarOperator ret = new RightScalarOperator(fn, cst, getNumThreads());
+		ret.setConstant(cst);
+		return ret;
+	}
 }
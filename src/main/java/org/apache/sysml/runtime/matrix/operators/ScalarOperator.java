@@ -44,11 +44,17 @@ public class ScalarOperator  extends Operator
 	
 	public ValueFunction fn;
 	protected double _constant;
+	private int k; //num threads
 	
-	public ScalarOperator(ValueFunction p, double cst)
+	public ScalarOperator(ValueFunction p, double cst) {
+		this(p, cst, 1); //default single-threaded
+	}
+	
+	public ScalarOperator(ValueFunction p, double cst, int numThreads)
 	{
 		fn = p;
 		_constant = cst;
+		k = numThreads;
 		
 		//as long as (0 op v)=0, then op is sparsesafe
 		//note: additional functionobjects might qualify according to constant
@@ -70,6 +76,10 @@ public class ScalarOperator  extends Operator
 		return _constant;
 	}
 	
+	public int getNumThreads() {
+		return k;
+	}
+	
 	public void setConstant(double cst) 
 	{
 		//set constant
@@ -98,6 +108,20 @@ public class ScalarOperator  extends Operator
 		}
 	}
 	
+	/**
+	 * Creates a new operator of the same type, function, and degree of
+	 * parallelism with the given constant, which leaves this (potentially
+	 * shared) operator unchanged.
+	 * 
+	 * @param cst scalar constant
+	 * @return new scalar operator
+	 */
+	public ScalarOperator copy(double cst) {
+		ScalarOperator ret = new ScalarOperator(fn, cst, k);
+		ret.setConstant(cst);
+		return ret;
+	}
+	
 	public double executeScalar(double in) throws DMLRuntimeException {
 		throw new DMLRuntimeException("executeScalar(): can not be invoked from base class.");
 	}
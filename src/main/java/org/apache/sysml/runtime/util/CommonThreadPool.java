@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Shared, process-wide thread pool for all multi-threaded CP kernels (e.g.,
+ * matrix multiplications, aggregations, transpose, data generation, and
+ * convolution operations). Instead of creating and tearing down a fixed
+ * thread pool per operation, libraries obtain a lightweight handle via
+ * {@link #get(int)} which submits to a single, lazily created work-stealing
+ * pool sized by the local parallelism.
+ *
+ * The handle preserves the semantics of a fixed thread pool of size k:
+ * invokeAll executes the given tasks with at most k concurrent runners
+ * (including the calling thread), and execute/submit queue tasks in the handle,
+ * which are processed by at most k concurrent runners of the shared pool.
+ * Shutdown only rejects new tasks of the handle but never affects the shared
+ * pool, and awaitTermination waits until all tasks submitted to the handle
+ * are completed. Nested invocations from within workers of the
+ * shared pool (e.g., a multi-threaded matrix mult inside a multi-threaded
+ * convolution task) are executed inline in order to prevent oversubscription
+ * and deadlocks. Concurrent callers such as local parfor workers share the
+ * pool and hence the number of active worker threads is bounded by the
+ * number of virtual cores.
+ *
+ */
+public class CommonThreadPool extends AbstractExecutorService
+{
+	//shared work-stealing pool (lazily created on first use)
+	private static volatile ForkJoinPool _pool = null;
+
+	//max parallelism of this handle, including the calling thread
+	private final int _k;
+	private volatile boolean _shutdown = false;
+
+	//queued tasks of execute/submit and number of active runners
+	private final ConcurrentLinkedQueue<Runnable> _queue = new ConcurrentLinkedQueue<Runnable>();
+	private final AtomicInteger _runners = new AtomicInteger(0);
+
+	//number of not yet completed tasks and invokeAll calls (synchronized on this)
+	private int _pending = 0;
+
+	private CommonThreadPool(int k) {
+		_k = k;
+	}
+
+	/**
+	 * Obtains a handle to the shared thread pool with a max degree of
+	 * parallelism of k. The returned executor can be used as a drop-in
+	 * replacement of Executors.newFixedThreadPool(k); calling shutdown
+	 * on the handle does not affect the shared pool.
+	 *
+	 * @param k max degree of parallelism
+	 * @return executor service handle
+	 */
+	public static ExecutorService get(int k) {
+		return new CommonThreadPool(Math.max(k, 1));
+	}
+
+	/**
+	 * Indicates if the shared pool has already been created.
+	 *
+	 * @return true if created
+	 */
+	public static synchronized boolean isInitialized() {
+		return (_pool != null);
+	}
+
+	/**
+	 * Gets the number of worker threads of the shared pool, or 0
+	 * if the pool has not been created yet.
+	 *
+	 * @return pool size
+	 */
+	public static synchronized int getPoolSize() {
+		return (_pool != null) ? _pool.getParallelism() : 0;
+	}
+
+	/**
+	 * Gets the number of tasks stolen by workers of the shared pool
+	 * from other workers' queues (indicator of load imbalance).
+	 *
+	 * @return steal count
+	 */
+	public static synchronized long getStealCount() {
+		return (_pool != null) ? _pool.getStealCount() : 0;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static synchronized ForkJoinPool getPool() {
+		if( _pool == null )
+			_pool = new ForkJoinPool(Math.max(InfrastructureAnalyzer.getLocalParallelism(), 1));
+		return _pool;
+	}
+
+	/**
+	 * Indicates if the current thread is a worker of the shared pool,
+	 * in which case nested invocations are executed inline.
+	 *
+	 * @return
+	 */
+	private static boolean isPoolWorker() {
+		Thread t = Thread.currentThread();
+		return (t instanceof ForkJoinWorkerThread
+			&& ((ForkJoinWorkerThread)t).getPool() == _pool);
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+		throws InterruptedException
+	{
+		acquirePending();
+		try
+		{
+			//wrap tasks into futures (capture results and exceptions)
+			final ArrayList<FutureTask<T>> ftasks = new ArrayList<FutureTask<T>>(tasks.size());
+			for( Callable<T> task : tasks )
+				ftasks.add(new FutureTask<T>(task));
+			int numRunners = Math.min(_k, ftasks.size());
+
+			if( numRunners <= 1 || isPoolWorker() ) {
+				//sequential execution in calling thread
+				for( FutureTask<T> ftask : ftasks )
+					ftask.run();
+				if( DMLScript.STATISTICS )
+					Statistics.incrementThreadPoolStats(ftasks.size(), true);
+			}
+			else {
+				//parallel execution with numRunners workers that dynamically
+				//pull tasks, where the calling thread acts as one of the runners
+				final AtomicInteger pos = new AtomicInteger(0);
+				Runnable runner = new Runnable() {
+					@Override
+					public void run() {
+						for( int i=pos.getAndIncrement(); i<ftasks.size(); i=pos.getAndIncrement() )
+							ftasks.get(i).run();
+					}
+				};
+				ForkJoinPool pool = getPool();
+				for( int i=0; i<numRunners-1; i++ )
+					pool.execute(runner);
+				runner.run();
+			
+				//wait for completion of tasks claimed by other runners (runners that 
+				//are still queued find no remaining tasks and complete immediately)
+				for( FutureTask<T> ftask : ftasks )
+					awaitCompletion(ftask);
+				if( DMLScript.STATISTICS )
+					Statistics.incrementThreadPoolStats(ftasks.size(), false);
+			}
+
+			return new ArrayList<Future<T>>(ftasks);
+		}
+		finally {
+			releasePending(1);
+		}
+	}
+
+	/**
+	 * Waits for the completion of the given task, where task failures
+	 * are left to the caller of invokeAll (via the returned futures).
+	 * 
+	 * @param ftask
+	 * @throws InterruptedException
+	 */
+	private static void awaitCompletion(FutureTask<?> ftask) 
+		throws InterruptedException
+	{
+		try {
+			ftask.get();
+		}
+		catch(ExecutionException ex) {
+			//ignore, reported on future access
+		}
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		if( command == null )
+			throw new NullPointerException();
+		acquirePending();
+		
+		//nested invocations are executed inline (see invokeAll)
+		if( isPoolWorker() ) {
+			runTask(command);
+			return;
+		}
+		
+		_queue.add(command);
+		startRunner();
+	}
+
+	@Override
+	public void shutdown() {
+		//shutdown of handle only, the shared pool is kept alive
+		synchronized( this ) {
+			_shutdown = true;
+			notifyAll();
+		}
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown();
+		
+		//remove queued but not yet started tasks
+		List<Runnable> ret = new ArrayList<Runnable>();
+		for( Runnable task = _queue.poll(); task != null; task = _queue.poll() )
+			ret.add(task);
+		releasePending(ret.size());
+		return ret;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return _shutdown;
+	}
+
+	@Override
+	public synchronized boolean isTerminated() {
+		return _shutdown && _pending == 0;
+	}
+
+	@Override
+	public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while( !isTerminated() ) {
+			long remaining = deadline - System.nanoTime();
+			if( remaining <= 0 )
+				return false;
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		return true;
+	}
+
+	/**
+	 * Registers a new task (or invokeAll call) of this handle, 
+	 * unless the handle has already been shut down.
+	 */
+	private synchronized void acquirePending() {
+		if( _shutdown )
+			throw new RejectedExecutionException("Thread pool handle already shut down.");
+		_pending++;
+	}
+
+	/**
+	 * Deregisters the given number of completed or removed tasks,
+	 * and notifies threads waiting for termination if necessary.
+	 * 
+	 * @param num number of tasks
+	 */
+	private synchronized void releasePending(int num) {
+		_pending -= num;
+		if( _pending == 0 )
+			notifyAll();
+	}
+
+	/**
+	 * Starts a new runner in the shared pool if there are queued tasks
+	 * and less than k active runners of this handle.
+	 */
+	private void startRunner() {
+		while( !_queue.isEmpty() ) {
+			int runners = _runners.get();
+			if( runners >= _k )
+				return;
+			if( _runners.compareAndSet(runners, runners+1) ) {
+				getPool().execute(new QueueRunner());
+				return;
+			}
+		}
+	}
+
+	private void runTask(Runnable task) {
+		try {
+			task.run();
+		}
+		finally {
+			releasePending(1);
+		}
+	}
+
+	/**
+	 * Runner that processes queued tasks of this handle until the queue
+	 * is empty. Since tasks might be queued after the last poll but before 
+	 * the runner is deregistered, we recheck the queue on exit.
+	 */
+	private class QueueRunner implements Runnable
+	{
+		@Override
+		public void run() {
+			try {
+				for( Runnable task = _queue.poll(); task != null; task = _queue.poll() )
+					runTask(task);
+			}
+			finally {
+				_runners.decrementAndGet();
+				startRunner();
+			}
+		}
+	}
+}
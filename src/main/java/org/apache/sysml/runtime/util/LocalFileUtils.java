@@ -23,8 +23,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
@@ -37,6 +41,9 @@ import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.OffHeapDataInput;
+import org.apache.sysml.runtime.controlprogram.caching.OffHeapDataOutput;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
 import org.apache.sysml.runtime.io.IOUtilFunctions;
@@ -86,9 +93,44 @@ public class LocalFileUtils
 	
 	/** Reads a matrix/frame block from local file system. */
 	public static CacheBlock readCacheBlockFromLocal(String filePathAndName, boolean matrix) throws IOException {
+		if( matrix && CacheableData.CACHING_EVICTION_MMAP )
+			return readMatrixBlockFromLocalMapped(filePathAndName);
 		return (CacheBlock) readWritableFromLocal(filePathAndName, matrix?new MatrixBlock():new FrameBlock());
 	}
 	
+	/**
+	 * Reads a matrix block from a memory-mapped local file, where dense blocks
+	 * are restored via bulk copies and sparse rows are deserialized directly from
+	 * the mapping (i.e., without intermediate stream buffers). Files larger than 
+	 * 2GB fall back to the buffered reader.
+	 * 
+	 * @param filePathAndName
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixBlock readMatrixBlockFromLocalMapped(String filePathAndName)
+		throws IOException
+	{
+		FileChannel channel = null;
+		MappedByteBuffer mbuff = null;
+		try {
+			channel = FileChannel.open(Paths.get(filePathAndName), StandardOpenOption.READ);
+			long size = channel.size();
+			if( size > Integer.MAX_VALUE )
+				return readMatrixBlockFromLocal(filePathAndName);
+			
+			//deserialize (copies all data, i.e., no references to the mapping)
+			mbuff = channel.map(MapMode.READ_ONLY, 0, size);
+			MatrixBlock ret = new MatrixBlock();
+			ret.readFields(new OffHeapDataInput(mbuff));
+			return ret;
+		}
+		finally {
+			unmapQuietly(mbuff);
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
 	/**
 	 * Reads an arbitrary writable from local file system, using a fused buffered reader
 	 * with special support for matrix blocks.
@@ -125,7 +167,80 @@ public class LocalFileUtils
 	
 	/** Writes a matrix/frame block to local file system. */
 	public static void writeCacheBlockToLocal(String filePathAndName, CacheBlock cb) throws IOException {
-		writeWritableToLocal(filePathAndName, cb);
+		if( cb instanceof MatrixBlock && CacheableData.CACHING_EVICTION_MMAP )
+			writeMatrixBlockToLocalMapped(filePathAndName, (MatrixBlock)cb);
+		else
+			writeWritableToLocal(filePathAndName, cb);
+	}
+	
+	/**
+	 * Writes a matrix block into a memory-mapped local file of its exact
+	 * serialized size, where dense blocks are written via bulk copies. 
+	 * Blocks larger than 2GB fall back to the buffered writer.
+	 * 
+	 * @param filePathAndName
+	 * @param mb
+	 * @throws IOException
+	 */
+	public static void writeMatrixBlockToLocalMapped(String filePathAndName, MatrixBlock mb)
+		throws IOException
+	{
+		long size = mb.getExactSerializedSize();
+		if( size > Integer.MAX_VALUE ) {
+			writeWritableToLocal(filePathAndName, mb);
+			return;
+		}
+		
+		FileChannel channel = null;
+		MappedByteBuffer mbuff = null;
+		try {
+			channel = FileChannel.open(Paths.get(filePathAndName), StandardOpenOption.CREATE, 
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			mbuff = channel.map(MapMode.READ_WRITE, 0, size);
+			mb.write(new OffHeapDataOutput(mbuff));
+		}
+		finally {
+			//unmap (dirty pages are written back by the OS)
+			unmapQuietly(mbuff);
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	/**
+	 * Releases the given mapping deterministically instead of on garbage
+	 * collection, which otherwise holds address space and file handles and 
+	 * prevents the deletion of eviction files on some platforms. The buffer
+	 * must not be accessed afterwards. If not supported by the JVM, the 
+	 * mapping is released on garbage collection.
+	 * 
+	 * @param mbuff
+	 */
+	private static void unmapQuietly(MappedByteBuffer mbuff) 
+	{
+		if( mbuff == null )
+			return;
+		
+		try {
+			try {
+				//java 9+: sun.misc.Unsafe.invokeCleaner(ByteBuffer)
+				Class<?> clazz = Class.forName("sun.misc.Unsafe");
+				Field field = clazz.getDeclaredField("theUnsafe");
+				field.setAccessible(true);
+				Method clean = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+				clean.invoke(field.get(null), mbuff);
+			}
+			catch(NoSuchMethodException ex) {
+				//java 7/8: ((sun.nio.ch.DirectBuffer)mbuff).cleaner().clean()
+				Method cleaner = mbuff.getClass().getMethod("cleaner");
+				cleaner.setAccessible(true);
+				Object obj = cleaner.invoke(mbuff);
+				if( obj != null )
+					obj.getClass().getMethod("clean").invoke(obj);
+			}
+		}
+		catch(Exception ex) {
+			//ignore, released on garbage collection
+		}
 	}
 	
 	/**
@@ -173,6 +288,31 @@ public class LocalFileUtils
 		}
 	}
 
+	/**
+	 * Writes the remaining bytes of the given (e.g., direct) byte buffer
+	 * to local file system, without modifying the buffer position.
+	 * 
+	 * @param filePathAndName
+	 * @param data
+	 * @throws IOException
+	 */
+	public static void writeByteBufferToLocal( String filePathAndName, ByteBuffer data )
+		throws IOException
+	{	
+		FileChannel channel = null;
+		try {
+			Path path = Paths.get(filePathAndName);
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, 
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			ByteBuffer tmp = data.duplicate();
+			while( tmp.hasRemaining() )
+				channel.write(tmp);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+
 	/**
 	 * 
 	 * @param filePathAndName
@@ -19,7 +19,7 @@
 
 package org.apache.sysml.runtime.util;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * This native long long - double hashmap is specifically designed for
@@ -28,24 +28,43 @@ import java.util.ArrayList;
  * to be more memory-efficient which is important for large maps in order
  * to keep data in the caches and prevent high-latency random memory access. 
  * 
+ * The map uses open addressing with linear probing over parallel primitive
+ * arrays of keys and values, i.e., it does not create any objects per entry.
+ * Since the ctable keys (row/column indexes) are positive, key1=Long.MIN_VALUE 
+ * is reserved as marker of empty slots.
+ * 
  */
 public class LongLongDoubleHashMap 
 {
 	private static final int INIT_CAPACITY = 8;
 	private static final int RESIZE_FACTOR = 2;
-	private static final float LOAD_FACTOR = 0.75f;
+	private static final float LOAD_FACTOR = 0.7f;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final long EMPTY = Long.MIN_VALUE;
 
-	private LLDoubleEntry[] data = null;
-	private int size = -1;
+	private long[] _keys1 = null;
+	private long[] _keys2 = null;
+	private double[] _values = null;
+	private int _size = -1;
+	private int _threshold = -1;
 	
-	public LongLongDoubleHashMap()
-	{
-		data = new LLDoubleEntry[INIT_CAPACITY];
-		size = 0;
+	public LongLongDoubleHashMap() {
+		this(INIT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a hashmap of sufficient capacity for the given 
+	 * number of entries without resizing.
+	 * 
+	 * @param estnnz estimated number of entries
+	 */
+	public LongLongDoubleHashMap(int estnnz) {
+		long cap = Math.max((long)Math.ceil(estnnz/LOAD_FACTOR)+1, INIT_CAPACITY);
+		allocate((int)Math.min(Long.highestOneBit(cap-1)<<1, MAX_CAPACITY));
 	}
 
 	public int size() {
-		return size;
+		return _size;
 	}
 	
 	/**
@@ -56,72 +75,100 @@ public class LongLongDoubleHashMap
 	 */
 	public void addValue(long key1, long key2, double value)
 	{
-		//compute entry index position
-		int hash = hash(key1, key2);
-		int ix = indexFor(hash, data.length);
-
-		//find existing entry and add value
-		for( LLDoubleEntry e = data[ix]; e!=null; e = e.next ) {
-			if( e.key1==key1 && e.key2==key2 ) {
-				e.value += value;
+		if( key1 == EMPTY )
+			throw new IllegalArgumentException("Unsupported key: "+key1);
+		
+		//probe for existing entry or empty slot
+		int mask = _keys1.length - 1;
+		int ix = hash(key1, key2) & mask;
+		while( _keys1[ix] != EMPTY ) {
+			if( _keys1[ix]==key1 && _keys2[ix]==key2 ) {
+				_values[ix] += value;
 				return; //no need to append or resize
 			}
+			ix = (ix + 1) & mask;
 		}
 		
-		//add non-existing entry (constant time)
-		LLDoubleEntry enew = new LLDoubleEntry(key1, key2, value);
-		enew.next = data[ix]; //colliding entries / null
-		data[ix] = enew;
-		size++;
+		//add non-existing entry
+		_keys1[ix] = key1;
+		_keys2[ix] = key2;
+		_values[ix] = value;
+		_size++;
 		
 		//resize if necessary
-		if( size >= LOAD_FACTOR*data.length )
+		if( _size >= _threshold )
 			resize();
 	}
 	
 	/**
+	 * Adds all entries of the given hashmap to this hashmap.
 	 * 
-	 * @return
+	 * @param that hashmap to merge
 	 */
-	public ArrayList<LLDoubleEntry> extractValues()
+	public void addValues(LongLongDoubleHashMap that) 
 	{
-		ArrayList<LLDoubleEntry> ret = new ArrayList<LLDoubleEntry>();
-		for( LLDoubleEntry e : data ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					ret.add(e);
-					e = e.next;
-				}
-				ret.add(e);	
-			}
-		}
-
-		return ret;
+		long[] keys1 = that._keys1;
+		long[] keys2 = that._keys2;
+		double[] values = that._values;
+		for( int i=0; i<keys1.length; i++ )
+			if( keys1[i] != EMPTY )
+				addValue(keys1[i], keys2[i], values[i]);
+	}
+	
+	/**
+	 * Obtains an iterator over all entries of this hashmap, 
+	 * which does not create any objects per entry.
+	 * 
+	 * @return entry iterator
+	 */
+	public LLDoubleIterator getIterator() {
+		return new LLDoubleIterator();
+	}
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	private void allocate(int capacity) {
+		_keys1 = new long[capacity];
+		_keys2 = new long[capacity];
+		_values = new double[capacity];
+		Arrays.fill(_keys1, EMPTY);
+		_size = 0;
+		_threshold = (int)(LOAD_FACTOR * capacity);
 	}
 	
 	/**
 	 * 
 	 */
 	private void resize() {
-		//check for integer overflow on resize
-		if( data.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+		//check for integer overflow on resize (fill up to one empty slot)
+		if( _keys1.length >= MAX_CAPACITY ) {
+			if( _size >= _keys1.length - 1 )
+				throw new RuntimeException("Exceeded maximum capacity of "+_keys1.length+".");
+			_threshold = _keys1.length - 1;
 			return;
+		}
 		
-		//resize data array and copy existing contents
-		LLDoubleEntry[] olddata = data;
-		data = new LLDoubleEntry[data.length*RESIZE_FACTOR];
-		size = 0;
+		//resize data arrays and rehash existing contents
+		long[] keys1 = _keys1;
+		long[] keys2 = _keys2;
+		double[] values = _values;
+		int size = _size;
+		allocate(_keys1.length*RESIZE_FACTOR);
 		
-		//rehash all entries
-		for( LLDoubleEntry e : olddata ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					addValue(e.key1, e.key2, e.value);
-					e = e.next;
-				}
-				addValue(e.key1, e.key2, e.value);	
+		int mask = _keys1.length - 1;
+		for( int i=0; i<keys1.length; i++ ) {
+			if( keys1[i] != EMPTY ) {
+				int ix = hash(keys1[i], keys2[i]) & mask;
+				while( _keys1[ix] != EMPTY )
+					ix = (ix + 1) & mask;
+				_keys1[ix] = keys1[i];
+				_keys2[ix] = keys2[i];
+				_values[ix] = values[i];
 			}
 		}
+		_size = size;
 	}
 	
 	/**
@@ -131,41 +178,47 @@ public class LongLongDoubleHashMap
 	 * @return
 	 */
 	private static int hash(long key1, long key2) {
-		//basic hash mixing of two longs hashes (w/o object creation)
-		int h = (int)(key1 ^ (key1 >>> 32));
-		h = h*31 + (int)(key2 ^ (key2 >>> 32));
-		
-		// This function ensures that hashCodes that differ only by
-		// constant multiples at each bit position have a bounded
-		// number of collisions (approximately 8 at default load factor).
-		h ^= (h >>> 20) ^ (h >>> 12);
-		return h ^ (h >>> 7) ^ (h >>> 4);
-	}
-
-	/**
-	 * 
-	 * @param h
-	 * @param length
-	 * @return
-	 */
-	private static int indexFor(int h, int length) {
-		return h & (length-1);
+		//mixing of both keys (w/o object creation) with a 64bit finalizer
+		//in order to spread sequential row and column indexes, which is 
+		//important for open addressing with linear probing
+		long h = key1 * 0x9E3779B97F4A7C15L + key2;
+		h ^= (h >>> 33);
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= (h >>> 33);
+		return (int) h;
 	}
 	
 	/**
-	 * 
+	 * Iterator over all entries of the hashmap, where the iterator is 
+	 * advanced via next() and the current entry is accessed via getters.
 	 */
-	public class LLDoubleEntry {
-		public long key1 = Long.MAX_VALUE;
-		public long key2 = Long.MAX_VALUE;
-		public double value = Double.MAX_VALUE;
-		public LLDoubleEntry next = null;
+	public class LLDoubleIterator 
+	{
+		private int _pos = -1;
+		
+		/**
+		 * Advances the iterator to the next entry.
+		 * 
+		 * @return true if there is a next entry, false otherwise
+		 */
+		public boolean next() {
+			long[] keys1 = _keys1;
+			for( _pos++; _pos < keys1.length; _pos++ )
+				if( keys1[_pos] != EMPTY )
+					return true;
+			return false;
+		}
+		
+		public long getKey1() {
+			return _keys1[_pos];
+		}
+		
+		public long getKey2() {
+			return _keys2[_pos];
+		}
 		
-		public LLDoubleEntry(long k1, long k2, double val) {
-			key1 = k1;
-			key2 = k2;
-			value = val;
-			next = null;
+		public double getValue() {
+			return _values[_pos];
 		}
 	}
 }
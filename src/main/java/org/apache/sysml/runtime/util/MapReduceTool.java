@@ -115,6 +115,27 @@ public class MapReduceTool
 		return job.get(MRConfigurationNames.MR_TASK_ATTEMPT_ID);
 	}
 
+	/**
+	 * Gets the modification time of the given file or directory, 
+	 * or -1 if it does not exist.
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	public static long getModificationTimeOnHDFS(String fname) {
+		long ret = -1;
+		try {
+			Path path = new Path(fname);
+			FileSystem fs = FileSystem.get(_rJob);
+			if( fs.exists(path) )
+				ret = fs.getFileStatus(path).getModificationTime();
+		}
+		catch(Exception ex) {
+			LOG.error("Exception caught in getModificationTimeOnHDFS", ex);
+		}
+		return ret;
+	}
+	
 	public static boolean existsFileOnHDFS(String fname){
 		boolean ret = true;
 		try{
@@ -22,23 +22,30 @@ package org.apache.sysml.utils;
 import java.lang.management.CompilationMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.OffHeapBuffer;
 import org.apache.sysml.runtime.controlprogram.context.SparkExecutionContext;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.instructions.Instruction;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.runtime.instructions.MRJobInstruction;
 import org.apache.sysml.runtime.instructions.cp.FunctionCallCPInstruction;
 import org.apache.sysml.runtime.instructions.spark.SPInstruction;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 
 /**
  * This class captures all statistics.
@@ -70,7 +77,19 @@ public class Statistics
 	private static AtomicLong hopRecompileTime = new AtomicLong(0); //in nano sec
 	private static AtomicLong hopRecompilePred = new AtomicLong(0); //count
 	private static AtomicLong hopRecompileSB = new AtomicLong(0);   //count
+	private static AtomicLong hopRecompilePlanCacheHits = new AtomicLong(0); //count
+	private static AtomicLong hopRecompilePlanCacheMisses = new AtomicLong(0); //count
+	
+	//lineage reuse cache stats
+	private static AtomicLong lineageCacheHits = new AtomicLong(0); //count
+	private static AtomicLong lineageCacheMisses = new AtomicLong(0); //count
+	private static AtomicLong lineageCacheSpills = new AtomicLong(0); //count
 
+	//Codegen compile stats (number and time of compiled classes, not reset 
+	//before execution because classes are compiled during initial compilation)
+	private static AtomicLong codegenClassCompile = new AtomicLong(0); //count
+	private static AtomicLong codegenClassCompileTime = new AtomicLong(0); //in nano sec
+	
 	//Function recompile stats 
 	private static AtomicLong funRecompileTime = new AtomicLong(0); //in nano sec
 	private static AtomicLong funRecompiles = new AtomicLong(0); //count
@@ -84,6 +103,10 @@ public class Statistics
 	private static AtomicLong sparkBroadcast = new AtomicLong(0L);
 	private static AtomicLong sparkBroadcastCount = new AtomicLong(0L);
 	
+	//CP thread pool stats (potentially high update frequency)
+	private static AtomicLong threadPoolCalls = new AtomicLong(0); //count
+	private static AtomicLong threadPoolTasks = new AtomicLong(0); //count
+	private static AtomicLong threadPoolInlined = new AtomicLong(0); //count
 
 	
 
@@ -93,9 +116,11 @@ public class Statistics
 	private static long parforInitTime = 0; //in milli sec
 	private static long parforMergeTime = 0; //in milli sec
 	
-	//heavy hitter counts and times 
-	private static HashMap<String,Long> _cpInstTime   =  new HashMap<String, Long>();
-	private static HashMap<String,Long> _cpInstCounts =  new HashMap<String, Long>();
+	//heavy hitter counts, times, and time histograms (by interned opcode id,
+	//where ids are stable across resets and cached by instructions)
+	private static final ConcurrentHashMap<String,Integer> _cpInstIDs = new ConcurrentHashMap<String, Integer>();
+	private static final ArrayList<String> _cpInstNames = new ArrayList<String>();
+	private static volatile AtomicReferenceArray<HeavyHitter> _cpInstStats = new AtomicReferenceArray<HeavyHitter>(64);
 	
 	private static AtomicLong lTotalUIPVar = new AtomicLong(0);
 	private static AtomicLong lTotalLix = new AtomicLong(0);
@@ -264,6 +289,49 @@ public class Statistics
 		//note: not synchronized due to use of atomics
 		hopRecompileSB.addAndGet(delta);
 	}
+	
+	public static void incrementHOPRecompilePlanCacheHits() {
+		//note: not synchronized due to use of atomics
+		hopRecompilePlanCacheHits.incrementAndGet();
+	}
+	
+	public static void incrementHOPRecompilePlanCacheMisses() {
+		//note: not synchronized due to use of atomics
+		hopRecompilePlanCacheMisses.incrementAndGet();
+	}
+	
+	public static void incrementLineageCacheHits() {
+		//note: not synchronized due to use of atomics
+		lineageCacheHits.incrementAndGet();
+	}
+	
+	public static void incrementLineageCacheMisses() {
+		//note: not synchronized due to use of atomics
+		lineageCacheMisses.incrementAndGet();
+	}
+	
+	public static void incrementLineageCacheSpills() {
+		//note: not synchronized due to use of atomics
+		lineageCacheSpills.incrementAndGet();
+	}
+
+	public static void incrementCodegenClassCompile() {
+		//note: not synchronized due to use of atomics
+		codegenClassCompile.incrementAndGet();
+	}
+	
+	public static void incrementCodegenClassCompileTime( long delta ) {
+		//note: not synchronized due to use of atomics
+		codegenClassCompileTime.addAndGet(delta);
+	}
+	
+	public static long getCodegenClassCompile() {
+		return codegenClassCompile.get();
+	}
+	
+	public static long getCodegenClassCompileTime() {
+		return codegenClassCompileTime.get();
+	}
 
 	public static void incrementFunRecompileTime( long delta ) {
 		//note: not synchronized due to use of atomics
@@ -275,6 +343,14 @@ public class Statistics
 		funRecompiles.incrementAndGet();
 	}
 	
+	public static void incrementThreadPoolStats( int numTasks, boolean inlined ) {
+		//note: not synchronized due to use of atomics
+		threadPoolCalls.incrementAndGet();
+		threadPoolTasks.addAndGet(numTasks);
+		if( inlined )
+			threadPoolInlined.incrementAndGet();
+	}
+	
 	public static synchronized void incrementParForOptimCount(){
 		parforOptCount ++;
 	}
@@ -335,6 +411,15 @@ public class Statistics
 		hopRecompileTime.set(0);
 		hopRecompilePred.set(0);
 		hopRecompileSB.set(0);
+		hopRecompilePlanCacheHits.set(0);
+		hopRecompilePlanCacheMisses.set(0);
+		lineageCacheHits.set(0);
+		lineageCacheMisses.set(0);
+		lineageCacheSpills.set(0);
+		
+		threadPoolCalls.set(0);
+		threadPoolTasks.set(0);
+		threadPoolInlined.set(0);
 		
 		parforOptCount = 0;
 		parforOptTime = 0;
@@ -373,8 +458,9 @@ public class Statistics
 	 * 
 	 */
 	public static void resetCPHeavyHitters(){
-		_cpInstTime.clear();
-		_cpInstCounts.clear();
+		synchronized( _cpInstNames ) {
+			_cpInstStats = new AtomicReferenceArray<HeavyHitter>(_cpInstStats.length());
+		}
 	}
 	
 	/**
@@ -441,20 +527,107 @@ public class Statistics
 		return opcode;
 	}
 	
-	public synchronized static void maintainCPHeavyHitters( String key, long timeNanos )
+	/**
+	 * Gets the interned id of the given heavy hitter opcode, which is
+	 * stable for the lifetime of the JVM (i.e., across resets).
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public static int getCPHeavyHitterID( String key )
 	{
-		Long oldVal = _cpInstTime.get(key);
-		Long newVal = timeNanos + ((oldVal!=null) ? oldVal : 0);
-		_cpInstTime.put(key, newVal);
-
-		Long oldCnt = _cpInstCounts.get(key);
-		Long newCnt = 1 + ((oldCnt!=null) ? oldCnt : 0);
-		_cpInstCounts.put(key, newCnt);
+		Integer id = _cpInstIDs.get(key);
+		if( id == null ) {
+			synchronized( _cpInstNames ) {
+				id = _cpInstIDs.get(key);
+				if( id == null ) {
+					id = _cpInstNames.size();
+					_cpInstNames.add(key);
+					_cpInstIDs.put(key, id);
+				}
+			}
+		}
+		return id;
+	}
+	
+	/**
+	 * Maintains the count, total time, and time histogram of the given 
+	 * opcode (see getCPHeavyHitterID for the hot path).
+	 * 
+	 * @param key
+	 * @param timeNanos
+	 */
+	public static void maintainCPHeavyHitters( String key, long timeNanos )
+	{
+		maintainCPHeavyHitters(getCPHeavyHitterID(key), timeNanos);
+	}
+	
+	/**
+	 * Maintains the count, total time, and time histogram of the given 
+	 * interned opcode id. This method is thread-safe without global 
+	 * synchronization and does not allocate except on the first 
+	 * occurrence of an opcode per thread stripe.
+	 * 
+	 * @param id
+	 * @param timeNanos
+	 */
+	public static void maintainCPHeavyHitters( int id, long timeNanos )
+	{
+		AtomicReferenceArray<HeavyHitter> stats = _cpInstStats;
+		HeavyHitter hh = (id < stats.length()) ? stats.get(id) : null;
+		if( hh == null )
+			hh = createCPHeavyHitter(id);
+		hh.add(timeNanos);
+	}
+	
+	/**
+	 * 
+	 * @param id
+	 * @return
+	 */
+	private static HeavyHitter createCPHeavyHitter( int id )
+	{
+		synchronized( _cpInstNames ) {
+			//grow stats array if necessary (shared entries)
+			AtomicReferenceArray<HeavyHitter> stats = _cpInstStats;
+			if( id >= stats.length() ) {
+				AtomicReferenceArray<HeavyHitter> tmp = new AtomicReferenceArray<HeavyHitter>(
+					Math.max(2*stats.length(), _cpInstNames.size()));
+				for( int i=0; i<stats.length(); i++ )
+					tmp.set(i, stats.get(i));
+				_cpInstStats = stats = tmp;
+			}
+			
+			//create entry if not concurrently created
+			HeavyHitter hh = stats.get(id);
+			if( hh == null ) {
+				hh = new HeavyHitter();
+				stats.set(id, hh);
+			}
+			return hh;
+		}
+	}
+	
+	/**
+	 * Gets a snapshot of all maintained heavy hitters by opcode.
+	 * 
+	 * @return
+	 */
+	private static HashMap<String, HeavyHitter> getCPHeavyHitterMap()
+	{
+		HashMap<String, HeavyHitter> ret = new HashMap<String, HeavyHitter>();
+		synchronized( _cpInstNames ) {
+			AtomicReferenceArray<HeavyHitter> stats = _cpInstStats;
+			for( int i=0; i<Math.min(stats.length(), _cpInstNames.size()); i++ )
+				if( stats.get(i) != null )
+					ret.put(_cpInstNames.get(i), stats.get(i));
+		}
+		return ret;
 	}
 	
 	public static Set<String> getCPHeavyHitterOpCodes()
 	{
-		return _cpInstTime.keySet();
+		return getCPHeavyHitterMap().keySet();
 	}
 	
 	/**
@@ -462,37 +635,61 @@ public class Statistics
 	 * @param num
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	public static String getHeavyHitters( int num )
 	{
-		int len = _cpInstTime.size();
+		//obtain consistent snapshot of current stats
+		ArrayList<HeavyHitterSnapshot> tmp = new ArrayList<HeavyHitterSnapshot>();
+		for( Entry<String,HeavyHitter> e : getCPHeavyHitterMap().entrySet() )
+			tmp.add(new HeavyHitterSnapshot(e.getKey(), e.getValue()));
+		int len = tmp.size();
 		if( num <= 0 || len <= 0 )
 			return "-";
 		
-		//get top k via sort
-		Entry<String,Long>[] tmp = _cpInstTime.entrySet().toArray(new Entry[len]);
-		Arrays.sort(tmp, new Comparator<Entry<String, Long>>() {
-		    public int compare(Entry<String, Long> e1, Entry<String, Long> e2) {
-		        return e1.getValue().compareTo(e2.getValue());
-		    }
+		//get top k via sort (descending by total time)
+		Collections.sort(tmp, new Comparator<HeavyHitterSnapshot>() {
+			public int compare(HeavyHitterSnapshot e1, HeavyHitterSnapshot e2) {
+				return Long.compare(e2.time, e1.time);
+			}
 		});
 		
 		//prepare output string
 		StringBuilder sb = new StringBuilder();
 		for( int i=0; i<Math.min(num, len); i++ ){
-			String key = tmp[len-1-i].getKey();
+			HeavyHitterSnapshot hh = tmp.get(i);
 			sb.append("-- "+(i+1)+") \t");
-			sb.append(key);
+			sb.append(hh.key);
 			sb.append(" \t");
-			sb.append(String.format("%.3f", ((double)tmp[len-1-i].getValue())/1000000000));
+			sb.append(String.format("%.3f", ((double)hh.time)/1000000000));
 			sb.append(" sec \t");
-			sb.append(_cpInstCounts.get(key));
-			sb.append("\n");
+			sb.append(hh.count);
+			sb.append(" \t");
+			sb.append(String.format("%.3f", ((double)hh.p50)/1000000));
+			sb.append("/");
+			sb.append(String.format("%.3f", ((double)hh.p99)/1000000));
+			sb.append(" ms\n");
 		}
 		
 		return sb.toString();
 	}
 	
+	/**
+	 * Returns the count, total time, and time percentiles (p50, p99) in 
+	 * nanoseconds of the given heavy hitter opcode, or null if unknown.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public static long[] getHeavyHitterStats( String key )
+	{
+		Integer id = _cpInstIDs.get(key);
+		AtomicReferenceArray<HeavyHitter> stats = _cpInstStats;
+		HeavyHitter hh = (id != null && id < stats.length()) ? stats.get(id) : null;
+		if( hh == null )
+			return null;
+		HeavyHitterSnapshot tmp = new HeavyHitterSnapshot(key, hh);
+		return new long[]{tmp.count, tmp.time, tmp.p50, tmp.p99};
+	}
+	
 	/**
 	 * Returns the total time of asynchronous JIT compilation in milliseconds.
 	 * 
@@ -547,6 +744,26 @@ public class Statistics
 		return hopRecompileSB.get();
 	}
 	
+	public static long getHopRecompilePlanCacheHits(){
+		return hopRecompilePlanCacheHits.get();
+	}
+	
+	public static long getHopRecompilePlanCacheMisses(){
+		return hopRecompilePlanCacheMisses.get();
+	}
+	
+	public static long getLineageCacheHits(){
+		return lineageCacheHits.get();
+	}
+	
+	public static long getLineageCacheMisses(){
+		return lineageCacheMisses.get();
+	}
+	
+	public static long getLineageCacheSpills(){
+		return lineageCacheSpills.get();
+	}
+	
 	public static long getFunRecompileTime(){
 		return funRecompileTime.get();
 	}
@@ -555,6 +772,18 @@ public class Statistics
 		return funRecompiles.get();
 	}
 		
+	public static long getThreadPoolCalls(){
+		return threadPoolCalls.get();
+	}
+	
+	public static long getThreadPoolTasks(){
+		return threadPoolTasks.get();
+	}
+	
+	public static long getThreadPoolInlined(){
+		return threadPoolInlined.get();
+	}
+	
 	public static long getParforOptCount(){
 		return parforOptCount;
 	}
@@ -602,6 +831,11 @@ public class Statistics
 		{
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
+			sb.append("Cache WB hits/misses/evicts:\t" + CacheStatistics.displayWriteBuffer() + ".\n");
+			if( OffHeapBuffer.isEnabled() )
+				sb.append("Cache off-heap hits/writes:\t" + CacheStatistics.displayOffHeap() + ".\n");
+			if( CacheStatistics.getPrefetches()>0 )
+				sb.append("Cache prefetches (issue, cancel):\t" + CacheStatistics.displayPrefetch() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
 			if(DMLScript.REUSE_NONZEROED_OUTPUT) {
 				sb.append("Allocation time (Dense/Sparse):\t" + String.format("%.3f", denseBlockAllocationTime.doubleValue()/1000000000) 
@@ -609,6 +843,18 @@ public class Statistics
 			}
 			sb.append("HOP DAGs recompiled (PRED, SB):\t" + getHopRecompiledPredDAGs() + "/" + getHopRecompiledSBDAGs() + ".\n");
 			sb.append("HOP DAGs recompile time:\t" + String.format("%.3f", ((double)getHopRecompileTime())/1000000000) + " sec.\n");
+			if( getHopRecompilePlanCacheHits()+getHopRecompilePlanCacheMisses()>0 ) {
+				sb.append("HOP DAGs plan cache (hit, miss):\t" + getHopRecompilePlanCacheHits() + "/" 
+						+ getHopRecompilePlanCacheMisses() + ".\n");
+			}
+			if( getLineageCacheHits()+getLineageCacheMisses()>0 ) {
+				sb.append("Lineage cache (hit, miss, spill):\t" + getLineageCacheHits() + "/" 
+						+ getLineageCacheMisses() + "/" + getLineageCacheSpills() + ".\n");
+			}
+			if( getCodegenClassCompile()>0 ) {
+				sb.append("Codegen compile (classes, time):\t" + getCodegenClassCompile() + "/" 
+						+ String.format("%.3f", ((double)getCodegenClassCompileTime())/1000000000) + " sec.\n");
+			}
 			if( getFunRecompiles()>0 ) {
 				sb.append("Functions recompiled:\t\t" + getFunRecompiles() + ".\n");
 				sb.append("Functions recompile time:\t" + String.format("%.3f", ((double)getFunRecompileTime())/1000000000) + " sec.\n");	
@@ -626,6 +872,10 @@ public class Statistics
 								 ((double)sparkBroadcast.get())*1e-9,
 								 ((double)sparkCollect.get())*1e-9));
 			}
+			if( getThreadPoolCalls()>0 ) {
+				sb.append("CP thread pool (size, steals):\t" + CommonThreadPool.getPoolSize() + "/" + CommonThreadPool.getStealCount() + ".\n");
+				sb.append("CP thread pool (calls, inl, tasks):\t" + getThreadPoolCalls() + "/" + getThreadPoolInlined() + "/" + getThreadPoolTasks() + ".\n");
+			}
 			if( parforOptCount>0 ){
 				sb.append("ParFor loops optimized:\t\t" + getParforOptCount() + ".\n");
 				sb.append("ParFor optimize time:\t\t" + String.format("%.3f", ((double)getParforOptTime())/1000) + " sec.\n");	
@@ -636,9 +886,124 @@ public class Statistics
 			sb.append("Total JIT compile time:\t\t" + ((double)getJITCompileTime())/1000 + " sec.\n");
 			sb.append("Total JVM GC count:\t\t" + getJVMgcCount() + ".\n");
 			sb.append("Total JVM GC time:\t\t" + ((double)getJVMgcTime())/1000 + " sec.\n");
-			sb.append("Heavy hitter instructions (name, time, count):\n" + getHeavyHitters(10));
+			sb.append("Heavy hitter instructions (name, time, count, p50/p99):\n" + getHeavyHitters(10));
 		}
 		
 		return sb.toString();
 	}
+	
+	/**
+	 * Concurrent statistics of a single heavy hitter opcode. Counts, times, and
+	 * time histograms are striped by thread in order to avoid contention of 
+	 * concurrent parfor workers. Each stripe is a separately allocated array 
+	 * (padded to separate cache lines), which is created on first use by a thread 
+	 * of this stripe. The time histogram uses log-linear buckets (8 sub-buckets 
+	 * per power of two, i.e., <12.5% relative error).
+	 */
+	private static class HeavyHitter
+	{
+		private static final int PAD = 8; //longs per cache line
+		private static final int SUB_BITS = 3;
+		private static final int SUB_BUCKETS = 1 << SUB_BITS;
+		private static final int NUM_BUCKETS = (64-SUB_BITS+1) * SUB_BUCKETS;
+		private static final int NUM_STRIPES = Integer.highestOneBit(
+			Math.max(InfrastructureAnalyzer.getLocalParallelism(), 1) * 2 - 1);
+		
+		//stripe layout: count, time, padding, histogram buckets, padding
+		private static final int POS_COUNT = 0;
+		private static final int POS_TIME = 1;
+		private static final int POS_HIST = PAD;
+		private static final int STRIPE_LEN = POS_HIST + NUM_BUCKETS + PAD;
+		
+		private final AtomicReferenceArray<AtomicLongArray> _stripes = 
+			new AtomicReferenceArray<AtomicLongArray>(NUM_STRIPES);
+		
+		public void add( long timeNanos ) {
+			int ix = (int)Thread.currentThread().getId() & (NUM_STRIPES-1);
+			AtomicLongArray stripe = _stripes.get(ix);
+			if( stripe == null ) {
+				_stripes.compareAndSet(ix, null, new AtomicLongArray(STRIPE_LEN));
+				stripe = _stripes.get(ix);
+			}
+			stripe.incrementAndGet(POS_COUNT);
+			stripe.addAndGet(POS_TIME, timeNanos);
+			stripe.incrementAndGet(POS_HIST + getBucket(timeNanos));
+		}
+		
+		public long getCount() {
+			return getSum(POS_COUNT);
+		}
+		
+		public long getTime() {
+			return getSum(POS_TIME);
+		}
+		
+		/**
+		 * Gets the given percentile (e.g., 0.99) as the upper bound of the 
+		 * respective histogram bucket.
+		 * 
+		 * @param p
+		 * @return
+		 */
+		public long getPercentile( double p ) {
+			long[] hist = new long[NUM_BUCKETS];
+			long total = 0;
+			for( int i=0; i<NUM_BUCKETS; i++ )
+				total += (hist[i] = getSum(POS_HIST + i));
+			long rank = Math.max((long)Math.ceil(p * total), 1);
+			long cum = 0;
+			for( int i=0; i<NUM_BUCKETS; i++ ) {
+				cum += hist[i];
+				if( cum >= rank )
+					return getBucketUpperBound(i);
+			}
+			return 0;
+		}
+		
+		private long getSum( int pos ) {
+			long ret = 0;
+			for( int i=0; i<NUM_STRIPES; i++ ) {
+				AtomicLongArray stripe = _stripes.get(i);
+				if( stripe != null )
+					ret += stripe.get(pos);
+			}
+			return ret;
+		}
+		
+		private static int getBucket( long v ) {
+			if( v < SUB_BUCKETS )
+				return (int) Math.max(v, 0);
+			int exp = 63 - Long.numberOfLeadingZeros(v);
+			return (exp-SUB_BITS+1) * SUB_BUCKETS 
+				+ (int)((v >>> (exp-SUB_BITS)) & (SUB_BUCKETS-1));
+		}
+		
+		private static long getBucketUpperBound( int b ) {
+			if( b < SUB_BUCKETS )
+				return b;
+			int exp = b / SUB_BUCKETS + SUB_BITS - 1;
+			long sub = b % SUB_BUCKETS;
+			return ((SUB_BUCKETS + sub + 1) << (exp-SUB_BITS)) - 1;
+		}
+	}
+	
+	/**
+	 * Snapshot of heavy hitter statistics for sorting and reporting.
+	 */
+	private static class HeavyHitterSnapshot
+	{
+		private final String key;
+		private final long count;
+		private final long time;
+		private final long p50;
+		private final long p99;
+		
+		public HeavyHitterSnapshot(String key, HeavyHitter hh) {
+			this.key = key;
+			this.count = hh.getCount();
+			this.time = hh.getTime();
+			this.p50 = hh.getPercentile(0.5);
+			this.p99 = hh.getPercentile(0.99);
+		}
+	}
 }
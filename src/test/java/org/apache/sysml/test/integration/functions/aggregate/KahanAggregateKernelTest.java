@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a matrix block component test for the unrolled and vectorizable
+ * kahan aggregation kernels of sum, sumSq, and mean (full, row, and column
+ * aggregates), which compares the results against a naive reference
+ * implementation for dense and sparse inputs, with and without INF values.
+ *
+ */
+public class KahanAggregateKernelTest extends AutomatedTestBase
+{
+	private final static int rows = 1013;
+	private final static int cols = 317;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-8;
+
+	private enum AggOp {
+		SUM, SUM_SQ, MEAN
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testAggregatesDense() {
+		runAggregateTest(sparsity1, false);
+	}
+
+	@Test
+	public void testAggregatesSparse() {
+		runAggregateTest(sparsity2, false);
+	}
+
+	@Test
+	public void testAggregatesDenseInf() {
+		runAggregateTest(sparsity1, true);
+	}
+
+	@Test
+	public void testAggregatesSparseInf() {
+		runAggregateTest(sparsity2, true);
+	}
+
+	private void runAggregateTest(double sparsity, boolean inf)
+	{
+		try
+		{
+			//generate input (optionally w/ INF values in a few cells)
+			MatrixBlock in = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			if( inf ) {
+				in.quickSetValue(3, 5, Double.POSITIVE_INFINITY);
+				in.quickSetValue(rows-1, 7, Double.POSITIVE_INFINITY);
+				in.quickSetValue(17, 7, Double.POSITIVE_INFINITY);
+			}
+			Assert.assertEquals(sparsity < 0.4, in.isInSparseFormat());
+			double[][] A = DataConverter.convertToDoubleMatrix(in);
+
+			//compare full, row, and column aggregates
+			runAggregate(in, A, "uak+", AggOp.SUM, 1, 1);
+			runAggregate(in, A, "uark+", AggOp.SUM, rows, 1);
+			runAggregate(in, A, "uack+", AggOp.SUM, 1, cols);
+			runAggregate(in, A, "uasqk+", AggOp.SUM_SQ, 1, 1);
+			runAggregate(in, A, "uarsqk+", AggOp.SUM_SQ, rows, 1);
+			runAggregate(in, A, "uacsqk+", AggOp.SUM_SQ, 1, cols);
+			runAggregate(in, A, "uamean", AggOp.MEAN, 1, 1);
+			runAggregate(in, A, "uarmean", AggOp.MEAN, rows, 1);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static void runAggregate(MatrixBlock in, double[][] A, String opcode, AggOp op, int m, int n)
+		throws Exception
+	{
+		AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+		MatrixBlock ret = (MatrixBlock) in.aggregateUnaryOperations(auop,
+			new MatrixBlock(), rows, cols, new MatrixIndexes(1,1), true);
+
+		//naive reference result
+		double[][] C = new double[m][n];
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				double v = (op==AggOp.SUM_SQ) ? A[i][j]*A[i][j] : A[i][j];
+				C[(m>1)?i:0][(n>1)?j:0] += v;
+			}
+		if( op == AggOp.MEAN )
+			for( int i=0; i<m; i++ )
+				C[i][0] /= (m>1) ? cols : (double)rows*cols;
+
+		Assert.assertEquals(m, ret.getNumRows());
+		Assert.assertEquals(n, ret.getNumColumns());
+		for( int i=0; i<m; i++ )
+			for( int j=0; j<n; j++ ) {
+				double val = ret.quickGetValue(i, j);
+				if( Double.isInfinite(C[i][j]) )
+					Assert.assertEquals(opcode, C[i][j], val, 0);
+				else
+					Assert.assertEquals(opcode, C[i][j], val, eps);
+			}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.binary.matrix;
+
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a matrix block component test for the dense-dense matrix multiplication
+ * of large matrices (packed kernel, 2D output tiles for multi-threading), which 
+ * compares the results against a naive matrix multiplication for square, 
+ * tall-skinny and short-wide shapes with dimensions not aligned to tiles.
+ * 
+ */
+public class DenseMatrixMultiplicationTest extends AutomatedTestBase 
+{
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseMatrixMultSquareSingleThread() {
+		runDenseMatrixMultTest(523, 517, 509, 1);
+	}
+	
+	@Test
+	public void testDenseMatrixMultTallSkinnySingleThread() {
+		runDenseMatrixMultTest(2051, 263, 131, 1);
+	}
+	
+	@Test
+	public void testDenseMatrixMultShortWideSingleThread() {
+		runDenseMatrixMultTest(131, 263, 2051, 1);
+	}
+	
+	@Test
+	public void testDenseMatrixMultSquareMultiThread() {
+		runDenseMatrixMultTest(523, 517, 509, 6);
+	}
+	
+	@Test
+	public void testDenseMatrixMultTallSkinnyMultiThread() {
+		runDenseMatrixMultTest(2051, 263, 131, 6);
+	}
+	
+	@Test
+	public void testDenseMatrixMultShortWideMultiThread() {
+		runDenseMatrixMultTest(131, 263, 2051, 6);
+	}
+	
+	private void runDenseMatrixMultTest(int m, int cd, int n, int k) 
+	{
+		try
+		{
+			MatrixBlock m1 = MatrixBlock.randOperations(m, cd, 1.0, -1, 1, "uniform", 7);
+			MatrixBlock m2 = MatrixBlock.randOperations(cd, n, 0.9, -1, 1, "uniform", 3);
+			
+			//compute matrix mult and naive reference result
+			MatrixBlock ret = new MatrixBlock(m, n, false);
+			if( k > 1 )
+				LibMatrixMult.matrixMult(m1, m2, ret, k);
+			else
+				LibMatrixMult.matrixMult(m1, m2, ret);
+			double[][] A = DataConverter.convertToDoubleMatrix(m1);
+			double[][] B = DataConverter.convertToDoubleMatrix(m2);
+			double[][] C = new double[m][n];
+			for( int i=0; i<m; i++ )
+				for( int l=0; l<cd; l++ )
+					for( int j=0; j<n; j++ )
+						C[i][j] += A[i][l] * B[l][j];
+			
+			//compare results
+			TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(ret), m, n, eps);
+			if( ret.getNonZeros() != m1.getNumRows()*(long)m2.getNumColumns() )
+				throw new RuntimeException("Wrong number of non-zeros: " + ret.getNonZeros());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
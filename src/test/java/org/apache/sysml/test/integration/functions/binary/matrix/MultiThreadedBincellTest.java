@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.binary.matrix;
+
+import org.junit.Test;
+import org.apache.sysml.runtime.functionobjects.Equals;
+import org.apache.sysml.runtime.functionobjects.Minus;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.ValueFunction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a matrix block component test for the multi-threaded cell-wise
+ * binary and scalar operations (row-range kernels), which compares the
+ * results and number of non-zeros against the single-threaded operations
+ * for dense, sparse and mixed inputs. The inputs are large enough to
+ * satisfy the multi-threading constraints.
+ *
+ */
+public class MultiThreadedBincellTest extends AutomatedTestBase
+{
+	private final static int rows = 1501;
+	private final static int cols = 1011;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static int k = 6;
+
+	private enum OpType {
+		SCALAR,
+		MATRIX,
+		INPLACE
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSafeScalarDense() {
+		runBincellTest(OpType.SCALAR, Multiply.getMultiplyFnObject(), sparsity1, 0, 0, 0, false);
+	}
+
+	@Test
+	public void testSafeScalarSparse() {
+		runBincellTest(OpType.SCALAR, Multiply.getMultiplyFnObject(), sparsity2, 0, 0, 0, false);
+	}
+
+	@Test
+	public void testSafeScalarSparseCSR() {
+		runBincellTest(OpType.SCALAR, Multiply.getMultiplyFnObject(), sparsity2, 0, 0, 0, true);
+	}
+
+	@Test
+	public void testUnsafeScalarDense() {
+		runBincellTest(OpType.SCALAR, Plus.getPlusFnObject(), sparsity1, 0, 0, 0, false);
+	}
+
+	@Test
+	public void testUnsafeScalarSparse() {
+		runBincellTest(OpType.SCALAR, Plus.getPlusFnObject(), sparsity2, 0, 0, 0, false);
+	}
+
+	@Test
+	public void testMatrixMatrixDenseDense() {
+		runBincellTest(OpType.MATRIX, Plus.getPlusFnObject(), sparsity1, sparsity1, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixMatrixSparseSparsePlus() {
+		runBincellTest(OpType.MATRIX, Plus.getPlusFnObject(), sparsity2, sparsity2, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixMatrixSparseSparseMult() {
+		runBincellTest(OpType.MATRIX, Multiply.getMultiplyFnObject(), sparsity2, sparsity2, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixMatrixDenseSparsePlus() {
+		runBincellTest(OpType.MATRIX, Plus.getPlusFnObject(), sparsity1, sparsity2, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixMatrixSparseDenseMinus() {
+		runBincellTest(OpType.MATRIX, Minus.getMinusFnObject(), sparsity2, sparsity1, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixMatrixSparseDenseMult() {
+		runBincellTest(OpType.MATRIX, Multiply.getMultiplyFnObject(), sparsity2, sparsity1, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixMatrixUnsafeDenseDense() {
+		runBincellTest(OpType.MATRIX, Equals.getEqualsFnObject(), sparsity1, sparsity1, rows, cols, false);
+	}
+
+	@Test
+	public void testMatrixColVectorDense() {
+		runBincellTest(OpType.MATRIX, Plus.getPlusFnObject(), sparsity1, 1.0, rows, 1, false);
+	}
+
+	@Test
+	public void testMatrixRowVectorDense() {
+		runBincellTest(OpType.MATRIX, Minus.getMinusFnObject(), sparsity1, 1.0, 1, cols, false);
+	}
+
+	@Test
+	public void testMatrixColVectorSparse() {
+		runBincellTest(OpType.MATRIX, Multiply.getMultiplyFnObject(), sparsity2, 1.0, rows, 1, false);
+	}
+
+	@Test
+	public void testMatrixRowVectorSparse() {
+		runBincellTest(OpType.MATRIX, Multiply.getMultiplyFnObject(), sparsity2, 1.0, 1, cols, false);
+	}
+
+	@Test
+	public void testInPlaceDenseDense() {
+		runBincellTest(OpType.INPLACE, Plus.getPlusFnObject(), sparsity1, sparsity1, rows, cols, false);
+	}
+
+	@Test
+	public void testInPlaceDenseSparse() {
+		runBincellTest(OpType.INPLACE, Minus.getMinusFnObject(), sparsity1, sparsity2, rows, cols, false);
+	}
+
+	private void runBincellTest(OpType type, ValueFunction fn, double sp1, double sp2, int rows2, int cols2, boolean csr)
+	{
+		try
+		{
+			MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, sp1, -1, 1, "uniform", 7);
+			MatrixBlock m2 = (type != OpType.SCALAR) ?
+				MatrixBlock.randOperations(rows2, cols2, sp2, -1, 1, "uniform", 3) : null;
+			if( csr && m1.isInSparseFormat() )
+				m1 = new MatrixBlock(m1, SparseBlock.Type.CSR, true);
+
+			//compute single- and multi-threaded results
+			MatrixBlock ret1 = executeBincellOp(type, fn, m1, m2, 1);
+			MatrixBlock ret2 = executeBincellOp(type, fn, m1, m2, k);
+
+			//compare results
+			TestUtils.compareMatrices(
+				DataConverter.convertToDoubleMatrix(ret1),
+				DataConverter.convertToDoubleMatrix(ret2), rows, ret1.getNumColumns(), 0);
+			if( ret1.getNonZeros() != ret2.getNonZeros() )
+				throw new RuntimeException("Wrong number of non-zeros: " + ret2.getNonZeros() + " (expected " + ret1.getNonZeros() + ")");
+			long nnz = ret2.getNonZeros();
+			ret2.recomputeNonZeros();
+			if( nnz != ret2.getNonZeros() )
+				throw new RuntimeException("Inconsistent number of non-zeros: " + nnz + " (actual " + ret2.getNonZeros() + ")");
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static MatrixBlock executeBincellOp(OpType type, ValueFunction fn, MatrixBlock m1, MatrixBlock m2, int numThreads)
+		throws Exception
+	{
+		switch( type ) {
+			case SCALAR:
+				return (MatrixBlock) m1.scalarOperations(new RightScalarOperator(fn, 7, numThreads), null);
+			case MATRIX:
+				return (MatrixBlock) m1.binaryOperations(new BinaryOperator(fn, numThreads), m2, null);
+			case INPLACE:
+				MatrixBlock ret = new MatrixBlock(m1);
+				ret.binaryOperationsInPlace(new BinaryOperator(fn, numThreads), m2);
+				return ret;
+			default:
+				throw new RuntimeException("Unsupported operation type: " + type);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.binary.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a matrix block component test for the sparse-sparse matrix multiplication
+ * with sparse CSR output, which compares the results against a naive matrix 
+ * multiplication for outputs with hash-based (very sparse) and dense accumulators.
+ * 
+ */
+public class SparseMatrixMultiplicationTest extends AutomatedTestBase 
+{
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSparseMatrixMultHashSingleThread() {
+		runSparseMatrixMultTest(1711, 1493, 1601, 0.002, 0.003, 1);
+	}
+	
+	@Test
+	public void testSparseMatrixMultDenseSpaSingleThread() {
+		runSparseMatrixMultTest(503, 307, 411, 0.02, 0.02, 1);
+	}
+	
+	@Test
+	public void testSparseMatrixMultHashMultiThread() {
+		runSparseMatrixMultTest(1711, 1493, 1601, 0.002, 0.003, 4);
+	}
+	
+	@Test
+	public void testSparseMatrixMultDenseSpaMultiThread() {
+		runSparseMatrixMultTest(503, 307, 411, 0.02, 0.02, 4);
+	}
+	
+	private void runSparseMatrixMultTest(int m, int cd, int n, double sp1, double sp2, int k) 
+	{
+		try
+		{
+			MatrixBlock m1 = MatrixBlock.randOperations(m, cd, sp1, -1, 1, "uniform", 7);
+			MatrixBlock m2 = MatrixBlock.randOperations(cd, n, sp2, -1, 1, "uniform", 3);
+			
+			//compute matrix mult and naive reference result
+			MatrixBlock ret = new MatrixBlock(m, n, false);
+			if( k > 1 )
+				LibMatrixMult.matrixMult(m1, m2, ret, k);
+			else
+				LibMatrixMult.matrixMult(m1, m2, ret);
+			double[][] A = DataConverter.convertToDoubleMatrix(m1);
+			double[][] B = DataConverter.convertToDoubleMatrix(m2);
+			double[][] C = new double[m][n];
+			long nnz = 0;
+			for( int i=0; i<m; i++ ) {
+				for( int l=0; l<cd; l++ )
+					if( A[i][l] != 0 )
+						for( int j=0; j<n; j++ )
+							C[i][j] += A[i][l] * B[l][j];
+				for( int j=0; j<n; j++ )
+					nnz += (C[i][j] != 0) ? 1 : 0;
+			}
+			
+			//compare results and output representation
+			Assert.assertTrue(ret.isInSparseFormat());
+			Assert.assertTrue(ret.getSparseBlock() instanceof SparseBlockCSR);
+			Assert.assertEquals(nnz, ret.getNonZeros());
+			TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(ret), m, n, eps);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
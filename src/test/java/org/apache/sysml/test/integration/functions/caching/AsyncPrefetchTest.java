@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.caching.AsyncPrefetcher;
+import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the asynchronous prefetch of evicted matrices,
+ * which forces the eviction of matrix inputs (i.e., clears the soft-referenced
+ * cache as the garbage collector would do) and checks that the prefetch restores
+ * the block ahead of the consuming instruction, and that a not yet started
+ * prefetch is canceled on rmvar of its variable.
+ *
+ */
+public class AsyncPrefetchTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "AsyncPrefetch";
+
+	private final static int rows = 321;
+	private final static int cols = 47;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static long timeout = 10000; //10s
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testPrefetchRestoreEvictedDense() {
+		runPrefetchRestoreTest(sparsity1);
+	}
+
+	@Test
+	public void testPrefetchRestoreEvictedSparse() {
+		runPrefetchRestoreTest(sparsity2);
+	}
+
+	@Test
+	public void testPrefetchCancelOnRmvar() {
+		boolean oldStats = DMLScript.STATISTICS;
+		AsyncPrefetcher prefetch = new AsyncPrefetcher();
+		try
+		{
+			initCachingAndStatistics();
+			ExecutionContext ec = ExecutionContextFactory.createContext();
+
+			//evicted blockers (at least one per prefetch thread) and X
+			int numBlockers = InfrastructureAnalyzer.getLocalParallelism();
+			EvictableMatrixObject[] blockers = new EvictableMatrixObject[numBlockers];
+			ArrayList<Instruction> inst = new ArrayList<Instruction>();
+			for( int i=0; i<numBlockers; i++ ) {
+				blockers[i] = createEvictedMatrix("B"+i, sparsity1, 3+i);
+				ec.setVariable("B"+i, blockers[i]);
+				inst.add(createTsmmInstruction("B"+i));
+			}
+			EvictableMatrixObject mo = createEvictedMatrix("X", sparsity1, 7);
+			ec.setVariable("X", mo);
+			inst.add(createTsmmInstruction("X"));
+			Instruction rmvar = VariableCPInstruction.prepareRemoveInstruction("X");
+			inst.add(rmvar);
+			CacheStatistics.reset();
+
+			//issue prefetches while the blockers are locked, which occupies all
+			//prefetch threads and hence the prefetch of X is not yet started
+			final AsyncPrefetcher fprefetch = prefetch;
+			final ArrayList<Instruction> finst = inst;
+			final ExecutionContext fec = ec;
+			runLocked(blockers, 0, new Runnable() {
+				@Override
+				public void run() {
+					for( int i=-1; i<finst.size()-1; i++ )
+						fprefetch.prefetch(finst, i, fec);
+					fprefetch.cancel(finst.get(finst.size()-1), fec);
+				}
+			});
+			Assert.assertEquals(numBlockers+1, CacheStatistics.getPrefetches());
+			Assert.assertEquals(1, CacheStatistics.getPrefetchCancels());
+
+			//rmvar of X is not affected by the canceled prefetch, and only
+			//the blockers are restored once unlocked (but never X)
+			rmvar.processInstruction(ec);
+			Assert.assertNull(ec.getVariable("X"));
+			for( MatrixObject blocker : blockers )
+				waitForRestore(blocker);
+			Assert.assertEquals(numBlockers, CacheStatistics.getFSBuffHits() + CacheStatistics.getFSHits());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			prefetch.close();
+			DMLScript.STATISTICS = oldStats;
+		}
+	}
+
+	private void runPrefetchRestoreTest(double sparsity)
+	{
+		boolean oldStats = DMLScript.STATISTICS;
+		AsyncPrefetcher prefetch = new AsyncPrefetcher();
+		try
+		{
+			initCachingAndStatistics();
+			ExecutionContext ec = ExecutionContextFactory.createContext();
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			EvictableMatrixObject mo = createEvictedMatrix("X", mb);
+			ec.setVariable("X", mo);
+			ArrayList<Instruction> inst = new ArrayList<Instruction>();
+			inst.add(createTsmmInstruction("X"));
+			CacheStatistics.reset();
+
+			//issue prefetch and wait for the restore of the evicted block
+			prefetch.prefetch(inst, -1, ec);
+			Assert.assertEquals(1, CacheStatistics.getPrefetches());
+			waitForRestore(mo);
+			Assert.assertEquals(1, CacheStatistics.getFSBuffHits() + CacheStatistics.getFSHits());
+
+			//consumer acquires the restored block from memory (w/o restore)
+			MatrixBlock ret = mo.acquireRead();
+			Assert.assertEquals(1, CacheStatistics.getMemHits());
+			Assert.assertEquals(1, CacheStatistics.getFSBuffHits() + CacheStatistics.getFSHits());
+			Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+			TestUtils.compareMatrices(
+				DataConverter.convertToDoubleMatrix(mb),
+				DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+			mo.release();
+			prefetch.consume(inst.get(0), ec);
+			Assert.assertEquals(0, CacheStatistics.getPrefetchCancels());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			prefetch.close();
+			DMLScript.STATISTICS = oldStats;
+		}
+	}
+
+	private static void initCachingAndStatistics() throws Exception {
+		DMLScript.STATISTICS = true;
+		CacheableData.initCaching();
+		CacheStatistics.reset();
+	}
+
+	private static EvictableMatrixObject createEvictedMatrix(String name, double sparsity, long seed)
+		throws Exception
+	{
+		return createEvictedMatrix(name, MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", seed));
+	}
+
+	private static EvictableMatrixObject createEvictedMatrix(String name, MatrixBlock mb)
+		throws Exception
+	{
+		MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols,
+			OptimizerUtils.DEFAULT_BLOCKSIZE, OptimizerUtils.DEFAULT_BLOCKSIZE, mb.getNonZeros());
+		EvictableMatrixObject mo = new EvictableMatrixObject(TEST_NAME+"_"+name, new MatrixFormatMetaData(
+			mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		mo.setVarName(name);
+		mo.acquireModify(mb); //write to buffer pool on release
+		mo.release();
+		mo.evict();
+		Assert.assertTrue(mo.isPrefetchCandidate());
+		return mo;
+	}
+
+	private static Instruction createTsmmInstruction(String name) throws Exception {
+		String T = Lop.VALUETYPE_PREFIX;
+		String D = Lop.OPERAND_DELIMITOR;
+		return CPInstructionParser.parseSingleInstruction("CP"+D+"tsmm"+D+name+T+"MATRIX"+T+"DOUBLE"
+			+D+"_mVar"+name+T+"MATRIX"+T+"DOUBLE"+D+"LEFT"+D+"1");
+	}
+
+	private static void waitForRestore(MatrixObject mo) throws Exception {
+		long t0 = System.currentTimeMillis();
+		while( mo.isPrefetchCandidate() ) {
+			Assert.assertTrue("Prefetch not completed.", System.currentTimeMillis()-t0 < timeout);
+			Thread.sleep(10);
+		}
+	}
+
+	private static void runLocked(MatrixObject[] mos, int pos, Runnable task) {
+		if( pos == mos.length ) {
+			task.run();
+			return;
+		}
+		synchronized( mos[pos] ) {
+			runLocked(mos, pos+1, task);
+		}
+	}
+
+	/**
+	 * Matrix object that allows to force the eviction of its (released) block,
+	 * i.e., to clear the soft-referenced cache as the garbage collector would do.
+	 */
+	private static class EvictableMatrixObject extends MatrixObject
+	{
+		public EvictableMatrixObject(String fname, MatrixFormatMetaData meta) {
+			super(ValueType.DOUBLE, fname, meta);
+		}
+
+		public synchronized void evict() {
+			clearCache();
+		}
+	}
+}
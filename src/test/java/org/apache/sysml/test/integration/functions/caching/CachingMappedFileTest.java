@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the memory-mapped write and read of local
+ * eviction files, which checks the compatibility with the buffered reader
+ * and writer, and that files can be deleted right after the mapped access
+ * (i.e., that mappings are released deterministically).
+ *
+ */
+public class CachingMappedFileTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "CachingMappedFile";
+
+	private final static int rows = 1017;
+	private final static int cols = 731;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testMappedWriteBufferedReadDense() {
+		runMappedFileTest(sparsity1, true, false);
+	}
+
+	@Test
+	public void testMappedWriteBufferedReadSparse() {
+		runMappedFileTest(sparsity2, true, false);
+	}
+
+	@Test
+	public void testBufferedWriteMappedReadDense() {
+		runMappedFileTest(sparsity1, false, true);
+	}
+
+	@Test
+	public void testBufferedWriteMappedReadSparse() {
+		runMappedFileTest(sparsity2, false, true);
+	}
+
+	@Test
+	public void testMappedWriteMappedReadDense() {
+		runMappedFileTest(sparsity1, true, true);
+	}
+
+	@Test
+	public void testMappedWriteMappedReadSparse() {
+		runMappedFileTest(sparsity2, true, true);
+	}
+
+	private void runMappedFileTest(double sparsity, boolean mappedWrite, boolean mappedRead)
+	{
+		File file = null;
+		try
+		{
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			file = File.createTempFile(TEST_NAME, ".dat");
+			String fname = file.getAbsolutePath();
+
+			//write and read via mapped or buffered local file
+			if( mappedWrite )
+				LocalFileUtils.writeMatrixBlockToLocalMapped(fname, mb);
+			else
+				LocalFileUtils.writeMatrixBlockToLocal(fname, mb);
+			Assert.assertEquals(mb.getExactSerializedSize(), file.length());
+			MatrixBlock ret = mappedRead ?
+				LocalFileUtils.readMatrixBlockFromLocalMapped(fname) :
+				LocalFileUtils.readMatrixBlockFromLocal(fname);
+
+			//delete file right after access (no open mappings)
+			LocalFileUtils.deleteFileIfExists(fname);
+			Assert.assertFalse(file.exists());
+
+			//compare results
+			Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+			TestUtils.compareMatrices(
+				DataConverter.convertToDoubleMatrix(mb),
+				DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			if( file != null )
+				LocalFileUtils.deleteFileIfExists(file.getAbsolutePath());
+		}
+	}
+}
@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the write buffer of evicted blocks, which
+ * checks the victim selection of all replacement policies, the configured
+ * policy, asynchronous write-back with cancel on delete, re-eviction under
+ * the same file name, the pinned buffer of a failed write-back, and
+ * concurrent write/read/delete of blocks against the written files.
+ *
+ */
+public class LazyWriteBufferTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "LazyWriteBuffer";
+
+	private final static int rows = 100;
+	private final static int cols = 100;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+
+	private final static int threads = 4;
+	private final static int iterations = 50;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testEvictionFIFO() {
+		runEvictionPolicyTest(RPolicy.FIFO);
+	}
+
+	@Test
+	public void testEvictionLRU() {
+		runEvictionPolicyTest(RPolicy.LRU);
+	}
+
+	@Test
+	public void testEvictionSIZE() {
+		runEvictionPolicyTest(RPolicy.SIZE);
+	}
+
+	@Test
+	public void testConfiguredPolicy() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		try {
+			for( RPolicy policy : RPolicy.values() ) {
+				setPolicyConfig(policy.name().toLowerCase());
+				Assert.assertEquals(policy, LazyWriteBuffer.getBufferPolicy());
+				LazyWriteBuffer.init();
+				Assert.assertEquals(policy, LazyWriteBuffer.getPolicy());
+				LazyWriteBuffer.cleanup();
+			}
+
+			//unknown policies fall back to the default policy
+			setPolicyConfig("MRU");
+			Assert.assertEquals(RPolicy.FIFO, LazyWriteBuffer.getBufferPolicy());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(conf);
+		}
+	}
+
+	@Test
+	public void testDeleteCancelsWriteBack() {
+		File dir = null;
+		try {
+			dir = Files.createTempDirectory(TEST_NAME).toFile();
+			MatrixBlock mb = createBlock(rows, sparsity1, 7);
+			String fname = fname(dir, "A");
+			LazyWriteBuffer.init(RPolicy.FIFO, limit(mb, 2.5));
+
+			//evict block and delete it while its write-back may be pending
+			LazyWriteBuffer.writeBlock(fname, mb);
+			LazyWriteBuffer.writeBlock(fname(dir, "B"), createBlock(rows, sparsity1, 8));
+			LazyWriteBuffer.writeBlock(fname(dir, "C"), createBlock(rows, sparsity1, 9));
+			Assert.assertFalse(LazyWriteBuffer.isBuffered(fname));
+			LazyWriteBuffer.deleteBlock(fname);
+
+			//no file remains after pending write-backs and deletes
+			LazyWriteBuffer.cleanup();
+			Assert.assertFalse(new File(fname).exists());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			LazyWriteBuffer.cleanup();
+			deleteDir(dir);
+		}
+	}
+
+	@Test
+	public void testReEvictionSameName() {
+		File dir = null;
+		try {
+			dir = Files.createTempDirectory(TEST_NAME).toFile();
+			MatrixBlock mb1 = createBlock(rows, sparsity1, 7);
+			MatrixBlock mb2 = createBlock(rows, sparsity1, 8);
+			String fname = fname(dir, "A");
+			LazyWriteBuffer.init(RPolicy.FIFO, limit(mb1, 2.5));
+
+			//evict, delete and re-evict a block under the same name, where
+			//the new write waits for the pending write-back and delete
+			for( int i=0; i<2; i++ ) {
+				LazyWriteBuffer.writeBlock(fname, (i==0) ? mb1 : mb2);
+				LazyWriteBuffer.writeBlock(fname(dir, "B"+i), createBlock(rows, sparsity1, 9+2*i));
+				LazyWriteBuffer.writeBlock(fname(dir, "C"+i), createBlock(rows, sparsity1, 10+2*i));
+				Assert.assertFalse(LazyWriteBuffer.isBuffered(fname));
+				if( i==0 )
+					LazyWriteBuffer.deleteBlock(fname);
+			}
+
+			//the written file holds the second block
+			LazyWriteBuffer.awaitWriteBacks();
+			compareBlocks(mb2, (MatrixBlock) LazyWriteBuffer.readBlock(fname, true));
+			compareBlocks(mb2, LocalFileUtils.readMatrixBlockFromLocal(fname));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			LazyWriteBuffer.cleanup();
+			deleteDir(dir);
+		}
+	}
+
+	@Test
+	public void testFailedWriteBackPinned() {
+		File dir = null;
+		try {
+			dir = Files.createTempDirectory(TEST_NAME).toFile();
+			MatrixBlock mb1 = createBlock(rows, sparsity1, 7);
+			MatrixBlock mb2 = createBlock(rows, sparsity1, 8);
+			MatrixBlock mb3 = createBlock(rows, sparsity1, 9);
+			String fname = dir.getAbsolutePath() + File.separator + "missing" + File.separator + "A";
+			LazyWriteBuffer.init(RPolicy.FIFO, limit(mb1, 2.5));
+
+			//evict block into a non-existing directory (failed write)
+			LazyWriteBuffer.writeBlock(fname, mb1);
+			LazyWriteBuffer.writeBlock(fname(dir, "B"), mb2);
+			LazyWriteBuffer.writeBlock(fname(dir, "C"), mb3);
+			Assert.assertFalse(LazyWriteBuffer.isBuffered(fname));
+			LazyWriteBuffer.awaitWriteBacks();
+			Assert.assertFalse(new File(fname).exists());
+
+			//the buffer remains pinned and readable from memory
+			compareBlocks(mb1, (MatrixBlock) LazyWriteBuffer.readBlock(fname, true));
+
+			//re-write under the same name supersedes the failed write-back
+			LazyWriteBuffer.writeBlock(fname, mb2);
+			Assert.assertTrue(LazyWriteBuffer.isBuffered(fname));
+			compareBlocks(mb2, (MatrixBlock) LazyWriteBuffer.readBlock(fname, true));
+			LazyWriteBuffer.deleteBlock(fname);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			LazyWriteBuffer.cleanup();
+			deleteDir(dir);
+		}
+	}
+
+	@Test
+	public void testConcurrentWriteReadDeleteFIFO() {
+		runConcurrentTest(RPolicy.FIFO);
+	}
+
+	@Test
+	public void testConcurrentWriteReadDeleteLRU() {
+		runConcurrentTest(RPolicy.LRU);
+	}
+
+	@Test
+	public void testConcurrentWriteReadDeleteSIZE() {
+		runConcurrentTest(RPolicy.SIZE);
+	}
+
+	private void runEvictionPolicyTest(RPolicy policy)
+	{
+		File dir = null;
+		try
+		{
+			//blocks A, B, C (largest) and D, where D exceeds the limit
+			dir = Files.createTempDirectory(TEST_NAME).toFile();
+			MatrixBlock[] mbs = new MatrixBlock[] {
+				createBlock(rows, sparsity1, 7), createBlock(rows, sparsity1, 8),
+				createBlock(2*rows, sparsity1, 9), createBlock(rows, sparsity1, 10) };
+			String[] fnames = new String[] {
+				fname(dir, "A"), fname(dir, "B"), fname(dir, "C"), fname(dir, "D") };
+			long limit = mbs[0].getExactSerializedSize() + mbs[1].getExactSerializedSize()
+				+ mbs[2].getExactSerializedSize() + mbs[3].getExactSerializedSize() / 2;
+			LazyWriteBuffer.init(policy, limit);
+			Assert.assertEquals(policy, LazyWriteBuffer.getPolicy());
+
+			//write A, B, C, access A, and write D
+			for( int i=0; i<3; i++ )
+				LazyWriteBuffer.writeBlock(fnames[i], mbs[i]);
+			compareBlocks(mbs[0], (MatrixBlock) LazyWriteBuffer.readBlock(fnames[0], true));
+			LazyWriteBuffer.writeBlock(fnames[3], mbs[3]);
+
+			//check victim: FIFO -> A, LRU -> B, SIZE -> C
+			int victim = (policy==RPolicy.FIFO) ? 0 : (policy==RPolicy.LRU) ? 1 : 2;
+			LazyWriteBuffer.awaitWriteBacks();
+			for( int i=0; i<4; i++ ) {
+				Assert.assertEquals(i!=victim, LazyWriteBuffer.isBuffered(fnames[i]));
+				Assert.assertEquals(i==victim, new File(fnames[i]).exists());
+			}
+
+			//read all blocks from buffer or written files
+			for( int i=0; i<4; i++ )
+				compareBlocks(mbs[i], (MatrixBlock) LazyWriteBuffer.readBlock(fnames[i], true));
+
+			//delete all blocks incl written file
+			for( int i=0; i<4; i++ )
+				LazyWriteBuffer.deleteBlock(fnames[i]);
+			LazyWriteBuffer.cleanup();
+			Assert.assertEquals(0, dir.listFiles().length);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			LazyWriteBuffer.cleanup();
+			deleteDir(dir);
+		}
+	}
+
+	private void runConcurrentTest(RPolicy policy)
+	{
+		File dir = null;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try
+		{
+			//limit of about three blocks, i.e., frequent evictions
+			final File fdir = Files.createTempDirectory(TEST_NAME).toFile();
+			dir = fdir;
+			LazyWriteBuffer.init(policy, limit(createBlock(rows, sparsity1, 7), 3.5));
+
+			//each thread repeatedly writes, reads and deletes its own blocks,
+			//with different blocks under the same names across iterations
+			ArrayList<Future<Void>> rt = new ArrayList<Future<Void>>();
+			for( int t=0; t<threads; t++ ) {
+				final int tid = t;
+				rt.add(pool.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						for( int i=0; i<iterations; i++ ) {
+							String fname1 = fname(fdir, "T"+tid+"_1");
+							String fname2 = fname(fdir, "T"+tid+"_2");
+							MatrixBlock mb1 = createBlock(rows, sparsity1, tid*iterations+i);
+							MatrixBlock mb2 = createBlock(rows, sparsity2, (threads+tid)*iterations+i);
+							LazyWriteBuffer.writeBlock(fname1, mb1);
+							LazyWriteBuffer.writeBlock(fname2, mb2);
+							compareBlocks(mb1, (MatrixBlock) LazyWriteBuffer.readBlock(fname1, true));
+							compareBlocks(mb2, (MatrixBlock) LazyWriteBuffer.readBlock(fname2, true));
+							LazyWriteBuffer.deleteBlock(fname1);
+							if( i < iterations-1 ) //keep last block
+								LazyWriteBuffer.deleteBlock(fname2);
+						}
+						return null;
+					}
+				}));
+			}
+			for( Future<Void> task : rt )
+				task.get();
+
+			//read remaining blocks (last iteration) and delete them
+			for( int t=0; t<threads; t++ ) {
+				String fname2 = fname(fdir, "T"+t+"_2");
+				MatrixBlock mb2 = createBlock(rows, sparsity2, (threads+t)*iterations+iterations-1);
+				compareBlocks(mb2, (MatrixBlock) LazyWriteBuffer.readBlock(fname2, true));
+				LazyWriteBuffer.deleteBlock(fname2);
+			}
+
+			//no files remain after pending write-backs and deletes
+			LazyWriteBuffer.cleanup();
+			Assert.assertEquals(0, fdir.listFiles().length);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool.shutdownNow();
+			LazyWriteBuffer.cleanup();
+			deleteDir(dir);
+		}
+	}
+
+	private static MatrixBlock createBlock(int rlen, double sparsity, long seed)
+		throws Exception
+	{
+		return MatrixBlock.randOperations(rlen, cols, sparsity, -1, 1, "uniform", seed);
+	}
+
+	private static long limit(MatrixBlock mb, double numBlocks) {
+		return (long)(numBlocks * mb.getExactSerializedSize());
+	}
+
+	private static String fname(File dir, String name) {
+		return dir.getAbsolutePath() + File.separator + name + ".dat";
+	}
+
+	private static void compareBlocks(MatrixBlock mb1, MatrixBlock mb2) {
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(
+			DataConverter.convertToDoubleMatrix(mb1),
+			DataConverter.convertToDoubleMatrix(mb2),
+			mb1.getNumRows(), mb1.getNumColumns(), 0);
+	}
+
+	private static void setPolicyConfig(String policy) throws Exception {
+		DMLConfig conf = new DMLConfig();
+		conf.setTextValue(DMLConfig.CP_BUFFER_POLICY, policy);
+		ConfigurationManager.setLocalConfig(conf);
+	}
+
+	private static void deleteDir(File dir) {
+		if( dir == null )
+			return;
+		LocalFileUtils.deleteFileIfExists(dir.getAbsolutePath());
+	}
+}
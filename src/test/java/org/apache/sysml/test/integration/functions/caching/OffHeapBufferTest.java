@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.OffHeapBuffer;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the off-heap tier of the buffer pool, which
+ * writes more blocks than fit into the off-heap budget and checks that the
+ * budget is never exceeded, that spilled and buffered blocks remain readable,
+ * and that no reserved memory is leaked.
+ *
+ */
+public class OffHeapBufferTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "OffHeapBuffer";
+
+	private final static int rows = 123;
+	private final static int cols = 97;
+	private final static int blocks = 10;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testOffHeapBudgetExhaustionDense() {
+		runOffHeapBufferTest(sparsity1);
+	}
+
+	@Test
+	public void testOffHeapBudgetExhaustionSparse() {
+		runOffHeapBufferTest(sparsity2);
+	}
+
+	@Test
+	public void testOffHeapBlockExceedsBudget() {
+		try {
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity1, -1, 1, "uniform", 7);
+			OffHeapBuffer.init(mb.getExactSerializedSize() / 2);
+
+			//too large block is rejected w/o reserved memory
+			String fname = File.createTempFile(TEST_NAME, ".dat").getAbsolutePath();
+			Assert.assertFalse(OffHeapBuffer.writeBlock(fname, createBuffer(mb)));
+			Assert.assertEquals(0, OffHeapBuffer.getSize());
+			Assert.assertEquals(0, OffHeapBuffer.getNumBlocks());
+			LocalFileUtils.deleteFileIfExists(fname);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			OffHeapBuffer.init(0);
+		}
+	}
+
+	private void runOffHeapBufferTest(double sparsity)
+	{
+		String[] fnames = new String[blocks];
+		MatrixBlock[] mbs = new MatrixBlock[blocks];
+		try
+		{
+			//budget of three blocks
+			for( int i=0; i<blocks; i++ )
+				mbs[i] = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7+i);
+			long limit = 3 * mbs[0].getExactSerializedSize() + 3 * MatrixBlock.HEADER_SIZE;
+			OffHeapBuffer.init(limit);
+
+			//write all blocks, spilling the oldest blocks to local files
+			for( int i=0; i<blocks; i++ ) {
+				fnames[i] = File.createTempFile(TEST_NAME, ".dat").getAbsolutePath();
+				Assert.assertTrue(OffHeapBuffer.writeBlock(fnames[i], createBuffer(mbs[i])));
+				Assert.assertTrue(OffHeapBuffer.getSize() <= limit);
+			}
+			Assert.assertTrue(OffHeapBuffer.getNumBlocks() < blocks);
+
+			//read all blocks from the off-heap tier or spilled files
+			for( int i=0; i<blocks; i++ ) {
+				MatrixBlock ret = (MatrixBlock) OffHeapBuffer.readBlock(fnames[i]);
+				if( ret == null )
+					ret = LocalFileUtils.readMatrixBlockFromLocal(fnames[i]);
+				Assert.assertEquals(mbs[i].getNonZeros(), ret.getNonZeros());
+				TestUtils.compareMatrices(
+					DataConverter.convertToDoubleMatrix(mbs[i]),
+					DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+			}
+
+			//delete all blocks w/o leaked reservations
+			for( int i=0; i<blocks; i++ )
+				OffHeapBuffer.deleteBlock(fnames[i]);
+			Assert.assertEquals(0, OffHeapBuffer.getSize());
+			Assert.assertEquals(0, OffHeapBuffer.getNumBlocks());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			OffHeapBuffer.init(0);
+			for( String fname : fnames )
+				if( fname != null )
+					LocalFileUtils.deleteFileIfExists(fname);
+		}
+	}
+
+	private static ByteBuffer createBuffer(MatrixBlock mb) throws Exception {
+		ByteBuffer buff = new ByteBuffer(mb.getExactSerializedSize());
+		buff.serializeBlock(mb);
+		return buff;
+	}
+}
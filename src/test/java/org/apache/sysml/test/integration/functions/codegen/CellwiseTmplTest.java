@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.codegen;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests the operator fusion with code generation for cell-wise operations 
+ * (with and without sum, rowSums, colSums aggregation) by comparing the 
+ * results of fused operators against the unfused plans.
+ * 
+ */
+public class CellwiseTmplTest extends AutomatedTestBase 
+{
+	private static final String TEST_NAME1 = "CellwiseTmpl1"; //sum(abs(X-Y)*exp(X))
+	private static final String TEST_NAME2 = "CellwiseTmpl2"; //rowSums(abs(X)*Y+1)
+	private static final String TEST_NAME3 = "CellwiseTmpl3"; //(X-mu)/sd
+	private static final String TEST_NAME4 = "CellwiseTmpl4"; //colSums(sqrt(X^2)*Y)
+	private static final String TEST_NAME5 = "CellwiseTmpl5"; //sum(abs(X-Y)*exp(X)) in parfor and functions
+	private static final String TEST_DIR = "functions/codegen/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + CellwiseTmplTest.class.getSimpleName() + "/";
+	
+	private static final int rows = 1765;
+	private static final int cols = 392;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 0.05;
+	private static final double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[]{"R"}));
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[]{"R"}));
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[]{"R"}));
+		addTestConfiguration(TEST_NAME4, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME4, new String[]{"R"}));
+		addTestConfiguration(TEST_NAME5, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME5, new String[]{"R"}));
+	}
+	
+	@Test
+	public void testCodegenCellwiseFullAggDense() {
+		runCodegenTest(TEST_NAME1, false);
+	}
+	
+	@Test
+	public void testCodegenCellwiseFullAggSparse() {
+		runCodegenTest(TEST_NAME1, true);
+	}
+	
+	@Test
+	public void testCodegenCellwiseRowAggDense() {
+		runCodegenTest(TEST_NAME2, false);
+	}
+	
+	@Test
+	public void testCodegenCellwiseRowAggSparse() {
+		runCodegenTest(TEST_NAME2, true);
+	}
+	
+	@Test
+	public void testCodegenCellwiseNoAggDense() {
+		runCodegenTest(TEST_NAME3, false);
+	}
+	
+	@Test
+	public void testCodegenCellwiseNoAggSparse() {
+		runCodegenTest(TEST_NAME3, true);
+	}
+	
+	@Test
+	public void testCodegenCellwiseColAggDense() {
+		runCodegenTest(TEST_NAME4, false);
+	}
+	
+	@Test
+	public void testCodegenCellwiseColAggSparse() {
+		runCodegenTest(TEST_NAME4, true);
+	}
+	
+	@Test
+	public void testCodegenCellwiseParForSingleNode() {
+		runCodegenTest(TEST_NAME5, false, RUNTIME_PLATFORM.SINGLE_NODE);
+	}
+	
+	@Test
+	public void testCodegenCellwiseParForHybrid() {
+		runCodegenTest(TEST_NAME5, false, RUNTIME_PLATFORM.HYBRID);
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param sparse
+	 */
+	private void runCodegenTest(String testname, boolean sparse) {
+		runCodegenTest(testname, sparse, RUNTIME_PLATFORM.SINGLE_NODE);
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param sparse
+	 * @param platform
+	 */
+	private void runCodegenTest(String testname, boolean sparse, RUNTIME_PLATFORM platform)
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		rtplatform = platform;
+		
+		try
+		{
+			getAndLoadTestConfiguration(testname);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			
+			//run unfused plan (baseline)
+			programArgs = new String[]{"-stats", "-args", String.valueOf(rows), 
+				String.valueOf(cols), String.valueOf(sparsity), output("R")};
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> baseline = readDMLMatrixFromHDFS("R");
+			Assert.assertFalse("Unexpected fused operator.", 
+				Statistics.getCPHeavyHitterOpCodes().contains("spoof"));
+			
+			//run fused plan with codegen enabled
+			enableCodegen();
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> fused = readDMLMatrixFromHDFS("R");
+			Assert.assertTrue("Missing fused operator.", 
+				Statistics.getCPHeavyHitterOpCodes().contains("spoof"));
+			if( testname.equals(TEST_NAME5) ) {
+				//no fused operators in parfor bodies and called functions
+				//if parfor might run remotely (single fused operator outside)
+				long count = Statistics.getHeavyHitterStats("spoof")[0];
+				Assert.assertTrue("Wrong number of fused operators: "+count,
+					(platform==RUNTIME_PLATFORM.HYBRID) ? count==1 : count>1);
+			}
+			
+			TestUtils.compareMatrices(fused, baseline, eps, "Stat-Fused", "Stat-Base");
+		}
+		finally {
+			rtplatform = platformOld;
+		}
+	}
+	
+	/**
+	 * Enables codegen in the config file of the current test case.
+	 */
+	private void enableCodegen() {
+		try {
+			File conf = getCurConfigFile();
+			String contents = FileUtils.readFileToString(conf, "UTF-8");
+			contents = contents.replace("</root>", 
+				"   <"+DMLConfig.CODEGEN+">true</"+DMLConfig.CODEGEN+">\n</root>");
+			FileUtils.write(conf, contents, "UTF-8");
+		}
+		catch(IOException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.compress;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a compressed matrix block component test, which compares the
+ * results of all supported operations on compressed blocks against the
+ * uncompressed results for different data characteristics.
+ * 
+ */
+public class CompressedMatrixBlockTest extends AutomatedTestBase 
+{
+	private final static int rows = 23512;
+	private final static int cols = 20;
+	private final static double eps = 1e-10; //relative error
+	
+	private enum InputType {
+		DENSE_LOW_CARD, //one-hot and categorical columns
+		DENSE_RUNS,     //sorted values w/ long runs
+		SPARSE_LOW_CARD,
+	}
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseLowCardSingleThreaded() {
+		runCompressedMatrixBlockTest(InputType.DENSE_LOW_CARD, 1);
+	}
+	
+	@Test
+	public void testDenseLowCardMultiThreaded() {
+		runCompressedMatrixBlockTest(InputType.DENSE_LOW_CARD, 4);
+	}
+	
+	@Test
+	public void testDenseRunsSingleThreaded() {
+		runCompressedMatrixBlockTest(InputType.DENSE_RUNS, 1);
+	}
+	
+	@Test
+	public void testDenseRunsMultiThreaded() {
+		runCompressedMatrixBlockTest(InputType.DENSE_RUNS, 4);
+	}
+	
+	@Test
+	public void testSparseLowCardSingleThreaded() {
+		runCompressedMatrixBlockTest(InputType.SPARSE_LOW_CARD, 1);
+	}
+	
+	@Test
+	public void testSparseLowCardMultiThreaded() {
+		runCompressedMatrixBlockTest(InputType.SPARSE_LOW_CARD, 4);
+	}
+	
+	@Test
+	public void testMatrixObjectReadKeepsCompression() {
+		boolean caching = CacheableData.isCachingActive();
+		try
+		{
+			MatrixBlock X = createInput(InputType.DENSE_LOW_CARD);
+			CompressedMatrixBlock C = createCompressedInput(X);
+			
+			//bind compressed block to matrix object (in-memory only)
+			CacheableData.disableCaching();
+			MatrixObject mo = createMatrixObject();
+			mo.acquireModify(C);
+			mo.release();
+			
+			//compressed read returns the compressed block
+			Assert.assertTrue(mo.acquireReadCompressed() == C);
+			mo.release();
+			
+			//reads w/o compression support return decompressed blocks
+			MatrixBlock ret1 = mo.acquireRead();
+			mo.release();
+			MatrixBlock ret2 = mo.acquireRead();
+			mo.release();
+			Assert.assertFalse(CompressedMatrixBlock.isCompressed(ret1));
+			Assert.assertFalse(CompressedMatrixBlock.isCompressed(ret2));
+			compareResults(X, ret1);
+			compareResults(X, ret2);
+			
+			//matrix object remains compressed after these reads
+			MatrixBlock ret3 = mo.acquireReadCompressed();
+			mo.release();
+			Assert.assertTrue(ret3 == C);
+			Assert.assertTrue(CompressedMatrixBlock.isCompressed(ret3));
+			
+			//modify replaces the compressed block by a decompressed copy
+			MatrixBlock ret4 = mo.acquireModify();
+			mo.release();
+			Assert.assertFalse(CompressedMatrixBlock.isCompressed(ret4));
+			Assert.assertFalse(ret4 == ret1);
+			compareResults(X, ret4);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			if( caching )
+				CacheableData.enableCaching();
+		}
+	}
+	
+	@Test
+	public void testMatrixObjectRestoreRecompress() {
+		boolean caching = CacheableData.isCachingActive();
+		File dir = null;
+		try
+		{
+			MatrixBlock X = createInput(InputType.DENSE_LOW_CARD);
+			CompressedMatrixBlock C = createCompressedInput(X);
+			
+			//bind compressed block to matrix object (in-memory only)
+			CacheableData.disableCaching();
+			RestoreMatrixObject mo = new RestoreMatrixObject();
+			mo.acquireModify(C);
+			mo.release();
+			
+			//evicted blocks are written in uncompressed format
+			dir = Files.createTempDirectory("compressed").toFile();
+			String fname = dir.getAbsolutePath() + File.separator + "C";
+			LocalFileUtils.writeMatrixBlockToLocal(fname, C);
+			
+			//restored blocks are recompressed
+			LazyWriteBuffer.init();
+			MatrixBlock ret = mo.restore(fname);
+			Assert.assertTrue(CompressedMatrixBlock.isCompressed(ret));
+			compareResults(X, ((CompressedMatrixBlock)ret).decompress());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			LazyWriteBuffer.cleanup();
+			if( dir != null )
+				LocalFileUtils.deleteFileIfExists(dir.getAbsolutePath());
+			if( caching )
+				CacheableData.enableCaching();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @return
+	 * @throws Exception
+	 */
+	private static CompressedMatrixBlock createCompressedInput(MatrixBlock X) 
+		throws Exception
+	{
+		CompressedMatrixBlock C = new CompressedMatrixBlock(X);
+		if( !C.compress(1) )
+			Assert.fail("Input was not compressed.");
+		return C;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private static MatrixObject createMatrixObject() {
+		MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, 1000, 1000);
+		return new MatrixObject(ValueType.DOUBLE, "./tmp/compressed", new MatrixFormatMetaData(
+			mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+	}
+	
+	/**
+	 * Matrix object that exposes the restore of evicted blocks.
+	 */
+	private static class RestoreMatrixObject extends MatrixObject
+	{
+		private static final long serialVersionUID = -4412395384523106338L;
+		
+		public RestoreMatrixObject() {
+			super(createMatrixObject());
+		}
+		
+		public MatrixBlock restore(String fname) throws IOException {
+			return readBlobFromCache(fname);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @param k
+	 */
+	private void runCompressedMatrixBlockTest(InputType type, int k) 
+	{
+		try
+		{
+			MatrixBlock X = createInput(type);
+			
+			//compress input and check size and decompression
+			CompressedMatrixBlock C = new CompressedMatrixBlock(X);
+			if( !C.compress(k) )
+				Assert.fail("Input was not compressed.");
+			Assert.assertTrue(C.getInMemorySize() < X.getInMemorySize());
+			Assert.assertEquals(X.getNonZeros(), C.getNonZeros());
+			compareResults(X, C.decompress());
+			
+			//matrix-vector and vector-matrix multiplication
+			MatrixBlock v = MatrixBlock.randOperations(cols, 1, 1.0, -1, 1, "uniform", 7);
+			MatrixBlock u = MatrixBlock.randOperations(1, rows, 1.0, -1, 1, "uniform", 8);
+			AggregateBinaryOperator abop = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), 
+					new AggregateOperator(0, Plus.getPlusFnObject()), k);
+			compareResults(X.aggregateBinaryOperations(X, v, new MatrixBlock(), abop), 
+					C.aggregateBinaryOperations(C, v, new MatrixBlock(), abop));
+			compareResults(X.aggregateBinaryOperations(u, X, new MatrixBlock(), abop), 
+					C.aggregateBinaryOperations(u, C, new MatrixBlock(), abop));
+			
+			//transpose-self and chain matrix multiplication
+			compareResults(X.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, k), 
+					C.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, k));
+			MatrixBlock w = MatrixBlock.randOperations(rows, 1, 1.0, 0, 1, "uniform", 9);
+			compareResults(X.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv, k), 
+					C.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv, k));
+			compareResults(X.chainMatrixMultOperations(v, w, new MatrixBlock(), ChainType.XtwXv, k), 
+					C.chainMatrixMultOperations(v, w, new MatrixBlock(), ChainType.XtwXv, k));
+			
+			//unary aggregates
+			for( String opcode : new String[]{"uak+", "uark+", "uack+"} ) {
+				AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+				compareResults(X.aggregateUnaryOperations(auop, new MatrixBlock(), rows, cols, new MatrixIndexes(1,1), true), 
+						C.aggregateUnaryOperations(auop, new MatrixBlock(), rows, cols, new MatrixIndexes(1,1), true));
+			}
+			
+			//sparse-safe and sparse-unsafe scalar operations
+			ScalarOperator[] sops = new ScalarOperator[]{
+					new RightScalarOperator(Multiply.getMultiplyFnObject(), 3),
+					new RightScalarOperator(Plus.getPlusFnObject(), 2)};
+			for( ScalarOperator sop : sops ) {
+				MatrixBlock ret1 = (MatrixBlock) X.scalarOperations(sop, new MatrixBlock());
+				MatrixBlock ret2 = (MatrixBlock) C.scalarOperations(sop, new MatrixBlock());
+				Assert.assertTrue(ret2 instanceof CompressedMatrixBlock);
+				compareResults(ret1, ((CompressedMatrixBlock)ret2).decompress());
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param type
+	 * @return
+	 */
+	private static MatrixBlock createInput(InputType type) 
+	{
+		Random rand = new Random(7);
+		boolean sparse = (type == InputType.SPARSE_LOW_CARD);
+		MatrixBlock ret = new MatrixBlock(rows, cols, sparse);
+		if( !sparse )
+			ret.allocateDenseBlock();
+		
+		for( int i=0; i<rows; i++ ) {
+			switch( type ) {
+				case DENSE_LOW_CARD:
+					ret.quickSetValue(i, rand.nextInt(5), 1);
+					for( int j=5; j<cols; j++ )
+						ret.quickSetValue(i, j, rand.nextInt(10)<6 ? 0 : rand.nextInt(4)+1);
+					break;
+				case DENSE_RUNS:
+					for( int j=0; j<cols; j++ )
+						ret.quickSetValue(i, j, (i/(rows/10)) % (j+2));
+					break;
+				case SPARSE_LOW_CARD:
+					ret.appendValue(i, rand.nextInt(5), 1);
+					if( rand.nextInt(4)==0 )
+						ret.appendValue(i, 10+rand.nextInt(10), rand.nextInt(3)+1);
+					break;
+			}
+		}
+		ret.recomputeNonZeros();
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param expected
+	 * @param actual
+	 */
+	private static void compareResults(Object expected, Object actual) 
+		throws Exception
+	{
+		MatrixBlock mb1 = (MatrixBlock) expected;
+		MatrixBlock mb2 = (MatrixBlock) actual;
+		Assert.assertEquals(mb1.getNumRows(), mb2.getNumRows());
+		Assert.assertEquals(mb1.getNumColumns(), mb2.getNumColumns());
+		for( int i=0; i<mb1.getNumRows(); i++ )
+			for( int j=0; j<mb1.getNumColumns(); j++ ) {
+				double v1 = mb1.quickGetValue(i, j);
+				double v2 = mb2.quickGetValue(i, j);
+				if( Math.abs(v1 - v2) > eps * Math.max(1, Math.abs(v1)) )
+					Assert.fail("Wrong value at ("+i+","+j+"): "+v2+", expected: "+v1);
+			}
+	}
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.DMLException;
+import org.apache.sysml.api.jmlc.BatchedScript;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.api.jmlc.ResultVariables;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Scoring of single rows via micro-batches, compared to individual 
+ * executions of the prepared script per row.
+ * 
+ */
+public class BatchedScoringTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "reuse-glm-predict";
+	private final static String TEST_NAME2 = "batched-scalar-ops";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String MODEL_FILE = "sentiment_model.mtx";
+	private final static String TEST_CLASS_DIR = TEST_DIR + BatchedScoringTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 107;
+	private final static int cols = 46; //fixed
+	
+	private final static int nRuns = 500;
+	private final static int batchSize = 64;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "predicted_y" }) ); 
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "Y" }) ); 
+	}
+	
+	@Test
+	public void testJMLCBatchedScoreGLMDense() throws IOException {
+		runJMLCBatchedTest(false, 1);
+	}
+	
+	@Test
+	public void testJMLCBatchedScoreGLMSparse() throws IOException {
+		runJMLCBatchedTest(true, 1);
+	}
+	
+	@Test
+	public void testJMLCBatchedScoreGLMDenseMultiThreaded() throws IOException {
+		runJMLCBatchedTest(false, 4);
+	}
+	
+	@Test
+	public void testJMLCBatchedScoreGLMSparseMultiThreaded() throws IOException {
+		runJMLCBatchedTest(true, 4);
+	}
+
+	@Test
+	public void testJMLCBatchedScalarOpsDenseMultiThreaded() throws IOException {
+		runJMLCBatchedScalarOpsTest(false, 4);
+	}
+	
+	@Test
+	public void testJMLCBatchedScalarOpsSparseMultiThreaded() throws IOException {
+		runJMLCBatchedScalarOpsTest(true, 4);
+	}
+	
+	@Test
+	public void testJMLCBatchedScoreConcurrentClose() throws IOException {
+		runJMLCBatchedCloseTest(4);
+	}
+
+	/**
+	 * 
+	 * @param sparse
+	 * @param numThreads
+	 * @throws IOException 
+	 */
+	private void runJMLCBatchedTest( boolean sparse, int numThreads ) 
+		throws IOException
+	{	
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+	
+		//generate inputs (single rows)
+		double[][] X = getRandomMatrix(nRuns, cols, -1, 1, sparse?sparsity2:sparsity1, 7); 
+		
+		Connection conn = new Connection();
+		BatchedScript bscript = null;
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, new String[]{"X","W"}, new String[]{"predicted_y"}, false);
+			
+			//read and bind model with reuse
+			String modelData = conn.readScript(SCRIPT_DIR + TEST_DIR + MODEL_FILE );
+			double[][] W = conn.convertToDoubleMatrix(modelData, rows, cols); 
+			pstmt.setMatrix("W", W, true);
+			
+			//execution per row (baseline)
+			Timing time = new Timing(true);
+			double[][] Y = new double[nRuns][];
+			for( int i=0; i<nRuns; i++ ) {
+				pstmt.setMatrix("X", new double[][]{X[i]});
+				ResultVariables rs = pstmt.executeScript();
+				Y[i] = rs.getMatrix("predicted_y")[0];
+			}
+			System.out.println("JMLC scoring w/ "+nRuns+" single-row runs in "+time.stop()+"ms.");
+			
+			//batched execution of asynchronously submitted rows
+			time.start();
+			bscript = new BatchedScript(pstmt, "X", "predicted_y", batchSize, 10, numThreads);
+			ArrayList<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+			for( int i=0; i<nRuns; i++ )
+				futures.add(bscript.scoreAsync(X[i]));
+			double[][] Y2 = new double[nRuns][];
+			for( int i=0; i<nRuns; i++ )
+				Y2[i] = futures.get(i).get();
+			System.out.println("JMLC batched scoring w/ "+nRuns+" rows in "+time.stop()+"ms.");
+			
+			TestUtils.compareMatrices(Y, Y2, nRuns, Y[0].length, 0);
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( bscript != null )
+				bscript.close();
+			if( conn != null )
+				conn.close();
+		}
+	}
+	
+	/**
+	 * Batched scoring with scalar operations whose scalars depend on the
+	 * entire micro-batch (and hence differ across concurrent dispatchers), 
+	 * while the output rows only depend on the input rows.
+	 * 
+	 * @param sparse
+	 * @param numThreads
+	 * @throws IOException 
+	 */
+	private void runJMLCBatchedScalarOpsTest( boolean sparse, int numThreads ) 
+		throws IOException
+	{	
+		TestConfiguration config = getTestConfiguration(TEST_NAME2);
+		loadTestConfiguration(config);
+	
+		//generate inputs (single rows)
+		double[][] X = getRandomMatrix(nRuns, cols, -1, 1, sparse?sparsity2:sparsity1, 7); 
+		
+		Connection conn = new Connection();
+		BatchedScript bscript = null;
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME2 + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, new String[]{"X"}, new String[]{"Y"}, false);
+			
+			//execution per row (baseline)
+			double[][] Y = new double[nRuns][];
+			for( int i=0; i<nRuns; i++ ) {
+				pstmt.setMatrix("X", new double[][]{X[i]});
+				Y[i] = pstmt.executeScript().getMatrix("Y")[0];
+			}
+			
+			//batched execution of asynchronously submitted rows
+			bscript = new BatchedScript(pstmt, "X", "Y", batchSize, 10, numThreads);
+			ArrayList<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+			for( int i=0; i<nRuns; i++ )
+				futures.add(bscript.scoreAsync(X[i]));
+			double[][] Y2 = new double[nRuns][];
+			for( int i=0; i<nRuns; i++ )
+				Y2[i] = futures.get(i).get();
+			
+			TestUtils.compareMatrices(Y, Y2, nRuns, cols, 1e-10);
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( bscript != null )
+				bscript.close();
+			if( conn != null )
+				conn.close();
+		}
+	}
+	
+	/**
+	 * Closes a batched script while other threads concurrently submit rows,
+	 * where every submitted request needs to complete or fail (i.e., no
+	 * request is lost between the closed check and its enqueue).
+	 * 
+	 * @param numThreads
+	 * @throws IOException 
+	 */
+	private void runJMLCBatchedCloseTest( int numThreads ) 
+		throws IOException
+	{	
+		TestConfiguration config = getTestConfiguration(TEST_NAME2);
+		loadTestConfiguration(config);
+	
+		//generate inputs (single rows)
+		final double[][] X = getRandomMatrix(nRuns, cols, -1, 1, sparsity1, 7); 
+		
+		Connection conn = new Connection();
+		BatchedScript bscript = null;
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME2 + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, new String[]{"X"}, new String[]{"Y"}, false);
+			final BatchedScript fbscript = new BatchedScript(pstmt, "X", "Y", batchSize, 10, numThreads);
+			bscript = fbscript;
+			
+			//submit rows from concurrent threads until closed
+			final ArrayList<ArrayList<Future<double[]>>> futures = new ArrayList<ArrayList<Future<double[]>>>();
+			Thread[] submitters = new Thread[numThreads];
+			for( int t=0; t<numThreads; t++ ) {
+				final ArrayList<Future<double[]>> tfutures = new ArrayList<Future<double[]>>();
+				futures.add(tfutures);
+				submitters[t] = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							for( int i=0; i<nRuns; i++ )
+								tfutures.add(fbscript.scoreAsync(X[i]));
+						}
+						catch(DMLException ex) {
+							//expected after close
+						}
+					}
+				});
+				submitters[t].start();
+			}
+			Thread.sleep(5);
+			bscript.close();
+			for( Thread t : submitters )
+				t.join();
+			
+			//all submitted requests completed or failed
+			for( ArrayList<Future<double[]>> tfutures : futures )
+				for( Future<double[]> f : tfutures ) {
+					try {
+						f.get(10, TimeUnit.SECONDS);
+					}
+					catch(ExecutionException ex) {
+						//expected for requests pending on close
+					}
+				}
+			
+			//scoring after close is rejected
+			try {
+				bscript.scoreAsync(X[0]);
+				Assert.fail("Scoring after close should fail.");
+			}
+			catch(DMLException ex) {
+				//expected
+			}
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( bscript != null )
+				bscript.close();
+			if( conn != null )
+				conn.close();
+		}
+	}
+}
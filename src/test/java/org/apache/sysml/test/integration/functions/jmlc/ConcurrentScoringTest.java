@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.api.jmlc.ResultVariables;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Concurrent scoring with a single prepared script, where request threads
+ * use lightweight copies that share the compiled program and reused model.
+ * 
+ */
+public class ConcurrentScoringTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME1 = "reuse-glm-predict";
+	private final static String TEST_NAME2 = "reuse-msvm-predict";
+	private final static String TEST_NAME3 = "scalar-ops-score";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String MODEL_FILE = "sentiment_model.mtx";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ConcurrentScoringTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 107;
+	private final static int cols = 46; //fixed
+	
+	private final static int nRuns = 20;
+	private final static int nThreads = 8;
+	
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "predicted_y" }) ); 
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "predicted_y" }) );
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[] { "Y" }) );
+	}
+	
+	@Test
+	public void testJMLCConcurrentScoreGLMDense() throws IOException {
+		runJMLCConcurrentTest(TEST_NAME1, false);
+	}
+	
+	@Test
+	public void testJMLCConcurrentScoreGLMSparse() throws IOException {
+		runJMLCConcurrentTest(TEST_NAME1, true);
+	}
+	
+	@Test
+	public void testJMLCConcurrentScoreMSVMDense() throws IOException {
+		runJMLCConcurrentTest(TEST_NAME2, false);
+	}
+	
+	@Test
+	public void testJMLCConcurrentScoreMSVMSparse() throws IOException {
+		runJMLCConcurrentTest(TEST_NAME2, true);
+	}
+
+	@Test
+	public void testJMLCConcurrentScalarOpsDense() throws IOException {
+		runJMLCConcurrentScalarOpsTest(false);
+	}
+	
+	@Test
+	public void testJMLCConcurrentScalarOpsSparse() throws IOException {
+		runJMLCConcurrentScalarOpsTest(true);
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param sparse
+	 * @throws IOException 
+	 */
+	private void runJMLCConcurrentTest( String testname, boolean sparse ) 
+		throws IOException
+	{	
+		String TEST_NAME = testname;
+		
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+	
+		//generate inputs
+		ArrayList<double[][]> Xset = generateInputs(nRuns, rows, cols, sparse?sparsity2:sparsity1); 
+		
+		//run DML via JMLC (sequential and concurrent)
+		Timing time = new Timing(true);
+		
+		Connection conn = new Connection();
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + testname + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, new String[]{"X","W"}, new String[]{"predicted_y"}, false);
+			
+			//read and bind model with reuse
+			String modelData = conn.readScript(SCRIPT_DIR + TEST_DIR + MODEL_FILE );
+			double[][] W = conn.convertToDoubleMatrix(modelData, rows, cols); 
+			pstmt.setMatrix("W", W, true);
+			
+			//sequential execution (baseline)
+			ArrayList<double[][]> Yset = execScript(pstmt, Xset);
+			
+			//concurrent execution with copies of the prepared script
+			ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+			ArrayList<ScoringTask> tasks = new ArrayList<ScoringTask>();
+			for( int i=0; i<nThreads; i++ )
+				tasks.add(new ScoringTask(pstmt.clone(), Xset));
+			ArrayList<double[][]> Yset2 = null;
+			for( Future<ArrayList<double[][]>> f : pool.invokeAll(tasks) ) {
+				Yset2 = f.get();
+				Assert.assertEquals(Yset.size(), Yset2.size());
+				for( int i=0; i<Yset.size(); i++ )
+					TestUtils.compareMatrices(Yset.get(i), Yset2.get(i), Yset.get(i).length, Yset.get(i)[0].length, 0);
+			}
+			pool.shutdown();
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( conn != null )
+				conn.close();
+		}
+		
+		System.out.println("JMLC concurrent scoring w/ "+nThreads+"x"+nRuns+" runs in "+time.stop()+"ms.");
+	}
+	
+	/**
+	 * Concurrent scoring with scalar operations whose scalars depend on the 
+	 * input data (and hence differ across threads), which must not leak into
+	 * the results of other threads via the shared compiled program.
+	 * 
+	 * @param sparse
+	 * @throws IOException 
+	 */
+	private void runJMLCConcurrentScalarOpsTest( boolean sparse ) 
+		throws IOException
+	{	
+		TestConfiguration config = getTestConfiguration(TEST_NAME3);
+		loadTestConfiguration(config);
+		
+		Connection conn = new Connection();
+		try
+		{
+			//read and precompile script
+			String script = conn.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME3 + ".dml");	
+			PreparedScript pstmt = conn.prepareScript(script, new String[]{"X"}, new String[]{"Y"}, false);
+			
+			//concurrent execution with copies of the prepared script, where
+			//each thread uses its own inputs w/ different value ranges
+			ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+			ArrayList<ScalarOpsTask> tasks = new ArrayList<ScalarOpsTask>();
+			for( int i=0; i<nThreads; i++ ) {
+				ArrayList<double[][]> Xset = generateInputs(nRuns, rows, cols, sparse?sparsity2:sparsity1);
+				for( double[][] X : Xset )
+					scaleMatrix(X, i+1);
+				tasks.add(new ScalarOpsTask(pstmt.clone(), Xset));
+			}
+			for( Future<Boolean> f : pool.invokeAll(tasks) )
+				Assert.assertTrue(f.get());
+			pool.shutdown();
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( conn != null )
+				conn.close();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param pstmt
+	 * @param X
+	 * @return
+	 * @throws Exception
+	 */
+	private static ArrayList<double[][]> execScript( PreparedScript pstmt, ArrayList<double[][]> X ) 
+		throws Exception
+	{
+		ArrayList<double[][]> ret = new ArrayList<double[][]>();
+		for( double[][] Xi : X ) {
+			pstmt.setMatrix("X", Xi);
+			ResultVariables rs = pstmt.executeScript();
+			ret.add(rs.getMatrix("predicted_y"));
+		}
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param num
+	 * @param rows
+	 * @param cols
+	 * @param sparsity
+	 * @return
+	 */
+	private ArrayList<double[][]> generateInputs( int num, int rows, int cols, double sparsity )
+	{
+		ArrayList<double[][]> ret = new ArrayList<double[][]>();
+		
+		for( int i=0; i<num; i++ )
+		{
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, System.nanoTime());
+			ret.add(X);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param X
+	 * @param factor
+	 */
+	private static void scaleMatrix( double[][] X, double factor ) {
+		for( int i=0; i<X.length; i++ )
+			for( int j=0; j<X[i].length; j++ )
+				X[i][j] *= factor;
+	}
+	
+	/**
+	 * Computes the expected result of the scalar-ops-score script.
+	 * 
+	 * @param X
+	 * @return
+	 */
+	private static double[][] computeScalarOps( double[][] X ) {
+		double sum = 0, max = 0;
+		for( int i=0; i<X.length; i++ )
+			for( int j=0; j<X[i].length; j++ ) {
+				sum += X[i][j];
+				max = Math.max(max, Math.abs(X[i][j]));
+			}
+		double m = sum / (X.length * X[0].length);
+		double s = max + 1;
+		double[][] Y = new double[X.length][X[0].length];
+		for( int i=0; i<X.length; i++ )
+			for( int j=0; j<X[i].length; j++ )
+				Y[i][j] = (X[i][j] - m) / s + ((X[i][j] > m) ? 1 : 0) + Math.max(X[i][j], m);
+		return Y;
+	}
+	
+	/**
+	 * 
+	 */
+	private static class ScoringTask implements Callable<ArrayList<double[][]>> 
+	{
+		private final PreparedScript _pstmt;
+		private final ArrayList<double[][]> _X;
+		
+		public ScoringTask( PreparedScript pstmt, ArrayList<double[][]> X ) {
+			_pstmt = pstmt;
+			_X = X;
+		}
+		
+		@Override
+		public ArrayList<double[][]> call() throws Exception {
+			return execScript(_pstmt, _X);
+		}
+	}
+	
+	/**
+	 * 
+	 */
+	private static class ScalarOpsTask implements Callable<Boolean> 
+	{
+		private final PreparedScript _pstmt;
+		private final ArrayList<double[][]> _X;
+		
+		public ScalarOpsTask( PreparedScript pstmt, ArrayList<double[][]> X ) {
+			_pstmt = pstmt;
+			_X = X;
+		}
+		
+		@Override
+		public Boolean call() throws Exception {
+			for( double[][] Xi : _X ) {
+				_pstmt.setMatrix("X", Xi);
+				double[][] Y = _pstmt.executeScript().getMatrix("Y");
+				TestUtils.compareMatrices(computeScalarOps(Xi), Y, Xi.length, Xi[0].length, 1e-10);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.jmlc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.api.CompiledProgramCache;
+import org.apache.sysml.api.jmlc.Connection;
+import org.apache.sysml.api.jmlc.PreparedScript;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This test checks that compiled programs from the jvm-wide cache are shared
+ * across JMLC connections (i.e., returned to the cache right after prepare),
+ * and that concurrent scoring with the shared program, which includes a parfor
+ * loop, produces correct and identical results in all threads.
+ *
+ */
+public class JMLCCompiledProgramCacheTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "compiled-program-cache";
+	private final static String TEST_DIR = "functions/jmlc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + JMLCCompiledProgramCacheTest.class.getSimpleName() + "/";
+
+	private final static int rows = 73;
+	private final static int cols = 21;
+	private final static double sparsity = 0.7;
+
+	private final static int nRuns = 10;
+	private final static int nThreads = 8;
+
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "R" }) );
+	}
+
+	@Test
+	public void testJMLCSharedProgramsAcrossConnections() throws IOException {
+		runJMLCCompiledProgramCacheTest();
+	}
+
+	/**
+	 *
+	 * @throws IOException
+	 */
+	private void runJMLCCompiledProgramCacheTest()
+		throws IOException
+	{
+		TestConfiguration config = getTestConfiguration(TEST_NAME);
+		loadTestConfiguration(config);
+
+		CompiledProgramCache.clear();
+		Connection conn1 = null, conn2 = null;
+		try
+		{
+			DMLConfig conf = new DMLConfig();
+			conf.setTextValue(DMLConfig.COMPILE_CACHE, "true");
+
+			//first connection compiles the program
+			conn1 = new Connection(conf);
+			String script = conn1.readScript(SCRIPT_DIR + TEST_DIR + TEST_NAME + ".dml");
+			PreparedScript pstmt1 = conn1.prepareScript(script, new String[]{"X"}, new String[]{"R"}, false);
+			Assert.assertEquals(0, CompiledProgramCache.getNumHits());
+			Assert.assertEquals(1, CompiledProgramCache.getNumMisses());
+			Assert.assertFalse(pstmt1.explain().contains("PARFOR"));
+
+			//concurrently open connection shares the (immutable) program
+			conn2 = new Connection(conf);
+			PreparedScript pstmt2 = conn2.prepareScript(script, new String[]{"X"}, new String[]{"R"}, false);
+			Assert.assertEquals(1, CompiledProgramCache.getNumHits());
+			Assert.assertEquals(1, CompiledProgramCache.getNumMisses());
+
+			//concurrent scoring with copies of both prepared scripts
+			ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+			ArrayList<ScoringTask> tasks = new ArrayList<ScoringTask>();
+			for( int i=0; i<nThreads; i++ )
+				tasks.add(new ScoringTask(((i%2==0) ? pstmt1 : pstmt2).clone(), i));
+			for( Future<Boolean> f : pool.invokeAll(tasks) )
+				Assert.assertTrue(f.get());
+			pool.shutdown();
+		}
+		catch(Exception ex)
+		{
+			ex.printStackTrace();
+			throw new IOException(ex);
+		}
+		finally
+		{
+			if( conn1 != null )
+				conn1.close();
+			if( conn2 != null )
+				conn2.close();
+			CompiledProgramCache.clear();
+		}
+	}
+
+	/**
+	 * Scoring task that executes a prepared script with different
+	 * inputs and compares the results with a reference computation.
+	 */
+	private static class ScoringTask implements Callable<Boolean>
+	{
+		private final PreparedScript _pstmt;
+		private final int _seed;
+
+		public ScoringTask( PreparedScript pstmt, int seed ) {
+			_pstmt = pstmt;
+			_seed = seed;
+		}
+
+		@Override
+		public Boolean call() throws Exception {
+			for( int i=0; i<nRuns; i++ ) {
+				double[][] X = TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity, _seed*nRuns+i);
+				_pstmt.setMatrix("X", X);
+				double[][] R = _pstmt.executeScript().getMatrix("R");
+				TestUtils.compareMatrices(computeReference(X), R, cols, cols, 1e-10);
+			}
+			return true;
+		}
+	}
+
+	private static double[][] computeReference( double[][] X ) {
+		double mean = 0;
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				mean += X[i][j];
+		mean /= rows * cols;
+		double[][] R = new double[cols][cols];
+		for( int j1=0; j1<cols; j1++ )
+			for( int j2=0; j2<cols; j2++ ) {
+				for( int i=0; i<rows; i++ )
+					R[j1][j2] += X[i][j1] * X[i][j2];
+				R[j1][j2] += 12 * mean;
+			}
+		return R;
+	}
+}
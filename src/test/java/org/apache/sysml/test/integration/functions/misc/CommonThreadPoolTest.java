@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for handles of the shared CP thread pool, which
+ * checks that execute/submit respect the max degree of parallelism of the
+ * handle, and that awaitTermination and isTerminated wait for all tasks that
+ * have been submitted to the handle before shutdown.
+ *
+ */
+public class CommonThreadPoolTest extends AutomatedTestBase
+{
+	private final static int numTasks = 16;
+	private final static long timeout = 10; //10s
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSubmitMaxParallelism1() {
+		runSubmitMaxParallelismTest(1);
+	}
+
+	@Test
+	public void testSubmitMaxParallelism2() {
+		runSubmitMaxParallelismTest(2);
+	}
+
+	@Test
+	public void testAwaitTerminationOfRunningTasks() {
+		try
+		{
+			ExecutorService pool = CommonThreadPool.get(4);
+			final CountDownLatch latch = new CountDownLatch(1);
+			Future<Boolean> f = pool.submit(new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return latch.await(timeout, TimeUnit.SECONDS);
+				}
+			});
+			pool.shutdown();
+			
+			//not terminated until the running task completes
+			Assert.assertTrue(pool.isShutdown());
+			Assert.assertFalse(pool.isTerminated());
+			Assert.assertFalse(pool.awaitTermination(50, TimeUnit.MILLISECONDS));
+			latch.countDown();
+			Assert.assertTrue(pool.awaitTermination(timeout, TimeUnit.SECONDS));
+			Assert.assertTrue(pool.isTerminated());
+			Assert.assertTrue(f.get());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	@Test
+	public void testShutdownNowRemovesQueuedTasks() {
+		try
+		{
+			ExecutorService pool = CommonThreadPool.get(1);
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch latch = new CountDownLatch(1);
+			final AtomicInteger count = new AtomicInteger(0);
+			pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					started.countDown();
+					try {
+						latch.await(timeout, TimeUnit.SECONDS);
+					}
+					catch(InterruptedException ex) {
+						throw new RuntimeException(ex);
+					}
+				}
+			});
+			Assert.assertTrue(started.await(timeout, TimeUnit.SECONDS));
+			for( int i=0; i<3; i++ )
+				pool.execute(new Runnable() {
+					@Override
+					public void run() {
+						count.incrementAndGet();
+					}
+				});
+			
+			//queued tasks are removed, while the running task completes
+			List<Runnable> queued = pool.shutdownNow();
+			Assert.assertEquals(3, queued.size());
+			Assert.assertFalse(pool.isTerminated());
+			latch.countDown();
+			Assert.assertTrue(pool.awaitTermination(timeout, TimeUnit.SECONDS));
+			Assert.assertEquals(0, count.get());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	@Test(expected = RejectedExecutionException.class)
+	public void testRejectAfterShutdown() {
+		ExecutorService pool = CommonThreadPool.get(2);
+		pool.shutdown();
+		pool.execute(new Runnable() {
+			@Override
+			public void run() {}
+		});
+	}
+
+	private void runSubmitMaxParallelismTest(int k)
+	{
+		try
+		{
+			ExecutorService pool = CommonThreadPool.get(k);
+			final AtomicInteger active = new AtomicInteger(0);
+			final AtomicInteger maxActive = new AtomicInteger(0);
+			ArrayList<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for( int i=0; i<numTasks; i++ ) {
+				final int pos = i;
+				futures.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int a = active.incrementAndGet();
+						for( int m = maxActive.get(); a > m && !maxActive.compareAndSet(m, a); m = maxActive.get() );
+						Thread.sleep(10);
+						active.decrementAndGet();
+						return pos;
+					}
+				}));
+			}
+			pool.shutdown();
+			Assert.assertTrue(pool.awaitTermination(timeout, TimeUnit.SECONDS));
+			Assert.assertTrue(pool.isTerminated());
+			
+			//all tasks completed w/ at most k concurrently active tasks
+			for( int i=0; i<numTasks; i++ ) {
+				Assert.assertTrue(futures.get(i).isDone());
+				Assert.assertEquals(i, futures.get(i).get().intValue());
+			}
+			Assert.assertTrue("Max parallelism exceeded: "+maxActive.get(), maxActive.get() <= k);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.commons.io.FileUtils;
+import org.apache.sysml.api.CompiledProgramCache;
+import org.apache.sysml.api.CompiledProgramCache.CompiledProgram;
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.parser.DMLProgram;
+import org.apache.sysml.runtime.controlprogram.Program;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a test for the compiled program cache, which checks the construction 
+ * of cache keys (independent of the order of arguments), the exclusive acquire 
+ * and release of cached programs, as well as repeated end-to-end script runs 
+ * with reused programs, and the invalidation on modified inputs and sourced scripts.
+ *
+ */
+public class CompiledProgramCacheTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "CompiledProgramCache";
+	private final static String TEST_DIR = "functions/misc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + CompiledProgramCacheTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemML-config-compilecache.xml";
+	
+	private final static String script = "X = read($X); write(X, $Y);";
+	
+	private final static int rows = 120;
+	private final static int cols = 15;
+	private final static double eps = 1e-10;
+
+	private enum ModType {
+		NONE,
+		INPUT,
+		SOURCE,
+	}
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration( TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[]{"R"}) );
+	}
+
+	@Test
+	public void testCacheKeyArgumentOrder() throws Exception {
+		DMLConfig conf = new DMLConfig();
+		HashMap<String, String> args1 = new LinkedHashMap<String, String>();
+		args1.put("$X", "a");
+		args1.put("$Y", "b");
+		HashMap<String, String> args2 = new LinkedHashMap<String, String>();
+		args2.put("$Y", "b");
+		args2.put("$X", "a");
+
+		String key1 = CompiledProgramCache.constructKey(script, args1,
+			new String[0], new String[0], false, conf, new CompilerConfig());
+		String key2 = CompiledProgramCache.constructKey(script, args2,
+			new String[0], new String[0], false, conf, new CompilerConfig());
+		Assert.assertEquals(key1, key2);
+	}
+
+	@Test
+	public void testCacheKeyDifferentArguments() throws Exception {
+		DMLConfig conf = new DMLConfig();
+		HashMap<String, String> args1 = new HashMap<String, String>();
+		args1.put("$X", "a");
+		HashMap<String, String> args2 = new HashMap<String, String>();
+		args2.put("$X", "c");
+
+		String key1 = CompiledProgramCache.constructKey(script, args1,
+			new String[0], new String[0], false, conf, new CompilerConfig());
+		String key2 = CompiledProgramCache.constructKey(script, args2,
+			new String[0], new String[0], false, conf, new CompilerConfig());
+		String key3 = CompiledProgramCache.constructKey(script, args1,
+			new String[0], new String[0], true, conf, new CompilerConfig());
+		Assert.assertFalse(key1.equals(key2));
+		Assert.assertFalse(key1.equals(key3));
+	}
+
+	@Test
+	public void testAcquireRelease() throws Exception {
+		CompiledProgramCache.clear();
+		String key = CompiledProgramCache.constructKey(script, null,
+			new String[0], new String[0], false, new DMLConfig(), new CompilerConfig());
+		CompiledProgram prog = CompiledProgramCache.createCompiledProgram(new DMLProgram(), new Program());
+
+		//miss before release, hit after release, miss while acquired
+		Assert.assertNull(CompiledProgramCache.acquire(key));
+		CompiledProgramCache.release(key, prog);
+		Assert.assertEquals(1, CompiledProgramCache.size());
+		Assert.assertSame(prog, CompiledProgramCache.acquire(key));
+		Assert.assertNull(CompiledProgramCache.acquire(key));
+		CompiledProgramCache.release(key, prog);
+		Assert.assertSame(prog, CompiledProgramCache.acquire(key));
+		CompiledProgramCache.clear();
+	}
+
+	@Test
+	public void testRepeatedScript() throws Exception {
+		runCompiledProgramCacheTest(ModType.NONE);
+	}
+
+	@Test
+	public void testModifiedInput() throws Exception {
+		runCompiledProgramCacheTest(ModType.INPUT);
+	}
+
+	@Test
+	public void testModifiedSourcedScript() throws Exception {
+		runCompiledProgramCacheTest(ModType.SOURCE);
+	}
+
+	/**
+	 * 
+	 * @param type
+	 * @throws Exception
+	 */
+	private void runCompiledProgramCacheTest( ModType type ) 
+		throws Exception
+	{
+		try
+		{
+			getAndLoadTestConfiguration(TEST_NAME);
+			CompiledProgramCache.clear();
+			
+			//create main and sourced script (w/ absolute source path)
+			File fscript = new File(getCurLocalTempDir(), TEST_NAME + "Func.dml");
+			File mscript = new File(getCurLocalTempDir(), TEST_NAME + ".dml");
+			writeScript(fscript, createFunctionScript(1));
+			writeScript(mscript, "source(\"" + fscript.getAbsolutePath() + "\") as f;\n"
+				+ "X = read($1);\nR = f::foo(X);\nwrite(R, $2);\n");
+			fullDMLScriptName = mscript.getAbsolutePath();
+			programArgs = new String[]{"-config=" + SCRIPT_DIR + TEST_DIR + TEST_CONF, 
+				"-args", input("X"), output("R") };
+			
+			//first run (compile and put into cache)
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, 0.9, 7);
+			writeInputMatrixWithMTD("X", X, true);
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R1 = readDMLMatrixFromHDFS("R");
+			TestUtils.compareMatrices(computeReference(X, 1), R1, eps, "Ref", "Run1");
+			Assert.assertEquals(0, CompiledProgramCache.getNumHits());
+			Assert.assertEquals(1, CompiledProgramCache.size());
+			
+			//modify input meta data or sourced script
+			double add = 1;
+			if( type == ModType.INPUT ) {
+				X = getRandomMatrix(rows/2, cols+3, -1, 1, 0.9, 3);
+				writeInputMatrixWithMTD("X", X, true);
+			}
+			else if( type == ModType.SOURCE ) {
+				add = 10;
+				writeScript(fscript, createFunctionScript(add));
+			}
+			
+			//second run (reuse or recompile if invalidated)
+			runTest(true, false, null, -1);
+			HashMap<CellIndex, Double> R2 = readDMLMatrixFromHDFS("R");
+			TestUtils.compareMatrices(computeReference(X, add), R2, eps, "Ref", "Run2");
+			if( type == ModType.NONE ) {
+				TestUtils.compareMatrices(R1, R2, 0, "Run1", "Run2");
+				Assert.assertEquals(1, CompiledProgramCache.getNumHits());
+			}
+			else {
+				Assert.assertEquals(0, CompiledProgramCache.getNumHits());
+				Assert.assertEquals(2, CompiledProgramCache.getNumMisses());
+			}
+		}
+		finally {
+			CompiledProgramCache.clear();
+		}
+	}
+	
+	private static String createFunctionScript(double add) {
+		return "foo = function(Matrix[Double] X) return (Matrix[Double] R) {\n"
+			+ "   R = t(X) %*% X + " + add + ";\n}\n";
+	}
+	
+	private static void writeScript(File file, String script) throws IOException {
+		FileUtils.writeStringToFile(file, script);
+	}
+	
+	private static HashMap<CellIndex, Double> computeReference(double[][] X, double add) {
+		int m = X.length, n = X[0].length;
+		HashMap<CellIndex, Double> ret = new HashMap<CellIndex, Double>();
+		for( int i=0; i<n; i++ )
+			for( int j=0; j<n; j++ ) {
+				double sum = add;
+				for( int k=0; k<m; k++ )
+					sum += X[k][i] * X[k][j];
+				ret.put(new CellIndex(i+1, j+1), sum);
+			}
+		return ret;
+	}
+}
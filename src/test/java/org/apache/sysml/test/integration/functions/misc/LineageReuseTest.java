@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.commons.io.FileUtils;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.controlprogram.caching.LineageCache;
+import org.apache.sysml.runtime.controlprogram.caching.LineageItem;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Test for the lineage-based reuse of redundant intermediates within a loop
+ * (t(X)%*%X, colSums(X)) and across function calls (colSums(X)), which compares
+ * the results with and without reuse and checks the number of lineage cache
+ * hits separately per case (one reusable operation per script). Furthermore,
+ * it checks that the lineage of persistent reads changes with the size of the
+ * input and its meta data file, even with unchanged modification times.
+ *
+ */
+public class LineageReuseTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME1 = "LineageReuse1"; //tsmm
+	private final static String TEST_NAME2 = "LineageReuse2"; //colSums
+	private final static String TEST_NAME3 = "LineageReuse3"; //function call
+	private final static String TEST_DIR = "functions/misc/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + LineageReuseTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemML-config-lineage.xml";
+
+	private final static int rows = 1000;
+	private final static int cols = 20;
+	private final static int iters = 5;
+	private final static double eps = 1e-8;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration( TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[]{"R"}) );
+		addTestConfiguration( TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[]{"R"}) );
+		addTestConfiguration( TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[]{"R"}) );
+	}
+
+	@Test
+	public void testLineageReuseTsmmDense() {
+		runLineageReuseTest(TEST_NAME1, 0.9);
+	}
+
+	@Test
+	public void testLineageReuseTsmmSparse() {
+		runLineageReuseTest(TEST_NAME1, 0.1);
+	}
+
+	@Test
+	public void testLineageReuseColSumsDense() {
+		runLineageReuseTest(TEST_NAME2, 0.9);
+	}
+
+	@Test
+	public void testLineageReuseColSumsSparse() {
+		runLineageReuseTest(TEST_NAME2, 0.1);
+	}
+
+	@Test
+	public void testLineageReuseFunctionCallDense() {
+		runLineageReuseTest(TEST_NAME3, 0.9);
+	}
+
+	@Test
+	public void testLineageReuseFunctionCallSparse() {
+		runLineageReuseTest(TEST_NAME3, 0.1);
+	}
+
+	@Test
+	public void testLineageReadLeafFileStatus() {
+		getAndLoadTestConfiguration(TEST_NAME1);
+		try
+		{
+			File fdata = new File(output("X"));
+			File fmeta = new File(output("X") + ".mtd");
+			long mtime = (System.currentTimeMillis() / 1000 - 60) * 1000;
+			writeFile(fdata, "1 1 7.0\n", mtime);
+			writeFile(fmeta, "{\"data_type\": \"matrix\", \"rows\": 3}", mtime);
+
+			MatrixCharacteristics mc = new MatrixCharacteristics(3, 3, 1000, 1000, -1);
+			Instruction inst = VariableCPInstruction.prepareCreateVariableInstruction(
+				"X", output("X"), false, DataType.MATRIX, "textcell", mc, UpdateType.COPY);
+			ExecutionContext ec = ExecutionContextFactory.createContext();
+			LineageItem l1 = LineageCache.trace(inst, ec);
+			Assert.assertNotNull(l1);
+			Assert.assertEquals(l1, LineageCache.trace(inst, ec));
+
+			//modified input w/ unchanged modification time
+			writeFile(fdata, "1 1 7.0\n2 2 3.0\n", mtime);
+			LineageItem l2 = LineageCache.trace(inst, ec);
+			Assert.assertNotEquals(l1, l2);
+
+			//modified meta data file w/ unchanged modification time
+			writeFile(fmeta, "{\"data_type\": \"matrix\", \"rows\": 30}", mtime);
+			LineageItem l3 = LineageCache.trace(inst, ec);
+			Assert.assertNotEquals(l2, l3);
+			Assert.assertNotEquals(l1, l3);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static void writeFile( File f, String content, long mtime ) throws Exception {
+		FileUtils.writeStringToFile(f, content);
+		Assert.assertTrue(f.setLastModified(mtime));
+	}
+
+	private void runLineageReuseTest( String testname, double sparsity )
+	{
+		getAndLoadTestConfiguration(testname);
+
+		String HOME = SCRIPT_DIR + TEST_DIR;
+		fullDMLScriptName = HOME + testname + ".dml";
+
+		double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+		writeInputMatrixWithMTD("X", X, true);
+
+		//run without lineage reuse
+		programArgs = new String[]{"-stats", "-args",
+			input("X"), Integer.toString(iters), output("R") };
+		runTest(true, false, null, -1);
+		HashMap<CellIndex, Double> R1 = readDMLMatrixFromHDFS("R");
+		Assert.assertEquals(0, Statistics.getLineageCacheHits());
+
+		//run with lineage reuse
+		programArgs = new String[]{"-stats", "-config=" + HOME + TEST_CONF, "-args",
+			input("X"), Integer.toString(iters), output("R") };
+		runTest(true, false, null, -1);
+		HashMap<CellIndex, Double> R2 = readDMLMatrixFromHDFS("R");
+
+		//compare results and check for reuse in all but the first iteration
+		TestUtils.compareMatrices(R1, R2, eps, "Stat-NoReuse", "Stat-Reuse");
+		Assert.assertEquals("Unexpected number of lineage cache hits.",
+			iters-1, Statistics.getLineageCacheHits());
+	}
+}
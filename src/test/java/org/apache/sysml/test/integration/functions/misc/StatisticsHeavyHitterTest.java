@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * This is a component test for the concurrent maintenance of heavy hitter
+ * statistics by interned opcode ids, which checks the aggregated counts,
+ * times, and histogram percentiles of concurrent updates, as well as the
+ * stability of opcode ids across resets.
+ *
+ */
+public class StatisticsHeavyHitterTest extends AutomatedTestBase
+{
+	private final static String OPCODE1 = "test_hh1";
+	private final static String OPCODE2 = "test_hh2";
+
+	private final static int threads = 8;
+	private final static int updates = 10000;
+	private final static long time1 = 1000;   //1us
+	private final static long time2 = 1000000; //1ms
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testHeavyHitterIDs() {
+		Statistics.resetCPHeavyHitters();
+		int id1 = Statistics.getCPHeavyHitterID(OPCODE1);
+		int id2 = Statistics.getCPHeavyHitterID(OPCODE2);
+		Assert.assertTrue(id1 != id2);
+		Assert.assertEquals(id1, Statistics.getCPHeavyHitterID(OPCODE1));
+
+		//maintain by id and string, reset w/ stable ids
+		Statistics.maintainCPHeavyHitters(id1, time1);
+		Statistics.maintainCPHeavyHitters(OPCODE1, time1);
+		Assert.assertEquals(2, Statistics.getHeavyHitterStats(OPCODE1)[0]);
+		Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains(OPCODE1));
+		Assert.assertFalse(Statistics.getCPHeavyHitterOpCodes().contains(OPCODE2));
+		Statistics.resetCPHeavyHitters();
+		Assert.assertNull(Statistics.getHeavyHitterStats(OPCODE1));
+		Assert.assertEquals(id1, Statistics.getCPHeavyHitterID(OPCODE1));
+	}
+
+	@Test
+	public void testHeavyHitterConcurrentUpdates() {
+		try {
+			Statistics.resetCPHeavyHitters();
+			final int id1 = Statistics.getCPHeavyHitterID(OPCODE1);
+			final int id2 = Statistics.getCPHeavyHitterID(OPCODE2);
+
+			//concurrent updates of two opcodes (98% fast, 2% slow)
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			ArrayList<Future<Void>> rt = new ArrayList<Future<Void>>();
+			for( int k=0; k<threads; k++ )
+				rt.add(pool.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for( int i=0; i<updates; i++ ) {
+							Statistics.maintainCPHeavyHitters(id1, (i%50==0) ? time2 : time1);
+							Statistics.maintainCPHeavyHitters(id2, time2);
+						}
+						return null;
+					}
+				}));
+			for( Future<Void> f : rt )
+				f.get();
+			pool.shutdown();
+
+			//check counts, total times, and percentiles (<12.5% relative error)
+			long[] stats1 = Statistics.getHeavyHitterStats(OPCODE1);
+			long[] stats2 = Statistics.getHeavyHitterStats(OPCODE2);
+			long n = (long)threads * updates;
+			Assert.assertEquals(n, stats1[0]);
+			Assert.assertEquals(n, stats2[0]);
+			Assert.assertEquals(n/50*time2 + (n-n/50)*time1, stats1[1]);
+			Assert.assertEquals(n*time2, stats2[1]);
+			checkPercentile(time1, stats1[2]);
+			checkPercentile(time2, stats1[3]);
+			checkPercentile(time2, stats2[2]);
+			checkPercentile(time2, stats2[3]);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			Statistics.resetCPHeavyHitters();
+		}
+	}
+
+	private static void checkPercentile(long expected, long actual) {
+		Assert.assertTrue("Wrong percentile: "+actual+" vs "+expected,
+			actual >= expected && actual < expected * 1.125);
+	}
+}
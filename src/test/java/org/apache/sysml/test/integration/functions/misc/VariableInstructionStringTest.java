@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the directly constructed variable instructions
+ * (rmvar, cpvar, mvvar, createvar, assignvar), whose instruction strings are created on 
+ * demand and need to match the parsed instruction strings.
+ * 
+ */
+public class VariableInstructionStringTest extends AutomatedTestBase
+{
+	private final static String D = Lop.OPERAND_DELIMITOR;
+	private final static String T = Lop.VALUETYPE_PREFIX;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testRemoveVariable() throws Exception {
+		runStringTest(VariableCPInstruction.prepareRemoveInstruction("_mVar7"),
+			"CP"+D+"rmvar"+D+"_mVar7");
+	}
+	
+	@Test
+	public void testCopyVariable() throws Exception {
+		runStringTest(VariableCPInstruction.prepareCopyInstruction("_mVar7", "X"),
+			"CP"+D+"cpvar"+D+"_mVar7"+D+"X");
+	}
+	
+	@Test
+	public void testMoveVariable() throws Exception {
+		runStringTest(VariableCPInstruction.prepareMoveInstruction("_mVar7", "X"),
+			"CP"+D+"mvvar"+D+"_mVar7"+D+"X");
+	}
+	
+	@Test
+	public void testMoveVariableFile() throws Exception {
+		runStringTest(VariableCPInstruction.prepareMoveInstruction("_mVar7", "./out/X", "binaryblock"),
+			"CP"+D+"mvvar"+D+"_mVar7"+D+"./out/X"+D+"binaryblock");
+	}
+	
+	@Test
+	public void testAssignVariable() throws Exception {
+		runStringTest(VariableCPInstruction.prepareAssignVariableInstruction(
+				new CPOperand("_Var7", ValueType.DOUBLE, DataType.SCALAR, false),
+				new CPOperand("s", ValueType.DOUBLE, DataType.SCALAR)),
+			"CP"+D+"assignvar"+D+"_Var7"+T+"SCALAR"+T+"DOUBLE"+T+"false"+D+"s"+T+"SCALAR"+T+"DOUBLE");
+	}
+	
+	@Test
+	public void testAssignVariableLiteral() throws Exception {
+		runStringTest(VariableCPInstruction.prepareAssignVariableInstruction(
+				new CPOperand("7", ValueType.INT, DataType.SCALAR, true),
+				new CPOperand("i", ValueType.INT, DataType.SCALAR)),
+			"CP"+D+"assignvar"+D+"7"+T+"SCALAR"+T+"INT"+T+"true"+D+"i"+T+"SCALAR"+T+"INT");
+	}
+	
+	@Test
+	public void testCreateVariable() throws Exception {
+		runStringTest(VariableCPInstruction.prepareCreateVariableInstruction("_mVar7", "scratch/temp7", 
+				true, DataType.MATRIX, "binaryblock", new MatrixCharacteristics(10, 3, 1000, 1000, 17), UpdateType.COPY),
+			"CP"+D+"createvar"+D+"_mVar7"+D+"scratch/temp7"+D+"true"+D+"MATRIX"+D+"binaryblock"
+				+D+"10"+D+"3"+D+"1000"+D+"1000"+D+"17"+D+"copy");
+	}
+	
+	@Test
+	public void testCreateVariableCSV() throws Exception {
+		runStringTest(VariableCPInstruction.prepareCreateVariableInstruction("_mVar7", "scratch/temp7", 
+				false, DataType.MATRIX, "csv", new MatrixCharacteristics(10, 3, -1, -1, -1), UpdateType.COPY, true, ",", false),
+			"CP"+D+"createvar"+D+"_mVar7"+D+"scratch/temp7"+D+"false"+D+"MATRIX"+D+"csv"
+				+D+"10"+D+"3"+D+"-1"+D+"-1"+D+"-1"+D+"copy"+D+"true"+D+","+D+"false");
+	}
+	
+	@Test
+	public void testCreateVariableLabelUpdate() throws Exception {
+		String fname = Lop.VARIABLE_NAME_PLACEHOLDER + "fname" + Lop.VARIABLE_NAME_PLACEHOLDER;
+		Instruction inst = VariableCPInstruction.prepareCreateVariableInstruction("_mVar7", fname, 
+			false, DataType.MATRIX, "textcell", new MatrixCharacteristics(10, 3, -1, -1, -1), UpdateType.COPY);
+		Assert.assertTrue(inst.requiresLabelUpdate());
+		Assert.assertFalse(VariableCPInstruction.prepareRemoveInstruction("_mVar7").requiresLabelUpdate());
+	}
+	
+	private void runStringTest(Instruction inst, String expected) throws Exception {
+		//check lazily created instruction string
+		Assert.assertEquals(expected, inst.toString());
+		
+		//check round trip over the instruction parser
+		Instruction inst2 = CPInstructionParser.parseSingleInstruction(inst.toString());
+		Assert.assertEquals(inst.toString(), inst2.toString());
+		Assert.assertEquals(inst.getOpcode(), inst2.getOpcode());
+	}
+}
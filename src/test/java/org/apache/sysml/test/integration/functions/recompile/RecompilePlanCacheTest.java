@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.recompile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.recompile.RecompilePlanCache;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Test for the reuse of recompiled plans of a loop body with unknown
+ * but constant sizes, where all but the first recompilation should be
+ * served from the recompile plan cache, as well as for a loop body whose
+ * input sparsity class changes in every iteration, where all probes 
+ * should miss. In both cases, the results are compared with the results
+ * of running the same script without plan cache. Furthermore, it tests 
+ * the sparsity classes of plan signatures and that a cached CP plan is not 
+ * reused if the sparsity grows within a class beyond the memory budget.
+ * 
+ */
+public class RecompilePlanCacheTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME1 = "plan_cache_recompile";
+	private final static String TEST_NAME2 = "plan_cache_recompile2";
+	private final static String TEST_DIR = "functions/recompile/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + 
+		RecompilePlanCacheTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 50;
+	private final static int cols = 20;
+	private final static double eps = 1e-10;
+	
+	private final static int rows2 = 10000;
+	private final static int cols2 = 1000;
+	
+	@Override
+	public void setUp() 
+	{
+		addTestConfiguration( TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[]{"R","Y"}) );
+		addTestConfiguration( TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[]{"R","Y"}) );
+	}
+
+	@Test
+	public void testLoopRecompilePlanCacheConstantSizes() 
+	{
+		runPlanCacheTest(TEST_NAME1, true);
+	}
+	
+	@Test
+	public void testLoopRecompilePlanCacheChangingSparsity() 
+	{
+		runPlanCacheTest(TEST_NAME2, false);
+	}
+	
+	@Test
+	public void testPlanCacheSparsityClasses() 
+	{
+		long cells = (long)rows2 * cols2;
+		double tp = MatrixBlock.SPARSITY_TURN_POINT;
+		
+		//split at the sparsity turn point
+		Assert.assertNotEquals(getSparsityClass(tp - 0.01), getSparsityClass(tp + 0.01));
+		Assert.assertEquals(getSparsityClass(tp + 0.01), getSparsityClass(0.99));
+		Assert.assertNotEquals(getSparsityClass(0.99), RecompilePlanCache.getSparsityClass(rows2, cols2, cells));
+		
+		//log-scale classes below the turn point
+		Assert.assertEquals(getSparsityClass(tp/2 + 0.01), getSparsityClass(tp - 0.01));
+		Assert.assertNotEquals(getSparsityClass(tp/2 - 0.01), getSparsityClass(tp/2 + 0.01));
+		Assert.assertNotEquals(getSparsityClass(1e-4), getSparsityClass(0.06));
+		Assert.assertNotEquals(getSparsityClass(1e-4), getSparsityClass(1e-5));
+		Assert.assertNotEquals(RecompilePlanCache.getSparsityClass(rows2, cols2, 0), getSparsityClass(1e-7));
+	}
+	
+	@Test
+	public void testPlanCacheSparsityGrowthWithinClass() 
+	{
+		RUNTIME_PLATFORM oldPlatform = DMLScript.rtplatform;
+		long oldMem = InfrastructureAnalyzer.getLocalMaxMemory();
+		
+		try
+		{
+			DMLScript.rtplatform = RUNTIME_PLATFORM.HYBRID;
+			RecompilePlanCache.clear();
+			
+			//two sparsities of the same class, where only the smaller fits into the budget
+			double sp1 = 0.21, sp2 = 0.39;
+			Assert.assertEquals(getSparsityClass(sp1), getSparsityClass(sp2));
+			double mem1 = OptimizerUtils.estimateSizeExactSparsity(rows2, cols2, sp1);
+			double mem2 = OptimizerUtils.estimateSizeExactSparsity(rows2, cols2, sp2);
+			InfrastructureAnalyzer.setLocalMaxMemory((long)((mem1 + mem2) / 2 / OptimizerUtils.MEM_UTIL_FACTOR));
+			
+			//equal signatures of both dags
+			ArrayList<Hop> hops1 = createHopsDag(sp1);
+			ArrayList<Hop> hops2 = createHopsDag(sp2);
+			String sig1 = RecompilePlanCache.createSignature(hops1);
+			String sig2 = RecompilePlanCache.createSignature(hops2);
+			Assert.assertNotNull(sig1);
+			Assert.assertEquals(sig1, sig2);
+			
+			//cached CP plan only reused if within the memory budget
+			Object owner = new Object();
+			RecompilePlanCache.put(owner, sig1, new ArrayList<Instruction>());
+			Assert.assertEquals(1, RecompilePlanCache.size());
+			Assert.assertNotNull(RecompilePlanCache.get(owner, sig1, hops1));
+			Assert.assertNull(RecompilePlanCache.get(owner, sig2, hops2));
+			
+			//single node plans are independent of memory estimates
+			DMLScript.rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			Assert.assertNotNull(RecompilePlanCache.get(owner, sig2, hops2));
+		}
+		finally
+		{
+			DMLScript.rtplatform = oldPlatform;
+			InfrastructureAnalyzer.setLocalMaxMemory(oldMem);
+			RecompilePlanCache.clear();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @return
+	 */
+	private static int getSparsityClass( double sparsity )
+	{
+		long nnz = (long)(sparsity * rows2 * cols2);
+		return RecompilePlanCache.getSparsityClass(rows2, cols2, nnz);
+	}
+	
+	/**
+	 * Creates a hop dag of a transient read of the given sparsity and 
+	 * a transient write.
+	 * 
+	 * @param sparsity
+	 * @return
+	 */
+	private static ArrayList<Hop> createHopsDag( double sparsity )
+	{
+		int blen = ConfigurationManager.getBlocksize();
+		long nnz = (long)(sparsity * rows2 * cols2);
+		Hop X = new DataOp("X", DataType.MATRIX, ValueType.DOUBLE, 
+			DataOpTypes.TRANSIENTREAD, "X", rows2, cols2, nnz, blen, blen);
+		Hop Y = new DataOp("Y", DataType.MATRIX, ValueType.DOUBLE, X, 
+			DataOpTypes.TRANSIENTWRITE, "Y");
+		Y.refreshSizeInformation();
+		ArrayList<Hop> hops = new ArrayList<Hop>();
+		hops.add(Y);
+		return hops;
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param constSizes
+	 */
+	private void runPlanCacheTest( String testname, boolean constSizes )
+	{	
+		//run with and without plan cache
+		HashMap<CellIndex, Double> R1 = runPlanCacheScript(testname, true, "R");
+		long hits = Statistics.getHopRecompilePlanCacheHits();
+		long misses = Statistics.getHopRecompilePlanCacheMisses();
+		HashMap<CellIndex, Double> Y1 = readDMLMatrixFromHDFS("Y");
+		HashMap<CellIndex, Double> R2 = runPlanCacheScript(testname, false, "R");
+		HashMap<CellIndex, Double> Y2 = readDMLMatrixFromHDFS("Y");
+		
+		//check for equivalent results (independent of plan cache)
+		Assert.assertTrue("Unexpected result.", R1.get(new CellIndex(1,1)) > 0);
+		TestUtils.compareMatrices(R1, R2, eps, "PlanCache", "NoPlanCache");
+		TestUtils.compareMatrices(Y1, Y2, eps, "PlanCache", "NoPlanCache");
+		Assert.assertEquals("Unexpected number of plan cache hits.", 
+			0, Statistics.getHopRecompilePlanCacheHits());
+		
+		if( constSizes ) {
+			//reused plans of the loop body (10 iterations, where the first
+			//two iterations see an empty and a dense 1x1 accumulator)
+			Assert.assertTrue("Unexpected number of plan cache hits: "+hits, hits >= 8);
+		}
+		else {
+			//no reuse across sparsity classes, i.e., one miss per iteration
+			//for the loop body and the if block (w/ replaced literal i)
+			Assert.assertEquals("Unexpected number of plan cache hits.", 0, hits);
+			Assert.assertTrue("Unexpected number of plan cache misses: "+misses, misses >= 20);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param testname
+	 * @param planCache
+	 * @param output
+	 * @return
+	 */
+	private HashMap<CellIndex, Double> runPlanCacheScript( String testname, boolean planCache, String output )
+	{
+		boolean oldFlag = OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE;
+		
+		try
+		{
+			getAndLoadTestConfiguration(testname);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			//note: stats required for plan cache statistics
+			programArgs = new String[]{"-stats", "-args", 
+				Integer.toString(rows), Integer.toString(cols), output("R"), output("Y") };
+			
+			OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE = planCache;
+			
+			runTest(true, false, null, -1); 
+			
+			return readDMLMatrixFromHDFS(output);
+		}
+		finally
+		{
+			OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE = oldFlag;
+		}
+	}
+}
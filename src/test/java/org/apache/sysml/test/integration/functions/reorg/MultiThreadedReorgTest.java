@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.reorg;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.SortIndex;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a matrix block component test for the multi-threaded reorg operations
+ * sort, rmempty, and rexpand, which compares the results against the sequential
+ * operations (sort, rmempty) or a naive reference implementation (rexpand).
+ * 
+ */
+public class MultiThreadedReorgTest extends AutomatedTestBase 
+{
+	private final static int rows = 2400;
+	private final static int cols = 500;
+	private final static int rowsV = 1200000;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSortDataDense() {
+		runSortTest(rows, cols, sparsity1, false, false);
+	}
+	
+	@Test
+	public void testSortDataDenseDesc() {
+		runSortTest(rows, cols, sparsity1, true, false);
+	}
+	
+	@Test
+	public void testSortIndexesDense() {
+		runSortTest(rows, cols, sparsity1, false, true);
+	}
+	
+	@Test
+	public void testSortDataSparse() {
+		runSortTest(rows, cols, sparsity2, false, false);
+	}
+	
+	@Test
+	public void testSortIndexesSparseDesc() {
+		runSortTest(rows, cols, sparsity2, true, true);
+	}
+	
+	@Test
+	public void testSortDataDenseVector() {
+		runSortTest(rowsV, 1, sparsity1, true, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyRowsDense() {
+		runRemoveEmptyTest(sparsity1, true, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyRowsSparse() {
+		runRemoveEmptyTest(sparsity2, true, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyRowsDenseSelect() {
+		runRemoveEmptyTest(sparsity1, true, true);
+	}
+	
+	@Test
+	public void testRemoveEmptyColsDense() {
+		runRemoveEmptyTest(sparsity1, false, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyColsSparse() {
+		runRemoveEmptyTest(sparsity2, false, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyColsSparseSelect() {
+		runRemoveEmptyTest(sparsity2, false, true);
+	}
+	
+	@Test
+	public void testRExpandRowsDenseOutput() {
+		runRExpandTest(2, true);
+	}
+	
+	@Test
+	public void testRExpandRowsSparseOutput() {
+		runRExpandTest(20, true);
+	}
+	
+	@Test
+	public void testRExpandColsDenseOutput() {
+		runRExpandTest(2, false);
+	}
+	
+	@Test
+	public void testRExpandColsSparseOutput() {
+		runRExpandTest(20, false);
+	}
+	
+	private void runSortTest(int m, int n, double sparsity, boolean desc, boolean ixret) 
+	{
+		try
+		{
+			//generate input with many ties in the order-by column
+			MatrixBlock in = createInput(m, n, sparsity, 100, 7);
+			int by = Math.min(n, 3);
+			
+			//compute sequential and multi-threaded sort
+			MatrixBlock ret1 = (MatrixBlock) in.reorgOperations(new ReorgOperator(
+				SortIndex.getSortIndexFnObject(by, desc, ixret), 1), new MatrixBlock(), 0, 0, 0);
+			MatrixBlock ret2 = (MatrixBlock) in.reorgOperations(new ReorgOperator(
+				SortIndex.getSortIndexFnObject(by, desc, ixret), 4), new MatrixBlock(), 0, 0, 0);
+			
+			//compare results (incl stable order of ties)
+			compareResults(ret1, ret2);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runRemoveEmptyTest(double sparsity, boolean margin, boolean select) 
+	{
+		try
+		{
+			MatrixBlock in = createInput(rows, cols, sparsity, 10, 3);
+			MatrixBlock sel = null;
+			if( select ) {
+				int len = margin ? rows : cols;
+				double[] tmp = new double[len];
+				for( int i=0; i<len; i+=3 )
+					tmp[i] = 1;
+				sel = DataConverter.convertToMatrixBlock(tmp, margin);
+			}
+			
+			//compute sequential and multi-threaded rmempty
+			MatrixBlock ret1 = LibMatrixReorg.rmempty(in, new MatrixBlock(), margin, sel);
+			MatrixBlock ret2 = LibMatrixReorg.rmempty(in, new MatrixBlock(), margin, sel, 4);
+			
+			//compare results
+			compareResults(ret1, ret2);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runRExpandTest(int max, boolean rowsDir) 
+	{
+		try
+		{
+			//generate input vector w/ values in [1,max+1] (values > max are ignored)
+			Random rand = new Random(7);
+			double[] tmp = new double[rowsV];
+			for( int i=0; i<rowsV; i++ )
+				tmp[i] = rand.nextInt(max+1) + 1;
+			MatrixBlock in = DataConverter.convertToMatrixBlock(tmp, true);
+			
+			//compute multi-threaded rexpand
+			MatrixBlock ret = LibMatrixReorg.rexpand(in, new MatrixBlock(), max, rowsDir, true, true, 4);
+			
+			//compare results with naive reference result
+			long nnz = 0;
+			for( int i=0; i<rowsV; i++ ) {
+				int ix = (int)tmp[i] - 1;
+				if( ix < max ) {
+					Assert.assertEquals(1, rowsDir ? ret.quickGetValue(ix, i) : ret.quickGetValue(i, ix), eps);
+					nnz++;
+				}
+			}
+			Assert.assertEquals(rowsDir ? max : rowsV, ret.getNumRows());
+			Assert.assertEquals(rowsDir ? rowsV : max, ret.getNumColumns());
+			Assert.assertEquals(nnz, ret.getNonZeros());
+			ret.recomputeNonZeros();
+			Assert.assertEquals(nnz, ret.getNonZeros());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private static MatrixBlock createInput(int m, int n, double sparsity, int maxVal, long seed) 
+		throws DMLRuntimeException 
+	{
+		//random integer values, where every 4th row and 5th column is empty
+		Random rand = new Random(seed);
+		double[][] A = new double[m][n];
+		for( int i=0; i<m; i++ )
+			for( int j=0; j<n; j++ )
+				if( i%4 != 0 && j%5 != 0 && rand.nextDouble() < sparsity )
+					A[i][j] = rand.nextInt(maxVal) + 1;
+		MatrixBlock ret = DataConverter.convertToMatrixBlock(A);
+		ret.examSparsity();
+		Assert.assertEquals(sparsity < 0.4, ret.isInSparseFormat());
+		return ret;
+	}
+	
+	private static void compareResults(MatrixBlock ret1, MatrixBlock ret2) {
+		int m = ret1.getNumRows(), n = ret1.getNumColumns();
+		Assert.assertEquals(m, ret2.getNumRows());
+		Assert.assertEquals(n, ret2.getNumColumns());
+		Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+			DataConverter.convertToDoubleMatrix(ret2), m, n, eps);
+	}
+}
@@ -26,7 +26,7 @@ import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
 import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap;
-import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleEntry;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleIterator;
 import org.apache.sysml.test.integration.AutomatedTestBase;
 import org.apache.sysml.test.utils.TestUtils;
 
@@ -175,8 +175,9 @@ public class SparseBlockAppendSort extends AutomatedTestBase
 				for( int i=0; i<rows; i++ )
 					for( int j=0; j<cols; j++ )
 						map.addValue(i, j, A[i][j]);
-				for( LLDoubleEntry e : map.extractValues() ) //random hash order
-					sblock.append((int)e.key1, (int)e.key2, e.value);
+				LLDoubleIterator iter = map.getIterator();
+				while( iter.next() ) //random hash order
+					sblock.append((int)iter.getKey1(), (int)iter.getKey2(), iter.getValue());
 			}	
 			
 			//sort appended values
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.sparse;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.functionobjects.GreaterThan;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a sparse matrix block component test for the CSR-specific 
+ * kernels of matrix multiplication, row aggregates and scalar operations,
+ * which compares the results over CSR inputs against the results over 
+ * the default MCSR inputs for different sparsity values and threads.
+ * 
+ */
+public class SparseBlockCSRKernels extends AutomatedTestBase 
+{
+	private final static int rows = 1523;
+	private final static int cols = 1021;	
+	private final static double sparsity1 = 0.09;
+	private final static double sparsity2 = 0.009;
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSparseBlockCSRKernels1SingleThread()  {
+		runSparseBlockCSRKernelsTest(sparsity1, 1);
+	}
+	
+	@Test
+	public void testSparseBlockCSRKernels2SingleThread()  {
+		runSparseBlockCSRKernelsTest(sparsity2, 1);
+	}
+	
+	@Test
+	public void testSparseBlockCSRKernels1MultiThread()  {
+		runSparseBlockCSRKernelsTest(sparsity1, 4);
+	}
+	
+	@Test
+	public void testSparseBlockCSRKernels2MultiThread()  {
+		runSparseBlockCSRKernelsTest(sparsity2, 4);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param k
+	 */
+	private void runSparseBlockCSRKernelsTest(double sparsity, int k)
+	{
+		try
+		{
+			//data generation (mcsr and csr inputs)
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 1234); 
+			MatrixBlock X1 = DataConverter.convertToMatrixBlock(A);
+			X1.examSparsity();
+			Assert.assertTrue(X1.isInSparseFormat());
+			MatrixBlock X2 = new MatrixBlock(X1, SparseBlock.Type.CSR, true);
+			
+			//matrix-vector, skinny and wide matrix-matrix multiplication
+			AggregateBinaryOperator abop = new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), 
+					new AggregateOperator(0, Plus.getPlusFnObject()), k);
+			for( int n : new int[]{1, 17, 113} ) {
+				MatrixBlock B = MatrixBlock.randOperations(cols, n, 1.0, -1, 1, "uniform", 7);
+				compareResults(X1.aggregateBinaryOperations(X1, B, new MatrixBlock(), abop), 
+						X2.aggregateBinaryOperations(X2, B, new MatrixBlock(), abop));
+			}
+			
+			//full and row aggregates
+			for( String opcode : new String[]{"uak+", "uark+", "uarmax", "uarmin"} ) {
+				AggregateUnaryOperator auop = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+				auop = new AggregateUnaryOperator(auop.aggOp, auop.indexFn, k);
+				compareResults(X1.aggregateUnaryOperations(auop, new MatrixBlock(), rows, cols, new MatrixIndexes(1,1), true), 
+						X2.aggregateUnaryOperations(auop, new MatrixBlock(), rows, cols, new MatrixIndexes(1,1), true));
+			}
+			
+			//sparse-safe scalar operations, incl zero outputs (X > 0)
+			ScalarOperator gtop = new RightScalarOperator(GreaterThan.getGreaterThanFnObject(), 0, k);
+			gtop.setConstant(0); //sparse-safe for zero constant
+			ScalarOperator[] sops = new ScalarOperator[]{
+					new RightScalarOperator(Multiply.getMultiplyFnObject(), 3, k), gtop};
+			for( ScalarOperator sop : sops ) {
+				MatrixBlock ret1 = (MatrixBlock) X1.scalarOperations(sop, new MatrixBlock());
+				MatrixBlock ret2 = (MatrixBlock) X2.scalarOperations(sop, new MatrixBlock());
+				Assert.assertTrue(ret2.getSparseBlock() instanceof SparseBlockCSR);
+				Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+				Assert.assertEquals(ret1.getNonZeros(), ret2.getSparseBlock().size());
+				compareResults(ret1, ret2);
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param expected
+	 * @param actual
+	 */
+	private static void compareResults(Object expected, Object actual) 
+		throws Exception
+	{
+		MatrixBlock mb1 = (MatrixBlock) expected;
+		MatrixBlock mb2 = (MatrixBlock) actual;
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1), 
+			DataConverter.convertToDoubleMatrix(mb2), mb1.getNumRows(), mb1.getNumColumns(), eps);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.ternary;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.matrix.data.CTableMap;
+import org.apache.sysml.runtime.matrix.data.LibMatrixCTable;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a component test for the multi-threaded ctable via thread-local
+ * ctable maps over row partitions, which compares the results of single-
+ * and multi-threaded execution with a straightforward reference for dense,
+ * sparse-safe, and generic inputs as well as matrix and scalar arguments.
+ *
+ */
+public class CTableMultiThreadedTest extends AutomatedTestBase
+{
+	private final static int rows = 1500;
+	private final static int cols = 800; //above parallelization threshold
+	private final static int maxVal = 37;
+	private final static int threads = 4;
+
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+
+	private enum CTableType {
+		MATRIX_MATRIX_MATRIX, // ctable(A,B,W)
+		MATRIX_MATRIX_SCALAR, // ctable(A,B,w)
+		MATRIX_SCALAR_MATRIX, // ctable(A,v2,W)
+		MATRIX_SCALAR_SCALAR, // ctable(A,v2,w)
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testCTableMatrixMatrixMatrixDense() {
+		runCTableTest(CTableType.MATRIX_MATRIX_MATRIX, false, false);
+	}
+
+	@Test
+	public void testCTableMatrixMatrixScalarDense() {
+		runCTableTest(CTableType.MATRIX_MATRIX_SCALAR, false, false);
+	}
+
+	@Test
+	public void testCTableMatrixScalarMatrixDense() {
+		runCTableTest(CTableType.MATRIX_SCALAR_MATRIX, false, false);
+	}
+
+	@Test
+	public void testCTableMatrixScalarScalarDense() {
+		runCTableTest(CTableType.MATRIX_SCALAR_SCALAR, false, false);
+	}
+
+	@Test
+	public void testCTableMatrixMatrixScalarSparseIgnoreZeros() {
+		runCTableTest(CTableType.MATRIX_MATRIX_SCALAR, true, true);
+	}
+
+	@Test
+	public void testCTableMatrixMatrixMatrixSparseIgnoreZeros() {
+		runCTableTest(CTableType.MATRIX_MATRIX_MATRIX, true, true);
+	}
+
+	@Test
+	public void testCTableMatrixMatrixScalarDenseIgnoreZeros() {
+		runCTableTest(CTableType.MATRIX_MATRIX_SCALAR, false, true);
+	}
+
+	/**
+	 *
+	 * @param type
+	 * @param sparse
+	 * @param ignoreZeros
+	 */
+	private void runCTableTest( CTableType type, boolean sparse, boolean ignoreZeros )
+	{
+		try
+		{
+			//generate inputs w/ aligned zeros and positive integers otherwise
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] A = getRandomMatrix(rows, cols, 0, 1, sparsity, 7);
+			double[][] B = new double[rows][cols];
+			double[][] W = new double[rows][cols];
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ ) {
+					if( !ignoreZeros && A[i][j] == 0 )
+						A[i][j] = 1;
+					if( A[i][j] != 0 ) {
+						A[i][j] = Math.ceil(A[i][j] * maxVal);
+						B[i][j] = (A[i][j] * 7 + j) % maxVal + 1;
+					}
+					W[i][j] = (i + j) % 3 + 1;
+				}
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+			MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+			MatrixBlock mbW = DataConverter.convertToMatrixBlock(W);
+			Assert.assertEquals(sparse, mbA.isInSparseFormat());
+			Assert.assertEquals(sparse, mbB.isInSparseFormat());
+
+			boolean matrix2 = (type==CTableType.MATRIX_MATRIX_MATRIX || type==CTableType.MATRIX_MATRIX_SCALAR);
+			boolean matrix3 = (type==CTableType.MATRIX_MATRIX_MATRIX || type==CTableType.MATRIX_SCALAR_MATRIX);
+			double scalar2 = 3, scalar3 = 2;
+
+			//reference result
+			double[][] R = new double[maxVal][maxVal];
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ ) {
+					int v1 = (int)A[i][j];
+					int v2 = (int)(matrix2 ? B[i][j] : scalar2);
+					if( ignoreZeros && v1 == 0 && v2 == 0 )
+						continue;
+					R[v1-1][v2-1] += matrix3 ? W[i][j] : scalar3;
+				}
+
+			//single- and multi-threaded ctable
+			for( int k : new int[]{1, threads} ) {
+				CTableMap map = new CTableMap();
+				LibMatrixCTable.ctable(mbA, matrix2 ? mbB : null, scalar2,
+					matrix3 ? mbW : null, scalar3, ignoreZeros, map, k);
+				MatrixBlock ret = map.toMatrixBlock(maxVal, maxVal);
+				TestUtils.compareMatrices(R, DataConverter.convertToDoubleMatrix(ret), maxVal, maxVal, 0);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.unary.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.runtime.functionobjects.Builtin;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * This is a matrix block component test for the multi-threaded cumulative
+ * aggregates cumsum, cumprod, cummin, and cummax, which compares the results
+ * against the sequential operations for dense and sparse, narrow and wide inputs.
+ *
+ */
+public class MultiThreadedCumaggTest extends AutomatedTestBase
+{
+	private final static int rows1 = 20000;
+	private final static int cols1 = 100;
+	private final static int rows2 = 20;
+	private final static int cols2 = 70000; //exceeds former intermediate size threshold
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static double eps = 1e-8;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testCumsumDense() {
+		runCumaggTest("ucumk+", rows1, cols1, sparsity1);
+	}
+
+	@Test
+	public void testCumsumSparse() {
+		runCumaggTest("ucumk+", rows1, cols1, sparsity2);
+	}
+
+	@Test
+	public void testCumsumDenseWide() {
+		runCumaggTest("ucumk+", rows2, cols2, sparsity1);
+	}
+
+	@Test
+	public void testCumprodDense() {
+		runCumaggTest("ucum*", rows1, cols1, sparsity1);
+	}
+
+	@Test
+	public void testCumprodSparse() {
+		runCumaggTest("ucum*", rows1, cols1, sparsity2);
+	}
+
+	@Test
+	public void testCumminDense() {
+		runCumaggTest("ucummin", rows1, cols1, sparsity1);
+	}
+
+	@Test
+	public void testCumminSparse() {
+		runCumaggTest("ucummin", rows1, cols1, sparsity2);
+	}
+
+	@Test
+	public void testCummaxSparse() {
+		runCumaggTest("ucummax", rows1, cols1, sparsity2);
+	}
+
+	@Test
+	public void testCummaxSparseWide() {
+		runCumaggTest("ucummax", rows2, cols2, sparsity2);
+	}
+
+	private void runCumaggTest(String opcode, int m, int n, double sparsity)
+	{
+		try
+		{
+			//generate input (values around 1 for cumprod,
+			//negative values for correct handling of zeros in cummin/cummax)
+			boolean prod = opcode.equals("ucum*");
+			MatrixBlock in = MatrixBlock.randOperations(m, n, sparsity,
+				prod ? 0.99 : -1, prod ? 1.01 : 1, "uniform", 7);
+			Assert.assertEquals(sparsity < 0.4, in.isInSparseFormat());
+
+			//compute sequential and multi-threaded cumulative aggregate
+			Builtin fn = Builtin.getBuiltinFnObject(opcode);
+			MatrixBlock ret1 = (MatrixBlock) in.unaryOperations(
+				new UnaryOperator(fn, 1), new MatrixBlock());
+			MatrixBlock ret2 = (MatrixBlock) in.unaryOperations(
+				new UnaryOperator(fn, 4), new MatrixBlock());
+
+			//compare results
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1),
+				DataConverter.convertToDoubleMatrix(ret2), m, n, eps);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -31,6 +31,7 @@ import org.junit.runners.Suite;
 	CentralMomentTest.class,
 	CovarianceTest.class,
 	
+	DenseMatrixMultiplicationTest.class,
 	DiagMatrixMultiplicationTest.class,
 	ElementwiseAdditionMultiplicationTest.class,
 	ElementwiseAdditionTest.class,
@@ -43,6 +44,7 @@ import org.junit.runners.Suite;
 	MapMultLimitTest.class,
 	MatrixMultiplicationTest.class,
 	MatrixVectorTest.class,
+	MultiThreadedBincellTest.class,
 	OuterProductTest.class,
 	QuantileTest.class,
 	ScalarAdditionTest.class,
@@ -50,6 +52,7 @@ import org.junit.runners.Suite;
 	ScalarModulusTest.class,
 	ScalarMultiplicationTest.class,
 	ScalarSubtractionTest.class,
+	SparseMatrixMultiplicationTest.class,
 	TransposeMatrixMultiplicationTest.class,
 	UaggOuterChainTest.class,
 	UltraSparseMRMatrixMultiplicationTest.class,
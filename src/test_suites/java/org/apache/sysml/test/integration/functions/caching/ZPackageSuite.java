@@ -26,7 +26,11 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	CachingPWriteExportTest.class
+	AsyncPrefetchTest.class,
+	CachingMappedFileTest.class,
+	CachingPWriteExportTest.class,
+	LazyWriteBufferTest.class,
+	OffHeapBufferTest.class
 })
 
 
@@ -33,6 +33,9 @@ import org.junit.runners.Suite;
 	FrameLeftIndexingTest.class,
 	FrameReadMetaTest.class,
 	FrameTransformTest.class,
+	BatchedScoringTest.class,
+	ConcurrentScoringTest.class,
+	JMLCCompiledProgramCacheTest.class,
 	JMLCInputOutputTest.class,
 	ReuseModelVariablesTest.class,
 	SystemTMulticlassSVMScoreTest.class
@@ -26,6 +26,8 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	CommonThreadPoolTest.class,
+	CompiledProgramCacheTest.class,
 	ConditionalValidateTest.class,
 	DataTypeCastingTest.class,
 	DataTypeChangeTest.class,
@@ -38,6 +40,7 @@ import org.junit.runners.Suite;
 	IPAScalarRecursionTest.class,
 	IPAScalarVariablePropagationTest.class,
 	IPAUnknownRecursionTest.class,
+	LineageReuseTest.class,
 	LongOverflowTest.class,
 	NegativeLoopIncrementsTest.class,
 	NrowNcolStringTest.class,
@@ -56,9 +59,11 @@ import org.junit.runners.Suite;
 	ScalarMatrixUnaryBinaryTermTest.class,
 	ScalarToMatrixInLoopTest.class,
 	SetWorkingDirTest.class,
+	StatisticsHeavyHitterTest.class,
 	ToStringTest.class,
 	ValueTypeAutoCastingTest.class,
-	ValueTypeCastingTest.class
+	ValueTypeCastingTest.class,
+	VariableInstructionStringTest.class
 })
 
 
@@ -39,6 +39,7 @@ import org.junit.runners.Suite;
 	RandJobRecompileTest.class,
 	RandRecompileTest.class,
 	RandSizeExpressionEvalTest.class,
+	RecompilePlanCacheTest.class,
 	ReblockRecompileTest.class,
 	RemoveEmptyPotpourriTest.class,
 	RemoveEmptyRecompileTest.class,
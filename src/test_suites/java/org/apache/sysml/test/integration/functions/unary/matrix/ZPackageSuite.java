@@ -45,6 +45,7 @@ import org.junit.runners.Suite;
 	MatrixInverseTest.class,
 	MinusTest.class,
 	MLUnaryBuiltinTest.class,
+	MultiThreadedCumaggTest.class,
 	NegationTest.class,
 	PrintTest.class,
 	QRSolverTest.class,